@@ -0,0 +1,79 @@
+package sn.discover.discoversenegal.config;
+
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Active l'aiguillage lecture/écriture quand des réplicas sont configurés
+ * (app.datasource.replicas.enabled=true). Sinon la source de données de Spring Boot
+ * reste utilisée telle quelle.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+@Slf4j
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${spring.datasource.driver-class-name}") String driverClassName,
+            @Value("${app.datasource.replicas.urls}") String[] replicaUrls,
+            @Value("${app.datasource.replicas.username:${spring.datasource.username}}") String replicaUsername,
+            @Value("${app.datasource.replicas.password:${spring.datasource.password}}") String replicaPassword,
+            @Value("${app.datasource.primary.pool-size:10}") int primaryPoolSize,
+            @Value("${app.datasource.replicas.pool-size:10}") int replicaPoolSize,
+            @Value("${app.datasource.replicas.max-lag-ms:1000}") long maxLagMillis,
+            @Value("${app.datasource.replicas.read-your-writes-ms:3000}") long readYourWritesMillis) {
+
+        DataSource primary = pool("primary", url, username, password, driverClassName, primaryPoolSize, false);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            String replicaUrl = replicaUrls[i].trim();
+            if (!replicaUrl.isEmpty()) {
+                String name = "replica-" + (i + 1);
+                replicas.put(name, pool(name, replicaUrl, replicaUsername, replicaPassword,
+                        driverClassName, replicaPoolSize, true));
+            }
+        }
+
+        log.info("Read/write routing enabled with {} read replicas (max lag {} ms)", replicas.size(), maxLagMillis);
+        return new ReplicaRoutingDataSource(primary, replicas, maxLagMillis, readYourWritesMillis);
+    }
+
+    /**
+     * La connexion réelle n'est prise qu'à la première requête SQL : la transaction est alors
+     * démarrée et son attribut readOnly connu de l'aiguillage.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private HikariDataSource pool(String name, String url, String username, String password,
+                                  String driverClassName, int poolSize, boolean readOnly) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setDriverClassName(driverClassName);
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setReadOnly(readOnly);
+        return dataSource;
+    }
+}
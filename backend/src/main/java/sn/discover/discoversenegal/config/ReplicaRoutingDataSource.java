@@ -0,0 +1,202 @@
+package sn.discover.discoversenegal.config;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Aiguillage des connexions : les transactions en lecture seule vont sur un réplica
+ * (tourniquet parmi ceux dont le retard est acceptable), tout le reste sur le primaire.
+ * Un utilisateur qui vient d'écrire lit sur le primaire pendant une courte fenêtre
+ * pour retrouver ses propres modifications. Doit être enveloppé dans un
+ * LazyConnectionDataSourceProxy : le mode lecture seule n'est connu qu'une fois la
+ * transaction démarrée.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    // Retard de rejeu en millisecondes ; 0 si le réplica a rejoué tout ce qu'il a reçu.
+    // NULL sans processus de réception WAL : un réplica coupé du primaire a aussi tout rejoué,
+    // il ne doit pas passer pour à jour (un flux bloqué est coupé au bout de wal_receiver_timeout)
+    private static final String LAG_QUERY = "SELECT (CASE WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver) THEN NULL "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END)::bigint";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final long readYourWritesMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    // Dernière écriture validée par utilisateur (email)
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaSources,
+                                    long maxLagMillis, long readYourWritesMillis) {
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+        this.readYourWritesMillis = readYourWritesMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaSources.forEach((name, dataSource) -> {
+            targets.put(name, dataSource);
+            replicas.add(new Replica(name, dataSource));
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWrite(user);
+            return PRIMARY;
+        }
+        if (user != null && isRecentWriter(user)) {
+            return PRIMARY;
+        }
+        Replica replica = pickReplica();
+        return replica != null ? replica.name : PRIMARY;
+    }
+
+    /**
+     * Mesure le retard de chaque réplica ; au-delà du seuil (ou injoignable) il est écarté
+     * jusqu'à la mesure suivante et les lectures retombent sur les autres, ou le primaire.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.lag-check-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                long lag = Long.MAX_VALUE;
+                if (rs.next()) {
+                    lag = rs.getLong(1);
+                    if (rs.wasNull()) {
+                        lag = Long.MAX_VALUE;
+                    }
+                }
+                replica.lagMillis = lag;
+                healthy = replica.lagMillis <= maxLagMillis;
+            } catch (SQLException e) {
+                replica.lagMillis = -1;
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                if (healthy) {
+                    log.info("Read replica {} back in rotation (lag {} ms)", replica.name, replica.lagMillis);
+                } else {
+                    log.warn("Read replica {} removed from rotation (lag {} ms)", replica.name, replica.lagMillis);
+                }
+            }
+            replica.healthy = healthy;
+        }
+
+        long cutoff = System.currentTimeMillis() - readYourWritesMillis;
+        lastWrites.values().removeIf(writtenAt -> writtenAt < cutoff);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            close(replica.dataSource);
+        }
+        close(primary);
+    }
+
+    private Replica pickReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void recordWrite(String user) {
+        if (user == null) {
+            return;
+        }
+        // La fenêtre part du commit : c'est à partir de là que les réplicas peuvent être en retard
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWrites.put(user, System.currentTimeMillis());
+                }
+            });
+        } else {
+            lastWrites.put(user, System.currentTimeMillis());
+        }
+    }
+
+    private boolean isRecentWriter(String user) {
+        Long writtenAt = lastWrites.get(user);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < readYourWritesMillis;
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private void close(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile long lagMillis = -1;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package sn.discover.discoversenegal.controllers;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import sn.discover.discoversenegal.dto.AutocompleteStatsDTO;
+import sn.discover.discoversenegal.services.AutocompleteService;
+
+/**
+ * Endpoints d'exploitation réservés aux administrateurs (règle /api/admin/** de SecurityConfig)
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminController {
+
+    private final AutocompleteService autocompleteService;
+
+    /**
+     * GET /api/admin/autocomplete/stats
+     * Taille de l'index d'autocomplétion et mémoire estimée par rapport au budget
+     */
+    @GetMapping("/autocomplete/stats")
+    public ResponseEntity<AutocompleteStatsDTO> getAutocompleteStats() {
+        log.info("GET /api/admin/autocomplete/stats - Fetching autocomplete index statistics");
+        return ResponseEntity.ok(autocompleteService.getStats());
+    }
+}
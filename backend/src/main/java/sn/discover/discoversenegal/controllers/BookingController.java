@@ -4,15 +4,25 @@ package sn.discover.discoversenegal.controllers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import sn.discover.discoversenegal.dto.*;
+import sn.discover.discoversenegal.services.BookingExportService;
+import sn.discover.discoversenegal.services.BookingLifecycleSweeper;
 import sn.discover.discoversenegal.services.BookingService;
+import sn.discover.discoversenegal.services.IdempotencyService;
+import sn.discover.discoversenegal.services.OptimisticRetryExecutor;
+import sn.discover.discoversenegal.services.TransferManifestService;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -22,15 +32,95 @@ import java.util.List;
 public class BookingController {
     
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
+    private final BookingLifecycleSweeper lifecycleSweeper;
+    private final TransferManifestService transferManifestService;
+    private final IdempotencyService idempotencyService;
+    private final OptimisticRetryExecutor retryExecutor;
     
     /**
      * Créer une nouvelle réservation
      */
     @PostMapping
-    public ResponseEntity<BookingResponseDTO> createBooking(@Valid @RequestBody BookingCreateDTO bookingDTO) {
+    public ResponseEntity<BookingResponseDTO> createBooking(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BookingCreateDTO bookingDTO) {
         log.info("POST /api/bookings - Creating new booking for hotel: {}", bookingDTO.getHotelId());
-        BookingResponseDTO response = bookingService.createBooking(bookingDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return idempotencyService.execute(idempotencyKey, "POST /api/bookings", bookingDTO,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(bookingService.createBooking(bookingDTO)));
+    }
+    
+    /**
+     * Réservation groupée pour une délégation JOJ 2026
+     */
+    @PostMapping("/olympic/delegation")
+    public ResponseEntity<DelegationBookingResultDTO> createDelegationBookings(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody DelegationBookingDTO delegationDTO) {
+        log.info("POST /api/bookings/olympic/delegation - Booking {} members for delegation {}",
+                delegationDTO.getMembers().size(), delegationDTO.getOlympicDelegation());
+        return idempotencyService.execute(idempotencyKey, "POST /api/bookings/olympic/delegation", delegationDTO,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(bookingService.createDelegationBookings(delegationDTO)));
+    }
+    
+    /**
+     * Bloquer des chambres pendant le paiement ; le jeton est ensuite passé à la création de la réservation
+     */
+    @PostMapping("/holds")
+    public ResponseEntity<RoomHoldDTO> createHold(@RequestBody RoomHoldCreateDTO holdDTO) {
+        log.info("POST /api/bookings/holds - Holding rooms for hotel: {}", holdDTO.getHotelId());
+        RoomHoldDTO hold = bookingService.createHold(holdDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+    
+    /**
+     * Consulter un blocage de chambres
+     */
+    @GetMapping("/holds/{holdToken}")
+    public ResponseEntity<RoomHoldDTO> getHold(@PathVariable String holdToken) {
+        log.info("GET /api/bookings/holds/{} - Fetching room hold", holdToken);
+        return ResponseEntity.ok(bookingService.getHold(holdToken));
+    }
+    
+    /**
+     * Libérer un blocage (paiement abandonné)
+     */
+    @DeleteMapping("/holds/{holdToken}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdToken) {
+        log.info("DELETE /api/bookings/holds/{} - Releasing room hold", holdToken);
+        bookingService.releaseHold(holdToken);
+        return ResponseEntity.noContent().build();
+    }
+    
+    /**
+     * S'inscrire sur la liste d'attente d'un hôtel complet
+     */
+    @PostMapping("/waitlist")
+    public ResponseEntity<WaitlistEntryDTO> joinWaitlist(
+            @Valid @RequestBody WaitlistCreateDTO waitlistDTO,
+            Authentication authentication) {
+        log.info("POST /api/bookings/waitlist - Joining waitlist for hotel: {}", waitlistDTO.getHotelId());
+        WaitlistEntryDTO entry = bookingService.joinWaitlist(waitlistDTO, authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(entry);
+    }
+    
+    /**
+     * Consulter une demande de liste d'attente (position, offre en cours)
+     */
+    @GetMapping("/waitlist/{id}")
+    public ResponseEntity<WaitlistEntryDTO> getWaitlistEntry(@PathVariable Long id, Authentication authentication) {
+        log.info("GET /api/bookings/waitlist/{} - Fetching waitlist entry", id);
+        return ResponseEntity.ok(bookingService.getWaitlistEntry(id, authentication.getName()));
+    }
+    
+    /**
+     * Quitter la liste d'attente
+     */
+    @DeleteMapping("/waitlist/{id}")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long id, Authentication authentication) {
+        log.info("DELETE /api/bookings/waitlist/{} - Leaving waitlist", id);
+        bookingService.leaveWaitlist(id, authentication.getName());
+        return ResponseEntity.noContent().build();
     }
     
     /**
@@ -59,10 +149,11 @@ public class BookingController {
     @PutMapping("/{id}")
     public ResponseEntity<BookingResponseDTO> updateBooking(
             @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody BookingUpdateDTO bookingDTO) {
         log.info("PUT /api/bookings/{} - Updating booking", id);
-        BookingResponseDTO response = bookingService.updateBooking(id, bookingDTO);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, "PUT /api/bookings/" + id, bookingDTO,
+                () -> ResponseEntity.ok(retryExecutor.execute(() -> bookingService.updateBooking(id, bookingDTO))));
     }
     
     /**
@@ -71,10 +162,11 @@ public class BookingController {
     @PatchMapping("/{id}/status")
     public ResponseEntity<BookingResponseDTO> updateStatus(
             @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody BookingStatusUpdateDTO statusDTO) {
         log.info("PATCH /api/bookings/{}/status - Updating status to {}", id, statusDTO.getStatus());
-        BookingResponseDTO response = bookingService.updateStatus(id, statusDTO);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, "PATCH /api/bookings/" + id + "/status", statusDTO,
+                () -> ResponseEntity.ok(retryExecutor.execute(() -> bookingService.updateStatus(id, statusDTO))));
     }
     
     /**
@@ -83,10 +175,11 @@ public class BookingController {
     @PatchMapping("/{id}/payment")
     public ResponseEntity<BookingResponseDTO> updatePayment(
             @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody PaymentUpdateDTO paymentDTO) {
         log.info("PATCH /api/bookings/{}/payment - Updating payment", id);
-        BookingResponseDTO response = bookingService.updatePayment(id, paymentDTO);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, "PATCH /api/bookings/" + id + "/payment", paymentDTO,
+                () -> ResponseEntity.ok(retryExecutor.execute(() -> bookingService.updatePayment(id, paymentDTO))));
     }
     
     /**
@@ -95,10 +188,11 @@ public class BookingController {
     @PatchMapping("/{id}/confirm")
     public ResponseEntity<BookingResponseDTO> confirmByHotel(
             @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody HotelConfirmationDTO confirmationDTO) {
         log.info("PATCH /api/bookings/{}/confirm - Hotel confirming booking", id);
-        BookingResponseDTO response = bookingService.confirmByHotel(id, confirmationDTO);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, "PATCH /api/bookings/" + id + "/confirm", confirmationDTO,
+                () -> ResponseEntity.ok(retryExecutor.execute(() -> bookingService.confirmByHotel(id, confirmationDTO))));
     }
     
     /**
@@ -107,10 +201,11 @@ public class BookingController {
     @PatchMapping("/{id}/checkin")
     public ResponseEntity<BookingResponseDTO> checkIn(
             @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody CheckInDTO checkInDTO) {
         log.info("PATCH /api/bookings/{}/checkin - Checking in guest", id);
-        BookingResponseDTO response = bookingService.checkIn(id, checkInDTO);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, "PATCH /api/bookings/" + id + "/checkin", checkInDTO,
+                () -> ResponseEntity.ok(retryExecutor.execute(() -> bookingService.checkIn(id, checkInDTO))));
     }
     
     /**
@@ -119,10 +214,11 @@ public class BookingController {
     @PatchMapping("/{id}/checkout")
     public ResponseEntity<BookingResponseDTO> checkOut(
             @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody CheckOutDTO checkOutDTO) {
         log.info("PATCH /api/bookings/{}/checkout - Checking out guest", id);
-        BookingResponseDTO response = bookingService.checkOut(id, checkOutDTO);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, "PATCH /api/bookings/" + id + "/checkout", checkOutDTO,
+                () -> ResponseEntity.ok(retryExecutor.execute(() -> bookingService.checkOut(id, checkOutDTO))));
     }
     
     /**
@@ -131,10 +227,11 @@ public class BookingController {
     @PatchMapping("/{id}/cancel")
     public ResponseEntity<BookingResponseDTO> cancelBooking(
             @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody CancellationDTO cancellationDTO) {
         log.info("PATCH /api/bookings/{}/cancel - Cancelling booking", id);
-        BookingResponseDTO response = bookingService.cancelBooking(id, cancellationDTO);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, "PATCH /api/bookings/" + id + "/cancel", cancellationDTO,
+                () -> ResponseEntity.ok(retryExecutor.execute(() -> bookingService.cancelBooking(id, cancellationDTO))));
     }
     
     /**
@@ -143,39 +240,68 @@ public class BookingController {
     @PatchMapping("/{id}/review")
     public ResponseEntity<BookingResponseDTO> addReview(
             @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody BookingReviewDTO reviewDTO) {
         log.info("PATCH /api/bookings/{}/review - Adding review", id);
-        BookingResponseDTO response = bookingService.addReview(id, reviewDTO);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, "PATCH /api/bookings/" + id + "/review", reviewDTO,
+                () -> ResponseEntity.ok(retryExecutor.execute(() -> bookingService.addReview(id, reviewDTO))));
     }
     
     /**
-     * Récupérer toutes les réservations d'un utilisateur
+     * Récupérer les réservations d'un utilisateur (plus récentes d'abord, pagination par curseur)
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<BookingResponseDTO>> getUserBookings(@PathVariable Long userId) {
+    public ResponseEntity<KeysetPageDTO<BookingResponseDTO>> getUserBookings(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         log.info("GET /api/bookings/user/{} - Fetching user bookings", userId);
-        List<BookingResponseDTO> bookings = bookingService.getUserBookings(userId);
+        KeysetPageDTO<BookingResponseDTO> bookings = bookingService.getUserBookings(userId, cursor, size);
         return ResponseEntity.ok(bookings);
     }
     
     /**
-     * Récupérer toutes les réservations d'un hôtel
+     * Récupérer les réservations d'un hôtel (par date d'arrivée décroissante, pagination par curseur)
      */
     @GetMapping("/hotel/{hotelId}")
-    public ResponseEntity<List<BookingResponseDTO>> getHotelBookings(@PathVariable Long hotelId) {
+    public ResponseEntity<KeysetPageDTO<BookingResponseDTO>> getHotelBookings(
+            @PathVariable Long hotelId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         log.info("GET /api/bookings/hotel/{} - Fetching hotel bookings", hotelId);
-        List<BookingResponseDTO> bookings = bookingService.getHotelBookings(hotelId);
+        KeysetPageDTO<BookingResponseDTO> bookings = bookingService.getHotelBookings(hotelId, cursor, size);
         return ResponseEntity.ok(bookings);
     }
     
     /**
-     * Récupérer les réservations en attente
+     * Export complet des réservations d'un hôtel (csv ou ndjson), écrit en flux ; gestionnaire de l'hôtel ou administrateur
+     */
+    @GetMapping("/hotel/{hotelId}/export")
+    public ResponseEntity<StreamingResponseBody> exportHotelBookings(
+            @PathVariable Long hotelId,
+            @RequestParam(defaultValue = "csv") String format,
+            Authentication authentication) {
+        log.info("GET /api/bookings/hotel/{}/export - Exporting hotel bookings as {}", hotelId, format);
+        BookingExportService.ExportFormat exportFormat = bookingExportService.resolveFormat(format);
+        bookingExportService.checkCanExport(hotelId, authentication.getName());
+        
+        StreamingResponseBody body = out -> bookingExportService.exportHotelBookings(hotelId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"bookings-hotel-" + hotelId + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+    
+    /**
+     * Récupérer les réservations en attente (plus anciennes d'abord, pagination par curseur)
      */
     @GetMapping("/pending")
-    public ResponseEntity<List<BookingResponseDTO>> getPendingBookings() {
+    public ResponseEntity<KeysetPageDTO<BookingResponseDTO>> getPendingBookings(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         log.info("GET /api/bookings/pending - Fetching pending bookings");
-        List<BookingResponseDTO> bookings = bookingService.getPendingBookings();
+        KeysetPageDTO<BookingResponseDTO> bookings = bookingService.getPendingBookings(cursor, size);
         return ResponseEntity.ok(bookings);
     }
     
@@ -210,15 +336,39 @@ public class BookingController {
     }
     
     /**
-     * Réservations JOJ 2026
+     * Réservations JOJ 2026 (pagination par curseur)
      */
     @GetMapping("/olympic")
-    public ResponseEntity<List<BookingResponseDTO>> getOlympicBookings() {
+    public ResponseEntity<KeysetPageDTO<BookingResponseDTO>> getOlympicBookings(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         log.info("GET /api/bookings/olympic - Fetching Olympic bookings");
-        List<BookingResponseDTO> bookings = bookingService.getOlympicBookings();
+        KeysetPageDTO<BookingResponseDTO> bookings = bookingService.getOlympicBookings(cursor, size);
         return ResponseEntity.ok(bookings);
     }
     
+    /**
+     * Manifeste des transferts aéroport (par vol, créneau d'arrivée et hôtel) d'un jour ou d'une période
+     */
+    @GetMapping("/transfers/manifest")
+    public ResponseEntity<List<TransferManifestDTO>> getTransferManifest(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer windowMinutes) {
+        log.info("GET /api/bookings/transfers/manifest - Building transfer manifest from {} to {}", from, to);
+        List<TransferManifestDTO> manifests = transferManifestService.getManifests(from, to, windowMinutes);
+        return ResponseEntity.ok(manifests);
+    }
+    
+    /**
+     * Métriques du balayage automatique (no-shows, attentes expirées, séjours terminés)
+     */
+    @GetMapping("/lifecycle/stats")
+    public ResponseEntity<Map<String, Object>> getLifecycleStats() {
+        log.info("GET /api/bookings/lifecycle/stats - Fetching lifecycle sweeper metrics");
+        return ResponseEntity.ok(lifecycleSweeper.getStats());
+    }
+    
     /**
      * Vérifier disponibilité
      */
@@ -101,13 +101,13 @@ public class GuideController {
     }
     
     /**
-     * Incrémenter le compteur de vues
+     * Incrémenter le compteur de vues (202 : la vue est reportée en base sous quelques secondes)
      */
     @PostMapping("/{id}/view")
-    public ResponseEntity<GuideResponseDTO> incrementViewCount(@PathVariable Long id) {
+    public ResponseEntity<Void> incrementViewCount(@PathVariable Long id) {
         log.info("POST /api/guides/{}/view - Incrementing view count", id);
-        GuideResponseDTO response = guideService.incrementViewCount(id);
-        return ResponseEntity.ok(response);
+        guideService.incrementViewCount(id);
+        return ResponseEntity.accepted().build();
     }
     
     /**
@@ -185,9 +185,23 @@ public class GuideController {
      * Récupérer les guides les plus populaires
      */
     @GetMapping("/popular")
-    public ResponseEntity<List<GuideResponseDTO>> getMostPopularGuides() {
-        log.info("GET /api/guides/popular - Fetching most popular guides");
-        List<GuideResponseDTO> guides = guideService.getMostPopularGuides();
+    public ResponseEntity<List<GuideResponseDTO>> getMostPopularGuides(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String type) {
+        log.info("GET /api/guides/popular - Fetching most popular guides (city: {}, type: {})", city, type);
+        List<GuideResponseDTO> guides = guideService.getMostPopularGuides(city, type);
+        return ResponseEntity.ok(guides);
+    }
+    
+    /**
+     * Recherche par nom tolérante aux fautes de frappe, ex. GET /api/guides/search/name?q=mamadou diop
+     */
+    @GetMapping("/search/name")
+    public ResponseEntity<List<GuideResponseDTO>> searchByName(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/guides/search/name - Fuzzy name search for '{}'", q);
+        List<GuideResponseDTO> guides = guideService.searchByName(q, limit);
         return ResponseEntity.ok(guides);
     }
     
@@ -3,6 +3,8 @@ package sn.discover.discoversenegal.controllers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -10,6 +12,7 @@ import sn.discover.discoversenegal.dto.*;
 import sn.discover.discoversenegal.services.HotelService;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -88,13 +91,13 @@ public class HotelController {
     }
     
     /**
-     * Incrémenter le compteur de vues
+     * Incrémenter le compteur de vues (202 : la vue est reportée en base sous quelques secondes)
      */
     @PostMapping("/{id}/view")
-    public ResponseEntity<HotelResponseDTO> incrementViewCount(@PathVariable Long id) {
+    public ResponseEntity<Void> incrementViewCount(@PathVariable Long id) {
         log.info("POST /api/hotels/{}/view - Incrementing view count", id);
-        HotelResponseDTO response = hotelService.incrementViewCount(id);
-        return ResponseEntity.ok(response);
+        hotelService.incrementViewCount(id);
+        return ResponseEntity.accepted().build();
     }
     
     /**
@@ -107,6 +110,62 @@ public class HotelController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Calendrier des disponibilités : chambres restantes par nuit (365 nuits max)
+     */
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<AvailabilityCalendarDTO> getAvailabilityCalendar(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET /api/hotels/{}/availability - Fetching availability from {} to {}", id, from, to);
+        AvailabilityCalendarDTO calendar = hotelService.getAvailabilityCalendar(id, from, to);
+        return ResponseEntity.ok(calendar);
+    }
+    
+    /**
+     * Reconstruire le registre d'inventaire à partir des réservations, réservé aux administrateurs
+     */
+    @PostMapping("/{id}/inventory/rebuild")
+    public ResponseEntity<Integer> rebuildInventory(@PathVariable Long id) {
+        log.info("POST /api/hotels/{}/inventory/rebuild - Rebuilding room inventory", id);
+        int nights = hotelService.rebuildInventory(id);
+        return ResponseEntity.ok(nights);
+    }
+    
+    /**
+     * Tableau de bord : revenu, nuitées, ADR, occupation et avis sur une période (366 jours max)
+     */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<HotelStatsDTO> getHotelStats(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET /api/hotels/{}/stats - Fetching stats from {} to {}", id, from, to);
+        HotelStatsDTO stats = hotelService.getHotelStats(id, from, to);
+        return ResponseEntity.ok(stats);
+    }
+    
+    /**
+     * Recalculer les agrégats quotidiens d'un hôtel à partir des réservations, réservé aux administrateurs
+     */
+    @PostMapping("/{id}/stats/rebuild")
+    public ResponseEntity<Integer> rebuildStats(@PathVariable Long id) {
+        log.info("POST /api/hotels/{}/stats/rebuild - Rebuilding daily stats", id);
+        int days = hotelService.rebuildStats(id);
+        return ResponseEntity.ok(days);
+    }
+    
+    /**
+     * Recalculer les agrégats quotidiens de tous les hôtels, réservé aux administrateurs
+     */
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<Integer> rebuildAllStats() {
+        log.info("POST /api/hotels/stats/rebuild - Rebuilding daily stats for all hotels");
+        int days = hotelService.rebuildAllStats();
+        return ResponseEntity.ok(days);
+    }
+    
     /**
      * Rechercher des hôtels par ville
      */
@@ -117,6 +176,18 @@ public class HotelController {
         return ResponseEntity.ok(hotels);
     }
     
+    /**
+     * Hôtels autour d'un point GPS (rayon en km)
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<List<HotelResponseDTO>> getHotelsNearby(
+            @RequestParam Double lat,
+            @RequestParam Double lng,
+            @RequestParam(defaultValue = "10") Double radius) {
+        log.info("GET /api/hotels/nearby - Fetching hotels within {} km of ({}, {})", radius, lat, lng);
+        return ResponseEntity.ok(hotelService.getHotelsNearby(lat, lng, radius));
+    }
+    
     /**
      * Rechercher des hôtels par région
      */
@@ -151,9 +222,23 @@ public class HotelController {
      * Récupérer les hôtels les plus populaires
      */
     @GetMapping("/popular")
-    public ResponseEntity<List<HotelResponseDTO>> getMostPopularHotels() {
-        log.info("GET /api/hotels/popular - Fetching most popular hotels");
-        List<HotelResponseDTO> hotels = hotelService.getMostPopularHotels();
+    public ResponseEntity<List<HotelResponseDTO>> getMostPopularHotels(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String category) {
+        log.info("GET /api/hotels/popular - Fetching most popular hotels (city: {}, category: {})", city, category);
+        List<HotelResponseDTO> hotels = hotelService.getMostPopularHotels(city, category);
+        return ResponseEntity.ok(hotels);
+    }
+    
+    /**
+     * Recherche par nom tolérante aux fautes de frappe, ex. GET /api/hotels/search/name?q=lac retba
+     */
+    @GetMapping("/search/name")
+    public ResponseEntity<List<HotelResponseDTO>> searchByName(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/hotels/search/name - Fuzzy name search for '{}'", q);
+        List<HotelResponseDTO> hotels = hotelService.searchByName(q, limit);
         return ResponseEntity.ok(hotels);
     }
     
@@ -178,6 +263,18 @@ public class HotelController {
         return ResponseEntity.ok(hotels);
     }
     
+    /**
+     * Recherche d'hôtels disponibles (dates + nombre de chambres), paginée
+     */
+    @PostMapping("/search/availability")
+    public ResponseEntity<Page<HotelResponseDTO>> searchAvailableHotels(
+            @RequestBody HotelSearchDTO searchDTO) {
+        log.info("POST /api/hotels/search/availability - Searching hotels available from {} to {}",
+                searchDTO.getCheckInDate(), searchDTO.getCheckOutDate());
+        Page<HotelResponseDTO> hotels = hotelService.searchAvailableHotels(searchDTO);
+        return ResponseEntity.ok(hotels);
+    }
+    
     /**
      * Désactiver un hôtel (soft delete)
      */
@@ -0,0 +1,66 @@
+package sn.discover.discoversenegal.controllers;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import sn.discover.discoversenegal.dto.AroundResponseDTO;
+import sn.discover.discoversenegal.dto.AutocompleteSuggestionDTO;
+import sn.discover.discoversenegal.dto.MapClustersResponseDTO;
+import sn.discover.discoversenegal.services.AutocompleteService;
+import sn.discover.discoversenegal.services.MapService;
+
+import java.util.List;
+
+/**
+ * Endpoints publics (sans authentification) des écrans carte et des champs de recherche de l'application mobile
+ */
+@RestController
+@RequestMapping("/api/public")
+@RequiredArgsConstructor
+@Slf4j
+public class PublicController {
+
+    private final MapService mapService;
+    private final AutocompleteService autocompleteService;
+
+    /**
+     * GET /api/public/around?lat=14.6937&lng=-17.4441&radius=5&types=hotel,site&limit=20
+     * Hôtels, restaurants, sites et événements autour d'un point, triés par distance
+     */
+    @GetMapping("/around")
+    public ResponseEntity<AroundResponseDTO> getAround(
+            @RequestParam Double lat,
+            @RequestParam Double lng,
+            @RequestParam(required = false) Double radius,
+            @RequestParam(required = false) String types,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/public/around - Fetching places within {} km of ({}, {}), types: {}", radius, lat, lng, types);
+        return ResponseEntity.ok(mapService.getAround(lat, lng, radius, types, limit));
+    }
+
+    /**
+     * GET /api/public/map/clusters?bbox=-17.55,14.60,-17.35,14.80&zoom=12
+     * Marqueurs regroupés (centroïde, nombre, type et catégorie dominants) pour la carte
+     */
+    @GetMapping("/map/clusters")
+    public ResponseEntity<MapClustersResponseDTO> getMapClusters(
+            @RequestParam String bbox,
+            @RequestParam Integer zoom) {
+        log.info("GET /api/public/map/clusters - Fetching clusters for bbox {} at zoom {}", bbox, zoom);
+        return ResponseEntity.ok(mapService.getClusters(bbox, zoom));
+    }
+
+    /**
+     * GET /api/public/autocomplete?q=sai&limit=8
+     * Suggestions (hôtels, restaurants, guides, sites, événements, villes, régions) par popularité
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<AutocompleteSuggestionDTO>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("GET /api/public/autocomplete - Completing '{}'", q);
+        return ResponseEntity.ok(autocompleteService.complete(q, limit));
+    }
+}
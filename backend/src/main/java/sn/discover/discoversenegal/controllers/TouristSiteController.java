@@ -107,14 +107,16 @@ public class TouristSiteController {
 
     /**
      * GET /api/v1/sites/most-viewed
-     * Sites les plus consultés
+     * Sites les plus populaires du moment (filtres facultatifs : ville, catégorie)
      */
     @GetMapping("/most-viewed")
     public ResponseEntity<Page<TouristSiteResponseDTO>> getMostViewed(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String category,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
-        return ResponseEntity.ok(siteService.getMostViewed(PageRequest.of(page, size)));
+        return ResponseEntity.ok(siteService.getMostViewed(city, category, PageRequest.of(page, size)));
     }
 
     /**
@@ -0,0 +1,18 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AroundResponseDTO {
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+    private Map<String, Integer> counts; // Nombre de résultats renvoyés par type
+    private List<PlaceSummaryDTO> places; // Tous types confondus, du plus proche au plus lointain
+}
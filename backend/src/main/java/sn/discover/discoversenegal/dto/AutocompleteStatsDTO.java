@@ -0,0 +1,19 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AutocompleteStatsDTO {
+    private Integer entries; // Noms, villes et régions proposés
+    private Integer keys; // Clés de l'arbre (nom entier et débuts de mot)
+    private Integer nodes;
+    private Map<String, Integer> countsByType;
+    private Long estimatedBytes; // Estimation de la mémoire occupée par l'index
+    private Long budgetBytes;
+    private Boolean withinBudget;
+}
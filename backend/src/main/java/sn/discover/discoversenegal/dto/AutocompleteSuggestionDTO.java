@@ -0,0 +1,15 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AutocompleteSuggestionDTO {
+    private String type; // hotel, restaurant, guide, site, event, city ou region
+    private Long id; // null pour une ville ou une région
+    private String label;
+    private String city;
+}
@@ -0,0 +1,17 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilityCalendarDTO {
+    private Long hotelId;
+    private LocalDate from;
+    private LocalDate to; // Exclu : dernière nuit = to - 1
+    private Integer totalRooms;
+    private int[] remainingRooms; // Une valeur par nuit, à partir de "from"
+}
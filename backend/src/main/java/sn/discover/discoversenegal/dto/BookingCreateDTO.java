@@ -56,4 +56,7 @@ public class BookingCreateDTO {
     private BookingSource source;
     private String userIpAddress;
     private String userAgent;
+    
+    // Blocage obtenu pendant le paiement (optionnel) : les chambres sont déjà décomptées
+    private String holdToken;
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package sn.discover.discoversenegal.dto;
+
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import sn.discover.discoversenegal.entities.BookingSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DelegationBookingDTO {
+
+    @NotBlank(message = "Le nom de la délégation est obligatoire")
+    private String olympicDelegation;
+
+    @NotNull(message = "Le compte qui réserve est obligatoire")
+    private Long userId; // Responsable hébergement de la délégation
+
+    @NotEmpty(message = "Au moins un hôtel est obligatoire")
+    private List<Long> hotelIds; // Par ordre de préférence
+
+    @NotNull(message = "La date d'arrivée est obligatoire")
+    private LocalDate checkInDate;
+
+    @NotNull(message = "La date de départ est obligatoire")
+    private LocalDate checkOutDate;
+
+    private BigDecimal pricePerNight; // Par défaut : prix minimum de l'hôtel
+    private String currency;
+    private BookingSource source;
+
+    @NotEmpty(message = "La liste des membres est obligatoire")
+    @Valid
+    private List<DelegationMemberDTO> members;
+}
@@ -0,0 +1,17 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DelegationBookingLineDTO {
+    private Integer lineNumber; // Position dans la liste des membres (à partir de 0)
+    private String guestName;
+    private boolean booked;
+    private String bookingReference;
+    private Long hotelId;
+    private String message; // Motif de l'échec le cas échéant
+}
@@ -0,0 +1,17 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DelegationBookingResultDTO {
+    private String olympicDelegation;
+    private Integer requestedLines;
+    private Integer bookedLines;
+    private Integer failedLines;
+    private List<DelegationBookingLineDTO> lines;
+}
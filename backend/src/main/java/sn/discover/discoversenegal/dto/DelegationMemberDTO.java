@@ -0,0 +1,30 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DelegationMemberDTO {
+    private String guestFirstName;
+    private String guestLastName;
+    private String guestEmail;
+    private String guestPhone;
+    private String guestCountry;
+    private String guestNationality;
+
+    private String olympicRole; // Athlete, Coach, Official, Family, etc.
+
+    private Integer numberOfAdults;
+    private Integer numberOfRooms;
+    private String roomType;
+
+    private String specialRequests;
+    private Boolean needsAirportTransfer;
+    private String flightNumber;
+    private LocalDateTime arrivalTime;
+    private String languagePreference;
+}
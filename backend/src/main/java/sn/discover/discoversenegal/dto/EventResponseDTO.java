@@ -70,6 +70,9 @@ public class EventResponseDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Recherche plein texte : extrait surligné (<mark>), renseigné uniquement par /search
+    private String snippet;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
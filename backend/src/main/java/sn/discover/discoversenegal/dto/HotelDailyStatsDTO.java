@@ -0,0 +1,21 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotelDailyStatsDTO {
+    private LocalDate day;
+    private Integer roomNights;
+    private Double occupancyRate; // En pourcentage
+    private BigDecimal averageDailyRate; // ADR : revenu hébergement / chambres occupées
+    private BigDecimal roomRevenue;
+    private BigDecimal paidRevenue;
+    private Integer completedBookings;
+    private Integer ratingCount;
+}
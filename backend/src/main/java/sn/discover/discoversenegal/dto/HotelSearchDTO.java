@@ -3,6 +3,7 @@ package sn.discover.discoversenegal.dto;
 import lombok.*;
 import sn.discover.discoversenegal.entities.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @Data
@@ -22,4 +23,14 @@ public class HotelSearchDTO {
     private VerificationStatus verificationStatus;
     private Boolean featured;
     private Boolean active;
+    
+    // Recherche par disponibilité (optionnelle)
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private Integer rooms;
+    
+    // Tri et pagination : "price" (défaut) ou "rating"
+    private String sortBy;
+    private Integer page;
+    private Integer size;
 }
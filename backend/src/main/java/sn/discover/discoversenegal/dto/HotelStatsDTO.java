@@ -0,0 +1,30 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotelStatsDTO {
+    private Long hotelId;
+    private LocalDate from;
+    private LocalDate to; // Exclu
+    private Integer totalRooms;
+    
+    private Long roomNights;
+    private Long availableRoomNights;
+    private Double occupancyRate; // En pourcentage
+    private BigDecimal averageDailyRate; // ADR
+    private BigDecimal roomRevenue;
+    private BigDecimal paidRevenue;
+    private Long completedBookings;
+    private Double averageRating;
+    private Long ratingCount;
+    
+    private List<HotelDailyStatsDTO> days;
+}
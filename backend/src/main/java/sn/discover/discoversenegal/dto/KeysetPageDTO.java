@@ -0,0 +1,16 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KeysetPageDTO<T> {
+    private List<T> items;
+    private Integer size;
+    private boolean hasNext;
+    private String nextCursor; // À renvoyer tel quel pour obtenir la page suivante
+}
@@ -0,0 +1,20 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MapClusterDTO {
+    private Double latitude; // Centroïde des points regroupés
+    private Double longitude;
+    private Integer count;
+    private String dominantType; // hotel, restaurant ou site
+    private String dominantCategory;
+    // Renseignés uniquement pour un marqueur isolé (count = 1)
+    private String type;
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,16 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MapClustersResponseDTO {
+    private Integer zoom;
+    private Integer total; // Nombre de points dans le rectangle demandé
+    private Boolean truncated; // Vrai si seuls les plus gros regroupements sont renvoyés
+    private List<MapClusterDTO> clusters;
+}
@@ -0,0 +1,22 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlaceSummaryDTO {
+    private String type; // hotel, restaurant, site, event
+    private Long id;
+    private String name;
+    private String category;
+    private String city;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm;
+    private Double rating;
+    private LocalDateTime startDateTime; // Événements uniquement
+}
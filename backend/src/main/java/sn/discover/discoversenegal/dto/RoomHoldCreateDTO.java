@@ -0,0 +1,17 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomHoldCreateDTO {
+    private Long hotelId;
+    private Long userId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private Integer numberOfRooms;
+}
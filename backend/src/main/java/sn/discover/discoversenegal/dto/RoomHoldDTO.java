@@ -0,0 +1,19 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomHoldDTO {
+    private String holdToken; // À transmettre dans BookingCreateDTO.holdToken
+    private Long hotelId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private Integer numberOfRooms;
+    private LocalDateTime expiresAt;
+}
@@ -104,6 +104,9 @@ public class TouristSiteResponseDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Recherche plein texte : extrait surligné (<mark>), renseigné uniquement par /search
+    private String snippet;
+
     // -------------------------------------------------------
     // Classes imbriquées
     // -------------------------------------------------------
@@ -0,0 +1,26 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferGroupDTO {
+    private String flightNumber; // null si le vol n'est pas renseigné
+    private LocalDateTime windowStart; // null si l'heure d'arrivée est inconnue
+    private LocalDateTime windowEnd;
+    
+    private Long hotelId;
+    private String hotelName;
+    private String hotelAddress;
+    
+    private Integer bookings;
+    private Integer adults;
+    private Integer children;
+    private Integer passengers;
+    private List<TransferPassengerDTO> passengerList;
+}
@@ -0,0 +1,18 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferManifestDTO {
+    private LocalDate date;
+    private Integer windowMinutes;
+    private Integer totalBookings;
+    private Integer totalPassengers;
+    private List<TransferGroupDTO> groups; // Triés par créneau, vol puis hôtel
+}
@@ -0,0 +1,20 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferPassengerDTO {
+    private Long bookingId;
+    private String bookingReference;
+    private String guestName;
+    private String guestPhone;
+    private LocalDateTime arrivalTime;
+    private Integer adults;
+    private Integer children;
+    private String olympicDelegation;
+}
@@ -0,0 +1,41 @@
+package sn.discover.discoversenegal.dto;
+
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistCreateDTO {
+
+    @NotNull(message = "L'hôtel est obligatoire")
+    private Long hotelId;
+
+    @NotBlank(message = "Le nom du client est obligatoire")
+    private String guestName;
+
+    @NotBlank(message = "L'email du client est obligatoire")
+    @Email(message = "L'email du client n'est pas valide")
+    private String guestEmail;
+
+    private String guestPhone;
+
+    @NotNull(message = "La date d'arrivée est obligatoire")
+    private LocalDate checkInDate;
+
+    @NotNull(message = "La date de départ est obligatoire")
+    private LocalDate checkOutDate;
+
+    @Min(value = 1, message = "Le nombre de chambres doit être au moins 1")
+    private Integer numberOfRooms; // 1 par défaut
+
+    // Priorité JOJ : accordée seulement si le compte a déjà réservé pour cette délégation
+    private Boolean isOlympicBooking;
+    private String olympicDelegation;
+}
@@ -0,0 +1,29 @@
+package sn.discover.discoversenegal.dto;
+
+
+import lombok.*;
+import sn.discover.discoversenegal.entities.WaitlistStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntryDTO {
+    private Long id;
+    private Long hotelId;
+    private String guestName;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private Integer numberOfRooms;
+    private Boolean isOlympicBooking;
+    private Integer priority;
+    private WaitlistStatus status;
+    private Long position; // Demandes devant celle-ci (si WAITING)
+    
+    // Offre en cours : passer holdToken à la création de la réservation avant offerExpiresAt
+    private String holdToken;
+    private LocalDateTime offerExpiresAt;
+    private LocalDateTime createdAt;
+}
@@ -8,7 +8,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_bookings_hotel_checkin", columnList = "hotel_id, check_in_date, id"),
+        @Index(name = "idx_bookings_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_bookings_olympic_created", columnList = "is_olympic_booking, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,8 +24,12 @@ public class Booking {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version; // Verrouillage optimiste
+    
     @Column(unique = true, nullable = false)
-    private String bookingReference; // Ex: BKG-2026-001234
+    private String bookingReference; // Ex: BKG-2026-0C9Q-7J2M-0400-K (voir BookingReferenceGenerator)
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "hotel_id", nullable = false)
@@ -188,11 +197,6 @@ public class Booking {
             paymentStatus = PaymentStatus.PENDING;
         }
         
-        // Générer référence unique
-        if (bookingReference == null) {
-            bookingReference = generateBookingReference();
-        }
-        
         // Calculer nombre de nuits
         if (checkInDate != null && checkOutDate != null) {
             numberOfNights = (int) java.time.temporal.ChronoUnit.DAYS.between(checkInDate, checkOutDate);
@@ -218,11 +222,6 @@ public class Booking {
         finalAmount = calculateFinalAmount();
     }
     
-    private String generateBookingReference() {
-        return "BKG-" + LocalDate.now().getYear() + "-" + 
-               String.format("%06d", System.currentTimeMillis() % 1000000);
-    }
-    
     private BigDecimal calculateFinalAmount() {
         BigDecimal amount = totalPrice != null ? totalPrice : BigDecimal.ZERO;
         
@@ -233,7 +233,9 @@ public class Guide {
     @Builder.Default
     private Integer totalClients = 0;
     
+    // Écrit seulement par ViewCounterRepository : un save() n'écrase pas les vues reportées
     @Builder.Default
+    @Column(updatable = false)
     private Integer viewCount = 0;
     
     @Builder.Default
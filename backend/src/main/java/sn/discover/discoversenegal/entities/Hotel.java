@@ -111,7 +111,9 @@ public class Hotel {
     @Builder.Default
     private Integer totalReviews = 0;
     
+    // Écrit seulement par ViewCounterRepository : un save() n'écrase pas les vues reportées
     @Builder.Default
+    @Column(updatable = false)
     private Integer viewCount = 0;
     
     @Builder.Default
@@ -0,0 +1,70 @@
+package sn.discover.discoversenegal.entities;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Agrégats quotidiens par hôtel, maintenus de façon incrémentale à chaque
+ * changement de réservation (voir HotelStatsService).
+ * - roomNights / roomRevenue : chambres occupées et revenu hébergement de la nuit
+ * - paidRevenue : montants payés, rattachés au jour d'arrivée
+ * - completedBookings : séjours terminés, rattachés au jour de départ
+ * - ratingSum / ratingCount : avis, rattachés au jour de l'évaluation
+ */
+@Entity
+@Table(name = "hotel_daily_stats",
+       uniqueConstraints = @UniqueConstraint(name = "uk_hotel_daily_stats_hotel_day",
+                                             columnNames = {"hotel_id", "day"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotelDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hotel_id", nullable = false)
+    private Hotel hotel;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer roomNights = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private BigDecimal roomRevenue = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private BigDecimal paidRevenue = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer completedBookings = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer ratingSum = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer ratingCount = 0;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
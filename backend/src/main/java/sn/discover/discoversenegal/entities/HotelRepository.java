@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -48,21 +49,6 @@ public interface HotelRepository extends JpaRepository<Hotel, Long>, JpaSpecific
     @Query("SELECT h FROM Hotel h WHERE h.active = true ORDER BY h.averageRating DESC, h.totalReviews DESC")
     List<Hotel> findTopRatedHotels();
     
-    // Hôtels les plus populaires
-    @Query("SELECT h FROM Hotel h WHERE h.active = true ORDER BY h.viewCount DESC, h.bookingCount DESC")
-    List<Hotel> findMostPopularHotels();
-    
-    // Recherche par proximité géographique
-    @Query("SELECT h FROM Hotel h WHERE h.active = true AND " +
-           "(6371 * acos(cos(radians(:latitude)) * cos(radians(h.latitude)) * " +
-           "cos(radians(h.longitude) - radians(:longitude)) + sin(radians(:latitude)) * " +
-           "sin(radians(h.latitude)))) <= :radius ORDER BY " +
-           "(6371 * acos(cos(radians(:latitude)) * cos(radians(h.latitude)) * " +
-           "cos(radians(h.longitude) - radians(:longitude)) + sin(radians(:latitude)) * " +
-           "sin(radians(h.latitude))))")
-    List<Hotel> findHotelsNearby(@Param("latitude") Double latitude, 
-                                  @Param("longitude") Double longitude, 
-                                  @Param("radius") Double radius);
     
     // Recherche par équipements
     @Query("SELECT DISTINCT h FROM Hotel h JOIN h.amenities a WHERE a IN :amenities AND h.active = true")
@@ -71,9 +57,16 @@ public interface HotelRepository extends JpaRepository<Hotel, Long>, JpaSpecific
     // Vérifier l'existence par email
     boolean existsByEmail(String email);
     
-    // Recherche par nom (insensible à la casse)
-    @Query("SELECT h FROM Hotel h WHERE LOWER(h.name) LIKE LOWER(CONCAT('%', :name, '%')) AND h.active = true")
-    List<Hotel> searchByName(@Param("name") String name);
+    // Recherche approchée par nom et autocomplétion : noms et localisation des hôtels actifs
+    interface NameRow {
+        Long getId();
+        String getName();
+        String getCity();
+        String getRegion();
+    }
+    
+    @Query("SELECT h.id AS id, h.name AS name, h.city AS city, h.region AS region FROM Hotel h WHERE h.active = true")
+    List<NameRow> findNameRows();
     
     // Statistiques par ville
     @Query("SELECT h.city, COUNT(h) FROM Hotel h WHERE h.active = true GROUP BY h.city ORDER BY COUNT(h) DESC")
@@ -82,4 +75,34 @@ public interface HotelRepository extends JpaRepository<Hotel, Long>, JpaSpecific
     // Partenaires actifs
     @Query("SELECT h FROM Hotel h WHERE h.partnershipStatus = 'ACTIVE' AND h.verificationStatus = 'VERIFIED' AND h.active = true")
     List<Hotel> findActivePartners();
-}
\ No newline at end of file
+    
+    // Index géographique : coordonnées des hôtels actifs, sans charger les entités
+    interface GeoRow {
+        Long getId();
+        String getName();
+        HotelCategory getCategory();
+        String getCity();
+        Double getLatitude();
+        Double getLongitude();
+        Double getAverageRating();
+    }
+    
+    @Query("SELECT h.id AS id, h.name AS name, h.category AS category, h.city AS city, " +
+           "h.latitude AS latitude, h.longitude AS longitude, h.averageRating AS averageRating " +
+           "FROM Hotel h WHERE h.active = true AND h.latitude IS NOT NULL AND h.longitude IS NOT NULL")
+    List<GeoRow> findGeoRows();
+    
+    // Classements de popularité : ville, catégorie et compteurs cumulés des hôtels actifs
+    interface PopularityRow {
+        Long getId();
+        String getCity();
+        HotelCategory getCategory();
+        LocalDateTime getCreatedAt();
+        Integer getViewCount();
+        Integer getBookingCount();
+    }
+    
+    @Query("SELECT h.id AS id, h.city AS city, h.category AS category, h.createdAt AS createdAt, " +
+           "h.viewCount AS viewCount, h.bookingCount AS bookingCount FROM Hotel h WHERE h.active = true")
+    List<PopularityRow> findPopularityRows();
+}
@@ -0,0 +1,9 @@
+package sn.discover.discoversenegal.entities;
+
+
+public enum PopularityItemType {
+    HOTEL,
+    GUIDE,
+    RESTAURANT,
+    SITE
+}
@@ -0,0 +1,39 @@
+package sn.discover.discoversenegal.entities;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Point de reprise du score de popularité d'un élément du catalogue.
+ * Le score est décroissant dans le temps : la valeur stockée est celle du moment updatedAt,
+ * elle est ramenée à l'instant présent au rechargement.
+ */
+@Entity
+@Table(name = "popularity_scores", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_popularity_scores_item", columnNames = {"item_type", "item_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PopularityScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "item_type", nullable = false, length = 20)
+    private PopularityItemType itemType;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -196,7 +196,9 @@ public class Restaurant {
     private Double valueForMoneyRating;
     
     // Statistiques
+    // Écrit seulement par ViewCounterRepository : un save() n'écrase pas les vues reportées
     @Builder.Default
+    @Column(updatable = false)
     private Integer viewCount = 0;
     
     @Builder.Default
@@ -0,0 +1,56 @@
+package sn.discover.discoversenegal.entities;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Blocage temporaire de chambres pendant le paiement.
+ * Les chambres sont décomptées du registre d'inventaire à la création du blocage ;
+ * elles sont soit reprises par la réservation, soit libérées à l'expiration.
+ * La ligne persistée permet de replanifier les expirations après un redémarrage.
+ */
+@Entity
+@Table(name = "room_holds", indexes = {
+        @Index(name = "idx_room_holds_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String holdToken;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hotel_id", nullable = false)
+    private Hotel hotel;
+
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDate checkInDate;
+
+    @Column(nullable = false)
+    private LocalDate checkOutDate;
+
+    @Column(nullable = false)
+    private Integer numberOfRooms;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
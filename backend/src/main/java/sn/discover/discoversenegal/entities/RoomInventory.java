@@ -0,0 +1,48 @@
+package sn.discover.discoversenegal.entities;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Registre d'inventaire : une ligne par hôtel et par nuit.
+ * bookedRooms est la somme des chambres réservées pour cette nuit.
+ */
+@Entity
+@Table(name = "room_inventory",
+       uniqueConstraints = @UniqueConstraint(name = "uk_room_inventory_hotel_night",
+                                             columnNames = {"hotel_id", "night"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomInventory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hotel_id", nullable = false)
+    private Hotel hotel;
+
+    @Column(nullable = false)
+    private LocalDate night; // Date de la nuitée (check-in <= night < check-out)
+
+    @Column(nullable = false)
+    private Integer totalRooms; // Capacité de l'hôtel pour cette nuit
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer bookedRooms = 0;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
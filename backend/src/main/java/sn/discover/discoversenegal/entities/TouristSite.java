@@ -188,7 +188,9 @@ public class TouristSite {
     @Builder.Default
     private Integer totalReviews = 0;
 
+    // Écrit seulement par ViewCounterRepository : un save() n'écrase pas les vues reportées
     @Builder.Default
+    @Column(updatable = false)
     private Integer totalViews = 0;
 
     @Builder.Default
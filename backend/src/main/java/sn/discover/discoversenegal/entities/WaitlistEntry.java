@@ -0,0 +1,78 @@
+package sn.discover.discoversenegal.entities;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Demande en liste d'attente pour un hôtel complet sur une période.
+ * Quand des chambres se libèrent, elles sont bloquées pour la première demande
+ * compatible (priorité puis ordre d'inscription) qui reçoit un jeton de blocage.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_hotel_status_checkin", columnList = "hotel_id, status, check_in_date"),
+        @Index(name = "idx_waitlist_hold_token", columnList = "hold_token")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hotel_id", nullable = false)
+    private Hotel hotel;
+
+    private Long userId;
+
+    @Column(nullable = false)
+    private String guestName;
+
+    @Column(nullable = false)
+    private String guestEmail;
+
+    private String guestPhone;
+
+    @Column(nullable = false)
+    private LocalDate checkInDate;
+
+    @Column(nullable = false)
+    private LocalDate checkOutDate;
+
+    @Column(nullable = false)
+    private Integer numberOfRooms;
+
+    @Builder.Default
+    private Boolean isOlympicBooking = false;
+
+    private String olympicDelegation;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer priority = 0; // Les demandes JOJ passent en premier
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    private String holdToken;
+
+    private LocalDateTime offeredAt;
+
+    private LocalDateTime offerExpiresAt;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
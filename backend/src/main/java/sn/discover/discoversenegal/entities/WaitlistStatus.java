@@ -0,0 +1,9 @@
+package sn.discover.discoversenegal.entities;
+
+public enum WaitlistStatus {
+    WAITING,              // En attente de chambres
+    OFFERED,              // Chambres bloquées pour le client (offre à durée limitée)
+    FULFILLED,            // Offre transformée en réservation
+    EXPIRED,              // Offre non utilisée à temps
+    CANCELLED             // Retiré de la liste par le client
+}
@@ -0,0 +1,85 @@
+package sn.discover.discoversenegal.repositories;
+
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import sn.discover.discoversenegal.entities.Booking;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Insertions groupées de réservations via JDBC.
+ * Booking utilise un identifiant IDENTITY, ce qui désactive le batching Hibernate :
+ * les listes volumineuses (délégations JOJ) passent donc par JdbcTemplate.batchUpdate.
+ * Les entités doivent être entièrement calculées (référence, montants, statuts).
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO bookings (" +
+            "booking_reference, hotel_id, user_id, guest_first_name, guest_last_name, guest_email, guest_phone, " +
+            "guest_country, guest_nationality, check_in_date, check_out_date, number_of_nights, " +
+            "number_of_adults, number_of_children, number_of_rooms, room_type, price_per_night, total_price, " +
+            "taxes, service_fees, final_amount, currency, special_requests, needs_airport_transfer, " +
+            "flight_number, arrival_time, is_olympic_booking, olympic_delegation, olympic_role, " +
+            "is_confirmed_by_hotel, language_preference, source, status, payment_status, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<Booking> bookings) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, bookings, BATCH_SIZE, (ps, b) -> {
+            int i = 1;
+            ps.setString(i++, b.getBookingReference());
+            ps.setLong(i++, b.getHotel().getId());
+            ps.setLong(i++, b.getUser().getId());
+            ps.setString(i++, b.getGuestFirstName());
+            ps.setString(i++, b.getGuestLastName());
+            ps.setString(i++, b.getGuestEmail());
+            ps.setString(i++, b.getGuestPhone());
+            ps.setString(i++, b.getGuestCountry());
+            ps.setString(i++, b.getGuestNationality());
+            ps.setDate(i++, Date.valueOf(b.getCheckInDate()));
+            ps.setDate(i++, Date.valueOf(b.getCheckOutDate()));
+            ps.setInt(i++, b.getNumberOfNights());
+            ps.setInt(i++, b.getNumberOfAdults());
+            ps.setInt(i++, b.getNumberOfChildren());
+            ps.setInt(i++, b.getNumberOfRooms());
+            ps.setString(i++, b.getRoomType());
+            ps.setBigDecimal(i++, b.getPricePerNight());
+            ps.setBigDecimal(i++, b.getTotalPrice());
+            ps.setBigDecimal(i++, b.getTaxes());
+            ps.setBigDecimal(i++, b.getServiceFees());
+            ps.setBigDecimal(i++, b.getFinalAmount());
+            ps.setString(i++, b.getCurrency());
+            ps.setString(i++, b.getSpecialRequests());
+            ps.setBoolean(i++, Boolean.TRUE.equals(b.getNeedsAirportTransfer()));
+            ps.setString(i++, b.getFlightNumber());
+            if (b.getArrivalTime() != null) {
+                ps.setTimestamp(i++, Timestamp.valueOf(b.getArrivalTime()));
+            } else {
+                ps.setNull(i++, Types.TIMESTAMP);
+            }
+            ps.setBoolean(i++, Boolean.TRUE.equals(b.getIsOlympicBooking()));
+            ps.setString(i++, b.getOlympicDelegation());
+            ps.setString(i++, b.getOlympicRole());
+            ps.setBoolean(i++, Boolean.TRUE.equals(b.getIsConfirmedByHotel()));
+            ps.setString(i++, b.getLanguagePreference());
+            ps.setString(i++, b.getSource() != null ? b.getSource().name() : null);
+            ps.setString(i++, b.getStatus().name());
+            ps.setString(i++, b.getPaymentStatus().name());
+            ps.setTimestamp(i++, now);
+            ps.setTimestamp(i, now);
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package sn.discover.discoversenegal.repositories;
+
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+/**
+ * Lecture en flux des réservations pour les exports.
+ * Les lignes sont lues par un curseur JDBC (forward-only, fetch size fixe) et
+ * transmises une à une au handler : aucune entité n'est chargée dans le contexte
+ * de persistance, la mémoire reste constante quel que soit le volume.
+ * PostgreSQL n'utilise le curseur qu'à l'intérieur d'une transaction (autocommit désactivé).
+ */
+@Repository
+public class BookingExportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    public static final String[] COLUMNS = {
+            "booking_reference", "guest_first_name", "guest_last_name", "guest_email", "guest_phone",
+            "guest_country", "guest_nationality", "check_in_date", "check_out_date", "number_of_nights",
+            "number_of_rooms", "number_of_adults", "number_of_children", "room_type", "price_per_night",
+            "final_amount", "currency", "status", "payment_status", "source", "is_olympic_booking",
+            "olympic_delegation", "olympic_role", "needs_airport_transfer", "flight_number",
+            "arrival_time", "created_at"
+    };
+
+    private static final String HOTEL_BOOKINGS_SQL =
+            "SELECT " + String.join(", ", COLUMNS) + " FROM bookings " +
+            "WHERE hotel_id = ? ORDER BY check_in_date, id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingExportRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    public void streamHotelBookings(Long hotelId, RowCallbackHandler handler) {
+        jdbcTemplate.query(HOTEL_BOOKINGS_SQL, ps -> ps.setLong(1, hotelId), handler);
+    }
+}
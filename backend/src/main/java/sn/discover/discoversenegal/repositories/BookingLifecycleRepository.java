@@ -0,0 +1,80 @@
+package sn.discover.discoversenegal.repositories;
+
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transitions de cycle de vie appliquées par lots (balayage en arrière-plan).
+ * Chaque UPDATE incrémente la colonne version pour que les mises à jour JPA
+ * concurrentes échouent en verrouillage optimiste au lieu d'écraser le statut.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingLifecycleRepository {
+
+    private static final String FIND_NO_SHOW_CANDIDATES_SQL =
+            "SELECT id FROM bookings WHERE status = 'CONFIRMED' AND check_in_date < :today " +
+            "AND id > :afterId ORDER BY id LIMIT :limit";
+
+    private static final String MARK_NO_SHOW_SQL =
+            "UPDATE bookings SET status = 'NO_SHOW', version = version + 1, updated_at = now() " +
+            "WHERE id IN (:ids) AND status = 'CONFIRMED' AND check_in_date < :today RETURNING id";
+
+    private static final String FIND_EXPIRED_PENDING_SQL =
+            "SELECT id FROM bookings WHERE status = 'PENDING' AND created_at < :createdBefore " +
+            "AND id > :afterId ORDER BY id LIMIT :limit";
+
+    private static final String CANCEL_EXPIRED_PENDING_SQL =
+            "UPDATE bookings SET status = 'CANCELLED', cancelled_at = now(), cancellation_reason = :reason, " +
+            "version = version + 1, updated_at = now() " +
+            "WHERE id IN (:ids) AND status = 'PENDING' AND created_at < :createdBefore RETURNING id";
+
+    private static final String COMPLETE_CHECKED_OUT_SQL =
+            "UPDATE bookings SET status = 'COMPLETED', version = version + 1, updated_at = now() " +
+            "WHERE id IN (SELECT id FROM bookings WHERE status = 'CHECKED_OUT' AND check_out_date < :checkedOutBefore " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) RETURNING id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<Long> findNoShowCandidates(LocalDate today, long afterId, int limit) {
+        return jdbcTemplate.queryForList(FIND_NO_SHOW_CANDIDATES_SQL, new MapSqlParameterSource()
+                .addValue("today", Date.valueOf(today))
+                .addValue("afterId", afterId)
+                .addValue("limit", limit), Long.class);
+    }
+
+    public List<Long> markNoShow(List<Long> ids, LocalDate today) {
+        return jdbcTemplate.queryForList(MARK_NO_SHOW_SQL, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("today", Date.valueOf(today)), Long.class);
+    }
+
+    public List<Long> findExpiredPending(LocalDateTime createdBefore, long afterId, int limit) {
+        return jdbcTemplate.queryForList(FIND_EXPIRED_PENDING_SQL, new MapSqlParameterSource()
+                .addValue("createdBefore", Timestamp.valueOf(createdBefore))
+                .addValue("afterId", afterId)
+                .addValue("limit", limit), Long.class);
+    }
+
+    public List<Long> cancelExpiredPending(List<Long> ids, LocalDateTime createdBefore, String reason) {
+        return jdbcTemplate.queryForList(CANCEL_EXPIRED_PENDING_SQL, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("createdBefore", Timestamp.valueOf(createdBefore))
+                .addValue("reason", reason), Long.class);
+    }
+
+    public List<Long> completeCheckedOut(LocalDate checkedOutBefore, int limit) {
+        return jdbcTemplate.queryForList(COMPLETE_CHECKED_OUT_SQL, new MapSqlParameterSource()
+                .addValue("checkedOutBefore", Date.valueOf(checkedOutBefore))
+                .addValue("limit", limit), Long.class);
+    }
+}
@@ -1,6 +1,8 @@
 package sn.discover.discoversenegal.repositories;
 
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -16,45 +18,60 @@ import java.util.Optional;
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
     
+    // Les listes chargent l'hôtel dans la même requête (JOIN) : les DTO lisent son nom,
+    // sa ville et son adresse sans une requête supplémentaire par réservation
+    
     // Recherche par référence unique
     Optional<Booking> findByBookingReference(String bookingReference);
     
     // Recherches par utilisateur
+    @EntityGraph(attributePaths = "hotel")
     List<Booking> findByUserId(Long userId);
     
+    @EntityGraph(attributePaths = "hotel")
     List<Booking> findByUserIdOrderByCreatedAtDesc(Long userId);
     
     // Recherches par hôtel
+    @EntityGraph(attributePaths = "hotel")
     List<Booking> findByHotelId(Long hotelId);
     
+    @EntityGraph(attributePaths = "hotel")
     List<Booking> findByHotelIdOrderByCheckInDateDesc(Long hotelId);
     
     // Recherches par statut
+    @EntityGraph(attributePaths = "hotel")
     List<Booking> findByStatus(BookingStatus status);
     
+    @EntityGraph(attributePaths = "hotel")
     List<Booking> findByPaymentStatus(PaymentStatus paymentStatus);
     
     // Réservations en attente de confirmation
+    @EntityGraph(attributePaths = "hotel")
     @Query("SELECT b FROM Booking b WHERE b.status = 'PENDING' ORDER BY b.createdAt ASC")
     List<Booking> findPendingBookings();
     
     // Réservations confirmées
+    @EntityGraph(attributePaths = "hotel")
     @Query("SELECT b FROM Booking b WHERE b.status = 'CONFIRMED' AND b.isConfirmedByHotel = true")
     List<Booking> findConfirmedBookings();
     
     // Arrivées du jour pour un hôtel
+    @EntityGraph(attributePaths = "hotel")
     @Query("SELECT b FROM Booking b WHERE b.hotel.id = :hotelId AND b.checkInDate = :date AND b.status = 'CONFIRMED'")
     List<Booking> findTodayCheckIns(@Param("hotelId") Long hotelId, @Param("date") LocalDate date);
     
     // Départs du jour pour un hôtel
+    @EntityGraph(attributePaths = "hotel")
     @Query("SELECT b FROM Booking b WHERE b.hotel.id = :hotelId AND b.checkOutDate = :date AND b.status = 'CHECKED_IN'")
     List<Booking> findTodayCheckOuts(@Param("hotelId") Long hotelId, @Param("date") LocalDate date);
     
     // Clients actuellement à l'hôtel
+    @EntityGraph(attributePaths = "hotel")
     @Query("SELECT b FROM Booking b WHERE b.hotel.id = :hotelId AND b.status = 'CHECKED_IN'")
     List<Booking> findCurrentGuests(@Param("hotelId") Long hotelId);
     
     // Réservations par période
+    @EntityGraph(attributePaths = "hotel")
     @Query("SELECT b FROM Booking b WHERE b.hotel.id = :hotelId AND " +
            "((b.checkInDate BETWEEN :startDate AND :endDate) OR " +
            "(b.checkOutDate BETWEEN :startDate AND :endDate) OR " +
@@ -74,15 +91,19 @@ public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpec
                                    @Param("checkOut") LocalDate checkOut);
     
     // Réservations JOJ
+    @EntityGraph(attributePaths = "hotel")
     @Query("SELECT b FROM Booking b WHERE b.isOlympicBooking = true")
     List<Booking> findOlympicBookings();
     
+    @EntityGraph(attributePaths = "hotel")
     @Query("SELECT b FROM Booking b WHERE b.isOlympicBooking = true AND b.olympicDelegation = :delegation")
     List<Booking> findByOlympicDelegation(@Param("delegation") String delegation);
     
     // Réservations par email client
+    @EntityGraph(attributePaths = "hotel")
     List<Booking> findByGuestEmail(String email);
     
+    @EntityGraph(attributePaths = "hotel")
     List<Booking> findByGuestPhone(String phone);
     
     // Statistiques
@@ -96,23 +117,94 @@ public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpec
     Double getAverageRating(@Param("hotelId") Long hotelId);
     
     // Réservations récentes
+    @EntityGraph(attributePaths = "hotel")
     @Query("SELECT b FROM Booking b WHERE b.createdAt >= :since ORDER BY b.createdAt DESC")
     List<Booking> findRecentBookings(@Param("since") LocalDateTime since);
     
     // Réservations annulées
+    @EntityGraph(attributePaths = "hotel")
     @Query("SELECT b FROM Booking b WHERE b.status = 'CANCELLED' AND b.cancelledAt BETWEEN :startDate AND :endDate")
     List<Booking> findCancelledBookingsBetween(@Param("startDate") LocalDateTime startDate, 
                                                 @Param("endDate") LocalDateTime endDate);
     
     // No-shows
+    @EntityGraph(attributePaths = "hotel")
     @Query("SELECT b FROM Booking b WHERE b.status = 'NO_SHOW'")
     List<Booking> findNoShowBookings();
     
     // Réservations nécessitant un transfert aéroport
+    @EntityGraph(attributePaths = "hotel")
     @Query("SELECT b FROM Booking b WHERE b.needsAirportTransfer = true AND " +
            "b.checkInDate = :date AND b.status = 'CONFIRMED'")
     List<Booking> findBookingsNeedingTransferForDate(@Param("date") LocalDate date);
     
+    // Manifeste des transferts : projection sans chargement d'entités
+    interface TransferRow {
+        Long getBookingId();
+        String getBookingReference();
+        LocalDate getCheckInDate();
+        String getFlightNumber();
+        LocalDateTime getArrivalTime();
+        Long getHotelId();
+        String getHotelName();
+        String getHotelAddress();
+        String getGuestFirstName();
+        String getGuestLastName();
+        String getGuestPhone();
+        Integer getNumberOfAdults();
+        Integer getNumberOfChildren();
+        String getOlympicDelegation();
+    }
+    
+    @Query("SELECT b.id AS bookingId, b.bookingReference AS bookingReference, b.checkInDate AS checkInDate, " +
+           "b.flightNumber AS flightNumber, b.arrivalTime AS arrivalTime, h.id AS hotelId, " +
+           "h.name AS hotelName, h.address AS hotelAddress, b.guestFirstName AS guestFirstName, " +
+           "b.guestLastName AS guestLastName, b.guestPhone AS guestPhone, " +
+           "b.numberOfAdults AS numberOfAdults, b.numberOfChildren AS numberOfChildren, " +
+           "b.olympicDelegation AS olympicDelegation " +
+           "FROM Booking b JOIN b.hotel h WHERE b.needsAirportTransfer = true AND b.status = 'CONFIRMED' " +
+           "AND b.checkInDate >= :from AND b.checkInDate < :to " +
+           "ORDER BY b.checkInDate, b.arrivalTime, b.flightNumber, h.id, b.id")
+    List<TransferRow> findTransferRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // --- Pagination par curseur (keyset) : coût constant quelle que soit la page ---
+    @EntityGraph(attributePaths = "hotel")
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND " +
+           "(b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Booking> findUserBookingsBefore(@Param("userId") Long userId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+    
+    @EntityGraph(attributePaths = "hotel")
+    @Query("SELECT b FROM Booking b WHERE b.hotel.id = :hotelId AND " +
+           "(b.checkInDate < :checkInDate OR (b.checkInDate = :checkInDate AND b.id < :id)) " +
+           "ORDER BY b.checkInDate DESC, b.id DESC")
+    List<Booking> findHotelBookingsBefore(@Param("hotelId") Long hotelId,
+                                          @Param("checkInDate") LocalDate checkInDate,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+    
+    @EntityGraph(attributePaths = "hotel")
+    @Query("SELECT b FROM Booking b WHERE b.status = 'PENDING' AND " +
+           "(b.createdAt > :createdAt OR (b.createdAt = :createdAt AND b.id > :id)) " +
+           "ORDER BY b.createdAt ASC, b.id ASC")
+    List<Booking> findPendingBookingsAfter(@Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+    
+    @EntityGraph(attributePaths = "hotel")
+    @Query("SELECT b FROM Booking b WHERE b.isOlympicBooking = true AND " +
+           "(b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Booking> findOlympicBookingsBefore(@Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+    
     // Vérifier existence référence
     boolean existsByBookingReference(String bookingReference);
+
+    // Le compte a déjà réservé pour cette délégation : il peut demander la priorité JOJ en liste d'attente
+    boolean existsByUserIdAndIsOlympicBookingTrueAndOlympicDelegation(Long userId, String olympicDelegation);
 }
\ No newline at end of file
@@ -12,6 +12,8 @@ import sn.discover.discoversenegal.entities.EventCategory;
 import sn.discover.discoversenegal.entities.EventStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
@@ -25,15 +27,6 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     // Par ville et statut
     Page<Event> findByCityIgnoreCaseAndStatus(String city, EventStatus status, Pageable pageable);
 
-    // Recherche par mot-clé (titre ou description)
-    @Query("SELECT e FROM Event e WHERE e.status = :status AND " +
-           "(LOWER(e.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(e.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(e.location) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<Event> searchByKeyword(@Param("keyword") String keyword,
-                                @Param("status") EventStatus status,
-                                Pageable pageable);
-
     // Événements à venir
     @Query("SELECT e FROM Event e WHERE e.status = :status AND e.startDateTime >= :now ORDER BY e.startDateTime ASC")
     Page<Event> findUpcoming(@Param("now") LocalDateTime now,
@@ -78,4 +71,61 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     long countByStatus(EventStatus status);
     long countByCategory(EventCategory category);
     long countByOrganizerId(Long organizerId);
+
+    // Index géographique : coordonnées des événements visibles non terminés, sans charger les entités
+    interface GeoRow {
+        Long getId();
+        String getTitle();
+        EventCategory getCategory();
+        String getCity();
+        Double getLatitude();
+        Double getLongitude();
+        LocalDateTime getStartDateTime();
+        LocalDateTime getEndDateTime();
+    }
+
+    @Query("SELECT e.id AS id, e.title AS title, e.category AS category, e.city AS city, " +
+           "e.latitude AS latitude, e.longitude AS longitude, " +
+           "e.startDateTime AS startDateTime, e.endDateTime AS endDateTime " +
+           "FROM Event e WHERE e.status IN :statuses AND e.latitude IS NOT NULL AND e.longitude IS NOT NULL " +
+           "AND (e.endDateTime IS NULL OR e.endDateTime >= :now)")
+    List<GeoRow> findGeoRows(@Param("statuses") Collection<EventStatus> statuses, @Param("now") LocalDateTime now);
+
+    // Autocomplétion : titres, localisation et inscrits des événements visibles non terminés
+    interface NameRow {
+        Long getId();
+        String getTitle();
+        String getCity();
+        String getRegion();
+        Integer getCurrentParticipants();
+        LocalDateTime getEndDateTime();
+    }
+
+    @Query("SELECT e.id AS id, e.title AS title, e.city AS city, e.region AS region, " +
+           "e.currentParticipants AS currentParticipants, e.endDateTime AS endDateTime " +
+           "FROM Event e WHERE e.status IN :statuses AND (e.endDateTime IS NULL OR e.endDateTime >= :now)")
+    List<NameRow> findNameRows(@Param("statuses") Collection<EventStatus> statuses, @Param("now") LocalDateTime now);
+
+    // Recherche plein texte : textes des événements publiés, chargés une fois au démarrage
+    interface SearchRow {
+        Long getId();
+        String getTitle();
+        String getShortDescription();
+        String getDescription();
+        String getLocation();
+        String getCity();
+    }
+
+    @Query("SELECT e.id AS id, e.title AS title, e.shortDescription AS shortDescription, " +
+           "e.description AS description, e.location AS location, e.city AS city " +
+           "FROM Event e WHERE e.status = :status")
+    List<SearchRow> findSearchRows(@Param("status") EventStatus status);
+
+    interface TagRow {
+        Long getId();
+        String getTag();
+    }
+
+    @Query("SELECT e.id AS id, t AS tag FROM Event e JOIN e.tags t WHERE e.status = :status")
+    List<TagRow> findSearchTags(@Param("status") EventStatus status);
 }
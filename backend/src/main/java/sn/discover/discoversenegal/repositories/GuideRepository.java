@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sn.discover.discoversenegal.entities.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -99,10 +100,6 @@ public interface GuideRepository extends JpaRepository<Guide, Long>, JpaSpecific
     @Query("SELECT g FROM Guide g WHERE g.active = true ORDER BY g.yearsOfExperience DESC, g.totalTours DESC")
     List<Guide> findMostExperienced();
     
-    // Guides les plus populaires
-    @Query("SELECT g FROM Guide g WHERE g.active = true ORDER BY g.viewCount DESC, g.bookingCount DESC")
-    List<Guide> findMostPopular();
-    
     // Recherche par note minimale
     @Query("SELECT g FROM Guide g WHERE g.averageRating >= :minRating AND g.active = true ORDER BY g.averageRating DESC")
     List<Guide> findByMinimumRating(@Param("minRating") Double minRating);
@@ -117,9 +114,18 @@ public interface GuideRepository extends JpaRepository<Guide, Long>, JpaSpecific
     // Guides par statut de vérification
     List<Guide> findByVerificationStatus(VerificationStatus status);
     
-    // Recherche par nom
-    @Query("SELECT g FROM Guide g WHERE (LOWER(g.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR LOWER(g.lastName) LIKE LOWER(CONCAT('%', :name, '%'))) AND g.active = true")
-    List<Guide> searchByName(@Param("name") String name);
+    // Recherche approchée par nom et autocomplétion : prénoms, noms et localisation des guides actifs
+    interface NameRow {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        String getCity();
+        String getRegion();
+    }
+    
+    @Query("SELECT g.id AS id, g.firstName AS firstName, g.lastName AS lastName, g.city AS city, g.region AS region " +
+           "FROM Guide g WHERE g.active = true")
+    List<NameRow> findNameRows();
     
     // Statistiques par ville
     @Query("SELECT g.city, COUNT(g) FROM Guide g WHERE g.active = true GROUP BY g.city ORDER BY COUNT(g) DESC")
@@ -136,4 +142,20 @@ public interface GuideRepository extends JpaRepository<Guide, Long>, JpaSpecific
     // Guides avec vérification d'antécédents
     @Query("SELECT g FROM Guide g WHERE g.backgroundCheckCompleted = true AND g.active = true")
     List<Guide> findWithBackgroundCheck();
+    
+    // Classements de popularité : ville, type et compteurs cumulés des guides actifs
+    interface PopularityRow {
+        Long getId();
+        String getCity();
+        GuideType getGuideType();
+        LocalDateTime getCreatedAt();
+        Integer getViewCount();
+        Integer getFavoriteCount();
+        Integer getBookingCount();
+    }
+    
+    @Query("SELECT g.id AS id, g.city AS city, g.guideType AS guideType, g.createdAt AS createdAt, " +
+           "g.viewCount AS viewCount, g.favoriteCount AS favoriteCount, g.bookingCount AS bookingCount " +
+           "FROM Guide g WHERE g.active = true")
+    List<PopularityRow> findPopularityRows();
 }
@@ -0,0 +1,125 @@
+package sn.discover.discoversenegal.repositories;
+
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import sn.discover.discoversenegal.entities.HotelDailyStats;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HotelDailyStatsRepository extends JpaRepository<HotelDailyStats, Long> {
+
+    // Totaux d'une période (ou de tout l'historique)
+    interface StatsTotals {
+        Long getRoomNights();
+        BigDecimal getRoomRevenue();
+        BigDecimal getPaidRevenue();
+        Long getCompletedBookings();
+        Long getRatingSum();
+        Long getRatingCount();
+    }
+
+    @Query("SELECT COALESCE(SUM(s.roomNights), 0) AS roomNights, " +
+           "COALESCE(SUM(s.roomRevenue), 0) AS roomRevenue, " +
+           "COALESCE(SUM(s.paidRevenue), 0) AS paidRevenue, " +
+           "COALESCE(SUM(s.completedBookings), 0) AS completedBookings, " +
+           "COALESCE(SUM(s.ratingSum), 0) AS ratingSum, " +
+           "COALESCE(SUM(s.ratingCount), 0) AS ratingCount " +
+           "FROM HotelDailyStats s WHERE s.hotel.id = :hotelId AND s.day >= :from AND s.day < :to")
+    StatsTotals summarize(@Param("hotelId") Long hotelId,
+                          @Param("from") LocalDate from,
+                          @Param("to") LocalDate to);
+
+    @Query("SELECT COALESCE(SUM(s.ratingSum), 0) AS ratingSum, COALESCE(SUM(s.ratingCount), 0) AS ratingCount " +
+           "FROM HotelDailyStats s WHERE s.hotel.id = :hotelId")
+    StatsTotals summarizeRatings(@Param("hotelId") Long hotelId);
+
+    @Query("SELECT s FROM HotelDailyStats s WHERE s.hotel.id = :hotelId AND s.day >= :from AND s.day < :to " +
+           "ORDER BY s.day")
+    List<HotelDailyStats> findDays(@Param("hotelId") Long hotelId,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    // Ajouter (ou retrancher) des deltas sur un jour, en créant la ligne si besoin
+    @Modifying
+    @Query(value = "INSERT INTO hotel_daily_stats (hotel_id, day, room_nights, room_revenue, paid_revenue, " +
+                   "completed_bookings, rating_sum, rating_count, updated_at) " +
+                   "VALUES (:hotelId, :day, :roomNights, :roomRevenue, :paidRevenue, :completed, " +
+                   ":ratingSum, :ratingCount, now()) " +
+                   "ON CONFLICT (hotel_id, day) DO UPDATE SET " +
+                   "room_nights = hotel_daily_stats.room_nights + EXCLUDED.room_nights, " +
+                   "room_revenue = hotel_daily_stats.room_revenue + EXCLUDED.room_revenue, " +
+                   "paid_revenue = hotel_daily_stats.paid_revenue + EXCLUDED.paid_revenue, " +
+                   "completed_bookings = hotel_daily_stats.completed_bookings + EXCLUDED.completed_bookings, " +
+                   "rating_sum = hotel_daily_stats.rating_sum + EXCLUDED.rating_sum, " +
+                   "rating_count = hotel_daily_stats.rating_count + EXCLUDED.rating_count, " +
+                   "updated_at = now()",
+           nativeQuery = true)
+    int applyDelta(@Param("hotelId") Long hotelId,
+                   @Param("day") LocalDate day,
+                   @Param("roomNights") Integer roomNights,
+                   @Param("roomRevenue") BigDecimal roomRevenue,
+                   @Param("paidRevenue") BigDecimal paidRevenue,
+                   @Param("completed") Integer completed,
+                   @Param("ratingSum") Integer ratingSum,
+                   @Param("ratingCount") Integer ratingCount);
+
+    // --- Mises à jour groupées (balayage du cycle de vie) ---
+    @Modifying
+    @Query(value = "UPDATE hotel_daily_stats s SET " +
+                   "room_nights = GREATEST(s.room_nights - x.rooms, 0), " +
+                   "room_revenue = GREATEST(s.room_revenue - x.revenue, 0), updated_at = now() FROM (" +
+                   "SELECT b.hotel_id, CAST(d AS date) AS night, SUM(b.number_of_rooms) AS rooms, " +
+                   "SUM(b.price_per_night * b.number_of_rooms) AS revenue FROM bookings b " +
+                   "CROSS JOIN LATERAL generate_series(b.check_in_date, b.check_out_date - 1, interval '1 day') d " +
+                   "WHERE b.id IN (:bookingIds) GROUP BY b.hotel_id, CAST(d AS date)) x " +
+                   "WHERE s.hotel_id = x.hotel_id AND s.day = x.night",
+           nativeQuery = true)
+    int subtractStayNights(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO hotel_daily_stats (hotel_id, day, room_nights, room_revenue, paid_revenue, " +
+                   "completed_bookings, rating_sum, rating_count, updated_at) " +
+                   "SELECT b.hotel_id, b.check_out_date, 0, 0, 0, COUNT(*), 0, 0, now() FROM bookings b " +
+                   "WHERE b.id IN (:bookingIds) GROUP BY b.hotel_id, b.check_out_date " +
+                   "ON CONFLICT (hotel_id, day) DO UPDATE SET " +
+                   "completed_bookings = hotel_daily_stats.completed_bookings + EXCLUDED.completed_bookings, " +
+                   "updated_at = now()",
+           nativeQuery = true)
+    int addCompletedBookings(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // --- Reconstruction depuis les réservations existantes ---
+    @Modifying
+    @Query(value = "DELETE FROM hotel_daily_stats WHERE hotel_id = :hotelId", nativeQuery = true)
+    int deleteByHotel(@Param("hotelId") Long hotelId);
+
+    @Modifying
+    @Query(value = "INSERT INTO hotel_daily_stats (hotel_id, day, room_nights, room_revenue, paid_revenue, " +
+                   "completed_bookings, rating_sum, rating_count, updated_at) " +
+                   "SELECT :hotelId, c.day, SUM(c.room_nights), SUM(c.room_revenue), SUM(c.paid_revenue), " +
+                   "SUM(c.completed), SUM(c.rating_sum), SUM(c.rating_count), now() FROM (" +
+                   "SELECT CAST(d AS date) AS day, b.number_of_rooms AS room_nights, " +
+                   "b.price_per_night * b.number_of_rooms AS room_revenue, 0 AS paid_revenue, " +
+                   "0 AS completed, 0 AS rating_sum, 0 AS rating_count FROM bookings b " +
+                   "CROSS JOIN LATERAL generate_series(b.check_in_date, b.check_out_date - 1, interval '1 day') d " +
+                   "WHERE b.hotel_id = :hotelId AND b.status NOT IN ('CANCELLED', 'NO_SHOW') " +
+                   "UNION ALL " +
+                   "SELECT b.check_in_date, 0, 0, b.final_amount, 0, 0, 0 FROM bookings b " +
+                   "WHERE b.hotel_id = :hotelId AND b.payment_status = 'PAID' AND b.final_amount IS NOT NULL " +
+                   "UNION ALL " +
+                   "SELECT b.check_out_date, 0, 0, 0, 1, 0, 0 FROM bookings b " +
+                   "WHERE b.hotel_id = :hotelId AND b.status = 'COMPLETED' " +
+                   "UNION ALL " +
+                   "SELECT COALESCE(CAST(b.reviewed_at AS date), b.check_out_date), 0, 0, 0, 0, b.rating, 1 " +
+                   "FROM bookings b WHERE b.hotel_id = :hotelId AND b.rating IS NOT NULL" +
+                   ") c GROUP BY c.day",
+           nativeQuery = true)
+    int rebuildFromBookings(@Param("hotelId") Long hotelId);
+}
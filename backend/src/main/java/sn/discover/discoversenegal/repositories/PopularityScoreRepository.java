@@ -0,0 +1,47 @@
+package sn.discover.discoversenegal.repositories;
+
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import sn.discover.discoversenegal.entities.PopularityItemType;
+import sn.discover.discoversenegal.entities.PopularityScore;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Lecture et écriture groupées des points de reprise de popularité (table popularity_scores).
+ * L'écriture est un upsert PostgreSQL en batch : une ligne par élément dont le score a changé.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PopularityScoreRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPSERT_SQL = "INSERT INTO popularity_scores (item_type, item_id, score, updated_at) " +
+            "VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (item_type, item_id) DO UPDATE SET score = EXCLUDED.score, updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<PopularityScore> findAll() {
+        return jdbcTemplate.query("SELECT item_type, item_id, score, updated_at FROM popularity_scores",
+                (rs, rowNum) -> PopularityScore.builder()
+                        .itemType(PopularityItemType.valueOf(rs.getString("item_type")))
+                        .itemId(rs.getLong("item_id"))
+                        .score(rs.getDouble("score"))
+                        .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                        .build());
+    }
+
+    public void upsertAll(List<PopularityScore> scores) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, scores, BATCH_SIZE, (ps, score) -> {
+            ps.setString(1, score.getItemType().name());
+            ps.setLong(2, score.getItemId());
+            ps.setDouble(3, score.getScore());
+            ps.setTimestamp(4, Timestamp.valueOf(score.getUpdatedAt()));
+        });
+    }
+}
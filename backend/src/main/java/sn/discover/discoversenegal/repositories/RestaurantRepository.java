@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sn.discover.discoversenegal.entities.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -83,10 +84,6 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long>, J
     @Query("SELECT r FROM Restaurant r WHERE r.active = true ORDER BY r.averageRating DESC, r.totalReviews DESC")
     List<Restaurant> findTopRated();
     
-    // Restaurants les plus populaires
-    @Query("SELECT r FROM Restaurant r WHERE r.active = true ORDER BY r.viewCount DESC, r.reservationCount DESC")
-    List<Restaurant> findMostPopular();
-    
     // Restaurants les plus favoris
     @Query("SELECT r FROM Restaurant r WHERE r.active = true ORDER BY r.favoriteCount DESC")
     List<Restaurant> findMostFavorited();
@@ -95,18 +92,6 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long>, J
     @Query("SELECT r FROM Restaurant r WHERE r.averageRating >= :minRating AND r.active = true ORDER BY r.averageRating DESC")
     List<Restaurant> findByMinimumRating(@Param("minRating") Double minRating);
     
-    // Recherche géographique (proximité)
-    @Query("SELECT r FROM Restaurant r WHERE r.active = true AND " +
-           "(6371 * acos(cos(radians(:latitude)) * cos(radians(r.latitude)) * " +
-           "cos(radians(r.longitude) - radians(:longitude)) + sin(radians(:latitude)) * " +
-           "sin(radians(r.latitude)))) <= :radius ORDER BY " +
-           "(6371 * acos(cos(radians(:latitude)) * cos(radians(r.latitude)) * " +
-           "cos(radians(r.longitude) - radians(:longitude)) + sin(radians(:latitude)) * " +
-           "sin(radians(r.latitude))))")
-    List<Restaurant> findRestaurantsNearby(@Param("latitude") Double latitude,
-                                           @Param("longitude") Double longitude,
-                                           @Param("radius") Double radius);
-    
     // Partenaires actifs
     @Query("SELECT r FROM Restaurant r WHERE r.partnershipStatus = 'ACTIVE' AND r.verificationStatus = 'VERIFIED' AND r.active = true")
     List<Restaurant> findActivePartners();
@@ -123,9 +108,16 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long>, J
     // Vérifier existence par email
     boolean existsByEmail(String email);
     
-    // Recherche par nom
-    @Query("SELECT r FROM Restaurant r WHERE LOWER(r.name) LIKE LOWER(CONCAT('%', :name, '%')) AND r.active = true")
-    List<Restaurant> searchByName(@Param("name") String name);
+    // Recherche approchée par nom et autocomplétion : noms et localisation des restaurants actifs
+    interface NameRow {
+        Long getId();
+        String getName();
+        String getCity();
+        String getRegion();
+    }
+    
+    @Query("SELECT r.id AS id, r.name AS name, r.city AS city, r.region AS region FROM Restaurant r WHERE r.active = true")
+    List<NameRow> findNameRows();
     
     // Statistiques par ville
     @Query("SELECT r.city, COUNT(r) FROM Restaurant r WHERE r.active = true GROUP BY r.city ORDER BY COUNT(r) DESC")
@@ -138,4 +130,36 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long>, J
     // Restaurants ouverts maintenant (nécessite logique complexe côté service)
     @Query("SELECT r FROM Restaurant r WHERE r.active = true")
     List<Restaurant> findAllActive();
+    
+    // Index géographique : coordonnées des restaurants actifs, sans charger les entités
+    interface GeoRow {
+        Long getId();
+        String getName();
+        RestaurantType getType();
+        String getCity();
+        Double getLatitude();
+        Double getLongitude();
+        Double getAverageRating();
+    }
+    
+    @Query("SELECT r.id AS id, r.name AS name, r.type AS type, r.city AS city, " +
+           "r.latitude AS latitude, r.longitude AS longitude, r.averageRating AS averageRating " +
+           "FROM Restaurant r WHERE r.active = true AND r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    List<GeoRow> findGeoRows();
+    
+    // Classements de popularité : ville, type et compteurs cumulés des restaurants actifs
+    interface PopularityRow {
+        Long getId();
+        String getCity();
+        RestaurantType getType();
+        LocalDateTime getCreatedAt();
+        Integer getViewCount();
+        Integer getFavoriteCount();
+        Integer getReservationCount();
+    }
+    
+    @Query("SELECT r.id AS id, r.city AS city, r.type AS type, r.createdAt AS createdAt, " +
+           "r.viewCount AS viewCount, r.favoriteCount AS favoriteCount, r.reservationCount AS reservationCount " +
+           "FROM Restaurant r WHERE r.active = true")
+    List<PopularityRow> findPopularityRows();
 }
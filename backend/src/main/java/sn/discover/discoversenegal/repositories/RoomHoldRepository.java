@@ -0,0 +1,41 @@
+package sn.discover.discoversenegal.repositories;
+
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import sn.discover.discoversenegal.entities.RoomHold;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RoomHoldRepository extends JpaRepository<RoomHold, Long> {
+
+    Optional<RoomHold> findByHoldToken(String holdToken);
+
+    // Blocages à replanifier au démarrage
+    interface HoldExpiry {
+        Long getId();
+        LocalDateTime getExpiresAt();
+    }
+
+    @Query("SELECT h.id AS id, h.expiresAt AS expiresAt FROM RoomHold h")
+    List<HoldExpiry> findAllExpiries();
+
+    @Query("SELECT h.id FROM RoomHold h WHERE h.expiresAt <= :before ORDER BY h.expiresAt")
+    List<Long> findExpiredIds(@Param("before") LocalDateTime before, Pageable pageable);
+
+    // Suppression conditionnelle : une seule transaction peut consommer ou expirer un blocage
+    @Modifying
+    @Query("DELETE FROM RoomHold h WHERE h.id = :id")
+    int deleteHold(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM RoomHold h WHERE h.id = :id AND h.expiresAt <= :now")
+    int deleteIfExpired(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
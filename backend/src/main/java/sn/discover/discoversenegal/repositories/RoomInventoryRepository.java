@@ -0,0 +1,154 @@
+package sn.discover.discoversenegal.repositories;
+
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import sn.discover.discoversenegal.entities.RoomInventory;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RoomInventoryRepository extends JpaRepository<RoomInventory, Long> {
+
+    // Résumé d'une fenêtre de nuits [checkIn, checkOut)
+    interface InventoryWindow {
+        Long getTrackedNights();
+        Integer getMinRemaining();
+    }
+
+    @Query("SELECT COUNT(r) AS trackedNights, MIN(r.totalRooms - r.bookedRooms) AS minRemaining " +
+           "FROM RoomInventory r WHERE r.hotel.id = :hotelId AND " +
+           "r.night >= :checkIn AND r.night < :checkOut")
+    InventoryWindow summarizeWindow(@Param("hotelId") Long hotelId,
+                                    @Param("checkIn") LocalDate checkIn,
+                                    @Param("checkOut") LocalDate checkOut);
+
+    // Chambres restantes nuit par nuit (calendrier)
+    interface NightRemaining {
+        LocalDate getNight();
+        Integer getRemaining();
+    }
+
+    @Query("SELECT r.night AS night, r.totalRooms - r.bookedRooms AS remaining " +
+           "FROM RoomInventory r WHERE r.hotel.id = :hotelId AND " +
+           "r.night >= :from AND r.night < :to ORDER BY r.night")
+    List<NightRemaining> findRemainingByNight(@Param("hotelId") Long hotelId,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to);
+
+    // Créer les nuits manquantes (idempotent)
+    @Modifying
+    @Query(value = "INSERT INTO room_inventory (hotel_id, night, total_rooms, booked_rooms, updated_at) " +
+                   "SELECT :hotelId, CAST(d AS date), :totalRooms, 0, now() " +
+                   "FROM generate_series(CAST(:checkIn AS date), CAST(:checkOut AS date) - 1, interval '1 day') d " +
+                   "ON CONFLICT (hotel_id, night) DO NOTHING",
+           nativeQuery = true)
+    int initializeNights(@Param("hotelId") Long hotelId,
+                         @Param("checkIn") LocalDate checkIn,
+                         @Param("checkOut") LocalDate checkOut,
+                         @Param("totalRooms") Integer totalRooms);
+
+    // Verrouiller les nuits dans un ordre stable pour éviter les interblocages
+    @Query(value = "SELECT id FROM room_inventory WHERE hotel_id = :hotelId AND " +
+                   "night >= :checkIn AND night < :checkOut ORDER BY night FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockNights(@Param("hotelId") Long hotelId,
+                          @Param("checkIn") LocalDate checkIn,
+                          @Param("checkOut") LocalDate checkOut);
+
+    // Réserver des chambres sur chaque nuit de la fenêtre, seulement s'il en reste assez
+    @Modifying
+    @Query("UPDATE RoomInventory r SET r.bookedRooms = r.bookedRooms + :rooms, r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.hotel.id = :hotelId AND r.night >= :checkIn AND r.night < :checkOut " +
+           "AND r.totalRooms - r.bookedRooms >= :rooms")
+    int incrementBookedRooms(@Param("hotelId") Long hotelId,
+                             @Param("checkIn") LocalDate checkIn,
+                             @Param("checkOut") LocalDate checkOut,
+                             @Param("rooms") Integer rooms);
+
+    // Libérer des chambres (jamais en dessous de zéro)
+    @Modifying
+    @Query("UPDATE RoomInventory r SET " +
+           "r.bookedRooms = CASE WHEN r.bookedRooms > :rooms THEN r.bookedRooms - :rooms ELSE 0 END, " +
+           "r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.hotel.id = :hotelId AND r.night >= :checkIn AND r.night < :checkOut")
+    int decrementBookedRooms(@Param("hotelId") Long hotelId,
+                             @Param("checkIn") LocalDate checkIn,
+                             @Param("checkOut") LocalDate checkOut,
+                             @Param("rooms") Integer rooms);
+
+    // --- Libération groupée (balayage du cycle de vie) ---
+    // Même ordre de verrouillage que reserve() : hôtel puis nuit
+    @Query(value = "SELECT ri.id FROM room_inventory ri JOIN bookings b ON b.hotel_id = ri.hotel_id " +
+                   "AND ri.night >= b.check_in_date AND ri.night < b.check_out_date " +
+                   "WHERE b.id IN (:bookingIds) ORDER BY ri.hotel_id, ri.night FOR UPDATE OF ri",
+           nativeQuery = true)
+    List<Long> lockNightsOfBookings(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying
+    @Query(value = "UPDATE room_inventory ri SET booked_rooms = GREATEST(ri.booked_rooms - x.rooms, 0), " +
+                   "updated_at = now() FROM (" +
+                   "SELECT b.hotel_id, CAST(d AS date) AS night, SUM(b.number_of_rooms) AS rooms FROM bookings b " +
+                   "CROSS JOIN LATERAL generate_series(b.check_in_date, b.check_out_date - 1, interval '1 day') d " +
+                   "WHERE b.id IN (:bookingIds) GROUP BY b.hotel_id, CAST(d AS date)) x " +
+                   "WHERE ri.hotel_id = x.hotel_id AND ri.night = x.night",
+           nativeQuery = true)
+    int releaseBookings(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // Séjours libérés, regroupés par hôtel et par dates, pour les InventoryReleasedEvent
+    interface ReleasedStay {
+        Long getHotelId();
+        LocalDate getCheckIn();
+        LocalDate getCheckOut();
+        Long getRooms();
+    }
+
+    @Query("SELECT b.hotel.id AS hotelId, b.checkInDate AS checkIn, b.checkOutDate AS checkOut, " +
+           "SUM(b.numberOfRooms) AS rooms FROM Booking b WHERE b.id IN :bookingIds " +
+           "GROUP BY b.hotel.id, b.checkInDate, b.checkOutDate")
+    List<ReleasedStay> findReleasedStays(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // Répercuter un changement de capacité sur les nuits à venir
+    @Modifying
+    @Query("UPDATE RoomInventory r SET r.totalRooms = :totalRooms, r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.hotel.id = :hotelId AND r.night >= :from")
+    int updateTotalRooms(@Param("hotelId") Long hotelId,
+                         @Param("from") LocalDate from,
+                         @Param("totalRooms") Integer totalRooms);
+
+    // --- Reconstruction depuis les réservations et les blocages existants ---
+    // Un blocage encore présent dans room_holds occupe ses chambres : sa suppression
+    // (consommation, abandon ou expiration) est ce qui les rend au registre.
+    @Modifying
+    @Query(value = "INSERT INTO room_inventory (hotel_id, night, total_rooms, booked_rooms, updated_at) " +
+                   "SELECT DISTINCT s.hotel_id, CAST(d AS date), :totalRooms, 0, now() FROM (" +
+                   "SELECT b.hotel_id, b.check_in_date, b.check_out_date FROM bookings b " +
+                   "WHERE b.hotel_id = :hotelId AND b.status NOT IN ('CANCELLED', 'NO_SHOW') " +
+                   "AND b.check_out_date > :from " +
+                   "UNION ALL " +
+                   "SELECT h.hotel_id, h.check_in_date, h.check_out_date FROM room_holds h " +
+                   "WHERE h.hotel_id = :hotelId AND h.check_out_date > :from) s " +
+                   "CROSS JOIN LATERAL generate_series(s.check_in_date, s.check_out_date - 1, interval '1 day') d " +
+                   "ON CONFLICT (hotel_id, night) DO NOTHING",
+           nativeQuery = true)
+    int initializeNightsFromBookings(@Param("hotelId") Long hotelId,
+                                     @Param("from") LocalDate from,
+                                     @Param("totalRooms") Integer totalRooms);
+
+    @Modifying
+    @Query(value = "UPDATE room_inventory ri SET booked_rooms = COALESCE((" +
+                   "SELECT SUM(b.number_of_rooms) FROM bookings b WHERE b.hotel_id = ri.hotel_id " +
+                   "AND b.status NOT IN ('CANCELLED', 'NO_SHOW') " +
+                   "AND b.check_in_date <= ri.night AND b.check_out_date > ri.night), 0) + COALESCE((" +
+                   "SELECT SUM(h.number_of_rooms) FROM room_holds h WHERE h.hotel_id = ri.hotel_id " +
+                   "AND h.check_in_date <= ri.night AND h.check_out_date > ri.night), 0), " +
+                   "updated_at = now() " +
+                   "WHERE ri.hotel_id = :hotelId AND ri.night >= :from",
+           nativeQuery = true)
+    int recomputeBookedRooms(@Param("hotelId") Long hotelId, @Param("from") LocalDate from);
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sn.discover.discoversenegal.entities.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -39,30 +40,6 @@ public interface TouristSiteRepository extends JpaRepository<TouristSite, Long>
     // --- Par créateur ---
     Page<TouristSite> findByCreatedById(Long userId, Pageable pageable);
 
-    // --- Recherche plein texte ---
-    @Query("SELECT s FROM TouristSite s WHERE s.status = :status AND (" +
-           "LOWER(s.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(s.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(s.city) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(s.region) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(s.history) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<TouristSite> searchByKeyword(@Param("keyword") String keyword,
-                                       @Param("status") SiteStatus status,
-                                       Pageable pageable);
-
-    // --- Recherche géographique (rayon en km via formule Haversine) ---
-    @Query(value = "SELECT * FROM tourist_sites s WHERE s.status = 'PUBLIE' AND " +
-                   "(6371 * acos(cos(radians(:lat)) * cos(radians(s.latitude)) * " +
-                   "cos(radians(s.longitude) - radians(:lng)) + " +
-                   "sin(radians(:lat)) * sin(radians(s.latitude)))) <= :radiusKm " +
-                   "ORDER BY (6371 * acos(cos(radians(:lat)) * cos(radians(s.latitude)) * " +
-                   "cos(radians(s.longitude) - radians(:lng)) + " +
-                   "sin(radians(:lat)) * sin(radians(s.latitude)))) ASC",
-           nativeQuery = true)
-    List<TouristSite> findNearby(@Param("lat") Double latitude,
-                                  @Param("lng") Double longitude,
-                                  @Param("radiusKm") Double radiusKm);
-
     // --- Recherche avancée multi-critères ---
     @Query("SELECT s FROM TouristSite s WHERE " +
            "(:status IS NULL OR s.status = :status) AND " +
@@ -94,15 +71,7 @@ public interface TouristSiteRepository extends JpaRepository<TouristSite, Long>
                                     @Param("minReviews") int minReviews,
                                     Pageable pageable);
 
-    // --- Top sites les plus vus ---
-    @Query("SELECT s FROM TouristSite s WHERE s.status = :status ORDER BY s.totalViews DESC")
-    Page<TouristSite> findMostViewed(@Param("status") SiteStatus status, Pageable pageable);
-
     // --- Incrémenter les compteurs (atomic) ---
-    @Modifying
-    @Query("UPDATE TouristSite s SET s.totalViews = s.totalViews + 1 WHERE s.id = :id")
-    void incrementViews(@Param("id") Long id);
-
     @Modifying
     @Query("UPDATE TouristSite s SET s.totalFavorites = s.totalFavorites + 1 WHERE s.id = :id")
     void incrementFavorites(@Param("id") Long id);
@@ -130,4 +99,71 @@ public interface TouristSiteRepository extends JpaRepository<TouristSite, Long>
     // --- Régions distinctes avec sites publiés ---
     @Query("SELECT DISTINCT s.region FROM TouristSite s WHERE s.status = 'PUBLIE' ORDER BY s.region ASC")
     List<String> findDistinctRegions();
+
+    // --- Autocomplétion : noms et localisation des sites publiés ---
+    interface NameRow {
+        Long getId();
+        String getName();
+        String getCity();
+        String getRegion();
+    }
+
+    @Query("SELECT s.id AS id, s.name AS name, s.city AS city, s.region AS region " +
+           "FROM TouristSite s WHERE s.status = 'PUBLIE'")
+    List<NameRow> findNameRows();
+
+    // --- Index géographique : coordonnées des sites publiés, sans charger les entités ---
+    interface GeoRow {
+        Long getId();
+        String getName();
+        SiteCategory getCategory();
+        String getCity();
+        Double getLatitude();
+        Double getLongitude();
+        Double getAverageRating();
+    }
+
+    @Query("SELECT s.id AS id, s.name AS name, s.category AS category, s.city AS city, " +
+           "s.latitude AS latitude, s.longitude AS longitude, s.averageRating AS averageRating " +
+           "FROM TouristSite s WHERE s.status = 'PUBLIE' AND s.latitude IS NOT NULL AND s.longitude IS NOT NULL")
+    List<GeoRow> findGeoRows();
+
+    // --- Classements de popularité : ville, catégorie et compteurs cumulés des sites publiés ---
+    interface PopularityRow {
+        Long getId();
+        String getCity();
+        SiteCategory getCategory();
+        LocalDateTime getCreatedAt();
+        Integer getTotalViews();
+        Integer getTotalFavorites();
+    }
+
+    @Query("SELECT s.id AS id, s.city AS city, s.category AS category, s.createdAt AS createdAt, " +
+           "s.totalViews AS totalViews, s.totalFavorites AS totalFavorites " +
+           "FROM TouristSite s WHERE s.status = 'PUBLIE'")
+    List<PopularityRow> findPopularityRows();
+
+    // --- Recherche plein texte : textes des sites publiés, chargés une fois au démarrage ---
+    interface SearchRow {
+        Long getId();
+        String getName();
+        String getShortDescription();
+        String getDescription();
+        String getHistory();
+        String getCity();
+        String getRegion();
+    }
+
+    @Query("SELECT s.id AS id, s.name AS name, s.shortDescription AS shortDescription, " +
+           "s.description AS description, s.history AS history, s.city AS city, s.region AS region " +
+           "FROM TouristSite s WHERE s.status = 'PUBLIE'")
+    List<SearchRow> findSearchRows();
+
+    interface TagRow {
+        Long getId();
+        String getTag();
+    }
+
+    @Query("SELECT s.id AS id, t AS tag FROM TouristSite s JOIN s.tags t WHERE s.status = 'PUBLIE'")
+    List<TagRow> findSearchTags();
 }
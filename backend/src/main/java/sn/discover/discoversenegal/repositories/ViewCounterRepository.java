@@ -0,0 +1,46 @@
+package sn.discover.discoversenegal.repositories;
+
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Report groupé des compteurs de vues accumulés en mémoire.
+ * Un seul UPDATE incrémental par ligne modifiée, envoyé en batch JDBC :
+ * aucune entité n'est chargée et les autres colonnes ne sont pas réécrites.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ViewCounterRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    public enum Table {
+        HOTEL("UPDATE hotels SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?"),
+        GUIDE("UPDATE guides SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?"),
+        RESTAURANT("UPDATE restaurants SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?"),
+        SITE("UPDATE tourist_sites SET total_views = COALESCE(total_views, 0) + ? WHERE id = ?");
+
+        private final String sql;
+
+        Table(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Ajoute les vues (identifiant → nombre de vues) aux lignes de la table.
+     */
+    public void addViews(Table table, List<Map.Entry<Long, Long>> views) {
+        jdbcTemplate.batchUpdate(table.sql, views, BATCH_SIZE, (ps, view) -> {
+            ps.setLong(1, view.getValue());
+            ps.setLong(2, view.getKey());
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package sn.discover.discoversenegal.repositories;
+
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import sn.discover.discoversenegal.entities.WaitlistEntry;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Demandes en attente dont le séjour chevauche les nuits libérées (index hôtel/statut/arrivée)
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.hotel.id = :hotelId AND w.status = 'WAITING' " +
+           "AND w.checkInDate < :to AND w.checkOutDate > :from " +
+           "ORDER BY w.priority DESC, w.id ASC")
+    List<WaitlistEntry> findCandidates(@Param("hotelId") Long hotelId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to,
+                                       Pageable pageable);
+
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.hotel.id = :hotelId AND w.status = 'WAITING' " +
+           "AND w.checkInDate < :to AND w.checkOutDate > :from " +
+           "AND (w.priority > :priority OR (w.priority = :priority AND w.id < :id))")
+    long countAhead(@Param("hotelId") Long hotelId,
+                    @Param("from") LocalDate from,
+                    @Param("to") LocalDate to,
+                    @Param("priority") Integer priority,
+                    @Param("id") Long id);
+
+    // Transition conditionnelle : une seule offre par demande
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'OFFERED', w.holdToken = :holdToken, " +
+           "w.offeredAt = :now, w.offerExpiresAt = :expiresAt WHERE w.id = :id AND w.status = 'WAITING'")
+    int markOffered(@Param("id") Long id,
+                    @Param("holdToken") String holdToken,
+                    @Param("now") LocalDateTime now,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'FULFILLED' WHERE w.holdToken = :holdToken AND w.status = 'OFFERED'")
+    int markFulfilled(@Param("holdToken") String holdToken);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'EXPIRED' WHERE w.status = 'OFFERED' AND w.offerExpiresAt < :now")
+    int expireOffers(@Param("now") LocalDateTime now);
+}
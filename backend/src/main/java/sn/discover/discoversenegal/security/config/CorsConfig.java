@@ -17,7 +17,7 @@ public class CorsConfig {
         config.setAllowCredentials(true);
         config.setAllowedOrigins(List.of("http://localhost:5173")); // ton frontend Vite
         config.setAllowedHeaders(List.of(
-                "Origin", "Content-Type", "Accept", "Authorization"
+                "Origin", "Content-Type", "Accept", "Authorization", "Idempotency-Key"
         ));
         config.setAllowedMethods(List.of(
                 "GET", "POST", "PUT", "DELETE", "OPTIONS"
@@ -0,0 +1,394 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sn.discover.discoversenegal.dto.AutocompleteStatsDTO;
+import sn.discover.discoversenegal.dto.AutocompleteSuggestionDTO;
+import sn.discover.discoversenegal.entities.Event;
+import sn.discover.discoversenegal.entities.EventStatus;
+import sn.discover.discoversenegal.entities.Guide;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.PopularityItemType;
+import sn.discover.discoversenegal.entities.Restaurant;
+import sn.discover.discoversenegal.entities.SiteStatus;
+import sn.discover.discoversenegal.entities.TouristSite;
+import sn.discover.discoversenegal.repositories.EventRepository;
+import sn.discover.discoversenegal.repositories.GuideRepository;
+import sn.discover.discoversenegal.repositories.RestaurantRepository;
+import sn.discover.discoversenegal.repositories.TouristSiteRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Autocomplétion des champs de recherche : noms des hôtels, restaurants, guides, sites et
+ * événements, villes et régions, dans un arbre radix en mémoire (PrefixTrie).
+ * Chaque nom est accessible par son début et par le début de chacun de ses mots significatifs
+ * (« lodge » propose « Keur Saloum Lodge »), accents et ponctuation ignorés.
+ * Les suggestions sont classées par popularité (PopularityService) ; une ville ou une région
+ * cumule la popularité des lieux qu'elle contient. Les créations, modifications et
+ * désactivations sont appliquées après le commit (CatalogItemChangedEvent), les poids sont
+ * rafraîchis périodiquement.
+ */
+@Service
+@Slf4j
+public class AutocompleteService implements CommandLineRunner {
+
+    public enum Kind { HOTEL, RESTAURANT, GUIDE, SITE, EVENT, CITY, REGION }
+
+    // Nombre de suggestions gardées par nœud, donc maximum par requête
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int DEFAULT_SUGGESTIONS = 8;
+    private static final int MIN_QUERY_LENGTH = 2;
+    // Nom entier plus trois débuts de mot au plus
+    private static final int MAX_KEYS_PER_NAME = 4;
+    private static final Set<EventStatus> VISIBLE_EVENT_STATUSES = EnumSet.of(EventStatus.PUBLIE, EventStatus.COMPLET);
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // id : identifiant de l'élément, ou nom normalisé d'une ville ou d'une région
+    private record Key(Kind kind, Object id) {
+    }
+
+    // baseWeight : poids propre hors popularité (inscrits d'un événement)
+    private record Item(Kind kind, Long id, String label, String city, String region,
+                        double baseWeight, LocalDateTime endsAt) {
+    }
+
+    private final HotelRepository hotelRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final GuideRepository guideRepository;
+    private final TouristSiteRepository siteRepository;
+    private final EventRepository eventRepository;
+    private final PopularityService popularityService;
+    private final long memoryBudgetBytes;
+
+    private final PrefixTrie<Key> trie = new PrefixTrie<>(MAX_SUGGESTIONS);
+    // Modifiés sous le verrou de l'instance, lus sans verrou pour construire les réponses
+    private final Map<Key, Item> items = new ConcurrentHashMap<>();
+
+    public AutocompleteService(HotelRepository hotelRepository,
+                               RestaurantRepository restaurantRepository,
+                               GuideRepository guideRepository,
+                               TouristSiteRepository siteRepository,
+                               EventRepository eventRepository,
+                               PopularityService popularityService,
+                               @Value("${app.autocomplete.memory-budget-mb:16}") long memoryBudgetMb) {
+        this.hotelRepository = hotelRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.guideRepository = guideRepository;
+        this.siteRepository = siteRepository;
+        this.eventRepository = eventRepository;
+        this.popularityService = popularityService;
+        this.memoryBudgetBytes = memoryBudgetMb * 1024 * 1024;
+    }
+
+    // Si les scores de popularité ne sont pas encore chargés, les poids suivent au premier rafraîchissement
+    @Override
+    public void run(String... args) {
+        reload();
+    }
+
+    /**
+     * Recharge tous les noms depuis la base, puis calcule les poids.
+     */
+    public void reload() {
+        List<Item> loaded = new ArrayList<>();
+        for (HotelRepository.NameRow row : hotelRepository.findNameRows()) {
+            loaded.add(new Item(Kind.HOTEL, row.getId(), row.getName(), row.getCity(), row.getRegion(), 0, null));
+        }
+        for (RestaurantRepository.NameRow row : restaurantRepository.findNameRows()) {
+            loaded.add(new Item(Kind.RESTAURANT, row.getId(), row.getName(), row.getCity(), row.getRegion(), 0, null));
+        }
+        for (GuideRepository.NameRow row : guideRepository.findNameRows()) {
+            loaded.add(new Item(Kind.GUIDE, row.getId(), fullName(row.getFirstName(), row.getLastName()),
+                    row.getCity(), row.getRegion(), 0, null));
+        }
+        for (TouristSiteRepository.NameRow row : siteRepository.findNameRows()) {
+            loaded.add(new Item(Kind.SITE, row.getId(), row.getName(), row.getCity(), row.getRegion(), 0, null));
+        }
+        for (EventRepository.NameRow row : eventRepository.findNameRows(VISIBLE_EVENT_STATUSES, LocalDateTime.now())) {
+            loaded.add(new Item(Kind.EVENT, row.getId(), row.getTitle(), row.getCity(), row.getRegion(),
+                    participants(row.getCurrentParticipants()), row.getEndDateTime()));
+        }
+
+        synchronized (this) {
+            items.clear();
+            List<PrefixTrie.Input<Key>> inputs = new ArrayList<>(loaded.size());
+            for (Item item : loaded) {
+                if (item.label() != null && !item.label().isBlank()) {
+                    Key key = new Key(item.kind(), item.id());
+                    items.put(key, item);
+                    inputs.add(new PrefixTrie.Input<>(key, item.label(), keys(item.label()), item.baseWeight()));
+                }
+            }
+            trie.putAll(inputs);
+            refresh();
+        }
+
+        PrefixTrie.Stats stats = trie.stats();
+        log.info("Autocomplete index loaded: {} entries, {} keys, {} nodes, ~{} KB (budget {} KB)",
+                stats.entries(), stats.keys(), stats.nodes(), stats.estimatedBytes() / 1024, memoryBudgetBytes / 1024);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogItemChanged(CatalogItemChangedEvent event) {
+        if (event.isRemoval()) {
+            remove(Kind.valueOf(event.type().name()), event.id());
+            return;
+        }
+        switch (event.type()) {
+            case HOTEL -> indexHotel((Hotel) event.entity());
+            case RESTAURANT -> indexRestaurant((Restaurant) event.entity());
+            case GUIDE -> indexGuide((Guide) event.entity());
+            case SITE -> indexSite((TouristSite) event.entity());
+            case EVENT -> indexEvent((Event) event.entity());
+        }
+    }
+
+    public void indexHotel(Hotel hotel) {
+        index(Kind.HOTEL, hotel.getId(), hotel.isActive(), hotel.getName(), hotel.getCity(), hotel.getRegion(), 0, null);
+    }
+
+    public void indexRestaurant(Restaurant restaurant) {
+        index(Kind.RESTAURANT, restaurant.getId(), Boolean.TRUE.equals(restaurant.getActive()), restaurant.getName(),
+                restaurant.getCity(), restaurant.getRegion(), 0, null);
+    }
+
+    public void indexGuide(Guide guide) {
+        index(Kind.GUIDE, guide.getId(), Boolean.TRUE.equals(guide.getActive()),
+                fullName(guide.getFirstName(), guide.getLastName()), guide.getCity(), guide.getRegion(), 0, null);
+    }
+
+    public void indexSite(TouristSite site) {
+        index(Kind.SITE, site.getId(), site.getStatus() == SiteStatus.PUBLIE, site.getName(),
+                site.getCity(), site.getRegion(), 0, null);
+    }
+
+    public void indexEvent(Event event) {
+        boolean visible = VISIBLE_EVENT_STATUSES.contains(event.getStatus())
+                && (event.getEndDateTime() == null || event.getEndDateTime().isAfter(LocalDateTime.now()));
+        index(Kind.EVENT, event.getId(), visible, event.getTitle(), event.getCity(), event.getRegion(),
+                participants(event.getCurrentParticipants()), event.getEndDateTime());
+    }
+
+    public void remove(Kind kind, Long id) {
+        store(new Key(kind, id), null);
+    }
+
+    /**
+     * Suggestions pour le texte saisi, de la plus populaire à la moins populaire.
+     */
+    public List<AutocompleteSuggestionDTO> complete(String query, Integer limit) {
+        int count = limit != null ? limit : DEFAULT_SUGGESTIONS;
+        if (count < 1 || count > MAX_SUGGESTIONS) {
+            throw new RuntimeException("La limite doit être comprise entre 1 et " + MAX_SUGGESTIONS);
+        }
+        String prefix = prefix(query);
+        if (prefix.length() < MIN_QUERY_LENGTH) {
+            return List.of();
+        }
+        return trie.complete(prefix, count).stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToSuggestionDTO)
+                .toList();
+    }
+
+    /**
+     * Taille de l'index et estimation de sa mémoire, comparée au budget configuré.
+     */
+    public AutocompleteStatsDTO getStats() {
+        PrefixTrie.Stats stats = trie.stats();
+        Map<String, Integer> counts = new HashMap<>();
+        for (Item item : items.values()) {
+            counts.merge(item.kind().name().toLowerCase(Locale.ROOT), 1, Integer::sum);
+        }
+        return AutocompleteStatsDTO.builder()
+                .entries(stats.entries())
+                .keys(stats.keys())
+                .nodes(stats.nodes())
+                .countsByType(counts)
+                .estimatedBytes(stats.estimatedBytes())
+                .budgetBytes(memoryBudgetBytes)
+                .withinBudget(stats.estimatedBytes() <= memoryBudgetBytes)
+                .build();
+    }
+
+    /**
+     * Poids recalculés à partir des scores de popularité ; événements terminés retirés ;
+     * villes et régions ajoutées, retirées ou repondérées selon les lieux qu'elles contiennent.
+     */
+    @Scheduled(fixedDelayString = "${app.autocomplete.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Kind, Map<Long, Double>> scores = new EnumMap<>(Kind.class);
+        for (Kind kind : List.of(Kind.HOTEL, Kind.RESTAURANT, Kind.GUIDE, Kind.SITE)) {
+            scores.put(kind, popularityService.scores(PopularityItemType.valueOf(kind.name())));
+        }
+
+        Map<Key, Double> weights = new HashMap<>();
+        Map<Key, Item> places = new HashMap<>();
+        for (Map.Entry<Key, Item> entry : List.copyOf(items.entrySet())) {
+            Item item = entry.getValue();
+            if (item.kind() == Kind.CITY || item.kind() == Kind.REGION) {
+                continue;
+            }
+            if (item.endsAt() != null && item.endsAt().isBefore(now)) {
+                store(entry.getKey(), null);
+                continue;
+            }
+            double weight = item.baseWeight() + scores.getOrDefault(item.kind(), Map.of()).getOrDefault(item.id(), 0d);
+            weights.put(entry.getKey(), weight);
+            // Chaque lieu compte au moins pour un : une ville sans signal reste classée par son offre
+            addPlace(places, weights, Kind.CITY, item.city(), 1 + weight);
+            addPlace(places, weights, Kind.REGION, item.region(), 1 + weight);
+        }
+
+        // Région homonyme de sa capitale (Dakar, Thiès, Ziguinchor …) : la ville suffit
+        places.keySet().removeIf(key -> key.kind() == Kind.REGION && places.containsKey(new Key(Kind.CITY, key.id())));
+        for (Key key : List.copyOf(items.keySet())) {
+            if ((key.kind() == Kind.CITY || key.kind() == Kind.REGION) && !places.containsKey(key)) {
+                items.remove(key);
+                trie.remove(key);
+            }
+        }
+        places.forEach((key, place) -> {
+            if (!trie.contains(key)) {
+                items.put(key, place);
+                trie.put(key, place.label(), keys(place.label()), weights.get(key));
+            }
+        });
+        trie.reweight(weights);
+
+        long estimated = trie.stats().estimatedBytes();
+        if (estimated > memoryBudgetBytes) {
+            log.warn("Autocomplete index uses ~{} KB, above its {} KB budget", estimated / 1024, memoryBudgetBytes / 1024);
+        }
+    }
+
+    private void index(Kind kind, Long id, boolean visible, String label, String city, String region,
+                       double baseWeight, LocalDateTime endsAt) {
+        Key key = new Key(kind, id);
+        Item item = visible && label != null && !label.isBlank()
+                ? new Item(kind, id, label, city, region, baseWeight, endsAt)
+                : null;
+        store(key, item);
+    }
+
+    // Un nouveau lieu apparaît aussitôt ; son poids, comme celui de l'élément, suit au prochain rafraîchissement
+    private synchronized void store(Key key, Item item) {
+        if (item == null) {
+            items.remove(key);
+            trie.remove(key);
+            return;
+        }
+        double weight = item.baseWeight();
+        if (item.kind() != Kind.EVENT) {
+            weight += popularityService.score(PopularityItemType.valueOf(item.kind().name()), item.id());
+        }
+        items.put(key, item);
+        trie.put(key, item.label(), keys(item.label()), weight);
+        storePlace(place(Kind.CITY, item.city()), 1 + weight);
+        storePlace(place(Kind.REGION, item.region()), 1 + weight);
+    }
+
+    private void storePlace(Item place, double weight) {
+        if (place == null) {
+            return;
+        }
+        Key key = new Key(place.kind(), normalize(place.label()));
+        if (place.kind() == Kind.REGION && items.containsKey(new Key(Kind.CITY, key.id()))) {
+            return;
+        }
+        if (!items.containsKey(key)) {
+            items.put(key, place);
+            trie.put(key, place.label(), keys(place.label()), weight);
+        }
+    }
+
+    // Libellé d'une ville ou d'une région : la première graphie rencontrée
+    private void addPlace(Map<Key, Item> places, Map<Key, Double> weights, Kind kind, String name, double weight) {
+        Item place = place(kind, name);
+        if (place == null) {
+            return;
+        }
+        Key key = new Key(kind, normalize(name));
+        Item existing = items.get(key);
+        places.putIfAbsent(key, existing != null ? existing : place);
+        weights.merge(key, weight, Double::sum);
+    }
+
+    private Item place(Kind kind, String name) {
+        if (name == null || normalize(name).isEmpty()) {
+            return null;
+        }
+        return new Item(kind, null, name.trim(), null, null, 0, null);
+    }
+
+    // Nom entier, puis fins du nom à partir des mots significatifs (« de », « la » … exclus)
+    private List<String> keys(String label) {
+        String normalized = normalize(label);
+        List<String> keys = new ArrayList<>(MAX_KEYS_PER_NAME);
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        int start = normalized.indexOf(' ');
+        while (start >= 0 && keys.size() < MAX_KEYS_PER_NAME) {
+            String rest = normalized.substring(start + 1);
+            int end = rest.indexOf(' ');
+            if (TextAnalyzer.term(end >= 0 ? rest.substring(0, end) : rest) != null) {
+                keys.add(rest);
+            }
+            start = normalized.indexOf(' ', start + 1);
+        }
+        return keys;
+    }
+
+    // Minuscules sans accents, séparateurs ramenés à une espace
+    static String normalize(String text) {
+        return SEPARATORS.matcher(TextAnalyzer.fold(text)).replaceAll(" ").trim();
+    }
+
+    // Une espace finale est gardée : « saint » propose aussi « Saintes », « saint » suivi d'une espace non
+    static String prefix(String query) {
+        if (query == null) {
+            return "";
+        }
+        return SEPARATORS.matcher(TextAnalyzer.fold(query)).replaceAll(" ").stripLeading();
+    }
+
+    private AutocompleteSuggestionDTO mapToSuggestionDTO(Item item) {
+        return AutocompleteSuggestionDTO.builder()
+                .type(item.kind().name().toLowerCase(Locale.ROOT))
+                .id(item.id())
+                .label(item.label())
+                .city(item.city())
+                .build();
+    }
+
+    private static String fullName(String firstName, String lastName) {
+        return ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+    }
+
+    private static double participants(Integer count) {
+        return count != null ? count : 0;
+    }
+}
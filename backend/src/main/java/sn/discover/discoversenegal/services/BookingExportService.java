@@ -0,0 +1,246 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.User;
+import sn.discover.discoversenegal.entities.UserRole;
+import sn.discover.discoversenegal.repositories.BookingExportRepository;
+import sn.discover.discoversenegal.repositories.UserRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final BookingExportRepository exportRepository;
+    private final HotelRepository hotelRepository;
+    private final UserRepository userRepository;
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public ExportFormat resolveFormat(String format) {
+        if (format == null || format.isBlank() || format.equalsIgnoreCase("csv")) {
+            return ExportFormat.CSV;
+        }
+        if (format.equalsIgnoreCase("ndjson")) {
+            return ExportFormat.NDJSON;
+        }
+        throw new RuntimeException("Format d'export non supporté : " + format);
+    }
+
+    /**
+     * L'export contient les coordonnées des clients : réservé au gestionnaire de l'hôtel et aux administrateurs.
+     */
+    @Transactional(readOnly = true)
+    public void checkCanExport(Long hotelId, String requesterEmail) {
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
+        User requester = userRepository.findByEmail(requesterEmail)
+                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé : " + requesterEmail));
+        boolean isOwner = hotel.getOwner() != null &&
+                          hotel.getOwner().getId().equals(requester.getId());
+        boolean isAdmin = requester.getRole() == UserRole.ADMIN;
+        if (!isOwner && !isAdmin) {
+            throw new SecurityException("Vous n'êtes pas autorisé à exporter les réservations de cet hôtel.");
+        }
+    }
+
+    /**
+     * Écrit toutes les réservations de l'hôtel dans le flux, ligne par ligne.
+     * La transaction en lecture seule maintient le curseur JDBC ouvert pendant l'écriture.
+     */
+    @Transactional(readOnly = true)
+    public void exportHotelBookings(Long hotelId, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        String[] columns = BookingExportRepository.COLUMNS;
+        int[][] columnTypes = {null};
+        long[] rows = {0};
+
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+
+        try {
+            exportRepository.streamHotelBookings(hotelId, rs -> {
+                if (columnTypes[0] == null) {
+                    columnTypes[0] = readColumnTypes(rs);
+                }
+                try {
+                    if (format == ExportFormat.CSV) {
+                        writeCsvRow(writer, rs, columnTypes[0]);
+                    } else {
+                        writeJsonRow(writer, rs, columns, columnTypes[0]);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            // Le client a interrompu le téléchargement
+            throw e.getCause();
+        }
+
+        writer.flush();
+        log.info("Exported {} bookings of hotel {} as {}", rows[0], hotelId, format);
+    }
+
+    private int[] readColumnTypes(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int[] types = new int[metaData.getColumnCount()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = metaData.getColumnType(i + 1);
+        }
+        return types;
+    }
+
+    /**
+     * Valeur brute de la colonne ; les booléens sont normalisés en true/false
+     * (le pilote PostgreSQL renvoie "t"/"f" via getString).
+     */
+    private String readValue(ResultSet rs, int index, int type) throws SQLException {
+        if (type == Types.BIT || type == Types.BOOLEAN) {
+            boolean value = rs.getBoolean(index + 1);
+            return rs.wasNull() ? null : String.valueOf(value);
+        }
+        return rs.getString(index + 1);
+    }
+
+    private void writeCsvRow(Writer writer, ResultSet rs, int[] types) throws SQLException, IOException {
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = readValue(rs, i, types[i]);
+            if (value != null) {
+                writeCsvValue(writer, isJsonLiteral(types[i]) ? value : neutralizeFormula(value));
+            }
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Une cellule texte commençant par =, +, -, @, une tabulation ou un retour chariot serait évaluée
+     * comme formule par un tableur : elle est préfixée d'une apostrophe.
+     * Les colonnes numériques (montants négatifs) sont laissées telles quelles.
+     */
+    static String neutralizeFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        return switch (value.charAt(0)) {
+            case '=', '+', '-', '@', '\t', '\r' -> "'" + value;
+            default -> value;
+        };
+    }
+
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private void writeJsonRow(Writer writer, ResultSet rs, String[] columns, int[] types)
+            throws SQLException, IOException {
+        writer.write('{');
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write('"');
+            writer.write(columns[i]);
+            writer.write("\":");
+
+            String value = readValue(rs, i, types[i]);
+            if (value == null) {
+                writer.write("null");
+            } else if (isJsonLiteral(types[i])) {
+                writer.write(value);
+            } else {
+                writeJsonString(writer, value);
+            }
+        }
+        writer.write("}\n");
+    }
+
+    private boolean isJsonLiteral(int type) {
+        return switch (type) {
+            case Types.INTEGER, Types.BIGINT, Types.SMALLINT, Types.NUMERIC, Types.DECIMAL,
+                 Types.BIT, Types.BOOLEAN -> true;
+            default -> false;
+        };
+    }
+
+    private void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,210 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.discover.discoversenegal.repositories.BookingLifecycleRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Balayage périodique du cycle de vie des réservations :
+ * - CONFIRMED dont la date d'arrivée est passée -> NO_SHOW (inventaire libéré)
+ * - PENDING non confirmées dans le délai -> CANCELLED (inventaire libéré)
+ * - CHECKED_OUT depuis plus de quelques jours -> COMPLETED
+ * Chaque lot s'exécute dans sa propre transaction. Un verrou consultatif PostgreSQL
+ * garantit qu'un seul nœud exécute le balayage à la fois.
+ */
+@Service
+@Slf4j
+public class BookingLifecycleSweeper {
+
+    // Clé du verrou consultatif (pg_try_advisory_lock), commune à tous les nœuds
+    private static final long ADVISORY_LOCK_KEY = 0x44534E_4C494645L;
+
+    private static final String EXPIRED_REASON = "Expirée : réservation non confirmée dans les délais";
+
+    private final BookingLifecycleRepository lifecycleRepository;
+    private final RoomInventoryService roomInventoryService;
+    private final HotelStatsService hotelStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+
+    private final int batchSize;
+    private final long pendingExpiryHours;
+    private final long completionDelayDays;
+
+    // Métriques exposées via getStats()
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong skippedRuns = new AtomicLong();
+    private final AtomicLong totalNoShows = new AtomicLong();
+    private final AtomicLong totalExpired = new AtomicLong();
+    private final AtomicLong totalCompleted = new AtomicLong();
+    private final AtomicReference<Map<String, Object>> lastRun = new AtomicReference<>(Map.of());
+
+    public BookingLifecycleSweeper(BookingLifecycleRepository lifecycleRepository,
+                                   RoomInventoryService roomInventoryService,
+                                   HotelStatsService hotelStatsService,
+                                   TransactionTemplate transactionTemplate,
+                                   DataSource dataSource,
+                                   @Value("${app.booking.lifecycle.batch-size:500}") int batchSize,
+                                   @Value("${app.booking.lifecycle.pending-expiry-hours:48}") long pendingExpiryHours,
+                                   @Value("${app.booking.lifecycle.completion-delay-days:3}") long completionDelayDays) {
+        this.lifecycleRepository = lifecycleRepository;
+        this.roomInventoryService = roomInventoryService;
+        this.hotelStatsService = hotelStatsService;
+        this.transactionTemplate = transactionTemplate;
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+        this.pendingExpiryHours = pendingExpiryHours;
+        this.completionDelayDays = completionDelayDays;
+    }
+
+    @Scheduled(initialDelayString = "${app.booking.lifecycle.initial-delay-ms:60000}",
+               fixedDelayString = "${app.booking.lifecycle.interval-ms:300000}")
+    public void sweep() {
+        // Connexion dédiée : le verrou de session reste détenu pendant que les lots
+        // s'exécutent dans leurs propres transactions
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!tryAdvisoryLock(lockConnection)) {
+                skippedRuns.incrementAndGet();
+                log.debug("Booking lifecycle sweep skipped: lock held by another node");
+                return;
+            }
+            try {
+                runSweep();
+            } finally {
+                advisoryUnlock(lockConnection);
+            }
+        } catch (SQLException e) {
+            log.error("Booking lifecycle sweep failed to acquire its lock", e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("runs", runs.get());
+        stats.put("skippedRuns", skippedRuns.get());
+        stats.put("totalNoShows", totalNoShows.get());
+        stats.put("totalExpiredPending", totalExpired.get());
+        stats.put("totalCompleted", totalCompleted.get());
+        stats.put("lastRun", lastRun.get());
+        return stats;
+    }
+
+    private void runSweep() {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+
+        int noShows = sweepNoShows(today);
+        int expired = sweepExpiredPending(LocalDateTime.now().minusHours(pendingExpiryHours));
+        int completed = drain(() -> {
+            List<Long> updated = lifecycleRepository.completeCheckedOut(today.minusDays(completionDelayDays), batchSize);
+            hotelStatsService.recordCompleted(updated);
+            return new BatchResult(updated.size(), updated.size() == batchSize);
+        });
+
+        long durationMs = System.currentTimeMillis() - start;
+        runs.incrementAndGet();
+        totalNoShows.addAndGet(noShows);
+        totalExpired.addAndGet(expired);
+        totalCompleted.addAndGet(completed);
+
+        Map<String, Object> run = new HashMap<>();
+        run.put("finishedAt", LocalDateTime.now());
+        run.put("durationMs", durationMs);
+        run.put("noShows", noShows);
+        run.put("expiredPending", expired);
+        run.put("completed", completed);
+        lastRun.set(run);
+
+        if (noShows + expired + completed > 0) {
+            log.info("Booking lifecycle sweep: {} no-shows, {} expired pending, {} completed in {} ms",
+                    noShows, expired, completed, durationMs);
+        }
+    }
+
+    private int sweepNoShows(LocalDate today) {
+        long[] afterId = {0};
+        return drain(() -> {
+            List<Long> candidates = lifecycleRepository.findNoShowCandidates(today, afterId[0], batchSize);
+            if (candidates.isEmpty()) {
+                return new BatchResult(0, false);
+            }
+            afterId[0] = candidates.get(candidates.size() - 1);
+            // Verrouiller l'inventaire avant les réservations, dans le même ordre que BookingService
+            roomInventoryService.lockNightsOfBookings(candidates);
+            List<Long> updated = lifecycleRepository.markNoShow(candidates, today);
+            roomInventoryService.releaseBookings(updated);
+            hotelStatsService.recordReleased(updated);
+            // Continuer tant que le lot de candidats est plein, même si certains ont changé entre-temps
+            return new BatchResult(updated.size(), candidates.size() == batchSize);
+        });
+    }
+
+    private int sweepExpiredPending(LocalDateTime createdBefore) {
+        long[] afterId = {0};
+        return drain(() -> {
+            List<Long> candidates = lifecycleRepository.findExpiredPending(createdBefore, afterId[0], batchSize);
+            if (candidates.isEmpty()) {
+                return new BatchResult(0, false);
+            }
+            afterId[0] = candidates.get(candidates.size() - 1);
+            roomInventoryService.lockNightsOfBookings(candidates);
+            List<Long> updated = lifecycleRepository.cancelExpiredPending(candidates, createdBefore, EXPIRED_REASON);
+            roomInventoryService.releaseBookings(updated);
+            hotelStatsService.recordReleased(updated);
+            return new BatchResult(updated.size(), candidates.size() == batchSize);
+        });
+    }
+
+    /**
+     * Exécute des lots jusqu'à épuisement, un lot par transaction.
+     */
+    private int drain(Supplier<BatchResult> batch) {
+        int total = 0;
+        BatchResult result;
+        do {
+            result = transactionTemplate.execute(status -> batch.get());
+            if (result == null) {
+                break;
+            }
+            total += result.processed();
+        } while (result.hasMore());
+        return total;
+    }
+
+    private record BatchResult(int processed, boolean hasMore) {
+    }
+
+    private boolean tryAdvisoryLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            ps.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void advisoryUnlock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            ps.setLong(1, ADVISORY_LOCK_KEY);
+            ps.execute();
+        }
+    }
+}
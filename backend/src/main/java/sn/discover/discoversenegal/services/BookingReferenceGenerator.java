@@ -0,0 +1,11 @@
+package sn.discover.discoversenegal.services;
+
+
+/**
+ * Génère les références de réservation (Ex: BKG-2026-...).
+ * Déclarer un autre bean @Primary pour remplacer l'implémentation par défaut.
+ */
+public interface BookingReferenceGenerator {
+
+    String nextReference();
+}
@@ -3,19 +3,29 @@ package sn.discover.discoversenegal.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sn.discover.discoversenegal.dto.*;
 import sn.discover.discoversenegal.entities.*;
 import sn.discover.discoversenegal.repositories.*;
+import sn.discover.discoversenegal.repositories.HotelDailyStatsRepository.StatsTotals;
+import sn.discover.discoversenegal.services.HotelStatsService.StaySnapshot;
 
 import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.PageRequest;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +36,20 @@ public class BookingService {
     private final BookingRepository bookingRepository;
     private final HotelRepository hotelRepository;
     private final UserRepository userRepository;
+    private final RoomInventoryService roomInventoryService;
+    private final BookingReferenceGenerator bookingReferenceGenerator;
+    private final BookingBatchRepository bookingBatchRepository;
+    private final HotelStatsService hotelStatsService;
+    private final TransferManifestService transferManifestService;
+    private final RoomHoldService roomHoldService;
+    private final WaitlistService waitlistService;
+    private final PopularityService popularityService;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final LocalDateTime CURSOR_MAX_DATE_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final LocalDateTime CURSOR_MIN_DATE_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
     
     @Transactional
     public BookingResponseDTO createBooking(BookingCreateDTO dto) {
@@ -45,67 +69,174 @@ public class BookingService {
             throw new RuntimeException("Date de départ doit être après la date d'arrivée");
         }
         
-        // Vérifier disponibilité
-        if (!checkAvailability(dto.getHotelId(), dto.getCheckInDate(), dto.getCheckOutDate(), dto.getNumberOfRooms())) {
-            throw new RuntimeException("Hôtel non disponible pour ces dates");
+        if (dto.getNumberOfRooms() == null || dto.getNumberOfRooms() < 1) {
+            throw new RuntimeException("Le nombre de chambres doit être au moins 1");
         }
         
-        // Calculer nombre de nuits
-        int numberOfNights = (int) ChronoUnit.DAYS.between(dto.getCheckInDate(), dto.getCheckOutDate());
+        // Reprendre les chambres d'un blocage, ou réserver l'inventaire (verrou par hôtel et par nuit)
+        if (dto.getHoldToken() != null && !dto.getHoldToken().isBlank()) {
+            roomHoldService.consumeHold(dto.getHoldToken(), hotel.getId(),
+                    dto.getCheckInDate(), dto.getCheckOutDate(), dto.getNumberOfRooms());
+            waitlistService.markFulfilled(dto.getHoldToken());
+        } else {
+            roomInventoryService.reserve(hotel, dto.getCheckInDate(), dto.getCheckOutDate(), dto.getNumberOfRooms());
+        }
         
-        // Calculer prix total
-        BigDecimal totalPrice = dto.getPricePerNight()
-                .multiply(BigDecimal.valueOf(numberOfNights))
-                .multiply(BigDecimal.valueOf(dto.getNumberOfRooms()));
+        Booking booking = buildBooking(dto, hotel, user);
         
-        // Calculer taxes (exemple: 10%)
-        BigDecimal taxes = totalPrice.multiply(BigDecimal.valueOf(0.10));
+        Booking savedBooking = saveAndRecord(booking, null);
+        popularityService.recordBookings(PopularityItemType.HOTEL, hotel.getId(), 1);
+        log.info("Booking created successfully with reference: {}", savedBooking.getBookingReference());
         
-        // Frais de service (exemple: 5%)
-        BigDecimal serviceFees = totalPrice.multiply(BigDecimal.valueOf(0.05));
+        return mapToResponseDTO(savedBooking);
+    }
+    
+    /**
+     * Bloquer des chambres pendant le paiement (durée limitée)
+     */
+    public RoomHoldDTO createHold(RoomHoldCreateDTO dto) {
+        log.info("Creating room hold for hotel ID: {}", dto.getHotelId());
+        return roomHoldService.createHold(dto);
+    }
+    
+    public RoomHoldDTO getHold(String holdToken) {
+        return roomHoldService.getHold(holdToken);
+    }
+    
+    public void releaseHold(String holdToken) {
+        log.info("Releasing room hold {}", holdToken);
+        roomHoldService.releaseHold(holdToken);
+    }
+    
+    /**
+     * Inscription sur liste d'attente quand l'hôtel est complet pour ces dates
+     */
+    public WaitlistEntryDTO joinWaitlist(WaitlistCreateDTO dto, String requesterEmail) {
+        log.info("Adding waitlist entry for hotel ID: {}", dto.getHotelId());
+        return waitlistService.join(dto, requesterEmail);
+    }
+    
+    public WaitlistEntryDTO getWaitlistEntry(Long id, String requesterEmail) {
+        return waitlistService.getEntry(id, requesterEmail);
+    }
+    
+    public void leaveWaitlist(Long id, String requesterEmail) {
+        log.info("Cancelling waitlist entry {}", id);
+        waitlistService.leave(id, requesterEmail);
+    }
+    
+    /**
+     * Réservation groupée d'une délégation JOJ : hôtels et compte chargés une seule fois,
+     * chambres allouées par ordre de préférence des hôtels, une réservation d'inventaire
+     * par hôtel et insertions JDBC groupées. Le résultat est détaillé ligne par ligne.
+     */
+    @Transactional
+    public DelegationBookingResultDTO createDelegationBookings(DelegationBookingDTO dto) {
+        log.info("Creating delegation bookings for {} ({} members)",
+                dto.getOlympicDelegation(), dto.getMembers().size());
         
-        // Créer la réservation
-        Booking booking = Booking.builder()
-                .hotel(hotel)
-                .user(user)
-                .guestFirstName(dto.getGuestFirstName())
-                .guestLastName(dto.getGuestLastName())
-                .guestEmail(dto.getGuestEmail())
-                .guestPhone(dto.getGuestPhone())
-                .guestCountry(dto.getGuestCountry())
-                .guestNationality(dto.getGuestNationality())
-                .checkInDate(dto.getCheckInDate())
-                .checkOutDate(dto.getCheckOutDate())
-                .numberOfNights(numberOfNights)
-                .numberOfAdults(dto.getNumberOfAdults())
-                .numberOfChildren(dto.getNumberOfChildren() != null ? dto.getNumberOfChildren() : 0)
-                .numberOfRooms(dto.getNumberOfRooms())
-                .roomType(dto.getRoomType())
-                .pricePerNight(dto.getPricePerNight())
-                .totalPrice(totalPrice)
-                .taxes(taxes)
-                .serviceFees(serviceFees)
-                .currency(dto.getCurrency() != null ? dto.getCurrency() : "XOF")
-                .discountCode(dto.getDiscountCode())
-                .specialRequests(dto.getSpecialRequests())
-                .needsAirportTransfer(dto.getNeedsAirportTransfer() != null ? dto.getNeedsAirportTransfer() : false)
-                .flightNumber(dto.getFlightNumber())
-                .arrivalTime(dto.getArrivalTime())
-                .isOlympicBooking(dto.getIsOlympicBooking() != null ? dto.getIsOlympicBooking() : false)
-                .olympicDelegation(dto.getOlympicDelegation())
-                .olympicRole(dto.getOlympicRole())
-                .languagePreference(dto.getLanguagePreference())
-                .source(dto.getSource() != null ? dto.getSource() : BookingSource.WEB)
-                .userIpAddress(dto.getUserIpAddress())
-                .userAgent(dto.getUserAgent())
-                .status(BookingStatus.PENDING)
-                .paymentStatus(PaymentStatus.PENDING)
-                .build();
+        if (!dto.getCheckOutDate().isAfter(dto.getCheckInDate())) {
+            throw new RuntimeException("Date de départ doit être après la date d'arrivée");
+        }
         
-        Booking savedBooking = bookingRepository.save(booking);
-        log.info("Booking created successfully with reference: {}", savedBooking.getBookingReference());
+        User user = userRepository.findById(dto.getUserId())
+                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
         
-        return mapToResponseDTO(savedBooking);
+        // Hôtels par ordre de préférence, sans doublon
+        Map<Long, Hotel> hotelsById = hotelRepository.findAllById(dto.getHotelIds()).stream()
+                .collect(Collectors.toMap(Hotel::getId, hotel -> hotel));
+        List<Hotel> hotels = new ArrayList<>();
+        Set<Long> seenHotelIds = new HashSet<>();
+        for (Long hotelId : dto.getHotelIds()) {
+            Hotel hotel = hotelsById.get(hotelId);
+            if (hotel == null) {
+                throw new RuntimeException("Hôtel non trouvé : " + hotelId);
+            }
+            if (seenHotelIds.add(hotelId)) {
+                hotels.add(hotel);
+            }
+        }
+        
+        // Nuits verrouillées par identifiant d'hôtel croissant, quel que soit l'ordre de préférence :
+        // deux délégations qui citent les mêmes hôtels dans un ordre différent ne s'interbloquent pas
+        Map<Long, Integer> remainingRooms = new HashMap<>();
+        for (Hotel hotel : lockOrder(hotels)) {
+            remainingRooms.put(hotel.getId(), roomInventoryService.lockRemainingRooms(
+                    hotel, dto.getCheckInDate(), dto.getCheckOutDate()));
+        }
+        
+        List<Booking> bookings = new ArrayList<>();
+        List<DelegationBookingLineDTO> lines = new ArrayList<>();
+        Map<Long, Integer> allocatedRooms = new HashMap<>();
+        
+        for (int i = 0; i < dto.getMembers().size(); i++) {
+            DelegationMemberDTO member = dto.getMembers().get(i);
+            String guestName = member.getGuestFirstName() + " " + member.getGuestLastName();
+            int rooms = member.getNumberOfRooms() != null ? member.getNumberOfRooms() : 1;
+            
+            String error = validateDelegationMember(member, rooms);
+            Hotel hotel = null;
+            if (error == null) {
+                hotel = hotels.stream()
+                        .filter(h -> remainingRooms.get(h.getId()) >= rooms)
+                        .findFirst()
+                        .orElse(null);
+                if (hotel == null) {
+                    error = "Plus de chambres disponibles dans les hôtels demandés";
+                } else if (dto.getPricePerNight() == null && hotel.getPriceRangeMin() == null) {
+                    error = "Prix par nuit non défini pour l'hôtel " + hotel.getName();
+                }
+            }
+            
+            if (error != null) {
+                lines.add(DelegationBookingLineDTO.builder()
+                        .lineNumber(i)
+                        .guestName(guestName)
+                        .booked(false)
+                        .message(error)
+                        .build());
+                continue;
+            }
+            
+            remainingRooms.merge(hotel.getId(), -rooms, Integer::sum);
+            allocatedRooms.merge(hotel.getId(), rooms, Integer::sum);
+            
+            Booking booking = buildBooking(toBookingCreateDTO(dto, member, hotel, rooms), hotel, user);
+            bookings.add(booking);
+            lines.add(DelegationBookingLineDTO.builder()
+                    .lineNumber(i)
+                    .guestName(guestName)
+                    .booked(true)
+                    .bookingReference(booking.getBookingReference())
+                    .hotelId(hotel.getId())
+                    .build());
+        }
+        
+        // Une seule réservation d'inventaire par hôtel, dans l'ordre des verrous
+        for (Hotel hotel : lockOrder(hotels)) {
+            Integer rooms = allocatedRooms.get(hotel.getId());
+            if (rooms != null) {
+                roomInventoryService.reserve(hotel, dto.getCheckInDate(), dto.getCheckOutDate(), rooms);
+            }
+        }
+        
+        bookingBatchRepository.insertAll(bookings);
+        hotelStatsService.recordNew(bookings);
+        bookings.stream()
+                .collect(Collectors.groupingBy(b -> b.getHotel().getId(), Collectors.counting()))
+                .forEach((hotelId, count) ->
+                        popularityService.recordBookings(PopularityItemType.HOTEL, hotelId, count.intValue()));
+        transferManifestService.evictDay(dto.getCheckInDate());
+        log.info("Delegation {}: {} bookings created, {} lines rejected",
+                dto.getOlympicDelegation(), bookings.size(), lines.size() - bookings.size());
+        
+        return DelegationBookingResultDTO.builder()
+                .olympicDelegation(dto.getOlympicDelegation())
+                .requestedLines(lines.size())
+                .bookedLines(bookings.size())
+                .failedLines(lines.size() - bookings.size())
+                .lines(lines)
+                .build();
     }
     
     @Transactional(readOnly = true)
@@ -128,6 +259,7 @@ public class BookingService {
         
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Réservation non trouvée"));
+        StaySnapshot before = HotelStatsService.snapshot(booking);
         
         // Vérifier que la réservation peut être modifiée
         if (booking.getStatus() == BookingStatus.CANCELLED || 
@@ -135,6 +267,14 @@ public class BookingService {
             throw new RuntimeException("Cette réservation ne peut plus être modifiée");
         }
         
+        LocalDate previousCheckIn = booking.getCheckInDate();
+        LocalDate previousCheckOut = booking.getCheckOutDate();
+        Integer previousRooms = booking.getNumberOfRooms();
+        
+        if (dto.getNumberOfRooms() != null && dto.getNumberOfRooms() < 1) {
+            throw new RuntimeException("Le nombre de chambres doit être au moins 1");
+        }
+        
         // Mise à jour des champs
         if (dto.getCheckInDate() != null) booking.setCheckInDate(dto.getCheckInDate());
         if (dto.getCheckOutDate() != null) booking.setCheckOutDate(dto.getCheckOutDate());
@@ -147,7 +287,22 @@ public class BookingService {
         if (dto.getFlightNumber() != null) booking.setFlightNumber(dto.getFlightNumber());
         if (dto.getArrivalTime() != null) booking.setArrivalTime(dto.getArrivalTime());
         
-        Booking updatedBooking = bookingRepository.save(booking);
+        if (!booking.getCheckOutDate().isAfter(booking.getCheckInDate())) {
+            throw new RuntimeException("Date de départ doit être après la date d'arrivée");
+        }
+        
+        // Déplacer les chambres réservées dans le registre si le séjour a changé
+        boolean stayChanged = !booking.getCheckInDate().equals(previousCheckIn)
+                || !booking.getCheckOutDate().equals(previousCheckOut)
+                || !booking.getNumberOfRooms().equals(previousRooms);
+        if (stayChanged && RoomInventoryService.holdsInventory(booking.getStatus())) {
+            Hotel hotel = booking.getHotel();
+            roomInventoryService.release(hotel.getId(), previousCheckIn, previousCheckOut, previousRooms);
+            roomInventoryService.reserve(hotel, booking.getCheckInDate(), booking.getCheckOutDate(),
+                    booking.getNumberOfRooms());
+        }
+        
+        Booking updatedBooking = saveAndRecord(booking, before);
         log.info("Booking updated successfully");
         
         return mapToResponseDTO(updatedBooking);
@@ -159,10 +314,11 @@ public class BookingService {
         
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Réservation non trouvée"));
+        StaySnapshot before = HotelStatsService.snapshot(booking);
         
-        booking.setStatus(dto.getStatus());
+        changeStatus(booking, dto.getStatus());
         
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = saveAndRecord(booking, before);
         log.info("Booking status updated successfully");
         
         return mapToResponseDTO(updatedBooking);
@@ -174,7 +330,9 @@ public class BookingService {
         
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Réservation non trouvée"));
+        StaySnapshot before = HotelStatsService.snapshot(booking);
         
+        BookingStateMachine.assertTransition(booking.getPaymentStatus(), dto.getPaymentStatus());
         booking.setPaymentStatus(dto.getPaymentStatus());
         booking.setPaymentMethod(dto.getPaymentMethod());
         booking.setTransactionId(dto.getTransactionId());
@@ -183,11 +341,11 @@ public class BookingService {
             booking.setPaymentDate(LocalDateTime.now());
             // Auto-confirmer la réservation si paiement complet
             if (booking.getStatus() == BookingStatus.PENDING) {
-                booking.setStatus(BookingStatus.CONFIRMED);
+                changeStatus(booking, BookingStatus.CONFIRMED);
             }
         }
         
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = saveAndRecord(booking, before);
         log.info("Payment updated successfully");
         
         return mapToResponseDTO(updatedBooking);
@@ -199,16 +357,19 @@ public class BookingService {
         
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Réservation non trouvée"));
+        StaySnapshot before = HotelStatsService.snapshot(booking);
         
         booking.setIsConfirmedByHotel(dto.getConfirmed());
         booking.setHotelConfirmationNotes(dto.getNotes());
         
         if (dto.getConfirmed()) {
             booking.setConfirmedByHotelAt(LocalDateTime.now());
-            booking.setStatus(BookingStatus.CONFIRMED);
+            if (booking.getStatus() != BookingStatus.CONFIRMED) {
+                changeStatus(booking, BookingStatus.CONFIRMED);
+            }
         }
         
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = saveAndRecord(booking, before);
         log.info("Hotel confirmation updated");
         
         return mapToResponseDTO(updatedBooking);
@@ -220,15 +381,16 @@ public class BookingService {
         
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Réservation non trouvée"));
+        StaySnapshot before = HotelStatsService.snapshot(booking);
         
         if (booking.getStatus() != BookingStatus.CONFIRMED) {
             throw new RuntimeException("La réservation doit être confirmée pour faire le check-in");
         }
         
         booking.setActualCheckInTime(dto.getCheckInTime() != null ? dto.getCheckInTime() : LocalDateTime.now());
-        booking.setStatus(BookingStatus.CHECKED_IN);
+        changeStatus(booking, BookingStatus.CHECKED_IN);
         
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = saveAndRecord(booking, before);
         log.info("Check-in completed successfully");
         
         return mapToResponseDTO(updatedBooking);
@@ -240,15 +402,16 @@ public class BookingService {
         
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Réservation non trouvée"));
+        StaySnapshot before = HotelStatsService.snapshot(booking);
         
         if (booking.getStatus() != BookingStatus.CHECKED_IN) {
             throw new RuntimeException("Le client doit être enregistré (check-in) pour faire le check-out");
         }
         
         booking.setActualCheckOutTime(dto.getCheckOutTime() != null ? dto.getCheckOutTime() : LocalDateTime.now());
-        booking.setStatus(BookingStatus.CHECKED_OUT);
+        changeStatus(booking, BookingStatus.CHECKED_OUT);
         
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = saveAndRecord(booking, before);
         log.info("Check-out completed successfully");
         
         return mapToResponseDTO(updatedBooking);
@@ -260,6 +423,7 @@ public class BookingService {
         
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Réservation non trouvée"));
+        StaySnapshot before = HotelStatsService.snapshot(booking);
         
         if (booking.getStatus() == BookingStatus.CANCELLED) {
             throw new RuntimeException("Cette réservation est déjà annulée");
@@ -270,7 +434,7 @@ public class BookingService {
             throw new RuntimeException("Cette réservation ne peut plus être annulée");
         }
         
-        booking.setStatus(BookingStatus.CANCELLED);
+        changeStatus(booking, BookingStatus.CANCELLED);
         booking.setCancelledAt(LocalDateTime.now());
         booking.setCancellationReason(dto.getCancellationReason());
         
@@ -278,12 +442,13 @@ public class BookingService {
         if (dto.getRequestRefund() != null && dto.getRequestRefund()) {
             BigDecimal refundAmount = calculateRefund(booking);
             booking.setRefundAmount(refundAmount);
-            if (refundAmount.compareTo(BigDecimal.ZERO) > 0) {
+            if (refundAmount.compareTo(BigDecimal.ZERO) > 0
+                    && BookingStateMachine.canTransition(booking.getPaymentStatus(), PaymentStatus.REFUNDED)) {
                 booking.setPaymentStatus(PaymentStatus.REFUNDED);
             }
         }
         
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = saveAndRecord(booking, before);
         log.info("Booking cancelled successfully");
         
         return mapToResponseDTO(updatedBooking);
@@ -295,6 +460,7 @@ public class BookingService {
         
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Réservation non trouvée"));
+        StaySnapshot before = HotelStatsService.snapshot(booking);
         
         if (booking.getStatus() != BookingStatus.CHECKED_OUT && 
             booking.getStatus() != BookingStatus.COMPLETED) {
@@ -304,36 +470,53 @@ public class BookingService {
         booking.setRating(dto.getRating());
         booking.setReview(dto.getReview());
         booking.setReviewedAt(LocalDateTime.now());
-        booking.setStatus(BookingStatus.COMPLETED);
+        if (booking.getStatus() != BookingStatus.COMPLETED) {
+            changeStatus(booking, BookingStatus.COMPLETED);
+        }
         
-        // Mettre à jour la note moyenne de l'hôtel
-        updateHotelRating(booking.getHotel().getId());
+        Booking updatedBooking = saveAndRecord(booking, before);
         
-        Booking updatedBooking = bookingRepository.save(booking);
+        // Mettre à jour la note moyenne de l'hôtel (lue sur les agrégats quotidiens)
+        updateHotelRating(booking.getHotel().getId());
         log.info("Review added successfully");
         
         return mapToResponseDTO(updatedBooking);
     }
     
     @Transactional(readOnly = true)
-    public List<BookingResponseDTO> getUserBookings(Long userId) {
-        return bookingRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+    public KeysetPageDTO<BookingResponseDTO> getUserBookings(Long userId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        KeysetCursor.Position<LocalDateTime> position = KeysetCursor.decode(cursor, LocalDateTime::parse);
+        LocalDateTime createdAt = position != null ? position.sortKey() : CURSOR_MAX_DATE_TIME;
+        Long id = position != null ? position.id() : Long.MAX_VALUE;
+        
+        List<Booking> rows = bookingRepository.findUserBookingsBefore(
+                userId, createdAt, id, PageRequest.ofSize(pageSize + 1));
+        return toKeysetPage(rows, pageSize, b -> b.getCreatedAt().toString());
     }
     
     @Transactional(readOnly = true)
-    public List<BookingResponseDTO> getHotelBookings(Long hotelId) {
-        return bookingRepository.findByHotelIdOrderByCheckInDateDesc(hotelId).stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+    public KeysetPageDTO<BookingResponseDTO> getHotelBookings(Long hotelId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        KeysetCursor.Position<LocalDate> position = KeysetCursor.decode(cursor, LocalDate::parse);
+        LocalDate checkInDate = position != null ? position.sortKey() : CURSOR_MAX_DATE_TIME.toLocalDate();
+        Long id = position != null ? position.id() : Long.MAX_VALUE;
+        
+        List<Booking> rows = bookingRepository.findHotelBookingsBefore(
+                hotelId, checkInDate, id, PageRequest.ofSize(pageSize + 1));
+        return toKeysetPage(rows, pageSize, b -> b.getCheckInDate().toString());
     }
     
     @Transactional(readOnly = true)
-    public List<BookingResponseDTO> getPendingBookings() {
-        return bookingRepository.findPendingBookings().stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+    public KeysetPageDTO<BookingResponseDTO> getPendingBookings(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        KeysetCursor.Position<LocalDateTime> position = KeysetCursor.decode(cursor, LocalDateTime::parse);
+        LocalDateTime createdAt = position != null ? position.sortKey() : CURSOR_MIN_DATE_TIME;
+        Long id = position != null ? position.id() : 0L;
+        
+        List<Booking> rows = bookingRepository.findPendingBookingsAfter(
+                createdAt, id, PageRequest.ofSize(pageSize + 1));
+        return toKeysetPage(rows, pageSize, b -> b.getCreatedAt().toString());
     }
     
     @Transactional(readOnly = true)
@@ -358,10 +541,15 @@ public class BookingService {
     }
     
     @Transactional(readOnly = true)
-    public List<BookingResponseDTO> getOlympicBookings() {
-        return bookingRepository.findOlympicBookings().stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+    public KeysetPageDTO<BookingResponseDTO> getOlympicBookings(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        KeysetCursor.Position<LocalDateTime> position = KeysetCursor.decode(cursor, LocalDateTime::parse);
+        LocalDateTime createdAt = position != null ? position.sortKey() : CURSOR_MAX_DATE_TIME;
+        Long id = position != null ? position.id() : Long.MAX_VALUE;
+        
+        List<Booking> rows = bookingRepository.findOlympicBookingsBefore(
+                createdAt, id, PageRequest.ofSize(pageSize + 1));
+        return toKeysetPage(rows, pageSize, b -> b.getCreatedAt().toString());
     }
     
     @Transactional(readOnly = true)
@@ -369,15 +557,17 @@ public class BookingService {
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
         
-        Long overlappingBookings = bookingRepository.countOverlappingBookings(hotelId, checkIn, checkOut);
-        
-        // Vérifier si assez de chambres disponibles
-        return (hotel.getTotalRooms() - overlappingBookings) >= requestedRooms;
+        // Vérifier si assez de chambres disponibles sur chaque nuit du séjour
+        return roomInventoryService.getRemainingRooms(hotel, checkIn, checkOut) >= requestedRooms;
     }
     
     @Transactional(readOnly = true)
     public List<BookingResponseDTO> searchBookings(BookingSearchDTO searchDTO) {
         return bookingRepository.findAll((root, query, criteriaBuilder) -> {
+            // Charger l'hôtel dans la même requête (sauf pour une requête de comptage)
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("hotel");
+            }
             List<Predicate> predicates = new ArrayList<>();
             
             if (searchDTO.getHotelId() != null) {
@@ -408,6 +598,161 @@ public class BookingService {
                 .collect(Collectors.toList());
     }
     
+    private int resolvePageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+    
+    /**
+     * Une ligne de plus que la taille demandée est lue pour savoir s'il existe une page suivante ;
+     * le curseur encode la clé de tri et l'id de la dernière ligne renvoyée.
+     */
+    private KeysetPageDTO<BookingResponseDTO> toKeysetPage(List<Booking> rows, int pageSize,
+                                                           Function<Booking, String> sortKey) {
+        boolean hasNext = rows.size() > pageSize;
+        List<Booking> page = hasNext ? rows.subList(0, pageSize) : rows;
+        
+        String nextCursor = null;
+        if (hasNext) {
+            Booking last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.encode(sortKey.apply(last), last.getId());
+        }
+        
+        return KeysetPageDTO.<BookingResponseDTO>builder()
+                .items(page.stream().map(this::mapToResponseDTO).collect(Collectors.toList()))
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    private List<Hotel> lockOrder(List<Hotel> hotels) {
+        return hotels.stream()
+                .sorted(Comparator.comparing(Hotel::getId))
+                .collect(Collectors.toList());
+    }
+    
+    private String validateDelegationMember(DelegationMemberDTO member, int rooms) {
+        if (member.getGuestFirstName() == null || member.getGuestLastName() == null) {
+            return "Nom et prénom obligatoires";
+        }
+        if (member.getGuestEmail() == null || member.getGuestPhone() == null) {
+            return "Email et téléphone obligatoires";
+        }
+        if (rooms < 1) {
+            return "Le nombre de chambres doit être au moins 1";
+        }
+        return null;
+    }
+    
+    private BookingCreateDTO toBookingCreateDTO(DelegationBookingDTO dto, DelegationMemberDTO member,
+                                                Hotel hotel, int rooms) {
+        return BookingCreateDTO.builder()
+                .hotelId(hotel.getId())
+                .userId(dto.getUserId())
+                .guestFirstName(member.getGuestFirstName())
+                .guestLastName(member.getGuestLastName())
+                .guestEmail(member.getGuestEmail())
+                .guestPhone(member.getGuestPhone())
+                .guestCountry(member.getGuestCountry())
+                .guestNationality(member.getGuestNationality())
+                .checkInDate(dto.getCheckInDate())
+                .checkOutDate(dto.getCheckOutDate())
+                .numberOfAdults(member.getNumberOfAdults() != null ? member.getNumberOfAdults() : 1)
+                .numberOfRooms(rooms)
+                .roomType(member.getRoomType())
+                .pricePerNight(dto.getPricePerNight() != null ? dto.getPricePerNight() : hotel.getPriceRangeMin())
+                .currency(dto.getCurrency() != null ? dto.getCurrency() : hotel.getCurrency())
+                .specialRequests(member.getSpecialRequests())
+                .needsAirportTransfer(member.getNeedsAirportTransfer())
+                .flightNumber(member.getFlightNumber())
+                .arrivalTime(member.getArrivalTime())
+                .isOlympicBooking(true)
+                .olympicDelegation(dto.getOlympicDelegation())
+                .olympicRole(member.getOlympicRole())
+                .languagePreference(member.getLanguagePreference())
+                .source(dto.getSource() != null ? dto.getSource() : BookingSource.OLYMPIC_COMMITTEE)
+                .build();
+    }
+    
+    private Booking buildBooking(BookingCreateDTO dto, Hotel hotel, User user) {
+        // Calculer nombre de nuits
+        int numberOfNights = (int) ChronoUnit.DAYS.between(dto.getCheckInDate(), dto.getCheckOutDate());
+        
+        // Calculer prix total
+        BigDecimal totalPrice = dto.getPricePerNight()
+                .multiply(BigDecimal.valueOf(numberOfNights))
+                .multiply(BigDecimal.valueOf(dto.getNumberOfRooms()));
+        
+        // Calculer taxes (exemple: 10%)
+        BigDecimal taxes = totalPrice.multiply(BigDecimal.valueOf(0.10));
+        
+        // Frais de service (exemple: 5%)
+        BigDecimal serviceFees = totalPrice.multiply(BigDecimal.valueOf(0.05));
+        
+        // Créer la réservation
+        return Booking.builder()
+                .bookingReference(bookingReferenceGenerator.nextReference())
+                .hotel(hotel)
+                .user(user)
+                .guestFirstName(dto.getGuestFirstName())
+                .guestLastName(dto.getGuestLastName())
+                .guestEmail(dto.getGuestEmail())
+                .guestPhone(dto.getGuestPhone())
+                .guestCountry(dto.getGuestCountry())
+                .guestNationality(dto.getGuestNationality())
+                .checkInDate(dto.getCheckInDate())
+                .checkOutDate(dto.getCheckOutDate())
+                .numberOfNights(numberOfNights)
+                .numberOfAdults(dto.getNumberOfAdults())
+                .numberOfChildren(dto.getNumberOfChildren() != null ? dto.getNumberOfChildren() : 0)
+                .numberOfRooms(dto.getNumberOfRooms())
+                .roomType(dto.getRoomType())
+                .pricePerNight(dto.getPricePerNight())
+                .totalPrice(totalPrice)
+                .taxes(taxes)
+                .serviceFees(serviceFees)
+                .currency(dto.getCurrency() != null ? dto.getCurrency() : "XOF")
+                .discountCode(dto.getDiscountCode())
+                .specialRequests(dto.getSpecialRequests())
+                .needsAirportTransfer(dto.getNeedsAirportTransfer() != null ? dto.getNeedsAirportTransfer() : false)
+                .flightNumber(dto.getFlightNumber())
+                .arrivalTime(dto.getArrivalTime())
+                .isOlympicBooking(dto.getIsOlympicBooking() != null ? dto.getIsOlympicBooking() : false)
+                .olympicDelegation(dto.getOlympicDelegation())
+                .olympicRole(dto.getOlympicRole())
+                .languagePreference(dto.getLanguagePreference())
+                .source(dto.getSource() != null ? dto.getSource() : BookingSource.WEB)
+                .userIpAddress(dto.getUserIpAddress())
+                .userAgent(dto.getUserAgent())
+                .status(BookingStatus.PENDING)
+                .paymentStatus(PaymentStatus.PENDING)
+                .finalAmount(totalPrice.add(taxes).add(serviceFees))
+                .build();
+    }
+    
+    private void changeStatus(Booking booking, BookingStatus newStatus) {
+        BookingStatus previousStatus = booking.getStatus();
+        BookingStateMachine.assertTransition(previousStatus, newStatus);
+        booking.setStatus(newStatus);
+        syncInventory(booking, previousStatus);
+    }
+    
+    private void syncInventory(Booking booking, BookingStatus previousStatus) {
+        boolean wasHolding = RoomInventoryService.holdsInventory(previousStatus);
+        boolean isHolding = RoomInventoryService.holdsInventory(booking.getStatus());
+        
+        if (wasHolding && !isHolding) {
+            roomInventoryService.release(booking.getHotel().getId(), booking.getCheckInDate(),
+                    booking.getCheckOutDate(), booking.getNumberOfRooms());
+        } else if (!wasHolding && isHolding) {
+            roomInventoryService.reserve(booking.getHotel(), booking.getCheckInDate(),
+                    booking.getCheckOutDate(), booking.getNumberOfRooms());
+        }
+    }
+    
     private BigDecimal calculateRefund(Booking booking) {
         // Logique simple de remboursement
         long daysUntilCheckIn = ChronoUnit.DAYS.between(LocalDate.now(), booking.getCheckInDate());
@@ -424,14 +769,29 @@ public class BookingService {
     }
     
     private void updateHotelRating(Long hotelId) {
-        Double averageRating = bookingRepository.getAverageRating(hotelId);
+        StatsTotals ratings = hotelStatsService.getRatingTotals(hotelId);
         Hotel hotel = hotelRepository.findById(hotelId).orElse(null);
         
-        if (hotel != null && averageRating != null) {
-            hotel.setAverageRating(averageRating);
-            hotel.setTotalReviews(hotel.getTotalReviews() != null ? hotel.getTotalReviews() + 1 : 1);
+        if (hotel != null && ratings.getRatingCount() > 0) {
+            hotel.setAverageRating((double) ratings.getRatingSum() / ratings.getRatingCount());
+            hotel.setTotalReviews(ratings.getRatingCount().intValue());
             hotelRepository.save(hotel);
+            eventPublisher.publishEvent(CatalogItemChangedEvent.saved(hotel));
+        }
+    }
+    
+    /**
+     * Enregistre la réservation et répercute le changement sur les agrégats quotidiens de l'hôtel
+     * et sur le manifeste des transferts du jour d'arrivée.
+     */
+    private Booking saveAndRecord(Booking booking, StaySnapshot before) {
+        Booking saved = bookingRepository.save(booking);
+        hotelStatsService.recordChange(before, HotelStatsService.snapshot(saved));
+        if (before != null && !before.checkIn().equals(saved.getCheckInDate())) {
+            transferManifestService.evictDay(before.checkIn());
         }
+        transferManifestService.evictDay(saved.getCheckInDate());
+        return saved;
     }
     
     private BookingResponseDTO mapToResponseDTO(Booking booking) {
@@ -0,0 +1,71 @@
+package sn.discover.discoversenegal.services;
+
+
+import sn.discover.discoversenegal.entities.BookingStatus;
+import sn.discover.discoversenegal.entities.PaymentStatus;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transitions autorisées pour BookingStatus et PaymentStatus.
+ * Les règles sont en mémoire : une transition interdite est rejetée sans accès base.
+ */
+public final class BookingStateMachine {
+
+    private static final Map<BookingStatus, Set<BookingStatus>> BOOKING_TRANSITIONS = new EnumMap<>(BookingStatus.class);
+    private static final Map<PaymentStatus, Set<PaymentStatus>> PAYMENT_TRANSITIONS = new EnumMap<>(PaymentStatus.class);
+
+    static {
+        BOOKING_TRANSITIONS.put(BookingStatus.PENDING,
+                EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.CANCELLED));
+        BOOKING_TRANSITIONS.put(BookingStatus.CONFIRMED,
+                EnumSet.of(BookingStatus.CHECKED_IN, BookingStatus.CANCELLED, BookingStatus.NO_SHOW));
+        BOOKING_TRANSITIONS.put(BookingStatus.CHECKED_IN,
+                EnumSet.of(BookingStatus.CHECKED_OUT));
+        BOOKING_TRANSITIONS.put(BookingStatus.CHECKED_OUT,
+                EnumSet.of(BookingStatus.COMPLETED));
+        BOOKING_TRANSITIONS.put(BookingStatus.CANCELLED, EnumSet.noneOf(BookingStatus.class));
+        BOOKING_TRANSITIONS.put(BookingStatus.NO_SHOW, EnumSet.noneOf(BookingStatus.class));
+        BOOKING_TRANSITIONS.put(BookingStatus.COMPLETED, EnumSet.noneOf(BookingStatus.class));
+
+        PAYMENT_TRANSITIONS.put(PaymentStatus.PENDING,
+                EnumSet.of(PaymentStatus.PROCESSING, PaymentStatus.PAID, PaymentStatus.PARTIALLY_PAID, PaymentStatus.FAILED));
+        PAYMENT_TRANSITIONS.put(PaymentStatus.PROCESSING,
+                EnumSet.of(PaymentStatus.PAID, PaymentStatus.PARTIALLY_PAID, PaymentStatus.FAILED));
+        PAYMENT_TRANSITIONS.put(PaymentStatus.PARTIALLY_PAID,
+                EnumSet.of(PaymentStatus.PROCESSING, PaymentStatus.PAID, PaymentStatus.REFUNDED, PaymentStatus.PARTIALLY_REFUNDED));
+        PAYMENT_TRANSITIONS.put(PaymentStatus.FAILED,
+                EnumSet.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING, PaymentStatus.PAID));
+        PAYMENT_TRANSITIONS.put(PaymentStatus.PAID,
+                EnumSet.of(PaymentStatus.REFUNDED, PaymentStatus.PARTIALLY_REFUNDED));
+        PAYMENT_TRANSITIONS.put(PaymentStatus.PARTIALLY_REFUNDED,
+                EnumSet.of(PaymentStatus.REFUNDED));
+        PAYMENT_TRANSITIONS.put(PaymentStatus.REFUNDED, EnumSet.noneOf(PaymentStatus.class));
+    }
+
+    private BookingStateMachine() {
+    }
+
+    public static boolean canTransition(BookingStatus from, BookingStatus to) {
+        return BOOKING_TRANSITIONS.get(from).contains(to);
+    }
+
+    public static boolean canTransition(PaymentStatus from, PaymentStatus to) {
+        return from == to || PAYMENT_TRANSITIONS.get(from).contains(to);
+    }
+
+    public static void assertTransition(BookingStatus from, BookingStatus to) {
+        if (!canTransition(from, to)) {
+            throw new RuntimeException("Transition de statut interdite : " + from + " -> " + to);
+        }
+    }
+
+    public static void assertTransition(PaymentStatus from, PaymentStatus to) {
+        if (!canTransition(from, to)) {
+            throw new RuntimeException("Transition de paiement interdite : " + from + " -> " + to);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package sn.discover.discoversenegal.services;
+
+
+import sn.discover.discoversenegal.entities.Event;
+import sn.discover.discoversenegal.entities.Guide;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.Restaurant;
+import sn.discover.discoversenegal.entities.TouristSite;
+
+/**
+ * Publié quand un hôtel, un restaurant, un guide, un site ou un événement est enregistré ou supprimé.
+ * Les index en mémoire l'écoutent et se mettent à jour après le commit : un rollback ne laisse
+ * aucune trace. entity vaut null pour une suppression.
+ */
+public record CatalogItemChangedEvent(Type type, Long id, Object entity) {
+
+    public enum Type {
+        HOTEL, RESTAURANT, GUIDE, SITE, EVENT
+    }
+
+    public static CatalogItemChangedEvent saved(Hotel hotel) {
+        return new CatalogItemChangedEvent(Type.HOTEL, hotel.getId(), hotel);
+    }
+
+    public static CatalogItemChangedEvent saved(Restaurant restaurant) {
+        return new CatalogItemChangedEvent(Type.RESTAURANT, restaurant.getId(), restaurant);
+    }
+
+    public static CatalogItemChangedEvent saved(Guide guide) {
+        return new CatalogItemChangedEvent(Type.GUIDE, guide.getId(), guide);
+    }
+
+    public static CatalogItemChangedEvent saved(TouristSite site) {
+        return new CatalogItemChangedEvent(Type.SITE, site.getId(), site);
+    }
+
+    public static CatalogItemChangedEvent saved(Event event) {
+        return new CatalogItemChangedEvent(Type.EVENT, event.getId(), event);
+    }
+
+    public static CatalogItemChangedEvent removed(Type type, Long id) {
+        return new CatalogItemChangedEvent(type, id, null);
+    }
+
+    public boolean isRemoval() {
+        return entity == null;
+    }
+}
@@ -3,7 +3,9 @@ package sn.discover.discoversenegal.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,7 +17,11 @@ import sn.discover.discoversenegal.repositories.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +31,8 @@ public class EventService {
 
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final SearchIndexService searchIndexService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // =========================================================
     //  CRUD de base
@@ -38,7 +46,7 @@ public class EventService {
         validateDates(dto.getStartDateTime(), dto.getEndDateTime());
 
         Event event = buildEventFromDTO(dto, organizer);
-        Event saved = eventRepository.save(event);
+        Event saved = saveAndIndex(event);
         log.info("Événement créé : id={}, titre={}", saved.getId(), saved.getTitle());
         return toResponseDTO(saved);
     }
@@ -54,7 +62,7 @@ public class EventService {
         validateDates(dto.getStartDateTime(), dto.getEndDateTime());
 
         updateEventFromDTO(event, dto);
-        Event saved = eventRepository.save(event);
+        Event saved = saveAndIndex(event);
         log.info("Événement mis à jour : id={}", saved.getId());
         return toResponseDTO(saved);
     }
@@ -68,6 +76,7 @@ public class EventService {
         assertCanEdit(event, requester);
 
         eventRepository.delete(event);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.removed(CatalogItemChangedEvent.Type.EVENT, id));
         log.info("Événement supprimé : id={}", id);
     }
 
@@ -101,10 +110,27 @@ public class EventService {
                 .map(this::toResponseDTO);
     }
 
+    /**
+     * Recherche plein texte (index en mémoire, accents ignorés), résultats classés par pertinence
+     * avec un extrait surligné
+     */
     @Transactional(readOnly = true)
     public Page<EventResponseDTO> searchByKeyword(String keyword, Pageable pageable) {
-        return eventRepository.searchByKeyword(keyword, EventStatus.PUBLIE, pageable)
-                .map(this::toResponseDTO);
+        Page<Long> ids = searchIndexService.searchEvents(keyword, pageable);
+        Map<Long, Event> events = eventRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+        List<EventResponseDTO> content = ids.getContent().stream()
+                .map(events::get)
+                .filter(Objects::nonNull)
+                .map(event -> {
+                    EventResponseDTO dto = toResponseDTO(event);
+                    dto.setSnippet(searchIndexService.snippet(keyword, event.getShortDescription(),
+                            event.getDescription(), event.getTitle(),
+                            event.getTags() != null ? String.join(" ", event.getTags()) : null));
+                    return dto;
+                })
+                .toList();
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
     }
 
     @Transactional(readOnly = true)
@@ -170,7 +196,7 @@ public class EventService {
         assertCanEdit(event, requester);
 
         event.setStatus(EventStatus.EN_ATTENTE_VALIDATION);
-        return toResponseDTO(eventRepository.save(event));
+        return toResponseDTO(saveAndIndex(event));
     }
 
     /**
@@ -180,7 +206,7 @@ public class EventService {
         Event event = getEventOrThrow(id);
         event.setStatus(EventStatus.PUBLIE);
         log.info("Événement publié : id={}", id);
-        return toResponseDTO(eventRepository.save(event));
+        return toResponseDTO(saveAndIndex(event));
     }
 
     /**
@@ -192,7 +218,7 @@ public class EventService {
         assertCanEdit(event, requester);
 
         event.setStatus(EventStatus.ANNULE);
-        return toResponseDTO(eventRepository.save(event));
+        return toResponseDTO(saveAndIndex(event));
     }
 
     /**
@@ -264,6 +290,14 @@ public class EventService {
     //  Méthodes privées utilitaires
     // =========================================================
 
+    // Les index écoutent CatalogItemChangedEvent et suivent le statut : carte pour les événements publiés
+    // ou complets, recherche pour les publiés
+    private Event saveAndIndex(Event event) {
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.saved(saved));
+        return saved;
+    }
+
     private Event getEventOrThrow(Long id) {
         return eventRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Événement non trouvé avec l'id : " + id));
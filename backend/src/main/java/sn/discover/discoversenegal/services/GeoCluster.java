@@ -0,0 +1,10 @@
+package sn.discover.discoversenegal.services;
+
+
+/**
+ * Regroupement de marqueurs d'une cellule de la grille à un niveau de zoom donné.
+ * single n'est renseigné que pour une cellule d'un seul point (marqueur individuel).
+ */
+public record GeoCluster(double latitude, double longitude, int count,
+                         GeoPlace.Type dominantType, String dominantCategory, GeoPlace single) {
+}
@@ -0,0 +1,240 @@
+package sn.discover.discoversenegal.services;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Grille régulière en degrés (cellules d'environ 5 km) sur les points de l'index.
+ * Chaque cellule est un tableau immuable remplacé à chaque écriture : les lectures ne
+ * prennent aucun verrou, les écritures (rares) sont sérialisées. Une recherche par rayon
+ * ne visite que les cellules du carré englobant ; les k plus proches sont cherchés par
+ * anneaux de cellules autour du point, jusqu'à ce qu'aucun anneau ne puisse faire mieux.
+ */
+class GeoIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+    private static final GeoPlace[] EMPTY = new GeoPlace[0];
+
+    private final double cellDegrees;
+    private final int lngCells;
+    private final Map<Long, GeoPlace[]> cells = new ConcurrentHashMap<>();
+    private final Map<PlaceKey, GeoPlace> places = new ConcurrentHashMap<>();
+
+    GeoIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.lngCells = (int) Math.ceil(360.0 / cellDegrees);
+    }
+
+    /**
+     * Ajoute ou déplace un point ; renvoie sa version précédente, ou null.
+     */
+    synchronized GeoPlace upsert(GeoPlace place) {
+        GeoPlace previous = places.put(new PlaceKey(place.type(), place.id()), place);
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+        cells.merge(cellKey(place.latitude(), place.longitude()), new GeoPlace[]{place}, (current, added) -> {
+            GeoPlace[] copy = Arrays.copyOf(current, current.length + 1);
+            copy[current.length] = place;
+            return copy;
+        });
+        return previous;
+    }
+
+    synchronized GeoPlace remove(GeoPlace.Type type, Long id) {
+        GeoPlace previous = places.remove(new PlaceKey(type, id));
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+        return previous;
+    }
+
+    synchronized List<GeoPlace> clear(GeoPlace.Type type) {
+        List<GeoPlace> toRemove = places.values().stream().filter(place -> place.type() == type).toList();
+        for (GeoPlace place : toRemove) {
+            remove(type, place.id());
+        }
+        return toRemove;
+    }
+
+    GeoPlace get(GeoPlace.Type type, Long id) {
+        return places.get(new PlaceKey(type, id));
+    }
+
+    int size() {
+        return places.size();
+    }
+
+    /**
+     * Points à moins de radiusKm, du plus proche au plus lointain.
+     */
+    List<GeoPlace.Hit> within(double latitude, double longitude, double radiusKm,
+                              Predicate<GeoPlace> filter, int limit) {
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double lngSpan = lngSpan(latitude, latSpan, radiusKm);
+
+        int minLat = latIndex(latitude - latSpan);
+        int maxLat = latIndex(latitude + latSpan);
+        // Indices non ramenés dans [0, lngCells) : le carré peut chevaucher l'antiméridien
+        int minLng = (int) Math.floor((longitude - lngSpan + 180.0) / cellDegrees);
+        int maxLng = (int) Math.floor((longitude + lngSpan + 180.0) / cellDegrees);
+        if (maxLng - minLng + 1 >= lngCells) {
+            minLng = 0;
+            maxLng = lngCells - 1;
+        }
+
+        List<GeoPlace.Hit> hits = new ArrayList<>();
+        for (int latCell = minLat; latCell <= maxLat; latCell++) {
+            for (int lngCell = minLng; lngCell <= maxLng; lngCell++) {
+                for (GeoPlace place : cell(latCell, lngCell)) {
+                    // Rejet rapide sur le carré englobant avant le calcul trigonométrique
+                    if (Math.abs(place.latitude() - latitude) > latSpan
+                            || lngDelta(place.longitude(), longitude) > lngSpan
+                            || !filter.test(place)) {
+                        continue;
+                    }
+                    double distance = distanceKm(latitude, longitude, place.latitude(), place.longitude());
+                    if (distance <= radiusKm) {
+                        hits.add(new GeoPlace.Hit(place, distance));
+                    }
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(GeoPlace.Hit::distanceKm));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Les k points les plus proches, à moins de maxRadiusKm.
+     */
+    List<GeoPlace.Hit> nearest(double latitude, double longitude, int k, double maxRadiusKm,
+                               Predicate<GeoPlace> filter) {
+        if (k <= 0) {
+            return List.of();
+        }
+        // Tas max : la tête est le plus lointain des k meilleurs
+        PriorityQueue<GeoPlace.Hit> best = new PriorityQueue<>(
+                Comparator.comparingDouble(GeoPlace.Hit::distanceKm).reversed());
+        int centerLat = latIndex(latitude);
+        int centerLng = lngIndex(longitude);
+        int maxRing = (int) Math.min((lngCells - 1) / 2,
+                Math.ceil(maxRadiusKm / (cellDegrees * KM_PER_DEGREE * cosAt(latitude, maxRadiusKm))) + 1);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Distance minimale à un point de cet anneau : (ring - 1) cellules complètes
+            double ringMinKm = Math.max(0, ring - 1) * cellDegrees * KM_PER_DEGREE
+                    * cosAt(latitude, (ring + 1) * cellDegrees * KM_PER_DEGREE);
+            if (ringMinKm > maxRadiusKm || (best.size() == k && ringMinKm >= best.peek().distanceKm())) {
+                break;
+            }
+            for (int latCell = centerLat - ring; latCell <= centerLat + ring; latCell++) {
+                boolean edgeRow = latCell == centerLat - ring || latCell == centerLat + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int lngCell = centerLng - ring; lngCell <= centerLng + ring; lngCell += step) {
+                    for (GeoPlace place : cell(latCell, lngCell)) {
+                        if (!filter.test(place)) {
+                            continue;
+                        }
+                        double distance = distanceKm(latitude, longitude, place.latitude(), place.longitude());
+                        if (distance > maxRadiusKm) {
+                            continue;
+                        }
+                        if (best.size() < k) {
+                            best.add(new GeoPlace.Hit(place, distance));
+                        } else if (distance < best.peek().distanceKm()) {
+                            best.poll();
+                            best.add(new GeoPlace.Hit(place, distance));
+                        }
+                    }
+                }
+            }
+        }
+
+        List<GeoPlace.Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(GeoPlace.Hit::distanceKm));
+        return hits;
+    }
+
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private void removeFromCell(GeoPlace place) {
+        cells.computeIfPresent(cellKey(place.latitude(), place.longitude()), (key, current) -> {
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == place) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return current;
+            }
+            if (current.length == 1) {
+                return null;
+            }
+            GeoPlace[] copy = new GeoPlace[current.length - 1];
+            System.arraycopy(current, 0, copy, 0, index);
+            System.arraycopy(current, index + 1, copy, index, current.length - index - 1);
+            return copy;
+        });
+    }
+
+    private GeoPlace[] cell(int latCell, int lngCell) {
+        GeoPlace[] cell = cells.get(cellKey(latCell, Math.floorMod(lngCell, lngCells)));
+        return cell != null ? cell : EMPTY;
+    }
+
+    private static double lngDelta(double lng1, double lng2) {
+        double delta = Math.abs(lng1 - lng2) % 360.0;
+        return delta > 180.0 ? 360.0 - delta : delta;
+    }
+
+    // Largeur en longitude du carré englobant ; tout le tour du globe près des pôles
+    private double lngSpan(double latitude, double latSpan, double radiusKm) {
+        double maxAbsLat = Math.abs(latitude) + latSpan;
+        if (maxAbsLat >= 89.0) {
+            return 180.0;
+        }
+        return Math.min(180.0, radiusKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(maxAbsLat))));
+    }
+
+    // Cosinus de la latitude la plus éloignée de l'équateur à distanceKm du point
+    private double cosAt(double latitude, double distanceKm) {
+        double maxAbsLat = Math.min(89.0, Math.abs(latitude) + distanceKm / KM_PER_DEGREE);
+        return Math.cos(Math.toRadians(maxAbsLat));
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return cellKey(latIndex(latitude), lngIndex(longitude));
+    }
+
+    private long cellKey(int latCell, int lngCell) {
+        return (long) latCell * lngCells + lngCell;
+    }
+
+    private int latIndex(double latitude) {
+        return (int) Math.floor((Math.max(-90.0, Math.min(90.0, latitude)) + 90.0) / cellDegrees);
+    }
+
+    private int lngIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / cellDegrees), lngCells);
+    }
+
+    private record PlaceKey(GeoPlace.Type type, Long id) {
+    }
+}
@@ -0,0 +1,220 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sn.discover.discoversenegal.entities.Event;
+import sn.discover.discoversenegal.entities.EventStatus;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.Restaurant;
+import sn.discover.discoversenegal.entities.SiteStatus;
+import sn.discover.discoversenegal.entities.TouristSite;
+import sn.discover.discoversenegal.repositories.EventRepository;
+import sn.discover.discoversenegal.repositories.RestaurantRepository;
+import sn.discover.discoversenegal.repositories.TouristSiteRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Index géographique en mémoire des hôtels actifs, restaurants actifs, sites publiés
+ * et événements publiés non terminés.
+ * Chargé au démarrage par des projections, puis tenu à jour après le commit de chaque
+ * création, modification ou désactivation (CatalogItemChangedEvent). Les recherches par rayon
+ * et les k plus proches ne touchent plus la base.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GeoIndexService implements CommandLineRunner {
+
+    // Cellules de 0,05° (environ 5,5 km) : une recherche urbaine ne visite que quelques cellules
+    private static final double CELL_DEGREES = 0.05;
+    // Rayons acceptés par les recherches « à proximité »
+    public static final double MIN_RADIUS_KM = 1;
+    public static final double MAX_RADIUS_KM = 500;
+    // Un événement complet reste visible sur la carte
+    private static final Set<EventStatus> VISIBLE_EVENT_STATUSES = EnumSet.of(EventStatus.PUBLIE, EventStatus.COMPLET);
+    // Les événements, éphémères, n'apparaissent pas sur la carte du pays
+    private static final Set<GeoPlace.Type> CLUSTERED_TYPES =
+            EnumSet.of(GeoPlace.Type.HOTEL, GeoPlace.Type.RESTAURANT, GeoPlace.Type.SITE);
+
+    private final HotelRepository hotelRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final TouristSiteRepository siteRepository;
+    private final EventRepository eventRepository;
+
+    private final GeoIndex index = new GeoIndex(CELL_DEGREES);
+    private final MarkerClusterIndex clusters = new MarkerClusterIndex(CLUSTERED_TYPES);
+
+    @Override
+    public void run(String... args) {
+        reload();
+    }
+
+    /**
+     * Recharge tout l'index depuis la base (démarrage ou reprise après écritures groupées).
+     */
+    public void reload() {
+        List<GeoPlace> hotels = hotelRepository.findGeoRows().stream()
+                .map(row -> new GeoPlace(GeoPlace.Type.HOTEL, row.getId(), row.getName(), name(row.getCategory()),
+                        row.getCity(), row.getLatitude(), row.getLongitude(), row.getAverageRating(), null, null))
+                .toList();
+        List<GeoPlace> restaurants = restaurantRepository.findGeoRows().stream()
+                .map(row -> new GeoPlace(GeoPlace.Type.RESTAURANT, row.getId(), row.getName(), name(row.getType()),
+                        row.getCity(), row.getLatitude(), row.getLongitude(), row.getAverageRating(), null, null))
+                .toList();
+        List<GeoPlace> sites = siteRepository.findGeoRows().stream()
+                .map(row -> new GeoPlace(GeoPlace.Type.SITE, row.getId(), row.getName(), name(row.getCategory()),
+                        row.getCity(), row.getLatitude(), row.getLongitude(), row.getAverageRating(), null, null))
+                .toList();
+        List<GeoPlace> events = eventRepository.findGeoRows(VISIBLE_EVENT_STATUSES, LocalDateTime.now()).stream()
+                .map(row -> new GeoPlace(GeoPlace.Type.EVENT, row.getId(), row.getTitle(), name(row.getCategory()),
+                        row.getCity(), row.getLatitude(), row.getLongitude(), null,
+                        row.getStartDateTime(), row.getEndDateTime()))
+                .toList();
+
+        replaceAll(GeoPlace.Type.HOTEL, hotels);
+        replaceAll(GeoPlace.Type.RESTAURANT, restaurants);
+        replaceAll(GeoPlace.Type.SITE, sites);
+        replaceAll(GeoPlace.Type.EVENT, events);
+
+        log.info("Geo index loaded: {} hotels, {} restaurants, {} sites, {} events",
+                hotels.size(), restaurants.size(), sites.size(), events.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogItemChanged(CatalogItemChangedEvent event) {
+        if (event.isRemoval()) {
+            switch (event.type()) {
+                case HOTEL -> remove(GeoPlace.Type.HOTEL, event.id());
+                case RESTAURANT -> remove(GeoPlace.Type.RESTAURANT, event.id());
+                case SITE -> remove(GeoPlace.Type.SITE, event.id());
+                case EVENT -> remove(GeoPlace.Type.EVENT, event.id());
+                default -> { }
+            }
+            return;
+        }
+        switch (event.type()) {
+            case HOTEL -> indexHotel((Hotel) event.entity());
+            case RESTAURANT -> indexRestaurant((Restaurant) event.entity());
+            case SITE -> indexSite((TouristSite) event.entity());
+            case EVENT -> indexEvent((Event) event.entity());
+            default -> { }
+        }
+    }
+
+    public void indexHotel(Hotel hotel) {
+        GeoPlace place = hotel.isActive() && hasCoordinates(hotel.getLatitude(), hotel.getLongitude())
+                ? new GeoPlace(GeoPlace.Type.HOTEL, hotel.getId(), hotel.getName(), name(hotel.getCategory()),
+                        hotel.getCity(), hotel.getLatitude(), hotel.getLongitude(), hotel.getAverageRating(), null, null)
+                : null;
+        store(GeoPlace.Type.HOTEL, hotel.getId(), place);
+    }
+
+    public void indexRestaurant(Restaurant restaurant) {
+        GeoPlace place = Boolean.TRUE.equals(restaurant.getActive())
+                && hasCoordinates(restaurant.getLatitude(), restaurant.getLongitude())
+                ? new GeoPlace(GeoPlace.Type.RESTAURANT, restaurant.getId(), restaurant.getName(),
+                        name(restaurant.getType()), restaurant.getCity(), restaurant.getLatitude(),
+                        restaurant.getLongitude(), restaurant.getAverageRating(), null, null)
+                : null;
+        store(GeoPlace.Type.RESTAURANT, restaurant.getId(), place);
+    }
+
+    public void indexSite(TouristSite site) {
+        GeoPlace place = site.getStatus() == SiteStatus.PUBLIE && hasCoordinates(site.getLatitude(), site.getLongitude())
+                ? new GeoPlace(GeoPlace.Type.SITE, site.getId(), site.getName(), name(site.getCategory()),
+                        site.getCity(), site.getLatitude(), site.getLongitude(), site.getAverageRating(), null, null)
+                : null;
+        store(GeoPlace.Type.SITE, site.getId(), place);
+    }
+
+    public void indexEvent(Event event) {
+        GeoPlace place = VISIBLE_EVENT_STATUSES.contains(event.getStatus())
+                && hasCoordinates(event.getLatitude(), event.getLongitude())
+                ? new GeoPlace(GeoPlace.Type.EVENT, event.getId(), event.getTitle(), name(event.getCategory()),
+                        event.getCity(), event.getLatitude(), event.getLongitude(), null,
+                        event.getStartDateTime(), event.getEndDateTime())
+                : null;
+        store(GeoPlace.Type.EVENT, event.getId(), place);
+    }
+
+    public void remove(GeoPlace.Type type, Long id) {
+        store(type, id, null);
+    }
+
+    /**
+     * Points d'un type à moins de radiusKm, du plus proche au plus lointain.
+     */
+    public List<GeoPlace.Hit> findWithin(GeoPlace.Type type, double latitude, double longitude,
+                                         double radiusKm, int limit) {
+        return index.within(latitude, longitude, radiusKm, ofType(type), limit);
+    }
+
+    /**
+     * Points de plusieurs types en un seul parcours de l'index ; les événements terminés sont écartés.
+     */
+    public List<GeoPlace.Hit> findWithin(Collection<GeoPlace.Type> types, double latitude, double longitude,
+                                         double radiusKm, int limit) {
+        Set<GeoPlace.Type> wanted = EnumSet.copyOf(types);
+        LocalDateTime now = LocalDateTime.now();
+        return index.within(latitude, longitude, radiusKm,
+                place -> wanted.contains(place.type()) && place.isCurrent(now), limit);
+    }
+
+    /**
+     * Les k points d'un type les plus proches, à moins de MAX_RADIUS_KM.
+     */
+    public List<GeoPlace.Hit> findNearest(GeoPlace.Type type, double latitude, double longitude, int k) {
+        return index.nearest(latitude, longitude, k, MAX_RADIUS_KM, ofType(type));
+    }
+
+    /**
+     * Regroupements de marqueurs visibles dans le rectangle, au niveau de zoom demandé.
+     */
+    public List<GeoCluster> findClusters(double west, double south, double east, double north, int zoom) {
+        return clusters.query(west, south, east, north, zoom);
+    }
+
+    // Index de proximité et grilles de regroupement modifiés ensemble
+    private synchronized void store(GeoPlace.Type type, Long id, GeoPlace place) {
+        GeoPlace previous = place != null ? index.upsert(place) : index.remove(type, id);
+        if (previous != null) {
+            clusters.remove(previous);
+        }
+        if (place != null) {
+            clusters.add(place);
+        }
+    }
+
+    private synchronized void replaceAll(GeoPlace.Type type, List<GeoPlace> places) {
+        for (GeoPlace previous : index.clear(type)) {
+            clusters.remove(previous);
+        }
+        for (GeoPlace place : places) {
+            store(type, place.id(), place);
+        }
+    }
+
+    private Predicate<GeoPlace> ofType(GeoPlace.Type type) {
+        return type == null ? place -> true : place -> place.type() == type;
+    }
+
+    private boolean hasCoordinates(Double latitude, Double longitude) {
+        return latitude != null && longitude != null;
+    }
+
+    private String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+}
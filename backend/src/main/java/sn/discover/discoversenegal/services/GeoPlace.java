@@ -0,0 +1,27 @@
+package sn.discover.discoversenegal.services;
+
+
+import java.time.LocalDateTime;
+
+/**
+ * Point de l'index géographique : ce qu'il faut pour filtrer, trier et afficher
+ * un marqueur sans recharger l'entité.
+ */
+public record GeoPlace(Type type, Long id, String name, String category, String city,
+                       double latitude, double longitude, Double rating,
+                       LocalDateTime startsAt, LocalDateTime endsAt) {
+
+    public enum Type {
+        HOTEL, RESTAURANT, SITE, EVENT
+    }
+
+    /**
+     * Faux pour un événement déjà terminé (il reste dans l'index jusqu'au prochain rechargement).
+     */
+    public boolean isCurrent(LocalDateTime now) {
+        return endsAt == null || !endsAt.isBefore(now);
+    }
+
+    public record Hit(GeoPlace place, double distanceKm) {
+    }
+}
@@ -3,17 +3,22 @@ package sn.discover.discoversenegal.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sn.discover.discoversenegal.dto.*;
 import sn.discover.discoversenegal.entities.*;
 import sn.discover.discoversenegal.repositories.GuideRepository;
 import sn.discover.discoversenegal.repositories.UserRepository;
+import sn.discover.discoversenegal.repositories.ViewCounterRepository;
 
 import jakarta.persistence.criteria.Predicate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +28,10 @@ public class GuideService {
     
     private final GuideRepository guideRepository;
     private final UserRepository userRepository;
+    private final ViewCounterService viewCounterService;
+    private final PopularityService popularityService;
+    private final NameMatchService nameMatchService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public GuideResponseDTO createGuide(GuideCreateDTO dto) {
@@ -98,6 +107,7 @@ public class GuideService {
                 .build();
         
         Guide savedGuide = guideRepository.save(guide);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.saved(savedGuide));
         log.info("Guide created successfully with ID: {}", savedGuide.getId());
         
         return mapToResponseDTO(savedGuide);
@@ -157,6 +167,7 @@ public class GuideService {
         if (dto.getAcceptingBookings() != null) guide.setAcceptingBookings(dto.getAcceptingBookings());
         
         Guide updatedGuide = guideRepository.save(guide);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.saved(updatedGuide));
         log.info("Guide updated successfully");
         
         return mapToResponseDTO(updatedGuide);
@@ -257,12 +268,15 @@ public class GuideService {
         return mapToResponseDTO(updatedGuide);
     }
     
-    @Transactional
-    public GuideResponseDTO incrementViewCount(Long id) {
-        Guide guide = guideRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Guide non trouvé"));
-        guide.setViewCount(guide.getViewCount() + 1);
-        return mapToResponseDTO(guideRepository.save(guide));
+    /**
+     * Compte une vue sans écriture en base : le report est groupé par ViewCounterService.
+     */
+    @Transactional(readOnly = true)
+    public void incrementViewCount(Long id) {
+        if (!guideRepository.existsById(id)) {
+            throw new RuntimeException("Guide non trouvé");
+        }
+        viewCounterService.recordView(ViewCounterRepository.Table.GUIDE, id);
     }
     
     @Transactional
@@ -271,6 +285,7 @@ public class GuideService {
                 .orElseThrow(() -> new RuntimeException("Guide non trouvé"));
         guide.setBookingCount(guide.getBookingCount() + 1);
         guide.setTotalTours(guide.getTotalTours() + 1);
+        popularityService.recordBookings(PopularityItemType.GUIDE, id, 1);
         return mapToResponseDTO(guideRepository.save(guide));
     }
     
@@ -279,6 +294,7 @@ public class GuideService {
         Guide guide = guideRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Guide non trouvé"));
         guide.setFavoriteCount(guide.getFavoriteCount() + 1);
+        popularityService.recordFavorite(PopularityItemType.GUIDE, id);
         return mapToResponseDTO(guideRepository.save(guide));
     }
     
@@ -332,10 +348,33 @@ public class GuideService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Guides les plus populaires (score décroissant dans le temps), par ville et/ou type de guide
+     */
     @Transactional(readOnly = true)
-    public List<GuideResponseDTO> getMostPopularGuides() {
-        return guideRepository.findMostPopular().stream()
-                .limit(10)
+    public List<GuideResponseDTO> getMostPopularGuides(String city, String guideType) {
+        List<Long> ids = popularityService.top(PopularityItemType.GUIDE, city, guideType, 10);
+        Map<Long, Guide> guides = guideRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Guide::getId, Function.identity()));
+        return ids.stream()
+                .map(guides::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Recherche par nom tolérante aux fautes de frappe et aux variantes (« St-Louis », « Lac Retba »),
+     * du nom le plus proche au plus éloigné (index de trigrammes en mémoire)
+     */
+    @Transactional(readOnly = true)
+    public List<GuideResponseDTO> searchByName(String name, Integer limit) {
+        List<Long> ids = nameMatchService.searchGuides(name, limit != null ? limit : 20);
+        Map<Long, Guide> guides = guideRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Guide::getId, Function.identity()));
+        return ids.stream()
+                .map(guides::get)
+                .filter(Objects::nonNull)
                 .map(this::mapToResponseDTO)
                 .collect(Collectors.toList());
     }
@@ -427,6 +466,7 @@ public class GuideService {
                 .orElseThrow(() -> new RuntimeException("Guide non trouvé"));
         guide.setActive(false);
         guideRepository.save(guide);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.saved(guide));
         log.info("Guide deactivated successfully");
     }
     
@@ -0,0 +1,147 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Roue temporelle hachée pour l'expiration des blocages de chambres.
+ * Les threads appelants ne touchent qu'à des structures sans verrou (file d'attente
+ * et table des entrées) ; seul le thread de la roue manipule les cases.
+ * Planifier ou annuler coûte O(1), chaque tick ne parcourt qu'une case.
+ */
+@Slf4j
+class HoldExpiryWheel {
+
+    private final long tickMillis;
+    private final ArrayDeque<Entry>[] buckets;
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Consumer<List<Long>> onExpired;
+    private final ScheduledExecutorService ticker;
+
+    // Uniquement lu et modifié par le thread de la roue
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    HoldExpiryWheel(long tickMillis, int wheelSize, Consumer<List<Long>> onExpired) {
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.onExpired = onExpired;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "room-hold-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void start() {
+        ticker.scheduleAtFixedRate(this::safeAdvance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    void schedule(Long holdId, long deadlineMillis) {
+        Entry entry = new Entry(holdId, deadlineMillis);
+        Entry previous = entries.put(holdId, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        pending.add(entry);
+    }
+
+    void cancel(Long holdId) {
+        Entry entry = entries.remove(holdId);
+        if (entry != null) {
+            entry.cancelled = true;
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void safeAdvance() {
+        try {
+            advance();
+        } catch (RuntimeException e) {
+            // Une exception arrêterait scheduleAtFixedRate
+            log.error("Room hold wheel tick failed", e);
+        }
+    }
+
+    private void advance() {
+        long now = System.currentTimeMillis();
+
+        Entry added;
+        while ((added = pending.poll()) != null) {
+            if (!added.cancelled) {
+                place(added, now);
+            }
+        }
+
+        List<Long> expired = new ArrayList<>();
+        List<Entry> early = new ArrayList<>();
+        Iterator<Entry> iterator = buckets[(int) (tick % buckets.length)].iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.cancelled) {
+                iterator.remove();
+            } else if (entry.rounds > 0) {
+                entry.rounds--;
+            } else {
+                iterator.remove();
+                if (entry.deadlineMillis <= now) {
+                    entries.remove(entry.holdId, entry);
+                    expired.add(entry.holdId);
+                } else {
+                    // Tick en avance sur l'horloge : replacer l'entrée
+                    early.add(entry);
+                }
+            }
+        }
+        tick++;
+        for (Entry entry : early) {
+            place(entry, now);
+        }
+
+        if (!expired.isEmpty()) {
+            onExpired.accept(expired);
+        }
+    }
+
+    private void place(Entry entry, long now) {
+        long ticksAhead = Math.max(0, (entry.deadlineMillis - now + tickMillis - 1) / tickMillis);
+        entry.rounds = ticksAhead / buckets.length;
+        buckets[(int) ((tick + ticksAhead) % buckets.length)].add(entry);
+    }
+
+    private static final class Entry {
+        private final Long holdId;
+        private final long deadlineMillis;
+        private volatile boolean cancelled;
+        private long rounds;
+
+        private Entry(Long holdId, long deadlineMillis) {
+            this.holdId = holdId;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
@@ -2,16 +2,29 @@ package sn.discover.discoversenegal.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sn.discover.discoversenegal.dto.*;
 import sn.discover.discoversenegal.entities.*;
 import sn.discover.discoversenegal.repositories.UserRepository;
+import sn.discover.discoversenegal.repositories.ViewCounterRepository;
 
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +34,13 @@ public class HotelService {
     
     private final HotelRepository hotelRepository;
     private final UserRepository userRepository;
+    private final RoomInventoryService roomInventoryService;
+    private final HotelStatsService hotelStatsService;
+    private final GeoIndexService geoIndexService;
+    private final ViewCounterService viewCounterService;
+    private final PopularityService popularityService;
+    private final NameMatchService nameMatchService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public HotelResponseDTO createHotel(HotelCreateDTO dto) {
@@ -72,6 +92,7 @@ public class HotelService {
                 .build();
         
         Hotel savedHotel = hotelRepository.save(hotel);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.saved(savedHotel));
         log.info("Hotel created successfully with ID: {}", savedHotel.getId());
         
         return mapToResponseDTO(savedHotel);
@@ -98,6 +119,7 @@ public class HotelService {
         if (dto.getWebsite() != null) hotel.setWebsite(dto.getWebsite());
         if (dto.getCategory() != null) hotel.setCategory(dto.getCategory());
         if (dto.getStarRating() != null) hotel.setStarRating(dto.getStarRating());
+        boolean capacityChanged = dto.getTotalRooms() != null && !dto.getTotalRooms().equals(hotel.getTotalRooms());
         if (dto.getTotalRooms() != null) hotel.setTotalRooms(dto.getTotalRooms());
         if (dto.getPriceRangeMin() != null) hotel.setPriceRangeMin(dto.getPriceRangeMin());
         if (dto.getPriceRangeMax() != null) hotel.setPriceRangeMax(dto.getPriceRangeMax());
@@ -111,7 +133,12 @@ public class HotelService {
         if (dto.getFeatured() != null) hotel.setFeatured(dto.getFeatured());
         if (dto.getActive() != null) hotel.setActive(dto.getActive());
         
+        if (capacityChanged) {
+            roomInventoryService.updateCapacity(id, hotel.getTotalRooms());
+        }
+        
         Hotel updatedHotel = hotelRepository.save(hotel);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.saved(updatedHotel));
         log.info("Hotel updated successfully");
         
         return mapToResponseDTO(updatedHotel);
@@ -169,20 +196,62 @@ public class HotelService {
         return mapToResponseDTO(hotel);
     }
     
+    /**
+     * Compte une vue sans écriture en base : le report est groupé par ViewCounterService.
+     */
+    @Transactional(readOnly = true)
+    public void incrementViewCount(Long id) {
+        if (!hotelRepository.existsById(id)) {
+            throw new RuntimeException("Hôtel non trouvé");
+        }
+        viewCounterService.recordView(ViewCounterRepository.Table.HOTEL, id);
+    }
+    
     @Transactional
-    public HotelResponseDTO incrementViewCount(Long id) {
+    public HotelResponseDTO incrementBookingCount(Long id) {
         Hotel hotel = hotelRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
-        hotel.setViewCount(hotel.getViewCount() + 1);
+        hotel.setBookingCount(hotel.getBookingCount() + 1);
+        popularityService.recordBookings(PopularityItemType.HOTEL, id, 1);
         return mapToResponseDTO(hotelRepository.save(hotel));
     }
     
+    // Pas en lecture seule : le calendrier est mis en cache, il doit être lu sur le primaire
     @Transactional
-    public HotelResponseDTO incrementBookingCount(Long id) {
+    public AvailabilityCalendarDTO getAvailabilityCalendar(Long id, LocalDate from, LocalDate to) {
+        return roomInventoryService.getCalendar(id, from, to);
+    }
+    
+    @Transactional
+    public int rebuildInventory(Long id) {
+        log.info("Rebuilding room inventory for hotel ID: {}", id);
         Hotel hotel = hotelRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
-        hotel.setBookingCount(hotel.getBookingCount() + 1);
-        return mapToResponseDTO(hotelRepository.save(hotel));
+        return roomInventoryService.rebuild(hotel);
+    }
+    
+    public HotelStatsDTO getHotelStats(Long id, LocalDate from, LocalDate to) {
+        return hotelStatsService.getHotelStats(id, from, to);
+    }
+    
+    public int rebuildStats(Long id) {
+        log.info("Rebuilding daily stats for hotel ID: {}", id);
+        if (!hotelRepository.existsById(id)) {
+            throw new RuntimeException("Hôtel non trouvé");
+        }
+        return hotelStatsService.rebuild(id);
+    }
+    
+    /**
+     * Reprise d'historique de tous les hôtels, une transaction par hôtel
+     */
+    public int rebuildAllStats() {
+        log.info("Rebuilding daily stats for all hotels");
+        int days = 0;
+        for (Hotel hotel : hotelRepository.findAll()) {
+            days += hotelStatsService.rebuild(hotel.getId());
+        }
+        return days;
     }
     
     @Transactional(readOnly = true)
@@ -199,6 +268,26 @@ public class HotelService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Hôtels actifs dans un rayon (km), du plus proche au plus lointain (index en mémoire)
+     */
+    @Transactional(readOnly = true)
+    public List<HotelResponseDTO> getHotelsNearby(Double latitude, Double longitude, Double radiusKm) {
+        if (radiusKm == null || radiusKm < GeoIndexService.MIN_RADIUS_KM
+                || radiusKm > GeoIndexService.MAX_RADIUS_KM) {
+            throw new RuntimeException("Le rayon doit être compris entre 1 et 500 km");
+        }
+        List<Long> ids = geoIndexService.findWithin(GeoPlace.Type.HOTEL, latitude, longitude, radiusKm, Integer.MAX_VALUE)
+                .stream().map(hit -> hit.place().id()).toList();
+        Map<Long, Hotel> hotels = hotelRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Hotel::getId, Function.identity()));
+        return ids.stream()
+                .map(hotels::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+    }
+    
     @Transactional(readOnly = true)
     public List<HotelResponseDTO> getHotelsByRegion(String region) {
         return hotelRepository.findByRegion(region).stream()
@@ -221,10 +310,33 @@ public class HotelService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Hôtels les plus populaires (score décroissant dans le temps), par ville et/ou catégorie
+     */
     @Transactional(readOnly = true)
-    public List<HotelResponseDTO> getMostPopularHotels() {
-        return hotelRepository.findMostPopularHotels().stream()
-                .limit(10)
+    public List<HotelResponseDTO> getMostPopularHotels(String city, String category) {
+        List<Long> ids = popularityService.top(PopularityItemType.HOTEL, city, category, 10);
+        Map<Long, Hotel> hotels = hotelRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Hotel::getId, Function.identity()));
+        return ids.stream()
+                .map(hotels::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Recherche par nom tolérante aux fautes de frappe et aux variantes (« St-Louis », « Lac Retba »),
+     * du nom le plus proche au plus éloigné (index de trigrammes en mémoire)
+     */
+    @Transactional(readOnly = true)
+    public List<HotelResponseDTO> searchByName(String name, Integer limit) {
+        List<Long> ids = nameMatchService.searchHotels(name, limit != null ? limit : 20);
+        Map<Long, Hotel> hotels = hotelRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Hotel::getId, Function.identity()));
+        return ids.stream()
+                .map(hotels::get)
+                .filter(Objects::nonNull)
                 .map(this::mapToResponseDTO)
                 .collect(Collectors.toList());
     }
@@ -238,7 +350,39 @@ public class HotelService {
     
     @Transactional(readOnly = true)
     public List<HotelResponseDTO> searchHotels(HotelSearchDTO searchDTO) {
-        return hotelRepository.findAll((root, query, criteriaBuilder) -> {
+        return hotelRepository.findAll(buildSearchSpecification(searchDTO)).stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Recherche d'hôtels disponibles : le filtre sur l'inventaire restant est
+     * évalué en base (sous-requête NOT EXISTS sur les nuits complètes), paginé et trié.
+     */
+    @Transactional(readOnly = true)
+    public Page<HotelResponseDTO> searchAvailableHotels(HotelSearchDTO searchDTO) {
+        if (searchDTO.getCheckInDate() == null || searchDTO.getCheckOutDate() == null
+                || !searchDTO.getCheckOutDate().isAfter(searchDTO.getCheckInDate())) {
+            throw new RuntimeException("Dates d'arrivée et de départ valides obligatoires");
+        }
+        if (searchDTO.getActive() == null) {
+            searchDTO.setActive(true);
+        }
+        
+        Sort sort = "rating".equalsIgnoreCase(searchDTO.getSortBy())
+                ? Sort.by(Sort.Order.desc("averageRating"), Sort.Order.asc("id"))
+                : Sort.by(Sort.Order.asc("priceRangeMin"), Sort.Order.asc("id"));
+        Pageable pageable = PageRequest.of(
+                searchDTO.getPage() != null ? searchDTO.getPage() : 0,
+                searchDTO.getSize() != null ? Math.min(searchDTO.getSize(), 100) : 20,
+                sort);
+        
+        return hotelRepository.findAll(buildSearchSpecification(searchDTO), pageable)
+                .map(this::mapToResponseDTO);
+    }
+    
+    private Specification<Hotel> buildSearchSpecification(HotelSearchDTO searchDTO) {
+        return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
             
             if (searchDTO.getCity() != null) {
@@ -275,10 +419,27 @@ public class HotelService {
                 predicates.add(criteriaBuilder.equal(root.get("active"), searchDTO.getActive()));
             }
             
+            if (searchDTO.getCheckInDate() != null && searchDTO.getCheckOutDate() != null) {
+                int rooms = searchDTO.getRooms() != null ? searchDTO.getRooms() : 1;
+                
+                // Nuits sans ligne d'inventaire : seule la capacité totale compte
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("totalRooms"), rooms));
+                
+                // Aucune nuit du séjour avec moins de chambres restantes que demandé
+                Subquery<Long> fullNights = query.subquery(Long.class);
+                Root<RoomInventory> inventory = fullNights.from(RoomInventory.class);
+                fullNights.select(inventory.get("id")).where(
+                        criteriaBuilder.equal(inventory.get("hotel"), root),
+                        criteriaBuilder.greaterThanOrEqualTo(inventory.<LocalDate>get("night"), searchDTO.getCheckInDate()),
+                        criteriaBuilder.lessThan(inventory.<LocalDate>get("night"), searchDTO.getCheckOutDate()),
+                        criteriaBuilder.lessThan(
+                                criteriaBuilder.diff(inventory.<Integer>get("totalRooms"), inventory.<Integer>get("bookedRooms")),
+                                rooms));
+                predicates.add(criteriaBuilder.not(criteriaBuilder.exists(fullNights)));
+            }
+            
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        }).stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        };
     }
     
     @Transactional
@@ -288,6 +449,7 @@ public class HotelService {
                 .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
         hotel.setActive(false);
         hotelRepository.save(hotel);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.saved(hotel));
         log.info("Hotel deactivated successfully");
     }
     
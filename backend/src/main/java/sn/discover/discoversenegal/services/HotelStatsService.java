@@ -0,0 +1,249 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sn.discover.discoversenegal.dto.HotelDailyStatsDTO;
+import sn.discover.discoversenegal.dto.HotelStatsDTO;
+import sn.discover.discoversenegal.entities.Booking;
+import sn.discover.discoversenegal.entities.BookingStatus;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelDailyStats;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.PaymentStatus;
+import sn.discover.discoversenegal.repositories.HotelDailyStatsRepository;
+import sn.discover.discoversenegal.repositories.HotelDailyStatsRepository.StatsTotals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Agrégats quotidiens par hôtel (revenu, nuitées, ADR, occupation, avis).
+ * Chaque modification de réservation applique la différence entre la contribution
+ * de la réservation avant et après le changement : les tableaux de bord et la note
+ * moyenne se lisent en O(jours) au lieu de parcourir tout l'historique.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HotelStatsService {
+
+    private static final int MAX_STATS_DAYS = 366;
+
+    private final HotelDailyStatsRepository statsRepository;
+    private final HotelRepository hotelRepository;
+
+    /**
+     * Ce qu'une réservation apporte aux agrégats, figé à un instant donné.
+     */
+    public record StaySnapshot(Long hotelId, LocalDate checkIn, LocalDate checkOut, int rooms,
+                               BigDecimal pricePerNight, BigDecimal finalAmount,
+                               BookingStatus status, PaymentStatus paymentStatus,
+                               Integer rating, LocalDate reviewDay) {
+    }
+
+    public static StaySnapshot snapshot(Booking booking) {
+        if (booking == null) {
+            return null;
+        }
+        return new StaySnapshot(
+                booking.getHotel().getId(),
+                booking.getCheckInDate(),
+                booking.getCheckOutDate(),
+                booking.getNumberOfRooms() != null ? booking.getNumberOfRooms() : 0,
+                booking.getPricePerNight(),
+                booking.getFinalAmount(),
+                booking.getStatus(),
+                booking.getPaymentStatus(),
+                booking.getRating(),
+                booking.getReviewedAt() != null ? booking.getReviewedAt().toLocalDate() : booking.getCheckOutDate());
+    }
+
+    @Transactional
+    public void recordChange(StaySnapshot before, StaySnapshot after) {
+        Map<DayKey, DailyDelta> deltas = new TreeMap<>();
+        accumulate(deltas, before, -1);
+        accumulate(deltas, after, 1);
+        flush(deltas);
+    }
+
+    @Transactional
+    public void recordNew(Collection<Booking> bookings) {
+        Map<DayKey, DailyDelta> deltas = new TreeMap<>();
+        for (Booking booking : bookings) {
+            accumulate(deltas, snapshot(booking), 1);
+        }
+        flush(deltas);
+    }
+
+    /**
+     * Réservations passées en NO_SHOW ou annulées par lot : leurs nuitées sont retirées.
+     */
+    @Transactional
+    public void recordReleased(Collection<Long> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            statsRepository.subtractStayNights(bookingIds);
+        }
+    }
+
+    @Transactional
+    public void recordCompleted(Collection<Long> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            statsRepository.addCompletedBookings(bookingIds);
+        }
+    }
+
+    /**
+     * Somme et nombre d'avis de l'hôtel, lus sur les agrégats.
+     */
+    @Transactional(readOnly = true)
+    public StatsTotals getRatingTotals(Long hotelId) {
+        return statsRepository.summarizeRatings(hotelId);
+    }
+
+    @Transactional(readOnly = true)
+    public HotelStatsDTO getHotelStats(Long hotelId, LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to);
+        if (days < 1 || days > MAX_STATS_DAYS) {
+            throw new RuntimeException("La période doit couvrir entre 1 et " + MAX_STATS_DAYS + " jours");
+        }
+
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
+        int totalRooms = hotel.getTotalRooms() != null ? hotel.getTotalRooms() : 0;
+
+        StatsTotals totals = statsRepository.summarize(hotelId, from, to);
+        long availableRoomNights = totalRooms * days;
+
+        List<HotelDailyStatsDTO> dailyStats = statsRepository.findDays(hotelId, from, to).stream()
+                .map(day -> mapToDailyDTO(day, totalRooms))
+                .collect(Collectors.toList());
+
+        return HotelStatsDTO.builder()
+                .hotelId(hotelId)
+                .from(from)
+                .to(to)
+                .totalRooms(totalRooms)
+                .roomNights(totals.getRoomNights())
+                .availableRoomNights(availableRoomNights)
+                .occupancyRate(percentage(totals.getRoomNights(), availableRoomNights))
+                .averageDailyRate(averageDailyRate(totals.getRoomRevenue(), totals.getRoomNights()))
+                .roomRevenue(totals.getRoomRevenue())
+                .paidRevenue(totals.getPaidRevenue())
+                .completedBookings(totals.getCompletedBookings())
+                .averageRating(totals.getRatingCount() > 0
+                        ? (double) totals.getRatingSum() / totals.getRatingCount() : null)
+                .ratingCount(totals.getRatingCount())
+                .days(dailyStats)
+                .build();
+    }
+
+    /**
+     * Recalcule tous les agrégats de l'hôtel à partir des réservations (reprise d'historique).
+     */
+    @Transactional
+    public int rebuild(Long hotelId) {
+        statsRepository.deleteByHotel(hotelId);
+        int days = statsRepository.rebuildFromBookings(hotelId);
+        log.info("Daily stats rebuilt for hotel {} ({} days)", hotelId, days);
+        return days;
+    }
+
+    private void accumulate(Map<DayKey, DailyDelta> deltas, StaySnapshot stay, int sign) {
+        if (stay == null) {
+            return;
+        }
+
+        if (RoomInventoryService.holdsInventory(stay.status())) {
+            BigDecimal nightRevenue = stay.pricePerNight() != null
+                    ? stay.pricePerNight().multiply(BigDecimal.valueOf(stay.rooms()))
+                    : BigDecimal.ZERO;
+            for (LocalDate night = stay.checkIn(); night.isBefore(stay.checkOut()); night = night.plusDays(1)) {
+                DailyDelta delta = deltas.computeIfAbsent(new DayKey(stay.hotelId(), night), k -> new DailyDelta());
+                delta.roomNights += sign * stay.rooms();
+                delta.roomRevenue = delta.roomRevenue.add(sign > 0 ? nightRevenue : nightRevenue.negate());
+            }
+        }
+
+        if (stay.paymentStatus() == PaymentStatus.PAID && stay.finalAmount() != null) {
+            DailyDelta delta = deltas.computeIfAbsent(new DayKey(stay.hotelId(), stay.checkIn()), k -> new DailyDelta());
+            delta.paidRevenue = delta.paidRevenue.add(sign > 0 ? stay.finalAmount() : stay.finalAmount().negate());
+        }
+
+        if (stay.status() == BookingStatus.COMPLETED) {
+            deltas.computeIfAbsent(new DayKey(stay.hotelId(), stay.checkOut()), k -> new DailyDelta())
+                    .completedBookings += sign;
+        }
+
+        if (stay.rating() != null) {
+            DailyDelta delta = deltas.computeIfAbsent(new DayKey(stay.hotelId(), stay.reviewDay()), k -> new DailyDelta());
+            delta.ratingSum += sign * stay.rating();
+            delta.ratingCount += sign;
+        }
+    }
+
+    // Les jours sont écrits dans un ordre stable (hôtel, jour) pour limiter les interblocages
+    private void flush(Map<DayKey, DailyDelta> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (!delta.isEmpty()) {
+                statsRepository.applyDelta(key.hotelId(), key.day(), delta.roomNights, delta.roomRevenue,
+                        delta.paidRevenue, delta.completedBookings, delta.ratingSum, delta.ratingCount);
+            }
+        });
+    }
+
+    private HotelDailyStatsDTO mapToDailyDTO(HotelDailyStats day, int totalRooms) {
+        return HotelDailyStatsDTO.builder()
+                .day(day.getDay())
+                .roomNights(day.getRoomNights())
+                .occupancyRate(percentage(day.getRoomNights(), totalRooms))
+                .averageDailyRate(averageDailyRate(day.getRoomRevenue(), day.getRoomNights()))
+                .roomRevenue(day.getRoomRevenue())
+                .paidRevenue(day.getPaidRevenue())
+                .completedBookings(day.getCompletedBookings())
+                .ratingCount(day.getRatingCount())
+                .build();
+    }
+
+    private Double percentage(long part, long total) {
+        return total > 0 ? Math.round(part * 10000.0 / total) / 100.0 : 0.0;
+    }
+
+    private BigDecimal averageDailyRate(BigDecimal revenue, long roomNights) {
+        if (revenue == null || roomNights <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return revenue.divide(BigDecimal.valueOf(roomNights), 2, RoundingMode.HALF_UP);
+    }
+
+    private record DayKey(Long hotelId, LocalDate day) implements Comparable<DayKey> {
+        @Override
+        public int compareTo(DayKey other) {
+            int byHotel = hotelId.compareTo(other.hotelId);
+            return byHotel != 0 ? byHotel : day.compareTo(other.day);
+        }
+    }
+
+    private static class DailyDelta {
+        private int roomNights;
+        private BigDecimal roomRevenue = BigDecimal.ZERO;
+        private BigDecimal paidRevenue = BigDecimal.ZERO;
+        private int completedBookings;
+        private int ratingSum;
+        private int ratingCount;
+
+        private boolean isEmpty() {
+            return roomNights == 0 && roomRevenue.signum() == 0 && paidRevenue.signum() == 0
+                    && completedBookings == 0 && ratingSum == 0 && ratingCount == 0;
+        }
+    }
+}
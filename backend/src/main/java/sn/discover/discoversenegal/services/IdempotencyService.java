@@ -0,0 +1,164 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Mémorise la première réponse associée à un en-tête Idempotency-Key.
+ * Les rejeux renvoient la réponse stockée ; les doublons concurrents attendent
+ * la requête en cours au lieu d'exécuter l'action une seconde fois.
+ * Les clés sont propres à chaque utilisateur authentifié ; seuls le statut et le corps
+ * de la réponse sont conservés, dans la limite de max-entries entrées.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private final Map<String, StoredResponse> responses = new ConcurrentHashMap<>();
+    private final JsonMapper jsonMapper;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public IdempotencyService(JsonMapper jsonMapper,
+                              @Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                              @Value("${app.idempotency.max-entries:10000}") int maxEntries) {
+        this.jsonMapper = jsonMapper;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.maxEntries = maxEntries;
+    }
+
+    public <T> ResponseEntity<T> execute(String key, String scope, Object request,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        String storeKey = currentUser() + "|" + scope + "|" + key;
+        byte[] fingerprint = fingerprint(request);
+        StoredResponse created = new StoredResponse(fingerprint, System.currentTimeMillis() + ttlMillis);
+        if (responses.size() >= maxEntries) {
+            evictOldest();
+        }
+        StoredResponse stored;
+        while ((stored = responses.putIfAbsent(storeKey, created)) != null) {
+            if (!stored.isExpired()) {
+                return replay(stored, key, fingerprint);
+            }
+            // Entrée expirée : la remplacer de façon atomique
+            if (responses.replace(storeKey, stored, created)) {
+                break;
+            }
+        }
+
+        try {
+            ResponseEntity<T> response = action.get();
+            created.response.complete(new Replay(response.getStatusCode(), response.getBody()));
+            return response;
+        } catch (Throwable e) {
+            // Un échec n'est pas mémorisé : le client peut réessayer avec la même clé.
+            // Les Error aussi libèrent l'entrée, sinon les doublons en attente resteraient bloqués.
+            responses.remove(storeKey, created);
+            created.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String key, byte[] fingerprint) {
+        if (!MessageDigest.isEqual(stored.fingerprint, fingerprint)) {
+            throw new RuntimeException("Cette clé d'idempotence a déjà été utilisée pour une autre requête");
+        }
+        log.info("Replaying response for {} {}", HEADER, key);
+        try {
+            Replay replay = stored.response.join();
+            return ResponseEntity.status(replay.status()).body((T) replay.body());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        responses.values().removeIf(StoredResponse::isExpired);
+    }
+
+    /**
+     * Store plein : purge des entrées expirées, puis, si besoin, des réponses terminées
+     * les plus anciennes par lots d'un dixième de la capacité, pour ne pas trier à chaque requête.
+     */
+    private synchronized void evictOldest() {
+        purgeExpired();
+        int excess = responses.size() - maxEntries + Math.max(maxEntries / 10, 1);
+        if (excess <= 0) {
+            return;
+        }
+        responses.entrySet().stream()
+                .filter(entry -> entry.getValue().response.isDone())
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt))
+                .limit(excess)
+                .toList()
+                .forEach(entry -> responses.remove(entry.getKey(), entry.getValue()));
+        log.warn("Idempotency store full ({} entries), oldest responses evicted", maxEntries);
+    }
+
+    // Empreinte SHA-256 de la requête sérialisée : indépendante de equals/hashCode des DTO
+    private byte[] fingerprint(Object request) {
+        try {
+            byte[] body = request != null ? jsonMapper.writeValueAsBytes(request) : new byte[0];
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return "";
+        }
+        return authentication.getName();
+    }
+
+    private record Replay(HttpStatusCode status, Object body) {
+    }
+
+    private static final class StoredResponse {
+        private final byte[] fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<Replay> response = new CompletableFuture<>();
+
+        private StoredResponse(byte[] fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package sn.discover.discoversenegal.services;
+
+
+import java.time.LocalDate;
+
+/**
+ * Publié quand des chambres sont rendues au registre d'inventaire
+ * (annulation, blocage expiré ou libéré, séjour déplacé).
+ */
+public record InventoryReleasedEvent(Long hotelId, LocalDate checkIn, LocalDate checkOut, int rooms) {
+}
@@ -0,0 +1,51 @@
+package sn.discover.discoversenegal.services;
+
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Curseur opaque de pagination par clé : clé de tri et id de la dernière ligne renvoyée,
+ * séparés par « | » et encodés en Base64 URL sans remplissage.
+ */
+final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    static String encode(String sortKey, long id) {
+        String key = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Position décodée : clé de tri typée et id de la dernière ligne renvoyée.
+     */
+    record Position<K>(K sortKey, long id) {
+    }
+
+    /**
+     * Décode le curseur et sa clé de tri avec keyParser (ex. LocalDateTime::parse),
+     * ou renvoie null pour la première page. Toute partie illisible rend le curseur invalide.
+     */
+    static <K> Position<K> decode(String cursor, Function<String, K> keyParser) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = key.split("\\" + SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(key);
+            }
+            return new Position<>(keyParser.apply(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new RuntimeException("Curseur de pagination invalide");
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import sn.discover.discoversenegal.dto.AroundResponseDTO;
+import sn.discover.discoversenegal.dto.MapClusterDTO;
+import sn.discover.discoversenegal.dto.MapClustersResponseDTO;
+import sn.discover.discoversenegal.dto.PlaceSummaryDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Écrans carte : réponses construites uniquement à partir de l'index géographique,
+ * sans requête en base ni chargement d'entités.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MapService {
+
+    private static final double DEFAULT_AROUND_RADIUS_KM = 5;
+    private static final double MAX_AROUND_RADIUS_KM = 100;
+    private static final int DEFAULT_LIMIT_PER_TYPE = 20;
+    private static final int MAX_LIMIT_PER_TYPE = 100;
+    // Quelques centaines de marqueurs suffisent à un écran ; la réponse reste de l'ordre de quelques Ko
+    private static final int MAX_CLUSTERS = 300;
+
+    private final GeoIndexService geoIndexService;
+
+    /**
+     * Hôtels, restaurants, sites et événements autour d'un point, en un seul parcours de l'index.
+     * Chaque type est limité séparément ; le résultat fusionné reste trié par distance.
+     */
+    public AroundResponseDTO getAround(Double latitude, Double longitude, Double radiusKm,
+                                       String types, Integer limitPerType) {
+        checkCoordinates(latitude, longitude);
+        double radius = radiusKm != null ? radiusKm : DEFAULT_AROUND_RADIUS_KM;
+        if (radius <= 0 || radius > MAX_AROUND_RADIUS_KM) {
+            throw new RuntimeException("Le rayon doit être compris entre 0 et " + (int) MAX_AROUND_RADIUS_KM + " km");
+        }
+        int limit = limitPerType != null ? limitPerType : DEFAULT_LIMIT_PER_TYPE;
+        if (limit < 1 || limit > MAX_LIMIT_PER_TYPE) {
+            throw new RuntimeException("La limite par type doit être comprise entre 1 et " + MAX_LIMIT_PER_TYPE);
+        }
+        Set<GeoPlace.Type> wanted = parseTypes(types);
+
+        Map<GeoPlace.Type, Integer> counts = new EnumMap<>(GeoPlace.Type.class);
+        List<PlaceSummaryDTO> places = new ArrayList<>();
+        for (GeoPlace.Hit hit : geoIndexService.findWithin(wanted, latitude, longitude, radius, Integer.MAX_VALUE)) {
+            GeoPlace.Type type = hit.place().type();
+            int count = counts.getOrDefault(type, 0);
+            if (count < limit) {
+                counts.put(type, count + 1);
+                places.add(mapToSummaryDTO(hit));
+            }
+        }
+
+        Map<String, Integer> countsByType = new LinkedHashMap<>();
+        for (GeoPlace.Type type : wanted) {
+            countsByType.put(typeName(type), counts.getOrDefault(type, 0));
+        }
+
+        return AroundResponseDTO.builder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .radiusKm(radius)
+                .counts(countsByType)
+                .places(places)
+                .build();
+    }
+
+    /**
+     * Marqueurs regroupés pour le rectangle visible (bbox = "ouest,sud,est,nord") et le zoom de la carte.
+     * Au-delà de MAX_CLUSTERS regroupements, seuls les plus gros sont renvoyés.
+     */
+    public MapClustersResponseDTO getClusters(String bbox, Integer zoom) {
+        double[] bounds = parseBoundingBox(bbox);
+        if (zoom == null || zoom < 0 || zoom > MarkerClusterIndex.MAX_ZOOM) {
+            throw new RuntimeException("Le zoom doit être compris entre 0 et " + MarkerClusterIndex.MAX_ZOOM);
+        }
+
+        List<GeoCluster> clusters = geoIndexService.findClusters(bounds[0], bounds[1], bounds[2], bounds[3], zoom);
+        int total = clusters.stream().mapToInt(GeoCluster::count).sum();
+        boolean truncated = clusters.size() > MAX_CLUSTERS;
+        if (truncated) {
+            clusters = clusters.stream()
+                    .sorted(Comparator.comparingInt(GeoCluster::count).reversed())
+                    .limit(MAX_CLUSTERS)
+                    .toList();
+        }
+
+        return MapClustersResponseDTO.builder()
+                .zoom(zoom)
+                .total(total)
+                .truncated(truncated)
+                .clusters(clusters.stream().map(this::mapToClusterDTO).toList())
+                .build();
+    }
+
+    private double[] parseBoundingBox(String bbox) {
+        String[] parts = bbox != null ? bbox.split(",") : new String[0];
+        if (parts.length != 4) {
+            throw new RuntimeException("Le rectangle doit être au format ouest,sud,est,nord");
+        }
+        double[] bounds = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                bounds[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Le rectangle doit être au format ouest,sud,est,nord");
+        }
+        // Ouest > est est permis : le rectangle traverse alors l'antiméridien
+        if (bounds[1] > bounds[3]) {
+            throw new RuntimeException("Le sud du rectangle doit être inférieur au nord");
+        }
+        checkCoordinates(bounds[1], bounds[0]);
+        checkCoordinates(bounds[3], bounds[2]);
+        return bounds;
+    }
+
+    private Set<GeoPlace.Type> parseTypes(String types) {
+        if (types == null || types.isBlank()) {
+            return EnumSet.allOf(GeoPlace.Type.class);
+        }
+        Set<GeoPlace.Type> wanted = EnumSet.noneOf(GeoPlace.Type.class);
+        for (String raw : types.split(",")) {
+            String value = raw.trim().toUpperCase(Locale.ROOT);
+            if (value.isEmpty()) {
+                continue;
+            }
+            // "hotels" et "hotel" sont acceptés
+            if (value.endsWith("S")) {
+                value = value.substring(0, value.length() - 1);
+            }
+            try {
+                wanted.add(GeoPlace.Type.valueOf(value));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Type inconnu : " + raw.trim());
+            }
+        }
+        if (wanted.isEmpty()) {
+            return EnumSet.allOf(GeoPlace.Type.class);
+        }
+        return wanted;
+    }
+
+    private void checkCoordinates(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null
+                || latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new RuntimeException("Coordonnées GPS invalides");
+        }
+    }
+
+    private PlaceSummaryDTO mapToSummaryDTO(GeoPlace.Hit hit) {
+        GeoPlace place = hit.place();
+        return PlaceSummaryDTO.builder()
+                .type(typeName(place.type()))
+                .id(place.id())
+                .name(place.name())
+                .category(place.category())
+                .city(place.city())
+                .latitude(place.latitude())
+                .longitude(place.longitude())
+                .distanceKm(Math.round(hit.distanceKm() * 100) / 100.0)
+                .rating(place.rating())
+                .startDateTime(place.startsAt())
+                .build();
+    }
+
+    private MapClusterDTO mapToClusterDTO(GeoCluster cluster) {
+        GeoPlace single = cluster.single();
+        return MapClusterDTO.builder()
+                .latitude(round(cluster.latitude()))
+                .longitude(round(cluster.longitude()))
+                .count(cluster.count())
+                .dominantType(cluster.dominantType() != null ? typeName(cluster.dominantType()) : null)
+                .dominantCategory(cluster.dominantCategory())
+                .type(single != null ? typeName(single.type()) : null)
+                .id(single != null ? single.id() : null)
+                .name(single != null ? single.name() : null)
+                .build();
+    }
+
+    // Six décimales (environ 10 cm) : inutile d'en envoyer davantage
+    private double round(double coordinate) {
+        return Math.round(coordinate * 1e6) / 1e6;
+    }
+
+    private String typeName(GeoPlace.Type type) {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,208 @@
+package sn.discover.discoversenegal.services;
+
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grilles hiérarchiques de regroupement des marqueurs, une par niveau de zoom (0 à 18).
+ * Au zoom z, le monde (projection Web Mercator, tuiles de 256 px) est découpé en cellules
+ * de 64 px : chaque cellule tient son nombre de points, la somme de leurs coordonnées
+ * (centroïde) et les comptes par type et par catégorie. Ajouter ou retirer un point met
+ * à jour une cellule par niveau, sans recalcul global.
+ */
+class MarkerClusterIndex {
+
+    static final int MAX_ZOOM = 18;
+    private static final int CELLS_PER_TILE = 4; // 256 px / 64 px
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final Set<GeoPlace.Type> types;
+    private final List<Map<Long, Cell>> levels = new ArrayList<>(MAX_ZOOM + 1);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    MarkerClusterIndex(Set<GeoPlace.Type> types) {
+        this.types = types;
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    void add(GeoPlace place) {
+        if (!types.contains(place.type())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            double x = mercatorX(place.longitude());
+            double y = mercatorY(place.latitude());
+            for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+                long cells = cellsPerAxis(zoom);
+                long cx = cellIndex(x, cells);
+                long cy = cellIndex(y, cells);
+                levels.get(zoom).computeIfAbsent(cy * cells + cx, key -> new Cell()).add(place);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(GeoPlace place) {
+        if (!types.contains(place.type())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            double x = mercatorX(place.longitude());
+            double y = mercatorY(place.latitude());
+            for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+                long cells = cellsPerAxis(zoom);
+                long key = cellIndex(y, cells) * cells + cellIndex(x, cells);
+                Map<Long, Cell> level = levels.get(zoom);
+                Cell cell = level.get(key);
+                if (cell != null && cell.remove(place) && cell.count == 0) {
+                    level.remove(key);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Regroupements dont la cellule touche le rectangle (ouest, sud, est, nord) ;
+     * un rectangle qui traverse l'antiméridien (ouest > est) est découpé en deux.
+     */
+    List<GeoCluster> query(double west, double south, double east, double north, int zoom) {
+        int level = Math.max(0, Math.min(MAX_ZOOM, zoom));
+        long cells = cellsPerAxis(level);
+        long minY = cellIndex(mercatorY(north), cells);
+        long maxY = cellIndex(mercatorY(south), cells);
+
+        List<GeoCluster> clusters = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Cell> grid = levels.get(level);
+            if (west <= east) {
+                collect(grid, cells, cellIndex(mercatorX(west), cells), cellIndex(mercatorX(east), cells),
+                        minY, maxY, clusters);
+            } else {
+                collect(grid, cells, cellIndex(mercatorX(west), cells), cells - 1, minY, maxY, clusters);
+                collect(grid, cells, 0, cellIndex(mercatorX(east), cells), minY, maxY, clusters);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return clusters;
+    }
+
+    private void collect(Map<Long, Cell> grid, long cells, long minX, long maxX, long minY, long maxY,
+                         List<GeoCluster> clusters) {
+        long area = (maxX - minX + 1) * (maxY - minY + 1);
+        if (area <= grid.size()) {
+            // Petit rectangle : lecture directe des cellules couvertes
+            for (long cy = minY; cy <= maxY; cy++) {
+                for (long cx = minX; cx <= maxX; cx++) {
+                    Cell cell = grid.get(cy * cells + cx);
+                    if (cell != null) {
+                        clusters.add(cell.toCluster());
+                    }
+                }
+            }
+        } else {
+            // Grand rectangle : parcours des seules cellules occupées
+            grid.forEach((key, cell) -> {
+                long cy = key / cells;
+                long cx = key % cells;
+                if (cx >= minX && cx <= maxX && cy >= minY && cy <= maxY) {
+                    clusters.add(cell.toCluster());
+                }
+            });
+        }
+    }
+
+    private static long cellsPerAxis(int zoom) {
+        return (long) CELLS_PER_TILE << zoom;
+    }
+
+    private static long cellIndex(double position, long cells) {
+        return Math.max(0, Math.min(cells - 1, (long) Math.floor(position * cells)));
+    }
+
+    // Coordonnées Web Mercator normalisées dans [0, 1]
+    private static double mercatorX(double longitude) {
+        return (longitude + 180.0) / 360.0;
+    }
+
+    private static double mercatorY(double latitude) {
+        double sin = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude))));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+
+    private static final class Cell {
+        private int count;
+        private double latitudeSum;
+        private double longitudeSum;
+        private final Map<GeoPlace.Type, Integer> typeCounts = new EnumMap<>(GeoPlace.Type.class);
+        private final Map<String, Integer> categoryCounts = new HashMap<>();
+        private final Set<GeoPlace> members = new HashSet<>();
+
+        private void add(GeoPlace place) {
+            if (!members.add(place)) {
+                return;
+            }
+            count++;
+            latitudeSum += place.latitude();
+            longitudeSum += place.longitude();
+            typeCounts.merge(place.type(), 1, Integer::sum);
+            if (place.category() != null) {
+                categoryCounts.merge(place.category(), 1, Integer::sum);
+            }
+        }
+
+        private boolean remove(GeoPlace place) {
+            if (!members.remove(place)) {
+                return false;
+            }
+            count--;
+            latitudeSum -= place.latitude();
+            longitudeSum -= place.longitude();
+            typeCounts.computeIfPresent(place.type(), (type, n) -> n > 1 ? n - 1 : null);
+            if (place.category() != null) {
+                categoryCounts.computeIfPresent(place.category(), (category, n) -> n > 1 ? n - 1 : null);
+            }
+            return true;
+        }
+
+        private GeoCluster toCluster() {
+            GeoPlace.Type dominantType = null;
+            int typeMax = 0;
+            for (Map.Entry<GeoPlace.Type, Integer> entry : typeCounts.entrySet()) {
+                if (entry.getValue() > typeMax) {
+                    dominantType = entry.getKey();
+                    typeMax = entry.getValue();
+                }
+            }
+            String dominantCategory = null;
+            int categoryMax = 0;
+            for (Map.Entry<String, Integer> entry : categoryCounts.entrySet()) {
+                // Égalité départagée par le nom pour une réponse stable
+                if (entry.getValue() > categoryMax || (entry.getValue() == categoryMax
+                        && entry.getKey().compareTo(dominantCategory) < 0)) {
+                    dominantCategory = entry.getKey();
+                    categoryMax = entry.getValue();
+                }
+            }
+            GeoPlace single = count == 1 ? members.iterator().next() : null;
+            return new GeoCluster(latitudeSum / count, longitudeSum / count, count,
+                    dominantType, dominantCategory, single);
+        }
+    }
+}
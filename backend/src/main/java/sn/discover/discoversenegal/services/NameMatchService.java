@@ -0,0 +1,195 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sn.discover.discoversenegal.entities.Guide;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.Restaurant;
+import sn.discover.discoversenegal.repositories.GuideRepository;
+import sn.discover.discoversenegal.repositories.RestaurantRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recherche des hôtels, restaurants et guides actifs par nom, tolérante aux fautes de frappe
+ * (« Ziguinchore » trouve « Ziguinchor ») et aux variantes courantes des noms de lieux
+ * (« St-Louis » = « Saint-Louis », « Lac Retba » = « Lac Rose »).
+ * Noms normalisés par TextAnalyzer, variantes ramenées à une forme canonique des deux côtés,
+ * puis comparés par trigrammes (TrigramIndex). Chargés au démarrage par projections, puis
+ * tenus à jour après chaque commit (CatalogItemChangedEvent), comme l'index géographique.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NameMatchService implements CommandLineRunner {
+
+    // Part minimale des trigrammes de la requête présents dans le nom (seuil word_similarity de pg_trgm)
+    private static final double MIN_COVERAGE = 0.6;
+    public static final int MAX_RESULTS = 50;
+
+    // Variante → forme canonique, appliqué aux noms indexés comme aux requêtes
+    private static final Map<String, String> PLACE_ALIASES = aliases(
+            "St", "Saint",
+            "Ste", "Sainte",
+            "Ndar", "Saint-Louis",
+            "Lac Retba", "Lac Rose",
+            "Retba", "Lac Rose",
+            "Ndakaaru", "Dakar",
+            "Ndakarou", "Dakar",
+            "M'Bour", "Mbour",
+            "Saly Portudal", "Saly",
+            "Cap Skiring", "Cap Skirring",
+            "Joal Fadiout", "Joal-Fadiouth",
+            "Toubab Dialao", "Toubab Dialaw",
+            "Poponguine", "Popenguine",
+            "Tamba", "Tambacounda");
+    // Plus longue variante, en mots
+    private static final int MAX_ALIAS_WORDS = 2;
+
+    private final HotelRepository hotelRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final GuideRepository guideRepository;
+
+    private final TrigramIndex hotels = new TrigramIndex();
+    private final TrigramIndex restaurants = new TrigramIndex();
+    private final TrigramIndex guides = new TrigramIndex();
+
+    @Override
+    public void run(String... args) {
+        reload();
+    }
+
+    public void reload() {
+        hotels.clear();
+        for (HotelRepository.NameRow row : hotelRepository.findNameRows()) {
+            hotels.put(row.getId(), canonicalWords(row.getName()));
+        }
+        restaurants.clear();
+        for (RestaurantRepository.NameRow row : restaurantRepository.findNameRows()) {
+            restaurants.put(row.getId(), canonicalWords(row.getName()));
+        }
+        guides.clear();
+        for (GuideRepository.NameRow row : guideRepository.findNameRows()) {
+            guides.put(row.getId(), canonicalWords(fullName(row.getFirstName(), row.getLastName())));
+        }
+
+        log.info("Name index loaded: {} hotels, {} restaurants, {} guides",
+                hotels.size(), restaurants.size(), guides.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogItemChanged(CatalogItemChangedEvent event) {
+        if (event.isRemoval()) {
+            switch (event.type()) {
+                case HOTEL -> hotels.remove(event.id());
+                case RESTAURANT -> restaurants.remove(event.id());
+                case GUIDE -> guides.remove(event.id());
+                default -> { }
+            }
+            return;
+        }
+        switch (event.type()) {
+            case HOTEL -> indexHotel((Hotel) event.entity());
+            case RESTAURANT -> indexRestaurant((Restaurant) event.entity());
+            case GUIDE -> indexGuide((Guide) event.entity());
+            default -> { }
+        }
+    }
+
+    public void indexHotel(Hotel hotel) {
+        if (!hotel.isActive()) {
+            hotels.remove(hotel.getId());
+            return;
+        }
+        hotels.put(hotel.getId(), canonicalWords(hotel.getName()));
+    }
+
+    public void indexRestaurant(Restaurant restaurant) {
+        if (!Boolean.TRUE.equals(restaurant.getActive())) {
+            restaurants.remove(restaurant.getId());
+            return;
+        }
+        restaurants.put(restaurant.getId(), canonicalWords(restaurant.getName()));
+    }
+
+    public void indexGuide(Guide guide) {
+        if (!Boolean.TRUE.equals(guide.getActive())) {
+            guides.remove(guide.getId());
+            return;
+        }
+        guides.put(guide.getId(), canonicalWords(fullName(guide.getFirstName(), guide.getLastName())));
+    }
+
+    /**
+     * Identifiants des hôtels dont le nom ressemble à la requête, du plus proche au plus éloigné.
+     */
+    public List<Long> searchHotels(String name, int limit) {
+        return search(hotels, name, limit);
+    }
+
+    public List<Long> searchRestaurants(String name, int limit) {
+        return search(restaurants, name, limit);
+    }
+
+    public List<Long> searchGuides(String name, int limit) {
+        return search(guides, name, limit);
+    }
+
+    private List<Long> search(TrigramIndex index, String name, int limit) {
+        if (name == null || name.isBlank()) {
+            return List.of();
+        }
+        return index.search(canonicalWords(name), MIN_COVERAGE, Math.min(limit, MAX_RESULTS)).stream()
+                .map(TrigramIndex.Hit::id)
+                .toList();
+    }
+
+    /**
+     * Mots normalisés d'un nom, variantes remplacées par leur forme canonique (la plus longue d'abord).
+     */
+    static List<String> canonicalWords(String text) {
+        List<String> terms = TextAnalyzer.terms(text);
+        List<String> words = new ArrayList<>(terms.size());
+        int i = 0;
+        while (i < terms.size()) {
+            int length = Math.min(MAX_ALIAS_WORDS, terms.size() - i);
+            String canonical = null;
+            for (; length > 0; length--) {
+                canonical = PLACE_ALIASES.get(String.join(" ", terms.subList(i, i + length)));
+                if (canonical != null) {
+                    break;
+                }
+            }
+            if (canonical != null) {
+                words.addAll(List.of(canonical.split(" ")));
+                i += length;
+            } else {
+                words.add(terms.get(i++));
+            }
+        }
+        return words;
+    }
+
+    // Clés et valeurs passées par TextAnalyzer : la table s'écrit avec les graphies usuelles
+    private static Map<String, String> aliases(String... pairs) {
+        Map<String, String> aliases = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            aliases.put(String.join(" ", TextAnalyzer.terms(pairs[i])),
+                    String.join(" ", TextAnalyzer.terms(pairs[i + 1])));
+        }
+        return Map.copyOf(aliases);
+    }
+
+    private static String fullName(String firstName, String lastName) {
+        return (firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "");
+    }
+}
@@ -0,0 +1,73 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Références uniques sans accès base : horodatage (ms) + séquence + identifiant de nœud,
+ * encodés en base 32 Crockford, suivis d'un caractère de contrôle (Luhn mod 32).
+ * Format : BKG-2026-XXXX-XXXX-XXXX-C
+ */
+@Component
+@Slf4j
+public class NodeSequenceReferenceGenerator implements BookingReferenceGenerator {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final long EPOCH_MILLIS = 1767225600000L; // 2026-01-01T00:00:00Z
+    private static final int SEQUENCE_BITS = 8;  // 256 références par ms et par nœud
+    private static final int NODE_BITS = 10;     // jusqu'à 1024 nœuds
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final int BODY_LENGTH = 12;   // 60 bits
+
+    private final long nodeId;
+    private final AtomicLong lastTick = new AtomicLong();
+
+    public NodeSequenceReferenceGenerator(@Value("${app.booking.node-id:0}") int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("app.booking.node-id doit être compris entre 0 et " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        log.info("Booking reference generator initialized for node {}", nodeId);
+    }
+
+    @Override
+    public String nextReference() {
+        // Tick monotone : la séquence déborde sur la milliseconde suivante au lieu de bloquer
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long tick = lastTick.accumulateAndGet(now, (previous, current) -> Math.max(previous + 1, current));
+        long value = (tick << NODE_BITS) | nodeId;
+
+        int[] digits = new int[BODY_LENGTH];
+        for (int i = BODY_LENGTH - 1; i >= 0; i--) {
+            digits[i] = (int) (value & 31);
+            value >>>= 5;
+        }
+
+        StringBuilder reference = new StringBuilder(29)
+                .append("BKG-")
+                .append(LocalDate.now().getYear());
+        for (int i = 0; i < BODY_LENGTH; i++) {
+            if (i % 4 == 0) {
+                reference.append('-');
+            }
+            reference.append(ALPHABET[digits[i]]);
+        }
+        return reference.append('-').append(ALPHABET[checkDigit(digits)]).toString();
+    }
+
+    private static int checkDigit(int[] digits) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int addend = factor * digits[i];
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / 32 + addend % 32;
+        }
+        return (32 - sum % 32) % 32;
+    }
+}
@@ -0,0 +1,45 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Rejoue une opération transactionnelle en cas de conflit de version (@Version),
+ * avec un backoff exponentiel borné et une gigue aléatoire.
+ * L'appel doit se faire hors transaction pour que chaque tentative relise l'état à jour.
+ */
+@Component
+@Slf4j
+public class OptimisticRetryExecutor {
+
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long BASE_BACKOFF_MILLIS = 20;
+    private static final long MAX_BACKOFF_MILLIS = 200;
+
+    public <T> T execute(Supplier<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.warn("Optimistic lock conflict not resolved after {} attempts", attempt);
+                    throw new RuntimeException("La réservation a été modifiée simultanément, veuillez réessayer", e);
+                }
+                long backoff = Math.min(BASE_BACKOFF_MILLIS << (attempt - 1), MAX_BACKOFF_MILLIS);
+                long sleep = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+                log.info("Optimistic lock conflict (attempt {}), retrying in {} ms", attempt, sleep);
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package sn.discover.discoversenegal.services;
+
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sn.discover.discoversenegal.entities.Guide;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.PopularityItemType;
+import sn.discover.discoversenegal.entities.PopularityScore;
+import sn.discover.discoversenegal.entities.Restaurant;
+import sn.discover.discoversenegal.entities.SiteStatus;
+import sn.discover.discoversenegal.entities.TouristSite;
+import sn.discover.discoversenegal.repositories.GuideRepository;
+import sn.discover.discoversenegal.repositories.PopularityScoreRepository;
+import sn.discover.discoversenegal.repositories.RestaurantRepository;
+import sn.discover.discoversenegal.repositories.TouristSiteRepository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Popularité à décroissance exponentielle (demi-vie configurable) alimentée par les vues,
+ * les favoris et les réservations.
+ * Chaque score est tenu relativement à une origine fixe : un événement ajoute
+ * poids × e^(λ·(t − origine)), si bien que les scores ne font que croître et que l'ordre
+ * à un instant donné est celui des scores à l'instant présent, sans jamais tout recalculer.
+ * Des classements des K premiers par type, par ville, par catégorie et par ville et catégorie
+ * sont tenus à jour à chaque événement ; une lecture ne fait ni requête ni tri.
+ * Les scores sont sauvegardés périodiquement dans popularity_scores et rechargés au démarrage.
+ */
+@Service
+@Slf4j
+public class PopularityService implements CommandLineRunner {
+
+    public static final int BOARD_SIZE = 50;
+    private static final double VIEW_WEIGHT = 1;
+    private static final double FAVORITE_WEIGHT = 5;
+    private static final double BOOKING_WEIGHT = 10;
+    // e^300 reste loin de la limite des double : au-delà, l'origine est ramenée à l'instant présent
+    private static final double MAX_GROWTH_EXPONENT = 300;
+    private static final double MILLIS_PER_HOUR = 3_600_000d;
+
+    private record Key(PopularityItemType type, long id) {
+    }
+
+    // null : toutes les villes ou toutes les catégories
+    private record BoardKey(PopularityItemType type, String city, String category) {
+    }
+
+    private static final class Item {
+        private final Key key;
+        private String city;
+        private String category;
+        private boolean visible;
+        private double score;
+        private boolean dirty;
+
+        private Item(Key key) {
+            this.key = key;
+        }
+    }
+
+    private final HotelRepository hotelRepository;
+    private final GuideRepository guideRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final TouristSiteRepository siteRepository;
+    private final PopularityScoreRepository scoreRepository;
+    private final double decayPerMilli;
+
+    // Modifiés sous le verrou de l'instance ; les classements se lisent sans verrou
+    private final Map<Key, Item> items = new HashMap<>();
+    private final Map<BoardKey, TopKBoard> boards = new ConcurrentHashMap<>();
+    private long originMillis = System.currentTimeMillis();
+
+    public PopularityService(HotelRepository hotelRepository,
+                             GuideRepository guideRepository,
+                             RestaurantRepository restaurantRepository,
+                             TouristSiteRepository siteRepository,
+                             PopularityScoreRepository scoreRepository,
+                             @Value("${app.popularity.half-life-hours:168}") double halfLifeHours) {
+        this.hotelRepository = hotelRepository;
+        this.guideRepository = guideRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.siteRepository = siteRepository;
+        this.scoreRepository = scoreRepository;
+        this.decayPerMilli = Math.log(2) / (halfLifeHours * MILLIS_PER_HOUR);
+    }
+
+    /**
+     * Scores repris du dernier point de sauvegarde, ramenés à maintenant. Un élément jamais
+     * sauvegardé part de ses compteurs cumulés, amortis comme s'ils s'étaient répartis
+     * uniformément depuis sa création.
+     */
+    @Override
+    public void run(String... args) {
+        long now = System.currentTimeMillis();
+        Map<Key, PopularityScore> saved = new HashMap<>();
+        for (PopularityScore score : scoreRepository.findAll()) {
+            saved.put(new Key(score.getItemType(), score.getItemId()), score);
+        }
+
+        List<Item> loaded = new ArrayList<>();
+        for (HotelRepository.PopularityRow row : hotelRepository.findPopularityRows()) {
+            loaded.add(load(saved, PopularityItemType.HOTEL, row.getId(), row.getCity(), name(row.getCategory()),
+                    weight(row.getViewCount(), 0, row.getBookingCount()), row.getCreatedAt(), now));
+        }
+        for (GuideRepository.PopularityRow row : guideRepository.findPopularityRows()) {
+            loaded.add(load(saved, PopularityItemType.GUIDE, row.getId(), row.getCity(), name(row.getGuideType()),
+                    weight(row.getViewCount(), row.getFavoriteCount(), row.getBookingCount()), row.getCreatedAt(), now));
+        }
+        for (RestaurantRepository.PopularityRow row : restaurantRepository.findPopularityRows()) {
+            loaded.add(load(saved, PopularityItemType.RESTAURANT, row.getId(), row.getCity(), name(row.getType()),
+                    weight(row.getViewCount(), row.getFavoriteCount(), row.getReservationCount()),
+                    row.getCreatedAt(), now));
+        }
+        for (TouristSiteRepository.PopularityRow row : siteRepository.findPopularityRows()) {
+            loaded.add(load(saved, PopularityItemType.SITE, row.getId(), row.getCity(), name(row.getCategory()),
+                    weight(row.getTotalViews(), row.getTotalFavorites(), 0), row.getCreatedAt(), now));
+        }
+
+        synchronized (this) {
+            items.clear();
+            boards.clear();
+            originMillis = now;
+            // Éléments masqués : leur score est conservé pour une éventuelle réactivation
+            saved.forEach((key, score) -> {
+                Item item = new Item(key);
+                item.score = decayed(score.getScore(), score.getUpdatedAt(), now);
+                items.put(key, item);
+            });
+            for (Item item : loaded) {
+                items.put(item.key, item);
+                offer(item);
+            }
+        }
+        log.info("Popularity scores loaded: {} visible items, {} checkpoints, {} leaderboards",
+                loaded.size(), saved.size(), boards.size());
+    }
+
+    public void recordViews(PopularityItemType type, Long id, long views) {
+        afterCommit(() -> add(type, id, VIEW_WEIGHT * views));
+    }
+
+    public void recordFavorite(PopularityItemType type, Long id) {
+        afterCommit(() -> add(type, id, FAVORITE_WEIGHT));
+    }
+
+    public void recordBookings(PopularityItemType type, Long id, int bookings) {
+        afterCommit(() -> add(type, id, BOOKING_WEIGHT * bookings));
+    }
+
+    // Visibilité, ville et catégorie suivent le catalogue ; les événements n'ont pas de classement
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogItemChanged(CatalogItemChangedEvent event) {
+        if (event.isRemoval()) {
+            switch (event.type()) {
+                case HOTEL -> remove(PopularityItemType.HOTEL, event.id());
+                case RESTAURANT -> remove(PopularityItemType.RESTAURANT, event.id());
+                case GUIDE -> remove(PopularityItemType.GUIDE, event.id());
+                case SITE -> remove(PopularityItemType.SITE, event.id());
+                default -> { }
+            }
+            return;
+        }
+        switch (event.type()) {
+            case HOTEL -> trackHotel((Hotel) event.entity());
+            case RESTAURANT -> trackRestaurant((Restaurant) event.entity());
+            case GUIDE -> trackGuide((Guide) event.entity());
+            case SITE -> trackSite((TouristSite) event.entity());
+            default -> { }
+        }
+    }
+
+    public void trackHotel(Hotel hotel) {
+        track(PopularityItemType.HOTEL, hotel.getId(), hotel.getCity(), name(hotel.getCategory()), hotel.isActive());
+    }
+
+    public void trackGuide(Guide guide) {
+        track(PopularityItemType.GUIDE, guide.getId(), guide.getCity(), name(guide.getGuideType()),
+                Boolean.TRUE.equals(guide.getActive()));
+    }
+
+    public void trackRestaurant(Restaurant restaurant) {
+        track(PopularityItemType.RESTAURANT, restaurant.getId(), restaurant.getCity(), name(restaurant.getType()),
+                Boolean.TRUE.equals(restaurant.getActive()));
+    }
+
+    public void trackSite(TouristSite site) {
+        track(PopularityItemType.SITE, site.getId(), site.getCity(), name(site.getCategory()),
+                site.getStatus() == SiteStatus.PUBLIE);
+    }
+
+    public void remove(PopularityItemType type, Long id) {
+        track(type, id, null, null, false);
+    }
+
+    /**
+     * Identifiants des éléments les plus populaires, filtrés par ville et/ou catégorie (facultatifs).
+     */
+    public List<Long> top(PopularityItemType type, String city, String category, int limit) {
+        TopKBoard board = boards.get(new BoardKey(type, normalizeCity(city), normalizeCategory(category)));
+        return board != null ? board.top(limit) : List.of();
+    }
+
+    /**
+     * Score actuel d'un élément, 0 s'il n'a encore reçu aucun signal.
+     */
+    public synchronized double score(PopularityItemType type, Long id) {
+        Item item = items.get(new Key(type, id));
+        return item != null ? item.score * Math.exp(-decayPerMilli * (System.currentTimeMillis() - originMillis)) : 0;
+    }
+
+    /**
+     * Scores actuels des éléments visibles d'un type (autocomplétion : tri des suggestions).
+     */
+    public synchronized Map<Long, Double> scores(PopularityItemType type) {
+        double factor = Math.exp(-decayPerMilli * (System.currentTimeMillis() - originMillis));
+        Map<Long, Double> scores = new HashMap<>();
+        for (Item item : items.values()) {
+            if (item.visible && item.key.type() == type) {
+                scores.put(item.key.id(), item.score * factor);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Sauvegarde des scores modifiés depuis le dernier passage, ramenés à l'instant présent.
+     */
+    @Scheduled(fixedDelayString = "${app.popularity.checkpoint-interval-ms:300000}")
+    public void checkpoint() {
+        List<PopularityScore> scores = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            LocalDateTime updatedAt = toDateTime(now);
+            double factor = Math.exp(-decayPerMilli * (now - originMillis));
+            for (Item item : items.values()) {
+                if (item.dirty) {
+                    item.dirty = false;
+                    scores.add(PopularityScore.builder()
+                            .itemType(item.key.type())
+                            .itemId(item.key.id())
+                            .score(item.score * factor)
+                            .updatedAt(updatedAt)
+                            .build());
+                }
+            }
+        }
+        if (scores.isEmpty()) {
+            return;
+        }
+        try {
+            scoreRepository.upsertAll(scores);
+            log.debug("{} popularity scores saved", scores.size());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                for (PopularityScore score : scores) {
+                    Item item = items.get(new Key(score.getItemType(), score.getItemId()));
+                    if (item != null) {
+                        item.dirty = true;
+                    }
+                }
+            }
+            log.error("Failed to save popularity scores, will retry", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    private synchronized void add(PopularityItemType type, Long id, double weight) {
+        long now = System.currentTimeMillis();
+        double exponent = decayPerMilli * (now - originMillis);
+        if (exponent > MAX_GROWTH_EXPONENT) {
+            rebase(now);
+            exponent = 0;
+        }
+        Item item = items.computeIfAbsent(new Key(type, id), Item::new);
+        item.score += weight * Math.exp(exponent);
+        item.dirty = true;
+        if (item.visible) {
+            offer(item);
+        }
+    }
+
+    private void track(PopularityItemType type, Long id, String city, String category, boolean visible) {
+        updateItem(new Key(type, id), normalizeCity(city), category, visible);
+    }
+
+    private synchronized void updateItem(Key key, String city, String category, boolean visible) {
+        Item item = items.get(key);
+        if (item == null) {
+            if (!visible) {
+                return;
+            }
+            item = new Item(key);
+            items.put(key, item);
+        }
+        if (item.visible == visible && Objects.equals(item.city, city) && Objects.equals(item.category, category)) {
+            return;
+        }
+
+        List<BoardKey> previous = item.visible ? boardKeys(item) : List.of();
+        item.city = city;
+        item.category = category;
+        item.visible = visible;
+        List<BoardKey> current = visible ? boardKeys(item) : List.of();
+
+        for (BoardKey boardKey : previous) {
+            TopKBoard board = boards.get(boardKey);
+            if (!current.contains(boardKey) && board != null && board.remove(key.id())) {
+                refill(boardKey, board);
+            }
+        }
+        offer(item);
+    }
+
+    private void offer(Item item) {
+        if (!item.visible || item.score <= 0) {
+            return;
+        }
+        for (BoardKey boardKey : boardKeys(item)) {
+            boards.computeIfAbsent(boardKey, k -> new TopKBoard(BOARD_SIZE)).offer(item.key.id(), item.score);
+        }
+    }
+
+    // Un élément sorti du classement libère une place : le suivant est recherché parmi les éléments du même type
+    private void refill(BoardKey boardKey, TopKBoard board) {
+        PriorityQueue<TopKBoard.Entry> best = new PriorityQueue<>(Comparator.comparingDouble(TopKBoard.Entry::score));
+        for (Item item : items.values()) {
+            if (item.visible && item.score > 0 && item.key.type() == boardKey.type() && boardKeys(item).contains(boardKey)) {
+                best.add(new TopKBoard.Entry(item.key.id(), item.score));
+                if (best.size() > board.capacity()) {
+                    best.poll();
+                }
+            }
+        }
+        if (best.isEmpty()) {
+            boards.remove(boardKey);
+            return;
+        }
+        List<TopKBoard.Entry> sorted = new ArrayList<>(best);
+        sorted.sort(Comparator.comparingDouble(TopKBoard.Entry::score).reversed());
+        board.reset(sorted);
+    }
+
+    private void rebase(long now) {
+        double factor = Math.exp(-decayPerMilli * (now - originMillis));
+        for (Item item : items.values()) {
+            item.score *= factor;
+        }
+        for (TopKBoard board : boards.values()) {
+            board.rescale(factor);
+        }
+        originMillis = now;
+    }
+
+    private List<BoardKey> boardKeys(Item item) {
+        PopularityItemType type = item.key.type();
+        List<BoardKey> keys = new ArrayList<>(4);
+        keys.add(new BoardKey(type, null, null));
+        if (item.city != null) {
+            keys.add(new BoardKey(type, item.city, null));
+        }
+        if (item.category != null) {
+            keys.add(new BoardKey(type, null, item.category));
+        }
+        if (item.city != null && item.category != null) {
+            keys.add(new BoardKey(type, item.city, item.category));
+        }
+        return keys;
+    }
+
+    private Item load(Map<Key, PopularityScore> saved, PopularityItemType type, Long id, String city,
+                      String category, double lifetimeWeight, LocalDateTime createdAt, long now) {
+        Key key = new Key(type, id);
+        Item item = new Item(key);
+        item.city = normalizeCity(city);
+        item.category = category;
+        item.visible = true;
+
+        PopularityScore score = saved.remove(key);
+        if (score != null) {
+            item.score = decayed(score.getScore(), score.getUpdatedAt(), now);
+        } else {
+            // Compteurs répartis sur [création, maintenant] : facteur moyen (1 − e^(−λT)) / λT
+            double age = createdAt != null ? Math.max(MILLIS_PER_HOUR, now - toMillis(createdAt)) : MILLIS_PER_HOUR;
+            double decay = decayPerMilli * age;
+            item.score = lifetimeWeight * (1 - Math.exp(-decay)) / decay;
+            item.dirty = item.score > 0;
+        }
+        return item;
+    }
+
+    private double decayed(double score, LocalDateTime updatedAt, long now) {
+        return score * Math.exp(-decayPerMilli * Math.max(0, now - toMillis(updatedAt)));
+    }
+
+    private double weight(Integer views, Integer favorites, Integer bookings) {
+        return VIEW_WEIGHT * value(views) + FAVORITE_WEIGHT * value(favorites) + BOOKING_WEIGHT * value(bookings);
+    }
+
+    private int value(Integer count) {
+        return count != null ? count : 0;
+    }
+
+    private String normalizeCity(String city) {
+        return city != null && !city.isBlank() ? city.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private String normalizeCategory(String category) {
+        return category != null && !category.isBlank() ? category.trim().toUpperCase(Locale.ROOT) : null;
+    }
+
+    private String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    // Les classements ne voient que des données validées
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
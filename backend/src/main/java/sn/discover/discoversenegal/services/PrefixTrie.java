@@ -0,0 +1,455 @@
+package sn.discover.discoversenegal.services;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Arbre radix (trie compressé) pour l'autocomplétion : chaque arête porte une suite de caractères,
+ * un nœud n'existe qu'aux embranchements. Chaque nœud garde en cache les K meilleures entrées de
+ * son sous-arbre, si bien qu'une complétion se résume à descendre le long du préfixe et à lire
+ * ce cache, quel que soit le nombre d'entrées sous le préfixe.
+ * Une entrée peut avoir plusieurs clés (le nom entier et ses fins de nom à partir d'un mot) ;
+ * après un ajout, un retrait ou un changement de poids, seuls les caches des chemins de ses clés
+ * sont recalculés, du bas vers le haut.
+ */
+class PrefixTrie<K> {
+
+    record Stats(int entries, int keys, int nodes, long estimatedBytes) {
+    }
+
+    record Input<K>(K key, String label, List<String> paths, double weight) {
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final String label;
+        private final String[] paths;
+        private double weight;
+
+        private Entry(K key, String label, String[] paths, double weight) {
+            this.key = key;
+            this.label = label;
+            this.paths = paths;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Node<K> {
+        private String edge;
+        private char[] firsts = new char[0];
+        private Node<K>[] children = newNodes(0);
+        // Entrées dont une clé se termine exactement ici
+        private Entry<K>[] terminals = newEntries(0);
+        private Entry<K>[] top = newEntries(0);
+
+        private Node(String edge) {
+            this.edge = edge;
+        }
+
+        private Node<K> child(char first) {
+            for (int i = 0; i < firsts.length; i++) {
+                if (firsts[i] == first) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(Node<K> child) {
+            firsts = Arrays.copyOf(firsts, firsts.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            firsts[firsts.length - 1] = child.edge.charAt(0);
+            children[children.length - 1] = child;
+        }
+
+        private void replaceChild(Node<K> previous, Node<K> replacement) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == previous) {
+                    children[i] = replacement;
+                    firsts[i] = replacement.edge.charAt(0);
+                    return;
+                }
+            }
+        }
+
+        private void removeChild(Node<K> child) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == child) {
+                    int last = children.length - 1;
+                    children[i] = children[last];
+                    firsts[i] = firsts[last];
+                    children = Arrays.copyOf(children, last);
+                    firsts = Arrays.copyOf(firsts, last);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Tailles indicatives (JVM 64 bits, références compressées) pour l'estimation mémoire
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int STRING_OVERHEAD = 40;
+    private static final int MAP_ENTRY = 48;
+    // Au-delà, tous les caches sont recalculés en un seul parcours plutôt que chemin par chemin
+    private static final int FULL_REFRESH_THRESHOLD = 256;
+
+    // Poids décroissant, puis libellé le plus court (le plus proche de la saisie), puis ordre alphabétique
+    private final Comparator<Entry<K>> ranking = Comparator.<Entry<K>>comparingDouble(entry -> -entry.weight)
+            .thenComparingInt(entry -> entry.label.length())
+            .thenComparing(entry -> entry.label);
+
+    private final int capacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node<K> root = new Node<>("");
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+
+    PrefixTrie(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Ajoute ou remplace une entrée, accessible par chacune de ses clés normalisées.
+     */
+    void put(K key, String label, List<String> paths, double weight) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            for (List<Node<K>> nodes : putLocked(new Input<>(key, label, paths, weight))) {
+                refresh(nodes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remplace tout le contenu ; les caches sont calculés une seule fois, à la fin.
+     */
+    void putAll(List<Input<K>> inputs) {
+        lock.writeLock().lock();
+        try {
+            clearLocked();
+            for (Input<K> input : inputs) {
+                removeLocked(input.key());
+                putLocked(input);
+            }
+            refreshAll(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(K key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            clearLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean contains(K key) {
+        lock.readLock().lock();
+        try {
+            return entries.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Nouveaux poids ; les entrées absentes de la table ou inchangées ne bougent pas.
+     */
+    void reweight(Map<K, Double> weights) {
+        lock.writeLock().lock();
+        try {
+            List<Entry<K>> changed = new ArrayList<>();
+            weights.forEach((key, weight) -> {
+                Entry<K> entry = entries.get(key);
+                if (entry != null && entry.weight != weight) {
+                    entry.weight = weight;
+                    changed.add(entry);
+                }
+            });
+            if (changed.size() > FULL_REFRESH_THRESHOLD) {
+                refreshAll(root);
+                return;
+            }
+            for (Entry<K> entry : changed) {
+                for (String path : entry.paths) {
+                    refresh(find(path));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Les meilleures entrées (au plus la capacité des caches) dont une clé commence par le préfixe.
+     */
+    List<K> complete(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node<K> node = root;
+            int position = 0;
+            while (position < prefix.length()) {
+                Node<K> child = node.child(prefix.charAt(position));
+                if (child == null) {
+                    return List.of();
+                }
+                int matched = commonLength(child.edge, prefix, position);
+                if (position + matched == prefix.length()) {
+                    // Préfixe épuisé, éventuellement au milieu de l'arête : tout le sous-arbre convient
+                    node = child;
+                    break;
+                }
+                if (matched < child.edge.length()) {
+                    return List.of();
+                }
+                position += matched;
+                node = child;
+            }
+            int count = Math.min(limit, node.top.length);
+            List<K> keys = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                keys.add(node.top[i].key);
+            }
+            return keys;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Taille de l'arbre et estimation de sa mémoire (nœuds, arêtes, caches et entrées).
+     */
+    Stats stats() {
+        lock.readLock().lock();
+        try {
+            long[] totals = new long[2];
+            measure(root, totals);
+            long bytes = totals[1];
+            int keys = 0;
+            for (Entry<K> entry : entries.values()) {
+                keys += entry.paths.length;
+                bytes += MAP_ENTRY + OBJECT_HEADER + 3 * REFERENCE + 8
+                        + STRING_OVERHEAD + entry.label.length()
+                        + OBJECT_HEADER + (long) REFERENCE * entry.paths.length;
+                for (String path : entry.paths) {
+                    bytes += STRING_OVERHEAD + path.length();
+                }
+            }
+            return new Stats(entries.size(), keys, (int) totals[0], bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Chemins modifiés, dont les caches restent à recalculer
+    private List<List<Node<K>>> putLocked(Input<K> input) {
+        Entry<K> entry = new Entry<>(input.key(), input.label(),
+                input.paths().stream().distinct().toArray(String[]::new), input.weight());
+        if (entry.paths.length == 0) {
+            return List.of();
+        }
+        entries.put(entry.key, entry);
+        List<List<Node<K>>> paths = new ArrayList<>(entry.paths.length);
+        for (String path : entry.paths) {
+            List<Node<K>> nodes = insert(path);
+            Node<K> last = nodes.get(nodes.size() - 1);
+            last.terminals = append(last.terminals, entry);
+            paths.add(nodes);
+        }
+        return paths;
+    }
+
+    private void clearLocked() {
+        root.firsts = new char[0];
+        root.children = newNodes(0);
+        root.terminals = newEntries(0);
+        root.top = newEntries(0);
+        entries.clear();
+    }
+
+    private void removeLocked(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return;
+        }
+        for (String path : entry.paths) {
+            List<Node<K>> nodes = find(path);
+            Node<K> last = nodes.get(nodes.size() - 1);
+            last.terminals = without(last.terminals, entry);
+            compact(nodes);
+            refresh(nodes);
+        }
+    }
+
+    // Chemin de la racine au nœud de la clé, créé au besoin en coupant une arête
+    private List<Node<K>> insert(String path) {
+        List<Node<K>> nodes = new ArrayList<>();
+        Node<K> node = root;
+        nodes.add(node);
+        int position = 0;
+        while (position < path.length()) {
+            Node<K> child = node.child(path.charAt(position));
+            if (child == null) {
+                Node<K> leaf = new Node<>(path.substring(position));
+                node.addChild(leaf);
+                nodes.add(leaf);
+                return nodes;
+            }
+            int matched = commonLength(child.edge, path, position);
+            if (matched < child.edge.length()) {
+                // L'arête se sépare : un nœud intermédiaire prend la partie commune
+                Node<K> split = new Node<>(child.edge.substring(0, matched));
+                node.replaceChild(child, split);
+                child.edge = child.edge.substring(matched);
+                split.addChild(child);
+                split.top = child.top;
+                child = split;
+            }
+            position += matched;
+            node = child;
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    private List<Node<K>> find(String path) {
+        List<Node<K>> nodes = new ArrayList<>();
+        Node<K> node = root;
+        nodes.add(node);
+        int position = 0;
+        while (position < path.length()) {
+            node = node.child(path.charAt(position));
+            position += node.edge.length();
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    // Nœuds devenus vides retirés, nœud de passage sans entrée fusionné avec son unique enfant
+    private void compact(List<Node<K>> nodes) {
+        for (int i = nodes.size() - 1; i > 0; i--) {
+            Node<K> node = nodes.get(i);
+            Node<K> parent = nodes.get(i - 1);
+            if (node.terminals.length > 0) {
+                return;
+            }
+            if (node.children.length == 0) {
+                parent.removeChild(node);
+                nodes.remove(i);
+            } else if (node.children.length == 1) {
+                Node<K> child = node.children[0];
+                child.edge = node.edge + child.edge;
+                parent.replaceChild(node, child);
+                nodes.set(i, child);
+                return;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void refresh(List<Node<K>> nodes) {
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            recompute(nodes.get(i));
+        }
+    }
+
+    private void refreshAll(Node<K> node) {
+        for (Node<K> child : node.children) {
+            refreshAll(child);
+        }
+        recompute(node);
+    }
+
+    // Cache = K meilleures entrées parmi celles du nœud et les caches des enfants, sans doublon
+    private void recompute(Node<K> node) {
+        List<Entry<K>> candidates = new ArrayList<>(Arrays.asList(node.terminals));
+        for (Node<K> child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(ranking);
+        List<Entry<K>> top = new ArrayList<>(Math.min(capacity, candidates.size()));
+        for (Entry<K> candidate : candidates) {
+            if (top.size() == capacity) {
+                break;
+            }
+            if (!containsSame(top, candidate)) {
+                top.add(candidate);
+            }
+        }
+        node.top = top.toArray(newEntries(0));
+    }
+
+    private void measure(Node<K> node, long[] totals) {
+        totals[0]++;
+        totals[1] += OBJECT_HEADER + 5 * REFERENCE
+                + STRING_OVERHEAD + node.edge.length()
+                + OBJECT_HEADER + 2L * node.firsts.length
+                + OBJECT_HEADER + (long) REFERENCE * node.children.length
+                + OBJECT_HEADER + (long) REFERENCE * node.terminals.length
+                + OBJECT_HEADER + (long) REFERENCE * node.top.length;
+        for (Node<K> child : node.children) {
+            measure(child, totals);
+        }
+    }
+
+    private static int commonLength(String edge, String text, int offset) {
+        int length = Math.min(edge.length(), text.length() - offset);
+        int i = 0;
+        while (i < length && edge.charAt(i) == text.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static <K> boolean containsSame(List<Entry<K>> entries, Entry<K> entry) {
+        for (Entry<K> existing : entries) {
+            if (existing == entry) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <K> Entry<K>[] append(Entry<K>[] entries, Entry<K> entry) {
+        Entry<K>[] copy = Arrays.copyOf(entries, entries.length + 1);
+        copy[entries.length] = entry;
+        return copy;
+    }
+
+    private static <K> Entry<K>[] without(Entry<K>[] entries, Entry<K> entry) {
+        return Arrays.stream(entries).filter(existing -> existing != entry).toArray(PrefixTrie::newEntries);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> Entry<K>[] newEntries(int length) {
+        return (Entry<K>[]) new Entry[length];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> Node<K>[] newNodes(int length) {
+        return (Node<K>[]) new Node[length];
+    }
+}
@@ -101,13 +101,13 @@ public class RestaurantController {
     }
     
     /**
-     * Incrémenter le compteur de vues
+     * Incrémenter le compteur de vues (202 : la vue est reportée en base sous quelques secondes)
      */
     @PostMapping("/{id}/view")
-    public ResponseEntity<RestaurantResponseDTO> incrementViewCount(@PathVariable Long id) {
+    public ResponseEntity<Void> incrementViewCount(@PathVariable Long id) {
         log.info("POST /api/restaurants/{}/view - Incrementing view count", id);
-        RestaurantResponseDTO response = restaurantService.incrementViewCount(id);
-        return ResponseEntity.ok(response);
+        restaurantService.incrementViewCount(id);
+        return ResponseEntity.accepted().build();
     }
     
     /**
@@ -140,6 +140,18 @@ public class RestaurantController {
         return ResponseEntity.ok(restaurants);
     }
     
+    /**
+     * Restaurants autour d'un point GPS (rayon en km)
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<List<RestaurantResponseDTO>> getRestaurantsNearby(
+            @RequestParam Double lat,
+            @RequestParam Double lng,
+            @RequestParam(defaultValue = "5") Double radius) {
+        log.info("GET /api/restaurants/nearby - Fetching restaurants within {} km of ({}, {})", radius, lat, lng);
+        return ResponseEntity.ok(restaurantService.getRestaurantsNearby(lat, lng, radius));
+    }
+    
     /**
      * Rechercher des restaurants par type
      */
@@ -185,9 +197,23 @@ public class RestaurantController {
      * Récupérer les restaurants les plus populaires
      */
     @GetMapping("/popular")
-    public ResponseEntity<List<RestaurantResponseDTO>> getMostPopularRestaurants() {
-        log.info("GET /api/restaurants/popular - Fetching most popular restaurants");
-        List<RestaurantResponseDTO> restaurants = restaurantService.getMostPopularRestaurants();
+    public ResponseEntity<List<RestaurantResponseDTO>> getMostPopularRestaurants(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String type) {
+        log.info("GET /api/restaurants/popular - Fetching most popular restaurants (city: {}, type: {})", city, type);
+        List<RestaurantResponseDTO> restaurants = restaurantService.getMostPopularRestaurants(city, type);
+        return ResponseEntity.ok(restaurants);
+    }
+    
+    /**
+     * Recherche par nom tolérante aux fautes de frappe, ex. GET /api/restaurants/search/name?q=chez loutcha
+     */
+    @GetMapping("/search/name")
+    public ResponseEntity<List<RestaurantResponseDTO>> searchByName(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/restaurants/search/name - Fuzzy name search for '{}'", q);
+        List<RestaurantResponseDTO> restaurants = restaurantService.searchByName(q, limit);
         return ResponseEntity.ok(restaurants);
     }
     
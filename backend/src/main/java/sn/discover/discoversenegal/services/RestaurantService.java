@@ -3,17 +3,22 @@ package sn.discover.discoversenegal.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sn.discover.discoversenegal.dto.*;
 import sn.discover.discoversenegal.entities.*;
 import sn.discover.discoversenegal.repositories.RestaurantRepository;
 import sn.discover.discoversenegal.repositories.UserRepository;
+import sn.discover.discoversenegal.repositories.ViewCounterRepository;
 
 import jakarta.persistence.criteria.Predicate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +28,11 @@ public class RestaurantService {
     
     private final RestaurantRepository restaurantRepository;
     private final UserRepository userRepository;
+    private final GeoIndexService geoIndexService;
+    private final ViewCounterService viewCounterService;
+    private final PopularityService popularityService;
+    private final NameMatchService nameMatchService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public RestaurantResponseDTO createRestaurant(RestaurantCreateDTO dto) {
@@ -88,6 +98,7 @@ public class RestaurantService {
                 .build();
         
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.saved(savedRestaurant));
         log.info("Restaurant created successfully with ID: {}", savedRestaurant.getId());
         
         return mapToResponseDTO(savedRestaurant);
@@ -142,6 +153,7 @@ public class RestaurantService {
         if (dto.getActive() != null) restaurant.setActive(dto.getActive());
         
         Restaurant updatedRestaurant = restaurantRepository.save(restaurant);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.saved(updatedRestaurant));
         log.info("Restaurant updated successfully");
         
         return mapToResponseDTO(updatedRestaurant);
@@ -231,17 +243,21 @@ public class RestaurantService {
         restaurant.setTotalReviews(currentReviews + 1);
         
         Restaurant updatedRestaurant = restaurantRepository.save(restaurant);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.saved(updatedRestaurant));
         log.info("Review added successfully");
         
         return mapToResponseDTO(updatedRestaurant);
     }
     
-    @Transactional
-    public RestaurantResponseDTO incrementViewCount(Long id) {
-        Restaurant restaurant = restaurantRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Restaurant non trouvé"));
-        restaurant.setViewCount(restaurant.getViewCount() + 1);
-        return mapToResponseDTO(restaurantRepository.save(restaurant));
+    /**
+     * Compte une vue sans écriture en base : le report est groupé par ViewCounterService.
+     */
+    @Transactional(readOnly = true)
+    public void incrementViewCount(Long id) {
+        if (!restaurantRepository.existsById(id)) {
+            throw new RuntimeException("Restaurant non trouvé");
+        }
+        viewCounterService.recordView(ViewCounterRepository.Table.RESTAURANT, id);
     }
     
     @Transactional
@@ -249,6 +265,7 @@ public class RestaurantService {
         Restaurant restaurant = restaurantRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Restaurant non trouvé"));
         restaurant.setReservationCount(restaurant.getReservationCount() + 1);
+        popularityService.recordBookings(PopularityItemType.RESTAURANT, id, 1);
         return mapToResponseDTO(restaurantRepository.save(restaurant));
     }
     
@@ -257,6 +274,7 @@ public class RestaurantService {
         Restaurant restaurant = restaurantRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Restaurant non trouvé"));
         restaurant.setFavoriteCount(restaurant.getFavoriteCount() + 1);
+        popularityService.recordFavorite(PopularityItemType.RESTAURANT, id);
         return mapToResponseDTO(restaurantRepository.save(restaurant));
     }
     
@@ -274,6 +292,26 @@ public class RestaurantService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Restaurants actifs dans un rayon (km), du plus proche au plus lointain (index en mémoire)
+     */
+    @Transactional(readOnly = true)
+    public List<RestaurantResponseDTO> getRestaurantsNearby(Double latitude, Double longitude, Double radiusKm) {
+        if (radiusKm == null || radiusKm < GeoIndexService.MIN_RADIUS_KM
+                || radiusKm > GeoIndexService.MAX_RADIUS_KM) {
+            throw new RuntimeException("Le rayon doit être compris entre 1 et 500 km");
+        }
+        List<Long> ids = geoIndexService.findWithin(GeoPlace.Type.RESTAURANT, latitude, longitude, radiusKm, Integer.MAX_VALUE)
+                .stream().map(hit -> hit.place().id()).toList();
+        Map<Long, Restaurant> restaurants = restaurantRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        return ids.stream()
+                .map(restaurants::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+    }
+    
     @Transactional(readOnly = true)
     public List<RestaurantResponseDTO> getRestaurantsByCity(String city) {
         return restaurantRepository.findByCityAndActiveTrue(city).stream()
@@ -310,10 +348,33 @@ public class RestaurantService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Restaurants les plus populaires (score décroissant dans le temps), par ville et/ou type
+     */
     @Transactional(readOnly = true)
-    public List<RestaurantResponseDTO> getMostPopularRestaurants() {
-        return restaurantRepository.findMostPopular().stream()
-                .limit(10)
+    public List<RestaurantResponseDTO> getMostPopularRestaurants(String city, String type) {
+        List<Long> ids = popularityService.top(PopularityItemType.RESTAURANT, city, type, 10);
+        Map<Long, Restaurant> restaurants = restaurantRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        return ids.stream()
+                .map(restaurants::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Recherche par nom tolérante aux fautes de frappe et aux variantes (« St-Louis », « Lac Retba »),
+     * du nom le plus proche au plus éloigné (index de trigrammes en mémoire)
+     */
+    @Transactional(readOnly = true)
+    public List<RestaurantResponseDTO> searchByName(String name, Integer limit) {
+        List<Long> ids = nameMatchService.searchRestaurants(name, limit != null ? limit : 20);
+        Map<Long, Restaurant> restaurants = restaurantRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        return ids.stream()
+                .map(restaurants::get)
+                .filter(Objects::nonNull)
                 .map(this::mapToResponseDTO)
                 .collect(Collectors.toList());
     }
@@ -395,6 +456,7 @@ public class RestaurantService {
                 .orElseThrow(() -> new RuntimeException("Restaurant non trouvé"));
         restaurant.setActive(false);
         restaurantRepository.save(restaurant);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.saved(restaurant));
         log.info("Restaurant deactivated successfully");
     }
     
@@ -0,0 +1,252 @@
+package sn.discover.discoversenegal.services;
+
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.discover.discoversenegal.dto.RoomHoldCreateDTO;
+import sn.discover.discoversenegal.dto.RoomHoldDTO;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.RoomHold;
+import sn.discover.discoversenegal.repositories.RoomHoldRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Blocages de chambres à durée limitée entre la vérification de disponibilité et le paiement.
+ * Un blocage décompte ses chambres du registre d'inventaire : les vérifications de
+ * disponibilité en tiennent donc compte sans requête supplémentaire. Les expirations
+ * sont planifiées dans une roue temporelle en mémoire (précision de 100 ms) et
+ * replanifiées depuis la table room_holds au redémarrage.
+ */
+@Service
+@Slf4j
+public class RoomHoldService implements CommandLineRunner {
+
+    private static final long TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 1024;
+    private static final int SWEEP_BATCH_SIZE = 200;
+    private static final int MAX_HOLD_ROOMS = 10;
+
+    private final RoomHoldRepository holdRepository;
+    private final HotelRepository hotelRepository;
+    private final RoomInventoryService roomInventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlSeconds;
+
+    private final HoldExpiryWheel wheel;
+    // Les libérations passent par un thread dédié pour ne pas retarder les ticks de la roue
+    private final ExecutorService expiryExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "room-hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RoomHoldService(RoomHoldRepository holdRepository,
+                           HotelRepository hotelRepository,
+                           RoomInventoryService roomInventoryService,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${app.booking.hold-ttl-seconds:600}") long ttlSeconds) {
+        this.holdRepository = holdRepository;
+        this.hotelRepository = hotelRepository;
+        this.roomInventoryService = roomInventoryService;
+        this.transactionTemplate = transactionTemplate;
+        this.ttlSeconds = ttlSeconds;
+        this.wheel = new HoldExpiryWheel(TICK_MILLIS, WHEEL_SIZE,
+                ids -> expiryExecutor.execute(() -> expireAll(ids)));
+    }
+
+    /**
+     * Replanifie les blocages persistés ; ceux expirés pendant l'arrêt sont libérés tout de suite.
+     */
+    @Override
+    public void run(String... args) {
+        List<RoomHoldRepository.HoldExpiry> holds = holdRepository.findAllExpiries();
+        for (RoomHoldRepository.HoldExpiry hold : holds) {
+            wheel.schedule(hold.getId(), toMillis(hold.getExpiresAt()));
+        }
+        wheel.start();
+        log.info("Room hold wheel started with {} recovered holds", holds.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.stop();
+        expiryExecutor.shutdown();
+    }
+
+    @Transactional
+    public RoomHoldDTO createHold(RoomHoldCreateDTO dto) {
+        if (dto.getCheckInDate() == null || dto.getCheckOutDate() == null
+                || !dto.getCheckOutDate().isAfter(dto.getCheckInDate())) {
+            throw new RuntimeException("Date de départ doit être après la date d'arrivée");
+        }
+        int rooms = dto.getNumberOfRooms() != null ? dto.getNumberOfRooms() : 1;
+        if (rooms < 1 || rooms > MAX_HOLD_ROOMS) {
+            throw new RuntimeException("Le nombre de chambres bloquées doit être entre 1 et " + MAX_HOLD_ROOMS);
+        }
+
+        Hotel hotel = hotelRepository.findById(dto.getHotelId())
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
+
+        roomInventoryService.reserve(hotel, dto.getCheckInDate(), dto.getCheckOutDate(), rooms);
+
+        RoomHold hold = holdRepository.save(RoomHold.builder()
+                .holdToken(UUID.randomUUID().toString())
+                .hotel(hotel)
+                .userId(dto.getUserId())
+                .checkInDate(dto.getCheckInDate())
+                .checkOutDate(dto.getCheckOutDate())
+                .numberOfRooms(rooms)
+                .expiresAt(LocalDateTime.now().plusSeconds(ttlSeconds))
+                .build());
+
+        // Planifier seulement si le blocage est réellement enregistré
+        Long holdId = hold.getId();
+        long deadline = toMillis(hold.getExpiresAt());
+        afterCommit(() -> wheel.schedule(holdId, deadline));
+
+        log.info("Room hold {} created for hotel {} ({} rooms) until {}",
+                hold.getHoldToken(), hotel.getId(), rooms, hold.getExpiresAt());
+        return mapToDTO(hold);
+    }
+
+    @Transactional(readOnly = true)
+    public RoomHoldDTO getHold(String holdToken) {
+        RoomHold hold = holdRepository.findByHoldToken(holdToken)
+                .orElseThrow(() -> new RuntimeException("Blocage non trouvé ou expiré"));
+        return mapToDTO(hold);
+    }
+
+    /**
+     * Abandon du paiement : les chambres sont rendues immédiatement.
+     */
+    @Transactional
+    public void releaseHold(String holdToken) {
+        if (!releaseHoldIfPresent(holdToken)) {
+            throw new RuntimeException("Blocage non trouvé ou expiré");
+        }
+    }
+
+    @Transactional
+    public boolean releaseHoldIfPresent(String holdToken) {
+        RoomHold hold = holdRepository.findByHoldToken(holdToken).orElse(null);
+        if (hold == null || holdRepository.deleteHold(hold.getId()) != 1) {
+            return false;
+        }
+        roomInventoryService.release(hold.getHotel().getId(), hold.getCheckInDate(),
+                hold.getCheckOutDate(), hold.getNumberOfRooms());
+        Long holdId = hold.getId();
+        afterCommit(() -> wheel.cancel(holdId));
+        return true;
+    }
+
+    /**
+     * Transforme le blocage en réservation : les chambres déjà décomptées sont reprises
+     * telles quelles. Le séjour doit correspondre exactement au blocage.
+     */
+    @Transactional
+    public void consumeHold(String holdToken, Long hotelId, LocalDate checkIn, LocalDate checkOut, int rooms) {
+        RoomHold hold = holdRepository.findByHoldToken(holdToken)
+                .orElseThrow(() -> new RuntimeException("Blocage non trouvé ou expiré"));
+
+        if (!hold.getHotel().getId().equals(hotelId)
+                || !hold.getCheckInDate().equals(checkIn)
+                || !hold.getCheckOutDate().equals(checkOut)
+                || hold.getNumberOfRooms() != rooms) {
+            throw new RuntimeException("La réservation ne correspond pas au blocage");
+        }
+        if (hold.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Blocage non trouvé ou expiré");
+        }
+        // Suppression conditionnelle : perd la course si l'expiration est passée avant
+        if (holdRepository.deleteHold(hold.getId()) != 1) {
+            throw new RuntimeException("Blocage non trouvé ou expiré");
+        }
+
+        Long holdId = hold.getId();
+        afterCommit(() -> wheel.cancel(holdId));
+    }
+
+    /**
+     * Filet de sécurité : blocages d'un autre nœud arrêté, ou échecs de libération.
+     */
+    @Scheduled(fixedDelay = 30000)
+    public void sweepExpiredHolds() {
+        List<Long> ids = holdRepository.findExpiredIds(LocalDateTime.now().minusSeconds(5),
+                PageRequest.ofSize(SWEEP_BATCH_SIZE));
+        if (!ids.isEmpty()) {
+            expireAll(ids);
+        }
+    }
+
+    public int getActiveHoldCount() {
+        return wheel.size();
+    }
+
+    private void expireAll(List<Long> holdIds) {
+        for (Long holdId : holdIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> expire(holdId));
+            } catch (RuntimeException e) {
+                log.error("Failed to expire room hold {}", holdId, e);
+            }
+        }
+    }
+
+    private void expire(Long holdId) {
+        RoomHold hold = holdRepository.findById(holdId).orElse(null);
+        if (hold == null) {
+            return; // Déjà consommé ou libéré
+        }
+        if (holdRepository.deleteIfExpired(holdId, LocalDateTime.now()) == 1) {
+            roomInventoryService.release(hold.getHotel().getId(), hold.getCheckInDate(),
+                    hold.getCheckOutDate(), hold.getNumberOfRooms());
+            log.info("Room hold {} expired, {} rooms released for hotel {}",
+                    hold.getHoldToken(), hold.getNumberOfRooms(), hold.getHotel().getId());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private RoomHoldDTO mapToDTO(RoomHold hold) {
+        return RoomHoldDTO.builder()
+                .holdToken(hold.getHoldToken())
+                .hotelId(hold.getHotel().getId())
+                .checkInDate(hold.getCheckInDate())
+                .checkOutDate(hold.getCheckOutDate())
+                .numberOfRooms(hold.getNumberOfRooms())
+                .expiresAt(hold.getExpiresAt())
+                .build();
+    }
+}
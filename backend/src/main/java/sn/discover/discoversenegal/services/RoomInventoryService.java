@@ -0,0 +1,264 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sn.discover.discoversenegal.dto.AvailabilityCalendarDTO;
+import sn.discover.discoversenegal.entities.BookingStatus;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.repositories.RoomInventoryRepository;
+import sn.discover.discoversenegal.repositories.RoomInventoryRepository.InventoryWindow;
+import sn.discover.discoversenegal.repositories.RoomInventoryRepository.NightRemaining;
+import sn.discover.discoversenegal.repositories.RoomInventoryRepository.ReleasedStay;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomInventoryService {
+
+    private static final int MAX_CALENDAR_DAYS = 365;
+    private static final int MAX_CACHED_CALENDARS_PER_HOTEL = 32;
+
+    private final RoomInventoryRepository inventoryRepository;
+    private final HotelRepository hotelRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Calendriers par hôtel, indexés par "from:to" ; vidés à chaque mouvement d'inventaire
+    private final Map<Long, Map<String, AvailabilityCalendarDTO>> calendarCache = new ConcurrentHashMap<>();
+    // Générations incrémentées à chaque éviction : une lecture commencée avant une écriture
+    // ne remet pas en cache un calendrier calculé sur l'état précédent
+    private final Map<Long, AtomicLong> calendarGenerations = new ConcurrentHashMap<>();
+    private final AtomicLong globalCalendarGeneration = new AtomicLong();
+
+    /**
+     * Une réservation occupe l'inventaire tant qu'elle n'est ni annulée ni en no-show.
+     */
+    public static boolean holdsInventory(BookingStatus status) {
+        return status != BookingStatus.CANCELLED && status != BookingStatus.NO_SHOW;
+    }
+
+    @Transactional(readOnly = true)
+    public int getRemainingRooms(Hotel hotel, LocalDate checkIn, LocalDate checkOut) {
+        int totalRooms = hotel.getTotalRooms() != null ? hotel.getTotalRooms() : 0;
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+
+        InventoryWindow window = inventoryRepository.summarizeWindow(hotel.getId(), checkIn, checkOut);
+        if (window == null || window.getTrackedNights() == null || window.getTrackedNights() == 0) {
+            return totalRooms;
+        }
+
+        // Les nuits absentes du registre n'ont encore aucune réservation
+        int remaining = window.getMinRemaining();
+        if (window.getTrackedNights() < nights) {
+            remaining = Math.min(remaining, totalRooms);
+        }
+        return Math.max(remaining, 0);
+    }
+
+    /**
+     * Chambres restantes pour chaque nuit de [from, to), en une seule requête.
+     * Pas en lecture seule : le résultat est mis en cache sans expiration, il est donc lu
+     * sur le primaire et non sur un réplica en retard que la génération ne détecterait pas.
+     */
+    @Transactional
+    public AvailabilityCalendarDTO getCalendar(Long hotelId, LocalDate from, LocalDate to) {
+        int days = (int) ChronoUnit.DAYS.between(from, to);
+        if (days < 1 || days > MAX_CALENDAR_DAYS) {
+            throw new RuntimeException("La période doit couvrir entre 1 et " + MAX_CALENDAR_DAYS + " nuits");
+        }
+
+        String rangeKey = from + ":" + to;
+        Map<String, AvailabilityCalendarDTO> hotelCalendars = calendarCache.get(hotelId);
+        AvailabilityCalendarDTO cached = hotelCalendars != null ? hotelCalendars.get(rangeKey) : null;
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = calendarGeneration(hotelId);
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
+        int totalRooms = hotel.getTotalRooms() != null ? hotel.getTotalRooms() : 0;
+
+        int[] remaining = new int[days];
+        Arrays.fill(remaining, totalRooms);
+        for (NightRemaining night : inventoryRepository.findRemainingByNight(hotelId, from, to)) {
+            int index = (int) ChronoUnit.DAYS.between(from, night.getNight());
+            remaining[index] = Math.max(night.getRemaining(), 0);
+        }
+
+        AvailabilityCalendarDTO calendar = AvailabilityCalendarDTO.builder()
+                .hotelId(hotelId)
+                .from(from)
+                .to(to)
+                .totalRooms(totalRooms)
+                .remainingRooms(remaining)
+                .build();
+
+        Map<String, AvailabilityCalendarDTO> calendars =
+                calendarCache.computeIfAbsent(hotelId, id -> new ConcurrentHashMap<>());
+        if (calendars.size() >= MAX_CACHED_CALENDARS_PER_HOTEL) {
+            calendars.clear();
+        }
+        calendars.put(rangeKey, calendar);
+        // Une éviction survenue pendant le calcul a pu passer avant le put : on retire l'entrée
+        if (calendarGeneration(hotelId) != generation) {
+            calendars.remove(rangeKey, calendar);
+        }
+        return calendar;
+    }
+
+    /**
+     * Réserve les chambres sur chaque nuit du séjour de façon atomique.
+     * Les nuits sont verrouillées (FOR UPDATE) puis mises à jour de façon
+     * conditionnelle : si une seule nuit manque de chambres, une exception est levée
+     * et la transaction appelante est annulée.
+     */
+    @Transactional
+    public void reserve(Hotel hotel, LocalDate checkIn, LocalDate checkOut, int rooms) {
+        int totalRooms = hotel.getTotalRooms() != null ? hotel.getTotalRooms() : 0;
+        int nights = (int) ChronoUnit.DAYS.between(checkIn, checkOut);
+
+        inventoryRepository.initializeNights(hotel.getId(), checkIn, checkOut, totalRooms);
+        inventoryRepository.lockNights(hotel.getId(), checkIn, checkOut);
+
+        int reservedNights = inventoryRepository.incrementBookedRooms(hotel.getId(), checkIn, checkOut, rooms);
+        evictCalendars(hotel.getId());
+        if (reservedNights != nights) {
+            log.warn("Inventory exhausted for hotel {} between {} and {} ({} rooms requested)",
+                    hotel.getId(), checkIn, checkOut, rooms);
+            throw new RuntimeException("Hôtel non disponible pour ces dates");
+        }
+    }
+
+    /**
+     * Verrouille les nuits du séjour et renvoie les chambres restantes.
+     * Les verrous sont conservés jusqu'à la fin de la transaction appelante,
+     * ce qui permet d'allouer plusieurs lignes puis de réserver en une seule fois.
+     */
+    @Transactional
+    public int lockRemainingRooms(Hotel hotel, LocalDate checkIn, LocalDate checkOut) {
+        int totalRooms = hotel.getTotalRooms() != null ? hotel.getTotalRooms() : 0;
+        inventoryRepository.initializeNights(hotel.getId(), checkIn, checkOut, totalRooms);
+        inventoryRepository.lockNights(hotel.getId(), checkIn, checkOut);
+        return getRemainingRooms(hotel, checkIn, checkOut);
+    }
+
+    /**
+     * Rend des chambres au registre. Un InventoryReleasedEvent est publié :
+     * la liste d'attente le traite après le commit.
+     */
+    @Transactional
+    public void release(Long hotelId, LocalDate checkIn, LocalDate checkOut, int rooms) {
+        inventoryRepository.lockNights(hotelId, checkIn, checkOut);
+        inventoryRepository.decrementBookedRooms(hotelId, checkIn, checkOut, rooms);
+        evictCalendars(hotelId);
+        eventPublisher.publishEvent(new InventoryReleasedEvent(hotelId, checkIn, checkOut, rooms));
+    }
+
+    /**
+     * Libère en une seule requête l'inventaire de plusieurs réservations.
+     * Les nuits doivent avoir été verrouillées par lockNightsOfBookings()
+     * avant le changement de statut des réservations.
+     * Un InventoryReleasedEvent est publié par hôtel et par séjour, comme pour release().
+     */
+    @Transactional
+    public int releaseBookings(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        int nights = inventoryRepository.releaseBookings(bookingIds);
+        evictAllCalendars();
+        for (ReleasedStay stay : inventoryRepository.findReleasedStays(bookingIds)) {
+            eventPublisher.publishEvent(new InventoryReleasedEvent(stay.getHotelId(), stay.getCheckIn(),
+                    stay.getCheckOut(), stay.getRooms().intValue()));
+        }
+        return nights;
+    }
+
+    @Transactional
+    public void lockNightsOfBookings(Collection<Long> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            inventoryRepository.lockNightsOfBookings(bookingIds);
+        }
+    }
+
+    @Transactional
+    public void updateCapacity(Long hotelId, Integer totalRooms) {
+        int updated = inventoryRepository.updateTotalRooms(hotelId, LocalDate.now(), totalRooms);
+        evictCalendars(hotelId);
+        log.info("Capacity of hotel {} set to {} rooms on {} upcoming nights", hotelId, totalRooms, updated);
+    }
+
+    /**
+     * Reconstruit le registre des nuits à venir à partir des réservations existantes.
+     */
+    @Transactional
+    public int rebuild(Hotel hotel) {
+        LocalDate today = LocalDate.now();
+        int totalRooms = hotel.getTotalRooms() != null ? hotel.getTotalRooms() : 0;
+        inventoryRepository.initializeNightsFromBookings(hotel.getId(), today, totalRooms);
+        int nights = inventoryRepository.recomputeBookedRooms(hotel.getId(), today);
+        evictCalendars(hotel.getId());
+        log.info("Inventory ledger rebuilt for hotel {} ({} nights)", hotel.getId(), nights);
+        return nights;
+    }
+
+    /**
+     * Vide les calendriers de l'hôtel tout de suite et après le commit,
+     * pour qu'une lecture concurrente ne remette pas en cache un état non validé.
+     */
+    private void evictCalendars(Long hotelId) {
+        invalidateCalendars(hotelId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateCalendars(hotelId);
+                }
+            });
+        }
+    }
+
+    private void evictAllCalendars() {
+        invalidateAllCalendars();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateAllCalendars();
+                }
+            });
+        }
+    }
+
+    // Génération incrémentée avant le vidage : le lecteur qui la relit après son put voit le changement
+    private void invalidateCalendars(Long hotelId) {
+        calendarGenerations.computeIfAbsent(hotelId, id -> new AtomicLong()).incrementAndGet();
+        calendarCache.remove(hotelId);
+    }
+
+    private void invalidateAllCalendars() {
+        globalCalendarGeneration.incrementAndGet();
+        calendarCache.clear();
+    }
+
+    // Les deux compteurs ne font que croître : leur somme change dès que l'un d'eux change
+    private long calendarGeneration(Long hotelId) {
+        return calendarGenerations.computeIfAbsent(hotelId, id -> new AtomicLong()).get()
+                + globalCalendarGeneration.get();
+    }
+}
@@ -0,0 +1,209 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sn.discover.discoversenegal.entities.Event;
+import sn.discover.discoversenegal.entities.EventStatus;
+import sn.discover.discoversenegal.entities.SiteStatus;
+import sn.discover.discoversenegal.entities.TouristSite;
+import sn.discover.discoversenegal.repositories.EventRepository;
+import sn.discover.discoversenegal.repositories.TouristSiteRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recherche plein texte des sites publiés et des événements publiés, sans requête en base.
+ * Index inversés en mémoire (TextIndex) sur le nom, les tags, la ville, la description
+ * courte et la description, avec repli des accents (« goree » trouve « Gorée ») et
+ * classement BM25. Chargés au démarrage par projections, puis tenus à jour après
+ * chaque commit (CatalogItemChangedEvent), comme l'index géographique.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService implements CommandLineRunner {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float TAGS_WEIGHT = 2f;
+    private static final float CITY_WEIGHT = 2f;
+    private static final float SHORT_DESCRIPTION_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float HISTORY_WEIGHT = 0.5f;
+    // En deçà, le dernier mot n'est pas traité comme un préfixe (« d », « sa » …)
+    private static final int MIN_PREFIX_LENGTH = 3;
+    // Au-delà, les pages ne sont plus servies : affiner la recherche
+    private static final int MAX_RESULTS = 1000;
+    private static final int SNIPPET_LENGTH = 160;
+
+    private final TouristSiteRepository siteRepository;
+    private final EventRepository eventRepository;
+
+    private final TextIndex sites = new TextIndex();
+    private final TextIndex events = new TextIndex();
+
+    private record Query(List<String> terms, String prefix) {
+
+        private Set<String> highlighted() {
+            Set<String> all = new HashSet<>(terms);
+            if (prefix != null) {
+                all.add(prefix);
+            }
+            return all;
+        }
+    }
+
+    @Override
+    public void run(String... args) {
+        reload();
+    }
+
+    public void reload() {
+        Map<Long, List<String>> siteTags = new HashMap<>();
+        for (TouristSiteRepository.TagRow row : siteRepository.findSearchTags()) {
+            siteTags.computeIfAbsent(row.getId(), id -> new ArrayList<>()).add(row.getTag());
+        }
+        sites.clear();
+        for (TouristSiteRepository.SearchRow row : siteRepository.findSearchRows()) {
+            sites.put(row.getId(), siteFields(row.getName(), siteTags.get(row.getId()), row.getCity(),
+                    row.getRegion(), row.getShortDescription(), row.getDescription(), row.getHistory()));
+        }
+
+        Map<Long, List<String>> eventTags = new HashMap<>();
+        for (EventRepository.TagRow row : eventRepository.findSearchTags(EventStatus.PUBLIE)) {
+            eventTags.computeIfAbsent(row.getId(), id -> new ArrayList<>()).add(row.getTag());
+        }
+        events.clear();
+        for (EventRepository.SearchRow row : eventRepository.findSearchRows(EventStatus.PUBLIE)) {
+            events.put(row.getId(), eventFields(row.getTitle(), eventTags.get(row.getId()), row.getCity(),
+                    row.getLocation(), row.getShortDescription(), row.getDescription()));
+        }
+
+        log.info("Search index loaded: {} sites, {} events", sites.size(), events.size());
+    }
+
+    // Après le commit, le contexte de persistance est encore ouvert : les tags paresseux restent lisibles
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogItemChanged(CatalogItemChangedEvent event) {
+        if (event.isRemoval()) {
+            switch (event.type()) {
+                case SITE -> sites.remove(event.id());
+                case EVENT -> events.remove(event.id());
+                default -> { }
+            }
+            return;
+        }
+        switch (event.type()) {
+            case SITE -> indexSite((TouristSite) event.entity());
+            case EVENT -> indexEvent((Event) event.entity());
+            default -> { }
+        }
+    }
+
+    public void indexSite(TouristSite site) {
+        if (site.getStatus() != SiteStatus.PUBLIE) {
+            sites.remove(site.getId());
+            return;
+        }
+        sites.put(site.getId(), siteFields(site.getName(), site.getTags(), site.getCity(), site.getRegion(),
+                site.getShortDescription(), site.getDescription(), site.getHistory()));
+    }
+
+    public void indexEvent(Event event) {
+        if (event.getStatus() != EventStatus.PUBLIE) {
+            events.remove(event.getId());
+            return;
+        }
+        events.put(event.getId(), eventFields(event.getTitle(), event.getTags(), event.getCity(),
+                event.getLocation(), event.getShortDescription(), event.getDescription()));
+    }
+
+    /**
+     * Identifiants des sites correspondant à la recherche, du plus pertinent au moins pertinent.
+     */
+    public Page<Long> searchSites(String keyword, Pageable pageable) {
+        return search(sites, keyword, pageable);
+    }
+
+    public Page<Long> searchEvents(String keyword, Pageable pageable) {
+        return search(events, keyword, pageable);
+    }
+
+    /**
+     * Extrait du premier texte contenant un terme recherché, termes surlignés par &lt;mark&gt;.
+     */
+    public String snippet(String keyword, String... texts) {
+        Query query = parse(keyword);
+        Set<String> highlighted = query.highlighted();
+        if (highlighted.isEmpty()) {
+            return null;
+        }
+        for (String text : texts) {
+            String snippet = TextAnalyzer.snippet(text, highlighted, query.prefix(), SNIPPET_LENGTH);
+            if (snippet != null) {
+                return snippet;
+            }
+        }
+        return null;
+    }
+
+    private Page<Long> search(TextIndex index, String keyword, Pageable pageable) {
+        Query query = parse(keyword);
+        int offset = (int) Math.min(pageable.getOffset(), MAX_RESULTS);
+        int limit = Math.min(pageable.getPageSize(), MAX_RESULTS - offset);
+        TextIndex.Result result = index.search(query.terms(), query.prefix(), offset, limit);
+        List<Long> ids = result.hits().stream().map(TextIndex.Hit::id).toList();
+        return new PageImpl<>(ids, pageable, result.total());
+    }
+
+    // Le dernier mot, s'il n'est pas suivi d'un espace, est traité comme un préfixe en cours de saisie
+    private Query parse(String keyword) {
+        List<String> terms = new ArrayList<>(TextAnalyzer.terms(keyword));
+        String prefix = null;
+        if (!terms.isEmpty() && Character.isLetterOrDigit(keyword.charAt(keyword.length() - 1))) {
+            String[] words = keyword.split("[^\\p{L}\\p{N}]+");
+            String last = TextAnalyzer.term(words[words.length - 1]);
+            if (last != null && last.length() >= MIN_PREFIX_LENGTH && last.equals(terms.get(terms.size() - 1))) {
+                prefix = terms.remove(terms.size() - 1);
+            }
+        }
+        return new Query(terms, prefix);
+    }
+
+    private List<TextIndex.Field> siteFields(String name, List<String> tags, String city, String region,
+                                             String shortDescription, String description, String history) {
+        List<TextIndex.Field> fields = new ArrayList<>(7);
+        fields.add(new TextIndex.Field(name, NAME_WEIGHT));
+        fields.add(new TextIndex.Field(tags != null ? String.join(" ", tags) : null, TAGS_WEIGHT));
+        fields.add(new TextIndex.Field(city, CITY_WEIGHT));
+        fields.add(new TextIndex.Field(region, CITY_WEIGHT));
+        fields.add(new TextIndex.Field(shortDescription, SHORT_DESCRIPTION_WEIGHT));
+        fields.add(new TextIndex.Field(description, DESCRIPTION_WEIGHT));
+        fields.add(new TextIndex.Field(history, HISTORY_WEIGHT));
+        return fields;
+    }
+
+    private List<TextIndex.Field> eventFields(String title, List<String> tags, String city, String location,
+                                              String shortDescription, String description) {
+        List<TextIndex.Field> fields = new ArrayList<>(6);
+        fields.add(new TextIndex.Field(title, NAME_WEIGHT));
+        fields.add(new TextIndex.Field(tags != null ? String.join(" ", tags) : null, TAGS_WEIGHT));
+        fields.add(new TextIndex.Field(city, CITY_WEIGHT));
+        fields.add(new TextIndex.Field(location, CITY_WEIGHT));
+        fields.add(new TextIndex.Field(shortDescription, SHORT_DESCRIPTION_WEIGHT));
+        fields.add(new TextIndex.Field(description, DESCRIPTION_WEIGHT));
+        return fields;
+    }
+}
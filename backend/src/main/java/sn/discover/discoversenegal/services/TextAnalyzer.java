@@ -0,0 +1,177 @@
+package sn.discover.discoversenegal.services;
+
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation des textes pour la recherche : accents et cédilles retirés (« Gorée » = « goree »,
+ * « Thiès » = « thies », « ñ » = « n »), minuscules, apostrophes et traits d'union traités comme
+ * des séparateurs (« l'île » → « ile », « Saint-Louis » → « saint louis »), mots vides
+ * français retirés et pluriels simples ramenés au singulier.
+ */
+final class TextAnalyzer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int MIN_PLURAL_LENGTH = 4;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "au", "aux", "avec", "ce", "ces", "d", "dans", "de", "des", "du", "en", "est", "et",
+            "il", "j", "l", "la", "le", "les", "leur", "n", "ne", "ou", "par", "pas", "pour", "qu",
+            "que", "qui", "s", "sa", "se", "ses", "son", "sur", "t", "un", "une", "y",
+            "and", "of", "the");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Termes indexables d'un texte, dans l'ordre, doublons compris.
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean letter = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                String term = normalize(folded.substring(start, i));
+                if (term != null) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Forme normalisée d'un mot isolé, ou null pour un mot vide.
+     */
+    static String term(String word) {
+        return normalize(fold(word));
+    }
+
+    private static String normalize(String folded) {
+        if (folded.isEmpty() || STOP_WORDS.contains(folded)) {
+            return null;
+        }
+        // Pluriels réguliers : « iles » → « ile », « baobabs » → « baobab », « chateaux » → « chateau »
+        if (folded.length() >= MIN_PLURAL_LENGTH && (folded.endsWith("s") || folded.endsWith("x"))
+                && !folded.endsWith("ss")) {
+            folded = folded.substring(0, folded.length() - 1);
+        }
+        return folded;
+    }
+
+    /**
+     * Extrait d'au plus maxLength caractères centré sur la première occurrence d'un terme
+     * recherché, termes surlignés par &lt;mark&gt;. Le reste du texte est échappé pour HTML.
+     */
+    static String snippet(String text, Set<String> queryTerms, String prefix, int maxLength) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        List<int[]> matches = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                String term = term(text.substring(start, i));
+                if (term != null && (queryTerms.contains(term) || (prefix != null && term.startsWith(prefix)))) {
+                    matches.add(new int[]{start, i});
+                }
+                start = -1;
+            }
+        }
+        if (matches.isEmpty()) {
+            return null;
+        }
+
+        int from = Math.max(0, matches.get(0)[0] - maxLength / 3);
+        int to = Math.min(text.length(), from + maxLength);
+        from = Math.max(0, Math.min(from, to - maxLength));
+        // Couper sur un espace pour ne pas tronquer un mot
+        if (from > 0) {
+            int space = text.indexOf(' ', from);
+            if (space >= 0 && space < matches.get(0)[0]) {
+                from = space + 1;
+            }
+        }
+        if (to < text.length()) {
+            int space = text.lastIndexOf(' ', to);
+            if (space > matches.get(0)[1]) {
+                to = space;
+            }
+        }
+
+        StringBuilder snippet = new StringBuilder(maxLength + 32);
+        if (from > 0) {
+            snippet.append("… ");
+        }
+        int position = from;
+        for (int[] match : matches) {
+            if (match[0] < from) {
+                continue;
+            }
+            if (match[1] > to) {
+                break;
+            }
+            escape(text, position, match[0], snippet);
+            snippet.append("<mark>");
+            escape(text, match[0], match[1], snippet);
+            snippet.append("</mark>");
+            position = match[1];
+        }
+        escape(text, position, to, snippet);
+        if (to < text.length()) {
+            snippet.append(" …");
+        }
+        return snippet.toString();
+    }
+
+    /**
+     * Texte en minuscules sans accents ni ligatures, ponctuation conservée.
+     */
+    static String fold(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 128) {
+                folded.append(Character.toLowerCase(c));
+            } else if (c == 'œ' || c == 'Œ') {
+                folded.append("oe");
+            } else if (c == 'æ' || c == 'Æ') {
+                folded.append("ae");
+            } else {
+                // Décomposition canonique : la lettre de base suivie de ses accents, qui sont retirés
+                String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+                folded.append(COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT));
+            }
+        }
+        return folded.toString();
+    }
+
+    private static void escape(String text, int from, int to, StringBuilder out) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package sn.discover.discoversenegal.services;
+
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire avec classement BM25.
+ * Les champs d'un document sont pondérés (un terme du nom compte plus qu'un terme de la
+ * description) : fréquences et longueur du document sont cumulées avec ces poids, puis
+ * passées à la formule BM25 (k1 = 1,2, b = 0,75). Les documents qui contiennent le plus
+ * de termes de la requête passent devant, puis le score départage. Le dernier mot de la
+ * requête peut être un préfixe (« gor » trouve « goree »).
+ */
+class TextIndex {
+
+    record Field(String text, float weight) {
+    }
+
+    record Hit(long id, double score) {
+    }
+
+    record Result(List<Hit> hits, int total) {
+    }
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    // Une correspondance par préfixe vaut un peu moins qu'un mot entier
+    private static final double PREFIX_FACTOR = 0.8;
+
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+
+        private void add(int slot, float frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        private void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    // Dictionnaire trié, modifié seulement à l'apparition ou à la disparition d'un terme
+    private final TreeSet<String> dictionary = new TreeSet<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private long[] ids = new long[1024];
+    private float[] lengths = new float[1024];
+    private String[][] termsBySlot = new String[1024][];
+    private int slotCount;
+    private int documents;
+    private double totalLength;
+
+    /**
+     * Ajoute ou remplace un document.
+     */
+    void put(long id, List<Field> fields) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        for (Field field : fields) {
+            for (String term : TextAnalyzer.terms(field.text())) {
+                frequencies.merge(term, field.weight(), Float::sum);
+                length += field.weight();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (frequencies.isEmpty()) {
+                return;
+            }
+            int slot = allocate();
+            ids[slot] = id;
+            lengths[slot] = length;
+            termsBySlot[slot] = frequencies.keySet().toArray(new String[0]);
+            frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> {
+                dictionary.add(t);
+                return new Postings();
+            }).add(slot, frequency));
+            slotsById.put(id, slot);
+            documents++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            dictionary.clear();
+            slotsById.clear();
+            freeSlots.clear();
+            Arrays.fill(termsBySlot, null);
+            slotCount = 0;
+            documents = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        return documents;
+    }
+
+    /**
+     * Documents contenant au moins un des termes ou un mot commençant par prefix (dernier mot
+     * de la requête, facultatif), classés ; seuls les résultats [offset, offset + limit)
+     * sont renvoyés, avec le nombre total de documents trouvés.
+     */
+    Result search(List<String> terms, String prefix, int offset, int limit) {
+        List<String> queryTerms = terms.stream().distinct().limit(MAX_QUERY_TERMS).toList();
+        lock.readLock().lock();
+        try {
+            if (documents == 0 || (queryTerms.isEmpty() && prefix == null)) {
+                return new Result(List.of(), 0);
+            }
+            double averageLength = totalLength / documents;
+            float[] scores = new float[slotCount];
+            int[] masks = new int[slotCount];
+            int[] touched = new int[Math.min(slotCount, 1024)];
+            int touchedCount = 0;
+
+            for (int t = 0; t <= queryTerms.size(); t++) {
+                List<Map.Entry<String, Postings>> matches = new ArrayList<>();
+                if (t < queryTerms.size()) {
+                    Postings list = postings.get(queryTerms.get(t));
+                    if (list != null) {
+                        matches.add(Map.entry(queryTerms.get(t), list));
+                    }
+                } else if (prefix != null) {
+                    // Dernier mot en cours de saisie : le mot exact et ceux qui le prolongent
+                    for (String term : dictionary.subSet(prefix, true, prefix + Character.MAX_VALUE, false)) {
+                        if (matches.size() == MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        matches.add(Map.entry(term, postings.get(term)));
+                    }
+                }
+                int bit = 1 << t;
+
+                for (Map.Entry<String, Postings> match : matches) {
+                    Postings list = match.getValue();
+                    double factor = t < queryTerms.size() || match.getKey().equals(prefix) ? 1 : PREFIX_FACTOR;
+                    double idf = Math.log(1 + (documents - list.size + 0.5) / (list.size + 0.5)) * factor;
+                    for (int i = 0; i < list.size; i++) {
+                        int slot = list.slots[i];
+                        float frequency = list.frequencies[i];
+                        double norm = K1 * (1 - B + B * lengths[slot] / averageLength);
+                        if (masks[slot] == 0) {
+                            if (touchedCount == touched.length) {
+                                touched = Arrays.copyOf(touched, Math.min(slotCount, touched.length * 2));
+                            }
+                            touched[touchedCount++] = slot;
+                        }
+                        masks[slot] |= bit;
+                        scores[slot] += (float) (idf * frequency * (K1 + 1) / (frequency + norm));
+                    }
+                }
+            }
+
+            Comparator<Integer> ranking = Comparator
+                    .<Integer>comparingInt(slot -> Integer.bitCount(masks[slot]))
+                    .thenComparingDouble(slot -> scores[slot]);
+            int wanted = offset + limit;
+            PriorityQueue<Integer> best = new PriorityQueue<>(Math.max(1, Math.min(wanted, touchedCount)), ranking);
+            for (int i = 0; i < touchedCount; i++) {
+                int slot = touched[i];
+                if (best.size() < wanted) {
+                    best.add(slot);
+                } else if (wanted > 0 && ranking.compare(slot, best.peek()) > 0) {
+                    best.poll();
+                    best.add(slot);
+                }
+            }
+            List<Integer> ranked = new ArrayList<>(best);
+            ranked.sort(ranking.reversed());
+            List<Hit> hits = new ArrayList<>();
+            for (int i = offset; i < ranked.size(); i++) {
+                int slot = ranked.get(i);
+                hits.add(new Hit(ids[slot], scores[slot]));
+            }
+            return new Result(hits, touchedCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (String term : termsBySlot[slot]) {
+            Postings list = postings.get(term);
+            list.remove(slot);
+            if (list.size == 0) {
+                postings.remove(term);
+                dictionary.remove(term);
+            }
+        }
+        termsBySlot[slot] = null;
+        documents--;
+        totalLength -= lengths[slot];
+        freeSlots.push(slot);
+    }
+
+    private int allocate() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        if (slotCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            termsBySlot = Arrays.copyOf(termsBySlot, capacity);
+        }
+        return slotCount++;
+    }
+}
@@ -0,0 +1,100 @@
+package sn.discover.discoversenegal.services;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classement des K meilleurs scores, trié du plus haut au plus bas.
+ * Les modifications se font sous le verrou de PopularityService ; les lectures passent
+ * par une copie publiée à chaque changement d'ordre et ne prennent aucun verrou.
+ */
+class TopKBoard {
+
+    record Entry(long id, double score) {
+    }
+
+    private final int capacity;
+    private final List<Entry> entries;
+    private volatile List<Long> snapshot = List.of();
+
+    TopKBoard(int capacity) {
+        this.capacity = capacity;
+        this.entries = new ArrayList<>(capacity + 1);
+    }
+
+    /**
+     * Place ou replace l'élément avec son nouveau score ; sans effet s'il n'entre pas dans le classement.
+     */
+    void offer(long id, double score) {
+        int current = indexOf(id);
+        if (current >= 0) {
+            entries.remove(current);
+        } else if (entries.size() >= capacity && score <= entries.get(entries.size() - 1).score()) {
+            return;
+        }
+        int position = entries.size();
+        while (position > 0 && entries.get(position - 1).score() < score) {
+            position--;
+        }
+        entries.add(position, new Entry(id, score));
+        if (entries.size() > capacity) {
+            entries.remove(entries.size() - 1);
+        }
+        publish();
+    }
+
+    boolean remove(long id) {
+        int current = indexOf(id);
+        if (current < 0) {
+            return false;
+        }
+        entries.remove(current);
+        publish();
+        return true;
+    }
+
+    /**
+     * Remplace tout le classement (entrées déjà triées, au plus capacity).
+     */
+    void reset(List<Entry> sorted) {
+        entries.clear();
+        entries.addAll(sorted.subList(0, Math.min(capacity, sorted.size())));
+        publish();
+    }
+
+    // Changement d'origine des scores : l'ordre, donc la copie publiée, ne change pas
+    void rescale(double factor) {
+        entries.replaceAll(entry -> new Entry(entry.id(), entry.score() * factor));
+    }
+
+    boolean contains(long id) {
+        return indexOf(id) >= 0;
+    }
+
+    boolean isFull() {
+        return entries.size() >= capacity;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    List<Long> top(int limit) {
+        List<Long> ids = snapshot;
+        return ids.size() <= limit ? ids : ids.subList(0, limit);
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).id() == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void publish() {
+        snapshot = entries.stream().map(Entry::id).toList();
+    }
+}
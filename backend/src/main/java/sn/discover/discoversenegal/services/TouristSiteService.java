@@ -3,7 +3,9 @@ package sn.discover.discoversenegal.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,10 +14,14 @@ import sn.discover.discoversenegal.dto.TouristSiteResponseDTO;
 import sn.discover.discoversenegal.entities.*;
 import sn.discover.discoversenegal.repositories.TouristSiteRepository;
 import sn.discover.discoversenegal.repositories.UserRepository;
+import sn.discover.discoversenegal.repositories.ViewCounterRepository;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +31,11 @@ public class TouristSiteService {
 
     private final TouristSiteRepository siteRepository;
     private final UserRepository userRepository;
+    private final GeoIndexService geoIndexService;
+    private final ViewCounterService viewCounterService;
+    private final PopularityService popularityService;
+    private final SearchIndexService searchIndexService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // =========================================================
     //  CRUD de base
@@ -33,7 +44,7 @@ public class TouristSiteService {
     public TouristSiteResponseDTO createSite(TouristSiteDTO dto, String creatorEmail) {
         User creator = getUserByEmail(creatorEmail);
         TouristSite site = buildSiteFromDTO(dto, creator);
-        TouristSite saved = siteRepository.save(site);
+        TouristSite saved = saveAndIndex(site);
         log.info("Site touristique créé : id={}, nom={}", saved.getId(), saved.getName());
         return toResponseDTO(saved);
     }
@@ -44,7 +55,7 @@ public class TouristSiteService {
         assertCanEdit(site, requester);
 
         updateSiteFromDTO(site, dto);
-        TouristSite saved = siteRepository.save(site);
+        TouristSite saved = saveAndIndex(site);
         log.info("Site touristique mis à jour : id={}", saved.getId());
         return toResponseDTO(saved);
     }
@@ -54,14 +65,15 @@ public class TouristSiteService {
         User requester = getUserByEmail(requesterEmail);
         assertCanEdit(site, requester);
         siteRepository.delete(site);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.removed(CatalogItemChangedEvent.Type.SITE, id));
         log.info("Site touristique supprimé : id={}", id);
     }
 
     @Transactional(readOnly = true)
     public TouristSiteResponseDTO getSiteById(Long id) {
         TouristSite site = getSiteOrThrow(id);
-        // Incrémenter le compteur de vues de manière asynchrone
-        siteRepository.incrementViews(id);
+        // Vue comptée en mémoire, reportée en base par ViewCounterService
+        viewCounterService.recordView(ViewCounterRepository.Table.SITE, id);
         return toResponseDTO(site);
     }
 
@@ -134,25 +146,64 @@ public class TouristSiteService {
                 .map(this::toResponseDTO);
     }
 
+    /**
+     * Sites les plus populaires (vues et favoris, score décroissant dans le temps),
+     * paginés dans le classement des PopularityService.BOARD_SIZE premiers
+     */
     @Transactional(readOnly = true)
-    public Page<TouristSiteResponseDTO> getMostViewed(Pageable pageable) {
-        return siteRepository.findMostViewed(SiteStatus.PUBLIE, pageable)
-                .map(this::toResponseDTO);
-    }
-
+    public Page<TouristSiteResponseDTO> getMostViewed(String city, String category, Pageable pageable) {
+        List<Long> ranking = popularityService.top(PopularityItemType.SITE, city, category, PopularityService.BOARD_SIZE);
+        int from = (int) Math.min(pageable.getOffset(), ranking.size());
+        List<Long> ids = ranking.subList(from, Math.min(from + pageable.getPageSize(), ranking.size()));
+        Map<Long, TouristSite> sites = siteRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(TouristSite::getId, Function.identity()));
+        List<TouristSiteResponseDTO> content = ids.stream()
+                .map(sites::get)
+                .filter(Objects::nonNull)
+                .map(this::toResponseDTO)
+                .toList();
+        return new PageImpl<>(content, pageable, ranking.size());
+    }
+
+    /**
+     * Recherche plein texte (index en mémoire, accents ignorés), résultats classés par pertinence
+     * avec un extrait surligné
+     */
     @Transactional(readOnly = true)
     public Page<TouristSiteResponseDTO> searchByKeyword(String keyword, Pageable pageable) {
-        return siteRepository.searchByKeyword(keyword, SiteStatus.PUBLIE, pageable)
-                .map(this::toResponseDTO);
+        Page<Long> ids = searchIndexService.searchSites(keyword, pageable);
+        Map<Long, TouristSite> sites = siteRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(TouristSite::getId, Function.identity()));
+        List<TouristSiteResponseDTO> content = ids.getContent().stream()
+                .map(sites::get)
+                .filter(Objects::nonNull)
+                .map(site -> {
+                    TouristSiteResponseDTO dto = toResponseDTO(site);
+                    dto.setSnippet(searchIndexService.snippet(keyword, site.getShortDescription(),
+                            site.getDescription(), site.getName(),
+                            site.getTags() != null ? String.join(" ", site.getTags()) : null));
+                    return dto;
+                })
+                .toList();
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
     }
 
     @Transactional(readOnly = true)
     public List<TouristSiteResponseDTO> findNearby(Double latitude, Double longitude, Double radiusKm) {
-        if (radiusKm == null || radiusKm <= 0 || radiusKm > 500) {
+        if (radiusKm == null || radiusKm < GeoIndexService.MIN_RADIUS_KM
+                || radiusKm > GeoIndexService.MAX_RADIUS_KM) {
             throw new IllegalArgumentException("Le rayon doit être compris entre 1 et 500 km.");
         }
-        return siteRepository.findNearby(latitude, longitude, radiusKm)
-                .stream().map(this::toResponseDTO).toList();
+        // Distances calculées par l'index en mémoire, puis chargement des seuls sites retenus
+        List<Long> ids = geoIndexService.findWithin(GeoPlace.Type.SITE, latitude, longitude, radiusKm, Integer.MAX_VALUE)
+                .stream().map(hit -> hit.place().id()).toList();
+        Map<Long, TouristSite> sites = siteRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(TouristSite::getId, Function.identity()));
+        return ids.stream()
+                .map(sites::get)
+                .filter(Objects::nonNull)
+                .map(this::toResponseDTO)
+                .toList();
     }
 
     @Transactional(readOnly = true)
@@ -191,26 +242,26 @@ public class TouristSiteService {
         TouristSite site = getSiteOrThrow(id);
         assertCanEdit(site, getUserByEmail(requesterEmail));
         site.setStatus(SiteStatus.EN_ATTENTE_VALIDATION);
-        return toResponseDTO(siteRepository.save(site));
+        return toResponseDTO(saveAndIndex(site));
     }
 
     public TouristSiteResponseDTO publishSite(Long id) {
         TouristSite site = getSiteOrThrow(id);
         site.setStatus(SiteStatus.PUBLIE);
         log.info("Site publié : id={}", id);
-        return toResponseDTO(siteRepository.save(site));
+        return toResponseDTO(saveAndIndex(site));
     }
 
     public TouristSiteResponseDTO suspendSite(Long id) {
         TouristSite site = getSiteOrThrow(id);
         site.setStatus(SiteStatus.SUSPENDU);
-        return toResponseDTO(siteRepository.save(site));
+        return toResponseDTO(saveAndIndex(site));
     }
 
     public TouristSiteResponseDTO archiveSite(Long id) {
         TouristSite site = getSiteOrThrow(id);
         site.setStatus(SiteStatus.ARCHIVE);
-        return toResponseDTO(siteRepository.save(site));
+        return toResponseDTO(saveAndIndex(site));
     }
 
     public TouristSiteResponseDTO toggleFeatured(Long id) {
@@ -232,6 +283,7 @@ public class TouristSiteService {
     public void addToFavorites(Long id) {
         getSiteOrThrow(id);
         siteRepository.incrementFavorites(id);
+        popularityService.recordFavorite(PopularityItemType.SITE, id);
     }
 
     public void removeFromFavorites(Long id) {
@@ -280,6 +332,13 @@ public class TouristSiteService {
     //  Méthodes privées
     // =========================================================
 
+    // Les index écoutent CatalogItemChangedEvent et suivent le statut : seuls les sites publiés y figurent
+    private TouristSite saveAndIndex(TouristSite site) {
+        TouristSite saved = siteRepository.save(site);
+        eventPublisher.publishEvent(CatalogItemChangedEvent.saved(saved));
+        return saved;
+    }
+
     private TouristSite getSiteOrThrow(Long id) {
         return siteRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Site touristique non trouvé : " + id));
@@ -0,0 +1,218 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sn.discover.discoversenegal.dto.TransferGroupDTO;
+import sn.discover.discoversenegal.dto.TransferManifestDTO;
+import sn.discover.discoversenegal.dto.TransferPassengerDTO;
+import sn.discover.discoversenegal.repositories.BookingRepository;
+import sn.discover.discoversenegal.repositories.BookingRepository.TransferRow;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manifeste des transferts aéroport : réservations confirmées regroupées par vol,
+ * créneau d'arrivée et hôtel de destination. Calculé à partir d'une seule requête
+ * de projection puis mis en cache par jour ; le cache d'un jour est vidé dès
+ * qu'une réservation arrivant ce jour-là est modifiée.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransferManifestService {
+
+    public static final int DEFAULT_WINDOW_MINUTES = 30;
+    private static final int MIN_WINDOW_MINUTES = 5;
+    private static final int MAX_WINDOW_MINUTES = 180;
+    private static final int MAX_MANIFEST_DAYS = 31;
+    // Filet de sécurité pour les écritures groupées qui ne passent pas par evictDay()
+    private static final long CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final BookingRepository bookingRepository;
+
+    // Manifestes par jour, puis par taille de créneau
+    private final Map<LocalDate, Map<Integer, CachedManifest>> manifestCache = new ConcurrentHashMap<>();
+
+    // Pas en lecture seule : un manifeste lu sur un réplica en retard resterait en cache jusqu'au TTL
+    @Transactional
+    public List<TransferManifestDTO> getManifests(LocalDate from, LocalDate to, Integer windowMinutes) {
+        LocalDate end = to != null ? to : from.plusDays(1);
+        long days = ChronoUnit.DAYS.between(from, end);
+        if (days < 1 || days > MAX_MANIFEST_DAYS) {
+            throw new RuntimeException("La période doit couvrir entre 1 et " + MAX_MANIFEST_DAYS + " jours");
+        }
+        int window = windowMinutes != null ? windowMinutes : DEFAULT_WINDOW_MINUTES;
+        if (window < MIN_WINDOW_MINUTES || window > MAX_WINDOW_MINUTES) {
+            throw new RuntimeException("Le créneau doit être compris entre " + MIN_WINDOW_MINUTES
+                    + " et " + MAX_WINDOW_MINUTES + " minutes");
+        }
+
+        Map<LocalDate, TransferManifestDTO> manifests = new LinkedHashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate day = from; day.isBefore(end); day = day.plusDays(1)) {
+            TransferManifestDTO cached = getCached(day, window);
+            manifests.put(day, cached);
+            if (cached == null) {
+                if (firstMissing == null) {
+                    firstMissing = day;
+                }
+                lastMissing = day;
+            }
+        }
+
+        // Une seule requête couvre tous les jours absents du cache
+        if (firstMissing != null) {
+            Map<LocalDate, List<TransferRow>> rowsByDay = new LinkedHashMap<>();
+            for (TransferRow row : bookingRepository.findTransferRows(firstMissing, lastMissing.plusDays(1))) {
+                rowsByDay.computeIfAbsent(row.getCheckInDate(), d -> new ArrayList<>()).add(row);
+            }
+            for (Map.Entry<LocalDate, TransferManifestDTO> entry : manifests.entrySet()) {
+                if (entry.getValue() == null) {
+                    LocalDate day = entry.getKey();
+                    TransferManifestDTO manifest = buildManifest(day, window, rowsByDay.getOrDefault(day, List.of()));
+                    manifestCache.computeIfAbsent(day, d -> new ConcurrentHashMap<>())
+                            .put(window, new CachedManifest(manifest, System.currentTimeMillis() + CACHE_TTL_MILLIS));
+                    entry.setValue(manifest);
+                }
+            }
+        }
+
+        return new ArrayList<>(manifests.values());
+    }
+
+    /**
+     * Vide le manifeste d'un jour tout de suite et après le commit de la transaction en cours.
+     */
+    public void evictDay(LocalDate day) {
+        if (day == null) {
+            return;
+        }
+        manifestCache.remove(day);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    manifestCache.remove(day);
+                }
+            });
+        }
+    }
+
+    private TransferManifestDTO getCached(LocalDate day, int window) {
+        Map<Integer, CachedManifest> byWindow = manifestCache.get(day);
+        CachedManifest cached = byWindow != null ? byWindow.get(window) : null;
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt < System.currentTimeMillis()) {
+            byWindow.remove(window, cached);
+            return null;
+        }
+        return cached.manifest;
+    }
+
+    private TransferManifestDTO buildManifest(LocalDate day, int window, List<TransferRow> rows) {
+        Map<GroupKey, List<TransferRow>> groups = new LinkedHashMap<>();
+        for (TransferRow row : rows) {
+            GroupKey key = new GroupKey(normalizeFlight(row.getFlightNumber()),
+                    windowStart(row.getArrivalTime(), window), row.getHotelId());
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+        }
+
+        List<TransferGroupDTO> groupDTOs = new ArrayList<>(groups.size());
+        int totalPassengers = 0;
+        for (Map.Entry<GroupKey, List<TransferRow>> entry : groups.entrySet()) {
+            TransferGroupDTO group = mapToGroupDTO(entry.getKey(), entry.getValue(), window);
+            totalPassengers += group.getPassengers();
+            groupDTOs.add(group);
+        }
+        groupDTOs.sort(Comparator
+                .comparing(TransferGroupDTO::getWindowStart, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(TransferGroupDTO::getFlightNumber, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(TransferGroupDTO::getHotelName, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        log.debug("Transfer manifest for {} built: {} bookings in {} groups", day, rows.size(), groupDTOs.size());
+        return TransferManifestDTO.builder()
+                .date(day)
+                .windowMinutes(window)
+                .totalBookings(rows.size())
+                .totalPassengers(totalPassengers)
+                .groups(groupDTOs)
+                .build();
+    }
+
+    private TransferGroupDTO mapToGroupDTO(GroupKey key, List<TransferRow> rows, int window) {
+        int adults = 0;
+        int children = 0;
+        List<TransferPassengerDTO> passengers = new ArrayList<>(rows.size());
+        for (TransferRow row : rows) {
+            int rowAdults = row.getNumberOfAdults() != null ? row.getNumberOfAdults() : 0;
+            int rowChildren = row.getNumberOfChildren() != null ? row.getNumberOfChildren() : 0;
+            adults += rowAdults;
+            children += rowChildren;
+            passengers.add(TransferPassengerDTO.builder()
+                    .bookingId(row.getBookingId())
+                    .bookingReference(row.getBookingReference())
+                    .guestName(row.getGuestFirstName() + " " + row.getGuestLastName())
+                    .guestPhone(row.getGuestPhone())
+                    .arrivalTime(row.getArrivalTime())
+                    .adults(rowAdults)
+                    .children(rowChildren)
+                    .olympicDelegation(row.getOlympicDelegation())
+                    .build());
+        }
+
+        TransferRow first = rows.get(0);
+        return TransferGroupDTO.builder()
+                .flightNumber(key.flightNumber())
+                .windowStart(key.windowStart())
+                .windowEnd(key.windowStart() != null ? key.windowStart().plusMinutes(window) : null)
+                .hotelId(first.getHotelId())
+                .hotelName(first.getHotelName())
+                .hotelAddress(first.getHotelAddress())
+                .bookings(rows.size())
+                .adults(adults)
+                .children(children)
+                .passengers(adults + children)
+                .passengerList(passengers)
+                .build();
+    }
+
+    // "af 719" et "AF719" désignent le même vol
+    private String normalizeFlight(String flightNumber) {
+        if (flightNumber == null || flightNumber.isBlank()) {
+            return null;
+        }
+        return flightNumber.replaceAll("\\s+", "").toUpperCase();
+    }
+
+    private LocalDateTime windowStart(LocalDateTime arrivalTime, int window) {
+        if (arrivalTime == null) {
+            return null;
+        }
+        LocalDateTime minute = arrivalTime.truncatedTo(ChronoUnit.MINUTES);
+        int minuteOfDay = minute.getHour() * 60 + minute.getMinute();
+        return minute.toLocalDate().atStartOfDay().plusMinutes(minuteOfDay - minuteOfDay % window);
+    }
+
+    private record GroupKey(String flightNumber, LocalDateTime windowStart, Long hotelId) {
+    }
+
+    private record CachedManifest(TransferManifestDTO manifest, long expiresAt) {
+    }
+}
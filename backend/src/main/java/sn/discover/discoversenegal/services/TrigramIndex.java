@@ -0,0 +1,202 @@
+package sn.discover.discoversenegal.services;
+
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de trigrammes en mémoire pour la recherche approchée de noms, sur le modèle de pg_trgm :
+ * chaque mot, précédé de deux espaces et suivi d'un, est découpé en suites de trois caractères
+ * (« zig » → « __z », « _zi », « zig », « ig_ »). Une faute de frappe ne change que quelques trigrammes,
+ * si bien que « ziguinchore » partage encore l'essentiel des siens avec « ziguinchor ».
+ * Score d'un nom : moyenne de la part des trigrammes de la requête qu'il contient (couverture)
+ * et de la similarité de Jaccard entre les deux ensembles (qui favorise les noms courts).
+ */
+class TrigramIndex {
+
+    record Hit(long id, double score) {
+    }
+
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        private void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private long[] ids = new long[256];
+    private String[][] trigramsBySlot = new String[256][];
+    private int slotCount;
+
+    /**
+     * Ajoute ou remplace le nom d'un élément, donné sous forme de mots normalisés.
+     */
+    void put(long id, List<String> words) {
+        Set<String> trigrams = trigrams(words);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (trigrams.isEmpty()) {
+                return;
+            }
+            int slot = allocate();
+            ids[slot] = id;
+            trigramsBySlot[slot] = trigrams.toArray(new String[0]);
+            for (String trigram : trigrams) {
+                postings.computeIfAbsent(trigram, t -> new Postings()).add(slot);
+            }
+            slotsById.put(id, slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            slotsById.clear();
+            freeSlots.clear();
+            Arrays.fill(trigramsBySlot, null);
+            slotCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Noms contenant au moins minCoverage des trigrammes de la requête, du plus proche au plus éloigné.
+     */
+    List<Hit> search(List<String> words, double minCoverage, int limit) {
+        Set<String> query = trigrams(words);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Comptage des trigrammes communs par parcours des seules listes de la requête
+            int[] common = new int[slotCount];
+            List<Integer> touched = new ArrayList<>();
+            for (String trigram : query) {
+                Postings list = postings.get(trigram);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    int slot = list.slots[i];
+                    if (common[slot]++ == 0) {
+                        touched.add(slot);
+                    }
+                }
+            }
+
+            Comparator<Hit> byScore = Comparator.comparingDouble(Hit::score).thenComparingLong(hit -> -hit.id());
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, byScore);
+            for (int slot : touched) {
+                double shared = common[slot];
+                double coverage = shared / query.size();
+                if (coverage < minCoverage) {
+                    continue;
+                }
+                double similarity = shared / (query.size() + trigramsBySlot[slot].length - shared);
+                best.add(new Hit(ids[slot], (coverage + similarity) / 2));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(byScore.reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Set<String> trigrams(List<String> words) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private void removeLocked(long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (String trigram : trigramsBySlot[slot]) {
+            Postings list = postings.get(trigram);
+            list.remove(slot);
+            if (list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+        trigramsBySlot[slot] = null;
+        freeSlots.push(slot);
+    }
+
+    private int allocate() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        if (slotCount == ids.length) {
+            ids = Arrays.copyOf(ids, slotCount * 2);
+            trigramsBySlot = Arrays.copyOf(trigramsBySlot, slotCount * 2);
+        }
+        return slotCount++;
+    }
+}
@@ -0,0 +1,93 @@
+package sn.discover.discoversenegal.services;
+
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.discover.discoversenegal.entities.PopularityItemType;
+import sn.discover.discoversenegal.repositories.ViewCounterRepository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs de vues en écriture différée.
+ * Une vue incrémente un LongAdder en mémoire (clé : table et identifiant) sans toucher
+ * la base ; toutes les quelques secondes, les compteurs non nuls sont vidés et reportés
+ * en un batch d'UPDATE incrémentaux. En cas d'échec du report, les vues sont remises
+ * dans les compteurs pour le passage suivant. Les vues en attente (quelques secondes)
+ * n'apparaissent pas encore dans viewCount. Les vues reportées alimentent ensuite les
+ * scores de popularité, hors du thread de la requête.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ViewCounterService {
+
+    private record Key(ViewCounterRepository.Table table, long id) {
+    }
+
+    private final ViewCounterRepository viewCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PopularityService popularityService;
+
+    // Une entrée par élément consulté depuis le démarrage : au plus la taille du catalogue
+    private final Map<Key, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void recordView(ViewCounterRepository.Table table, Long id) {
+        pending.computeIfAbsent(new Key(table, id), key -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.flush-interval-ms:5000}")
+    public void flush() {
+        Map<ViewCounterRepository.Table, List<Map.Entry<Long, Long>>> batches =
+                new EnumMap<>(ViewCounterRepository.Table.class);
+        pending.forEach((key, adder) -> {
+            // sumThenReset ne perd pas les incréments concurrents : ils restent pour le passage suivant
+            long views = adder.sumThenReset();
+            if (views > 0) {
+                batches.computeIfAbsent(key.table(), table -> new ArrayList<>()).add(Map.entry(key.id(), views));
+            }
+        });
+        if (batches.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    batches.forEach(viewCounterRepository::addViews));
+        } catch (RuntimeException e) {
+            batches.forEach((table, views) -> views.forEach(view ->
+                    pending.computeIfAbsent(new Key(table, view.getKey()), key -> new LongAdder())
+                            .add(view.getValue())));
+            log.error("Failed to flush view counters, will retry", e);
+            return;
+        }
+        batches.forEach((table, views) -> views.forEach(view ->
+                popularityService.recordViews(itemType(table), view.getKey(), view.getValue())));
+        log.debug("View counters flushed: {}", batches.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue().size())
+                .toList());
+    }
+
+    private PopularityItemType itemType(ViewCounterRepository.Table table) {
+        return switch (table) {
+            case HOTEL -> PopularityItemType.HOTEL;
+            case GUIDE -> PopularityItemType.GUIDE;
+            case RESTAURANT -> PopularityItemType.RESTAURANT;
+            case SITE -> PopularityItemType.SITE;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,263 @@
+package sn.discover.discoversenegal.services;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.discover.discoversenegal.dto.RoomHoldCreateDTO;
+import sn.discover.discoversenegal.dto.RoomHoldDTO;
+import sn.discover.discoversenegal.dto.WaitlistCreateDTO;
+import sn.discover.discoversenegal.dto.WaitlistEntryDTO;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.User;
+import sn.discover.discoversenegal.entities.UserRole;
+import sn.discover.discoversenegal.entities.WaitlistEntry;
+import sn.discover.discoversenegal.entities.WaitlistStatus;
+import sn.discover.discoversenegal.repositories.BookingRepository;
+import sn.discover.discoversenegal.repositories.UserRepository;
+import sn.discover.discoversenegal.repositories.WaitlistEntryRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Liste d'attente par hôtel et par période.
+ * Chaque libération d'inventaire (InventoryReleasedEvent) déclenche une recherche
+ * limitée aux demandes du même hôtel dont le séjour chevauche les nuits libérées,
+ * dans l'ordre priorité (JOJ d'abord) puis inscription. La première demande qui tient
+ * dans les chambres restantes reçoit un blocage ; la liste n'est jamais parcourue en entier.
+ * Une demande n'est visible et annulable que par son auteur ou un administrateur.
+ */
+@Service
+@Slf4j
+public class WaitlistService {
+
+    private static final int OLYMPIC_PRIORITY = 1;
+    private static final int CANDIDATES_PER_EVENT = 20;
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final HotelRepository hotelRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final RoomInventoryService roomInventoryService;
+    private final RoomHoldService roomHoldService;
+    // Les offres sont faites après le commit de la libération, dans leur propre transaction
+    private final TransactionTemplate offerTransaction;
+
+    public WaitlistService(WaitlistEntryRepository waitlistRepository,
+                           HotelRepository hotelRepository,
+                           UserRepository userRepository,
+                           BookingRepository bookingRepository,
+                           RoomInventoryService roomInventoryService,
+                           RoomHoldService roomHoldService,
+                           PlatformTransactionManager transactionManager) {
+        this.waitlistRepository = waitlistRepository;
+        this.hotelRepository = hotelRepository;
+        this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+        this.roomInventoryService = roomInventoryService;
+        this.roomHoldService = roomHoldService;
+        this.offerTransaction = new TransactionTemplate(transactionManager);
+        this.offerTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional
+    public WaitlistEntryDTO join(WaitlistCreateDTO dto, String requesterEmail) {
+        if (dto.getCheckInDate() == null || dto.getCheckOutDate() == null
+                || !dto.getCheckOutDate().isAfter(dto.getCheckInDate())) {
+            throw new RuntimeException("Date de départ doit être après la date d'arrivée");
+        }
+        int rooms = dto.getNumberOfRooms() != null ? dto.getNumberOfRooms() : 1;
+        if (rooms < 1) {
+            throw new RuntimeException("Le nombre de chambres doit être au moins 1");
+        }
+
+        User requester = getUserByEmail(requesterEmail);
+        boolean olympic = Boolean.TRUE.equals(dto.getIsOlympicBooking());
+        if (olympic && !canClaimOlympicPriority(requester, dto.getOlympicDelegation())) {
+            throw new SecurityException("La priorité JOJ est réservée aux comptes ayant déjà réservé pour cette délégation.");
+        }
+
+        Hotel hotel = hotelRepository.findById(dto.getHotelId())
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
+        if (roomInventoryService.getRemainingRooms(hotel, dto.getCheckInDate(), dto.getCheckOutDate()) >= rooms) {
+            throw new RuntimeException("Des chambres sont disponibles pour ces dates, réservez directement");
+        }
+
+        WaitlistEntry entry = waitlistRepository.save(WaitlistEntry.builder()
+                .hotel(hotel)
+                .userId(requester.getId())
+                .guestName(dto.getGuestName())
+                .guestEmail(dto.getGuestEmail())
+                .guestPhone(dto.getGuestPhone())
+                .checkInDate(dto.getCheckInDate())
+                .checkOutDate(dto.getCheckOutDate())
+                .numberOfRooms(rooms)
+                .isOlympicBooking(olympic)
+                .olympicDelegation(dto.getOlympicDelegation())
+                .priority(olympic ? OLYMPIC_PRIORITY : 0)
+                .build());
+
+        log.info("Waitlist entry {} created for hotel {} from {} to {}",
+                entry.getId(), hotel.getId(), entry.getCheckInDate(), entry.getCheckOutDate());
+        return mapToDTO(entry);
+    }
+
+    @Transactional(readOnly = true)
+    public WaitlistEntryDTO getEntry(Long id, String requesterEmail) {
+        WaitlistEntry entry = getOwnedEntry(id, requesterEmail);
+        return mapToDTO(entry);
+    }
+
+    @Transactional
+    public void leave(Long id, String requesterEmail) {
+        WaitlistEntry entry = getOwnedEntry(id, requesterEmail);
+        if (entry.getStatus() == WaitlistStatus.OFFERED && entry.getHoldToken() != null) {
+            // Rendre les chambres bloquées : elles seront proposées à la demande suivante
+            roomHoldService.releaseHoldIfPresent(entry.getHoldToken());
+        }
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        waitlistRepository.save(entry);
+    }
+
+    /**
+     * La réservation a repris le blocage proposé.
+     */
+    @Transactional
+    public void markFulfilled(String holdToken) {
+        waitlistRepository.markFulfilled(holdToken);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryReleased(InventoryReleasedEvent event) {
+        List<Long> candidateIds = offerTransaction.execute(status ->
+                waitlistRepository.findCandidates(event.hotelId(), event.checkIn(), event.checkOut(),
+                                PageRequest.ofSize(CANDIDATES_PER_EVENT)).stream()
+                        .map(WaitlistEntry::getId)
+                        .toList());
+        if (candidateIds == null) {
+            return;
+        }
+
+        int freedRooms = event.rooms();
+        for (Long candidateId : candidateIds) {
+            if (freedRooms <= 0) {
+                break;
+            }
+            try {
+                Integer offeredRooms = offerTransaction.execute(status -> offer(candidateId));
+                if (offeredRooms != null) {
+                    freedRooms -= offeredRooms;
+                }
+            } catch (RuntimeException e) {
+                // Plus assez de chambres pour cette demande : essayer la suivante
+                log.debug("Waitlist entry {} could not be offered: {}", candidateId, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    @Transactional
+    public void expireOffers() {
+        int expired = waitlistRepository.expireOffers(LocalDateTime.now());
+        if (expired > 0) {
+            log.info("{} waitlist offers expired", expired);
+        }
+    }
+
+    /**
+     * Bloque les chambres pour la demande ; renvoie le nombre de chambres offertes, ou null.
+     */
+    private Integer offer(Long candidateId) {
+        WaitlistEntry candidate = waitlistRepository.findById(candidateId).orElse(null);
+        if (candidate == null || candidate.getStatus() != WaitlistStatus.WAITING) {
+            return null;
+        }
+        Hotel hotel = candidate.getHotel();
+        if (roomInventoryService.getRemainingRooms(hotel, candidate.getCheckInDate(),
+                candidate.getCheckOutDate()) < candidate.getNumberOfRooms()) {
+            return null;
+        }
+
+        RoomHoldDTO hold = roomHoldService.createHold(RoomHoldCreateDTO.builder()
+                .hotelId(hotel.getId())
+                .userId(candidate.getUserId())
+                .checkInDate(candidate.getCheckInDate())
+                .checkOutDate(candidate.getCheckOutDate())
+                .numberOfRooms(candidate.getNumberOfRooms())
+                .build());
+
+        if (waitlistRepository.markOffered(candidate.getId(), hold.getHoldToken(),
+                LocalDateTime.now(), hold.getExpiresAt()) != 1) {
+            // Demande déjà servie par un autre événement : annuler le blocage avec la transaction
+            throw new RuntimeException("Demande déjà traitée");
+        }
+
+        log.info("Waitlist entry {} offered {} rooms at hotel {} until {}",
+                candidate.getId(), candidate.getNumberOfRooms(), hotel.getId(), hold.getExpiresAt());
+        return candidate.getNumberOfRooms();
+    }
+
+    /**
+     * La demande porte le jeton de blocage : seuls son auteur et les administrateurs y accèdent.
+     */
+    private WaitlistEntry getOwnedEntry(Long id, String requesterEmail) {
+        WaitlistEntry entry = waitlistRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Demande de liste d'attente non trouvée"));
+        User requester = getUserByEmail(requesterEmail);
+        boolean isOwner = entry.getUserId() != null && entry.getUserId().equals(requester.getId());
+        boolean isAdmin = requester.getRole() == UserRole.ADMIN;
+        if (!isOwner && !isAdmin) {
+            throw new SecurityException("Vous n'êtes pas autorisé à accéder à cette demande de liste d'attente.");
+        }
+        return entry;
+    }
+
+    /**
+     * La priorité JOJ n'est pas déclarée par le client : il faut être administrateur
+     * ou avoir déjà une réservation JOJ pour la délégation indiquée.
+     */
+    private boolean canClaimOlympicPriority(User requester, String delegation) {
+        if (requester.getRole() == UserRole.ADMIN) {
+            return true;
+        }
+        return delegation != null && !delegation.isBlank()
+                && bookingRepository.existsByUserIdAndIsOlympicBookingTrueAndOlympicDelegation(requester.getId(), delegation);
+    }
+
+    private User getUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé : " + email));
+    }
+
+    private WaitlistEntryDTO mapToDTO(WaitlistEntry entry) {
+        Long position = entry.getStatus() == WaitlistStatus.WAITING
+                ? waitlistRepository.countAhead(entry.getHotel().getId(), entry.getCheckInDate(),
+                        entry.getCheckOutDate(), entry.getPriority(), entry.getId())
+                : null;
+
+        return WaitlistEntryDTO.builder()
+                .id(entry.getId())
+                .hotelId(entry.getHotel().getId())
+                .guestName(entry.getGuestName())
+                .checkInDate(entry.getCheckInDate())
+                .checkOutDate(entry.getCheckOutDate())
+                .numberOfRooms(entry.getNumberOfRooms())
+                .isOlympicBooking(entry.getIsOlympicBooking())
+                .priority(entry.getPriority())
+                .status(entry.getStatus())
+                .position(position)
+                .holdToken(entry.getStatus() == WaitlistStatus.OFFERED ? entry.getHoldToken() : null)
+                .offerExpiresAt(entry.getOfferExpiresAt())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingExportServiceTests {
+
+	@Test
+	void formulaCellsArePrefixed() {
+		assertEquals("'=HYPERLINK(\"http://x\")", BookingExportService.neutralizeFormula("=HYPERLINK(\"http://x\")"));
+		assertEquals("'+221 77 000 00 00", BookingExportService.neutralizeFormula("+221 77 000 00 00"));
+		assertEquals("'-2+3", BookingExportService.neutralizeFormula("-2+3"));
+		assertEquals("'@SUM(A1)", BookingExportService.neutralizeFormula("@SUM(A1)"));
+		assertEquals("'\tcmd", BookingExportService.neutralizeFormula("\tcmd"));
+	}
+
+	@Test
+	void plainCellsAreUnchanged() {
+		assertEquals("Awa Diop", BookingExportService.neutralizeFormula("Awa Diop"));
+		assertEquals("a=b", BookingExportService.neutralizeFormula("a=b"));
+		assertEquals("", BookingExportService.neutralizeFormula(""));
+	}
+}
@@ -0,0 +1,173 @@
+package sn.discover.discoversenegal.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import sn.discover.discoversenegal.dto.BookingResponseDTO;
+import sn.discover.discoversenegal.dto.BookingSearchDTO;
+import sn.discover.discoversenegal.entities.Booking;
+import sn.discover.discoversenegal.entities.BookingStatus;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelCategory;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.User;
+import sn.discover.discoversenegal.entities.UserRole;
+import sn.discover.discoversenegal.repositories.BookingRepository;
+import sn.discover.discoversenegal.repositories.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chaque liste de réservations et leurs hôtels se charge en une seule requête SQL,
+ * quel que soit le nombre d'hôtels distincts sur la page.
+ */
+@SpringBootTest
+@Transactional
+class BookingListQueryCountTests {
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	void userBookingPageUsesOneStatementWhateverTheNumberOfHotels() {
+		User few = seed(2, BookingStatus.CONFIRMED, false, false, 5).user();
+		assertEquals(1, statements(() -> bookingService.getUserBookings(few.getId(), null, 20).getItems(), 2));
+		User many = seed(8, BookingStatus.CONFIRMED, false, false, 5).user();
+		assertEquals(1, statements(() -> bookingService.getUserBookings(many.getId(), null, 20).getItems(), 8));
+	}
+
+	@Test
+	void hotelBookingPageUsesOneStatement() {
+		Hotel hotel = seed(8, BookingStatus.CONFIRMED, false, true, 5).hotel();
+		assertEquals(1, statements(() -> bookingService.getHotelBookings(hotel.getId(), null, 20).getItems(), 8));
+	}
+
+	@Test
+	void pendingBookingPageUsesOneStatement() {
+		seed(8, BookingStatus.PENDING, false, false, 5);
+		assertEquals(1, statements(() -> bookingService.getPendingBookings(null, 100).getItems(), 8));
+	}
+
+	@Test
+	void olympicBookingPageUsesOneStatement() {
+		seed(8, BookingStatus.CONFIRMED, true, false, 5);
+		assertEquals(1, statements(() -> bookingService.getOlympicBookings(null, 100).getItems(), 8));
+	}
+
+	@Test
+	void bookingSearchUsesOneStatement() {
+		User user = seed(8, BookingStatus.CONFIRMED, false, false, 5).user();
+		BookingSearchDTO search = BookingSearchDTO.builder().userId(user.getId()).build();
+		assertEquals(1, statements(() -> bookingService.searchBookings(search), 8));
+	}
+
+	@Test
+	void currentGuestsUseOneStatement() {
+		Hotel hotel = seed(8, BookingStatus.CHECKED_IN, false, true, -1).hotel();
+		assertEquals(1, statements(() -> bookingService.getCurrentGuests(hotel.getId()), 8));
+	}
+
+	@Test
+	void todayArrivalsAndDeparturesUseOneStatementEach() {
+		Hotel arrivals = seed(8, BookingStatus.CONFIRMED, false, true, 0).hotel();
+		assertEquals(1, statements(() -> bookingService.getTodayCheckIns(arrivals.getId()), 8));
+		Hotel departures = seed(8, BookingStatus.CHECKED_IN, false, true, -2).hotel();
+		assertEquals(1, statements(() -> bookingService.getTodayCheckOuts(departures.getId()), 8));
+	}
+
+	/**
+	 * Réservations de deux nuits d'un même client, arrivant aujourd'hui + checkInOffset jours.
+	 * Sauf pour les listes par hôtel (sameHotel), chacune est dans un hôtel différent :
+	 * sans jointure, chaque ligne chargerait le sien.
+	 */
+	private Fixture seed(int bookings, BookingStatus status, boolean olympic, boolean sameHotel, int checkInOffset) {
+		User user = userRepository.save(User.builder()
+				.email(UUID.randomUUID() + "@test.sn")
+				.passwordHash("x")
+				.role(UserRole.VISITOR)
+				.build());
+		Hotel first = null;
+		for (int i = 0; i < bookings; i++) {
+			Hotel hotel = first;
+			if (hotel == null || !sameHotel) {
+				hotel = hotelRepository.save(Hotel.builder()
+						.name("Hôtel " + i)
+						.address("Rue " + i)
+						.city("Thiès")
+						.latitude(14.79)
+						.longitude(-16.93)
+						.category(HotelCategory.ECONOMIC)
+						.totalRooms(10)
+						.build());
+			}
+			if (first == null) {
+				first = hotel;
+			}
+			LocalDate checkIn = LocalDate.now().plusDays(checkInOffset);
+			bookingRepository.save(Booking.builder()
+					.bookingReference(UUID.randomUUID().toString())
+					.hotel(hotel)
+					.user(user)
+					.guestFirstName("Awa")
+					.guestLastName("Diop")
+					.guestEmail("awa.diop@test.sn")
+					.guestPhone("+221770000000")
+					.checkInDate(checkIn)
+					.checkOutDate(checkIn.plusDays(2))
+					.numberOfAdults(2)
+					.numberOfRooms(1)
+					.pricePerNight(new BigDecimal("30000"))
+					.status(status)
+					.isOlympicBooking(olympic)
+					.build());
+		}
+		// Hôtels et réservations sortis du contexte de persistance : ils doivent être relus en base
+		entityManager.flush();
+		entityManager.clear();
+		return new Fixture(user, first);
+	}
+
+	// Requêtes préparées par la liste ; d'autres lignes peuvent exister en base, d'où « au moins »
+	private long statements(Supplier<List<BookingResponseDTO>> listing, int seeded) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		List<BookingResponseDTO> items = listing.get();
+
+		assertTrue(items.size() >= seeded);
+		assertTrue(items.stream().allMatch(booking -> booking.getHotelName() != null));
+		return statistics.getPrepareStatementCount();
+	}
+
+	private record Fixture(User user, Hotel hotel) {
+	}
+}
@@ -0,0 +1,178 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import sn.discover.discoversenegal.dto.CancellationDTO;
+import sn.discover.discoversenegal.dto.HotelConfirmationDTO;
+import sn.discover.discoversenegal.dto.PaymentUpdateDTO;
+import sn.discover.discoversenegal.entities.Booking;
+import sn.discover.discoversenegal.entities.BookingStatus;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelCategory;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.PaymentMethod;
+import sn.discover.discoversenegal.entities.PaymentStatus;
+import sn.discover.discoversenegal.entities.User;
+import sn.discover.discoversenegal.entities.UserRole;
+import sn.discover.discoversenegal.repositories.BookingRepository;
+import sn.discover.discoversenegal.repositories.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confirmation hôtel, paiement et annulation lancés en même temps sur une réservation :
+ * chaque conflit de version est rejoué, aucune modification validée n'est perdue.
+ * Pas de @Transactional : chaque opération valide dans sa propre transaction.
+ */
+@SpringBootTest
+class BookingOptimisticRetryTests {
+
+	private static final int ROUNDS = 10;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private OptimisticRetryExecutor retryExecutor;
+
+	@Autowired
+	private RoomInventoryService roomInventoryService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Hotel hotel;
+	private User user;
+
+	@AfterEach
+	void cleanUp() {
+		if (hotel != null) {
+			jdbcTemplate.update("DELETE FROM bookings WHERE hotel_id = ?", hotel.getId());
+			jdbcTemplate.update("DELETE FROM hotel_daily_stats WHERE hotel_id = ?", hotel.getId());
+			jdbcTemplate.update("DELETE FROM room_inventory WHERE hotel_id = ?", hotel.getId());
+			hotelRepository.deleteById(hotel.getId());
+		}
+		if (user != null) {
+			userRepository.deleteById(user.getId());
+		}
+	}
+
+	@Test
+	void concurrentUpdatesAreRetriedWithoutLosingAnyCommittedChange() throws Exception {
+		hotel = hotelRepository.save(Hotel.builder()
+				.name("Hôtel versions")
+				.address("Route de Ngor")
+				.city("Dakar")
+				.latitude(14.75)
+				.longitude(-17.51)
+				.category(HotelCategory.STANDARD)
+				.totalRooms(5)
+				.build());
+		user = userRepository.save(User.builder()
+				.email(UUID.randomUUID() + "@test.sn")
+				.passwordHash("x")
+				.role(UserRole.VISITOR)
+				.build());
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			for (int round = 0; round < ROUNDS; round++) {
+				Booking booking = seed(LocalDate.now().plusDays(60 + round * 3L));
+				Long id = booking.getId();
+				String transactionId = "TX-" + round;
+
+				CountDownLatch start = new CountDownLatch(1);
+				Future<Boolean> confirmed = executor.submit(attempt(start, () -> bookingService.confirmByHotel(id,
+						HotelConfirmationDTO.builder().confirmed(true).notes("Chambre vue mer").build())));
+				Future<Boolean> paid = executor.submit(attempt(start, () -> bookingService.updatePayment(id,
+						PaymentUpdateDTO.builder().paymentStatus(PaymentStatus.PAID)
+								.paymentMethod(PaymentMethod.WAVE).transactionId(transactionId).build())));
+				Future<Boolean> cancelled = executor.submit(attempt(start, () -> bookingService.cancelBooking(id,
+						CancellationDTO.builder().cancellationReason("Vol annulé").requestRefund(false).build())));
+				start.countDown();
+
+				boolean confirmCommitted = confirmed.get(30, TimeUnit.SECONDS);
+				boolean paymentCommitted = paid.get(30, TimeUnit.SECONDS);
+				// Rien n'empêche l'annulation : seul un conflit non résolu la ferait échouer
+				assertTrue(cancelled.get(30, TimeUnit.SECONDS));
+
+				Booking stored = bookingRepository.findById(id).orElseThrow();
+				int commits = 1 + (confirmCommitted ? 1 : 0) + (paymentCommitted ? 1 : 0);
+				assertEquals(booking.getVersion() + commits, stored.getVersion());
+
+				assertEquals(BookingStatus.CANCELLED, stored.getStatus());
+				assertEquals("Vol annulé", stored.getCancellationReason());
+				assertEquals(confirmCommitted, stored.getIsConfirmedByHotel());
+				if (confirmCommitted) {
+					assertEquals("Chambre vue mer", stored.getHotelConfirmationNotes());
+				}
+				assertEquals(paymentCommitted ? PaymentStatus.PAID : PaymentStatus.PENDING, stored.getPaymentStatus());
+				if (paymentCommitted) {
+					assertEquals(transactionId, stored.getTransactionId());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	// Même chemin que le contrôleur : chaque opération passe par OptimisticRetryExecutor
+	private Callable<Boolean> attempt(CountDownLatch start, Runnable operation) {
+		return () -> {
+			start.await();
+			try {
+				retryExecutor.execute(() -> {
+					operation.run();
+					return null;
+				});
+				return true;
+			} catch (RuntimeException e) {
+				// Transition refusée par l'état laissé par une autre opération
+				return false;
+			}
+		};
+	}
+
+	private Booking seed(LocalDate checkIn) {
+		LocalDate checkOut = checkIn.plusDays(2);
+		roomInventoryService.reserve(hotel, checkIn, checkOut, 1);
+		return bookingRepository.save(Booking.builder()
+				.bookingReference(UUID.randomUUID().toString())
+				.hotel(hotel)
+				.user(user)
+				.guestFirstName("Fatou")
+				.guestLastName("Ndiaye")
+				.guestEmail("fatou.ndiaye@test.sn")
+				.guestPhone("+221770000001")
+				.checkInDate(checkIn)
+				.checkOutDate(checkOut)
+				.numberOfAdults(1)
+				.numberOfRooms(1)
+				.pricePerNight(new BigDecimal("45000"))
+				.status(BookingStatus.PENDING)
+				.build());
+	}
+}
@@ -0,0 +1,73 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+import sn.discover.discoversenegal.entities.BookingStatus;
+import sn.discover.discoversenegal.entities.PaymentStatus;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingStateMachineTests {
+
+	@Test
+	void bookingTransitionsFollowTheLifecycle() {
+		assertAllowed(BookingStatus.PENDING, BookingStatus.CONFIRMED, BookingStatus.CANCELLED);
+		assertAllowed(BookingStatus.CONFIRMED, BookingStatus.CHECKED_IN, BookingStatus.CANCELLED, BookingStatus.NO_SHOW);
+		assertAllowed(BookingStatus.CHECKED_IN, BookingStatus.CHECKED_OUT);
+		assertAllowed(BookingStatus.CHECKED_OUT, BookingStatus.COMPLETED);
+	}
+
+	@Test
+	void terminalBookingStatusesAcceptNoTransition() {
+		for (BookingStatus terminal : EnumSet.of(BookingStatus.CANCELLED, BookingStatus.NO_SHOW, BookingStatus.COMPLETED)) {
+			assertAllowed(terminal);
+		}
+	}
+
+	@Test
+	void bookingStatusCannotBeSetToItself() {
+		for (BookingStatus status : BookingStatus.values()) {
+			assertFalse(BookingStateMachine.canTransition(status, status), status.name());
+		}
+	}
+
+	@Test
+	void forbiddenBookingTransitionIsRejected() {
+		RuntimeException e = assertThrows(RuntimeException.class,
+				() -> BookingStateMachine.assertTransition(BookingStatus.CANCELLED, BookingStatus.CONFIRMED));
+		assertEquals("Transition de statut interdite : CANCELLED -> CONFIRMED", e.getMessage());
+		assertDoesNotThrow(() -> BookingStateMachine.assertTransition(BookingStatus.PENDING, BookingStatus.CONFIRMED));
+	}
+
+	@Test
+	void paymentTransitions() {
+		assertTrue(BookingStateMachine.canTransition(PaymentStatus.PENDING, PaymentStatus.PAID));
+		assertTrue(BookingStateMachine.canTransition(PaymentStatus.FAILED, PaymentStatus.PROCESSING));
+		assertTrue(BookingStateMachine.canTransition(PaymentStatus.PAID, PaymentStatus.PARTIALLY_REFUNDED));
+		assertFalse(BookingStateMachine.canTransition(PaymentStatus.REFUNDED, PaymentStatus.PAID));
+		assertFalse(BookingStateMachine.canTransition(PaymentStatus.PAID, PaymentStatus.PENDING));
+		assertThrows(RuntimeException.class,
+				() -> BookingStateMachine.assertTransition(PaymentStatus.REFUNDED, PaymentStatus.PENDING));
+	}
+
+	@Test
+	void repeatingThePaymentStatusIsAllowed() {
+		for (PaymentStatus status : PaymentStatus.values()) {
+			assertTrue(BookingStateMachine.canTransition(status, status), status.name());
+		}
+	}
+
+	// Vérifie la ligne complète de la table : les cibles listées et aucune autre
+	private static void assertAllowed(BookingStatus from, BookingStatus... allowed) {
+		Set<BookingStatus> expected = allowed.length > 0 ? EnumSet.of(allowed[0], allowed) : EnumSet.noneOf(BookingStatus.class);
+		for (BookingStatus to : BookingStatus.values()) {
+			assertEquals(expected.contains(to), BookingStateMachine.canTransition(from, to), from + " -> " + to);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import sn.discover.discoversenegal.dto.DelegationBookingDTO;
+import sn.discover.discoversenegal.dto.DelegationBookingResultDTO;
+import sn.discover.discoversenegal.dto.DelegationMemberDTO;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelCategory;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.User;
+import sn.discover.discoversenegal.entities.UserRole;
+import sn.discover.discoversenegal.repositories.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Deux délégations qui citent les mêmes hôtels dans un ordre inverse ne doivent pas s'interbloquer :
+ * les nuits sont verrouillées par identifiant d'hôtel croissant.
+ */
+@SpringBootTest
+class DelegationBookingConcurrencyTests {
+
+	private static final int ROUNDS = 10;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<Long> hotelIds = new ArrayList<>();
+	private User user;
+
+	@AfterEach
+	void cleanUp() {
+		for (Long hotelId : hotelIds) {
+			jdbcTemplate.update("DELETE FROM bookings WHERE hotel_id = ?", hotelId);
+			jdbcTemplate.update("DELETE FROM room_inventory WHERE hotel_id = ?", hotelId);
+			jdbcTemplate.update("DELETE FROM hotel_daily_stats WHERE hotel_id = ?", hotelId);
+			hotelRepository.deleteById(hotelId);
+		}
+		if (user != null) {
+			userRepository.deleteById(user.getId());
+		}
+	}
+
+	@Test
+	void delegationsListingHotelsInOppositeOrdersDoNotDeadlock() throws Exception {
+		user = userRepository.save(User.builder()
+				.email(UUID.randomUUID() + "@test.sn")
+				.passwordHash("x")
+				.role(UserRole.ORGANIZER)
+				.build());
+		Long first = createHotel("Hôtel Téranga").getId();
+		Long second = createHotel("Hôtel Baobab").getId();
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			for (int round = 0; round < ROUNDS; round++) {
+				LocalDate checkIn = LocalDate.now().plusDays(40 + round);
+				CountDownLatch start = new CountDownLatch(1);
+				Future<DelegationBookingResultDTO> forward = executor.submit(() -> {
+					start.await();
+					return bookingService.createDelegationBookings(delegation("SEN", List.of(first, second), checkIn));
+				});
+				Future<DelegationBookingResultDTO> backward = executor.submit(() -> {
+					start.await();
+					return bookingService.createDelegationBookings(delegation("CIV", List.of(second, first), checkIn));
+				});
+				start.countDown();
+
+				assertEquals(3, forward.get(30, TimeUnit.SECONDS).getBookedLines());
+				assertEquals(3, backward.get(30, TimeUnit.SECONDS).getBookedLines());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Hotel createHotel(String name) {
+		Hotel hotel = hotelRepository.save(Hotel.builder()
+				.name(name)
+				.address("Corniche Ouest")
+				.city("Dakar")
+				.latitude(14.70)
+				.longitude(-17.47)
+				.category(HotelCategory.SUPERIOR)
+				.totalRooms(50)
+				.priceRangeMin(new BigDecimal("45000"))
+				.build());
+		hotelIds.add(hotel.getId());
+		return hotel;
+	}
+
+	private DelegationBookingDTO delegation(String name, List<Long> hotels, LocalDate checkIn) {
+		List<DelegationMemberDTO> members = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			members.add(DelegationMemberDTO.builder()
+					.guestFirstName("Membre" + i)
+					.guestLastName(name)
+					.guestEmail("membre" + i + "@" + name.toLowerCase() + ".test")
+					.guestPhone("+22177000000" + i)
+					.numberOfAdults(1)
+					.numberOfRooms(1)
+					.build());
+		}
+		return DelegationBookingDTO.builder()
+				.olympicDelegation(name)
+				.userId(user.getId())
+				.hotelIds(hotels)
+				.checkInDate(checkIn)
+				.checkOutDate(checkIn.plusDays(4))
+				.members(members)
+				.build();
+	}
+}
@@ -0,0 +1,152 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoIndexTests {
+
+	private static final double CELL_DEGREES = 0.05;
+	private static final Predicate<GeoPlace> ALL = place -> true;
+
+	@Test
+	void distanceMatchesKnownValue() {
+		// Dakar (place de l'Indépendance) → Saint-Louis (pont Faidherbe) : 180,7 km à vol d'oiseau
+		double distance = GeoIndex.distanceKm(14.6681, -17.4320, 16.0240, -16.5030);
+
+		assertEquals(180.7, distance, 0.1);
+		assertEquals(0.0, GeoIndex.distanceKm(14.7, -17.4, 14.7, -17.4), 1e-9);
+	}
+
+	@Test
+	void withinMatchesBruteForce() {
+		GeoIndex index = new GeoIndex(CELL_DEGREES);
+		List<GeoPlace> places = randomPlaces(new Random(7), 3_000);
+		places.forEach(index::upsert);
+		Random random = new Random(11);
+
+		for (int i = 0; i < 200; i++) {
+			double lat = 12.3 + random.nextDouble() * 4.4;
+			double lng = -17.6 + random.nextDouble() * 6.0;
+			double radius = 1 + random.nextDouble() * 60;
+			Predicate<GeoPlace> hotels = place -> place.type() == GeoPlace.Type.HOTEL;
+
+			assertSameHits(bruteForce(places, lat, lng, radius, ALL, Integer.MAX_VALUE),
+					index.within(lat, lng, radius, ALL, Integer.MAX_VALUE));
+			assertSameHits(bruteForce(places, lat, lng, radius, hotels, 10),
+					index.within(lat, lng, radius, hotels, 10));
+		}
+	}
+
+	@Test
+	void nearestMatchesBruteForce() {
+		GeoIndex index = new GeoIndex(CELL_DEGREES);
+		List<GeoPlace> places = randomPlaces(new Random(3), 3_000);
+		places.forEach(index::upsert);
+		Random random = new Random(5);
+
+		for (int i = 0; i < 200; i++) {
+			double lat = 12.3 + random.nextDouble() * 4.4;
+			double lng = -17.6 + random.nextDouble() * 6.0;
+			int k = 1 + random.nextInt(25);
+			double maxRadius = 5 + random.nextDouble() * 200;
+
+			assertSameHits(bruteForce(places, lat, lng, maxRadius, ALL, k),
+					index.nearest(lat, lng, k, maxRadius, ALL));
+		}
+	}
+
+	@Test
+	void upsertMovesAPlaceBetweenCells() {
+		GeoIndex index = new GeoIndex(CELL_DEGREES);
+		GeoPlace before = place(GeoPlace.Type.HOTEL, 1L, 14.69, -17.45);
+		GeoPlace after = place(GeoPlace.Type.HOTEL, 1L, 16.02, -16.49);
+
+		assertNull(index.upsert(before));
+		assertSame(before, index.upsert(after));
+
+		assertEquals(1, index.size());
+		assertTrue(index.within(14.69, -17.45, 5, ALL, 10).isEmpty());
+		assertEquals(1, index.within(16.02, -16.49, 5, ALL, 10).size());
+	}
+
+	@Test
+	void sameIdWithDifferentTypesAreDistinct() {
+		GeoIndex index = new GeoIndex(CELL_DEGREES);
+		index.upsert(place(GeoPlace.Type.HOTEL, 1L, 14.69, -17.45));
+		index.upsert(place(GeoPlace.Type.SITE, 1L, 14.67, -17.40));
+
+		assertEquals(2, index.size());
+		assertEquals(GeoPlace.Type.SITE, index.remove(GeoPlace.Type.SITE, 1L).type());
+		assertEquals(GeoPlace.Type.HOTEL, index.get(GeoPlace.Type.HOTEL, 1L).type());
+		assertNull(index.remove(GeoPlace.Type.SITE, 1L));
+	}
+
+	@Test
+	void clearRemovesOnlyTheGivenType() {
+		GeoIndex index = new GeoIndex(CELL_DEGREES);
+		List<GeoPlace> places = randomPlaces(new Random(1), 500);
+		places.forEach(index::upsert);
+		long restaurants = places.stream().filter(place -> place.type() == GeoPlace.Type.RESTAURANT).count();
+
+		assertEquals(restaurants, index.clear(GeoPlace.Type.RESTAURANT).size());
+
+		assertEquals(places.size() - restaurants, index.size());
+		assertTrue(index.within(14.5, -15.0, 1_000, ALL, Integer.MAX_VALUE).stream()
+				.noneMatch(hit -> hit.place().type() == GeoPlace.Type.RESTAURANT));
+	}
+
+	@Test
+	void searchesCrossTheAntimeridian() {
+		GeoIndex index = new GeoIndex(CELL_DEGREES);
+		index.upsert(place(GeoPlace.Type.SITE, 1L, -17.0, 179.98));
+		index.upsert(place(GeoPlace.Type.SITE, 2L, -17.0, -179.98));
+
+		assertEquals(2, index.within(-17.0, 179.99, 10, ALL, 10).size());
+		assertEquals(2, index.nearest(-17.0, -179.99, 5, 10, ALL).size());
+	}
+
+	private static void assertSameHits(List<GeoPlace.Hit> expected, List<GeoPlace.Hit> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).distanceKm(), actual.get(i).distanceKm(), 1e-9);
+		}
+	}
+
+	private static List<GeoPlace.Hit> bruteForce(List<GeoPlace> places, double lat, double lng, double radius,
+												 Predicate<GeoPlace> filter, int limit) {
+		List<GeoPlace.Hit> hits = new ArrayList<>();
+		for (GeoPlace place : places) {
+			double distance = GeoIndex.distanceKm(lat, lng, place.latitude(), place.longitude());
+			if (filter.test(place) && distance <= radius) {
+				hits.add(new GeoPlace.Hit(place, distance));
+			}
+		}
+		hits.sort(Comparator.comparingDouble(GeoPlace.Hit::distanceKm));
+		return hits.size() > limit ? hits.subList(0, limit) : hits;
+	}
+
+	// Points répartis sur le Sénégal (12.3°N–16.7°N, 17.6°O–11.6°O)
+	private static List<GeoPlace> randomPlaces(Random random, int count) {
+		GeoPlace.Type[] types = GeoPlace.Type.values();
+		List<GeoPlace> places = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			places.add(place(types[i % types.length], (long) i,
+					12.3 + random.nextDouble() * 4.4, -17.6 + random.nextDouble() * 6.0));
+		}
+		return places;
+	}
+
+	private static GeoPlace place(GeoPlace.Type type, Long id, double latitude, double longitude) {
+		return new GeoPlace(type, id, "Lieu " + id, null, null, latitude, longitude, null, null, null);
+	}
+}
@@ -0,0 +1,66 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTests {
+
+	@Test
+	void decodeReturnsTheEncodedKey() {
+		LocalDateTime createdAt = LocalDateTime.of(2026, 10, 31, 18, 45, 12, 123_000_000);
+
+		String cursor = KeysetCursor.encode(createdAt.toString(), 9_876_543_210L);
+
+		KeysetCursor.Position<LocalDateTime> position = KeysetCursor.decode(cursor, LocalDateTime::parse);
+		assertEquals(createdAt, position.sortKey());
+		assertEquals(9_876_543_210L, position.id());
+	}
+
+	@Test
+	void cursorIsUrlSafe() {
+		String cursor = KeysetCursor.encode("2026-08-01", 42L);
+
+		assertFalse(cursor.contains("="));
+		assertFalse(cursor.contains("+"));
+		assertFalse(cursor.contains("/"));
+	}
+
+	@Test
+	void missingCursorMeansFirstPage() {
+		assertNull(KeysetCursor.decode(null, LocalDate::parse));
+		assertNull(KeysetCursor.decode(" ", LocalDate::parse));
+	}
+
+	@Test
+	void malformedCursorsAreRejected() {
+		for (String key : new String[] {"2026-08-01", "2026-08-01|abc", "a|b|3"}) {
+			assertInvalid(key, LocalDate::parse);
+		}
+		assertThrows(RuntimeException.class, () -> KeysetCursor.decode("pas du base64 !", LocalDate::parse));
+	}
+
+	@Test
+	void malformedSortKeysAreRejected() {
+		assertInvalid("2026-13-45T25:61:00|42", LocalDateTime::parse);
+		assertInvalid("hier|42", LocalDateTime::parse);
+		// Une date seule n'est pas un horodatage
+		assertInvalid("2026-08-01|42", LocalDateTime::parse);
+		assertInvalid("2026-02-30|42", LocalDate::parse);
+	}
+
+	private static void assertInvalid(String key, Function<String, ?> keyParser) {
+		String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+		RuntimeException e = assertThrows(RuntimeException.class, () -> KeysetCursor.decode(cursor, keyParser));
+		assertEquals("Curseur de pagination invalide", e.getMessage());
+	}
+}
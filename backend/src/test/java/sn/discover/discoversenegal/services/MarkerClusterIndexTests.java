@@ -0,0 +1,146 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarkerClusterIndexTests {
+
+	private static final Set<GeoPlace.Type> CLUSTERED_TYPES =
+			EnumSet.of(GeoPlace.Type.HOTEL, GeoPlace.Type.RESTAURANT, GeoPlace.Type.SITE);
+
+	@Test
+	void everyZoomLevelCountsEveryPointOnce() {
+		MarkerClusterIndex index = new MarkerClusterIndex(CLUSTERED_TYPES);
+		List<GeoPlace> places = randomPlaces(new Random(7), 2_000);
+		places.forEach(index::add);
+
+		for (int zoom = 0; zoom <= MarkerClusterIndex.MAX_ZOOM; zoom++) {
+			List<GeoCluster> clusters = index.query(-180, -85, 180, 85, zoom);
+			assertEquals(places.size(), clusters.stream().mapToInt(GeoCluster::count).sum(), "zoom " + zoom);
+		}
+	}
+
+	@Test
+	void centroidIsTheMeanOfTheMembers() {
+		MarkerClusterIndex index = new MarkerClusterIndex(CLUSTERED_TYPES);
+		index.add(place(GeoPlace.Type.HOTEL, 1L, "Hôtel", 14.70, -17.46));
+		index.add(place(GeoPlace.Type.HOTEL, 2L, "Hôtel", 14.72, -17.44));
+		index.add(place(GeoPlace.Type.RESTAURANT, 3L, "Maquis", 14.74, -17.42));
+
+		List<GeoCluster> clusters = index.query(-18, 14, -17, 15, 3);
+
+		assertEquals(1, clusters.size());
+		GeoCluster cluster = clusters.get(0);
+		assertEquals(3, cluster.count());
+		assertEquals(14.72, cluster.latitude(), 1e-9);
+		assertEquals(-17.44, cluster.longitude(), 1e-9);
+		assertEquals(GeoPlace.Type.HOTEL, cluster.dominantType());
+		assertEquals("Hôtel", cluster.dominantCategory());
+		assertNull(cluster.single());
+	}
+
+	@Test
+	void categoryTiesAreBrokenByName() {
+		MarkerClusterIndex index = new MarkerClusterIndex(CLUSTERED_TYPES);
+		index.add(place(GeoPlace.Type.SITE, 1L, "Plage", 14.70, -17.46));
+		index.add(place(GeoPlace.Type.SITE, 2L, "Musée", 14.71, -17.45));
+
+		assertEquals("Musée", index.query(-18, 14, -17, 15, 2).get(0).dominantCategory());
+	}
+
+	@Test
+	void isolatedPointIsReturnedAsASingleMarker() {
+		MarkerClusterIndex index = new MarkerClusterIndex(CLUSTERED_TYPES);
+		GeoPlace lonely = place(GeoPlace.Type.SITE, 1L, "Parc", 12.80, -12.30);
+		index.add(lonely);
+		index.add(place(GeoPlace.Type.HOTEL, 2L, "Hôtel", 14.70, -17.46));
+
+		List<GeoCluster> clusters = index.query(-13, 12, -12, 13, MarkerClusterIndex.MAX_ZOOM);
+
+		assertEquals(1, clusters.size());
+		assertSame(lonely, clusters.get(0).single());
+	}
+
+	@Test
+	void removeUndoesAdd() {
+		MarkerClusterIndex index = new MarkerClusterIndex(CLUSTERED_TYPES);
+		List<GeoPlace> places = randomPlaces(new Random(3), 500);
+		places.forEach(index::add);
+		// Un doublon ne compte pas deux fois
+		index.add(places.get(0));
+
+		List<GeoPlace> removed = places.subList(0, 200);
+		removed.forEach(index::remove);
+
+		for (int zoom = 0; zoom <= MarkerClusterIndex.MAX_ZOOM; zoom += 6) {
+			assertEquals(300, index.query(-180, -85, 180, 85, zoom).stream().mapToInt(GeoCluster::count).sum());
+		}
+		places.subList(200, 500).forEach(index::remove);
+		assertTrue(index.query(-180, -85, 180, 85, 0).isEmpty());
+	}
+
+	@Test
+	void unclusteredTypesAreIgnored() {
+		MarkerClusterIndex index = new MarkerClusterIndex(CLUSTERED_TYPES);
+		index.add(place(GeoPlace.Type.EVENT, 1L, null, 14.70, -17.46));
+
+		assertTrue(index.query(-180, -85, 180, 85, 0).isEmpty());
+	}
+
+	@Test
+	void boundingBoxAcrossTheAntimeridianIsSplit() {
+		MarkerClusterIndex index = new MarkerClusterIndex(CLUSTERED_TYPES);
+		index.add(place(GeoPlace.Type.SITE, 1L, null, -17.0, 179.9));
+		index.add(place(GeoPlace.Type.SITE, 2L, null, -17.0, -179.9));
+		index.add(place(GeoPlace.Type.SITE, 3L, null, -17.0, 0.0));
+
+		List<GeoCluster> clusters = index.query(179, -18, -179, -16, 10);
+
+		assertEquals(2, clusters.stream().mapToInt(GeoCluster::count).sum());
+	}
+
+	@Test
+	void smallAndLargeBoundingBoxesAgree() {
+		MarkerClusterIndex index = new MarkerClusterIndex(CLUSTERED_TYPES);
+		List<GeoPlace> places = randomPlaces(new Random(11), 1_000);
+		places.forEach(index::add);
+
+		// Dakar au zoom 12 : peu de cellules couvertes, lecture directe ; Sénégal : parcours des cellules occupées
+		int inDakar = index.query(-17.55, 14.60, -17.35, 14.80, 12).stream().mapToInt(GeoCluster::count).sum();
+		long expected = places.stream()
+				.filter(p -> p.longitude() >= -17.55 && p.longitude() <= -17.35
+						&& p.latitude() >= 14.60 && p.latitude() <= 14.80)
+				.count();
+		// Les cellules qui touchent le bord peuvent contenir des points juste à l'extérieur
+		assertTrue(inDakar >= expected);
+		assertEquals(places.size(), index.query(-18, 12, -11, 17, 12).stream().mapToInt(GeoCluster::count).sum());
+	}
+
+	// Points répartis sur le Sénégal, concentrés pour moitié autour de Dakar
+	private static List<GeoPlace> randomPlaces(Random random, int count) {
+		GeoPlace.Type[] types = {GeoPlace.Type.HOTEL, GeoPlace.Type.RESTAURANT, GeoPlace.Type.SITE};
+		String[] categories = {"Plage", "Musée", "Maquis", null};
+		List<GeoPlace> places = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			boolean dakar = i % 2 == 0;
+			double lat = dakar ? 14.60 + random.nextDouble() * 0.2 : 12.3 + random.nextDouble() * 4.4;
+			double lng = dakar ? -17.55 + random.nextDouble() * 0.2 : -17.6 + random.nextDouble() * 6.0;
+			places.add(place(types[i % types.length], (long) i, categories[i % categories.length], lat, lng));
+		}
+		return places;
+	}
+
+	private static GeoPlace place(GeoPlace.Type type, Long id, String category, double latitude, double longitude) {
+		return new GeoPlace(type, id, "Lieu " + id, category, null, latitude, longitude, null, null, null);
+	}
+}
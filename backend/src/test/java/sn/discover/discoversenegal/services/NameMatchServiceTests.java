@@ -0,0 +1,30 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NameMatchServiceTests {
+
+	@Test
+	void placeVariantsAreCanonicalized() {
+		assertEquals(NameMatchService.canonicalWords("Saint-Louis"), NameMatchService.canonicalWords("St-Louis"));
+		assertEquals(NameMatchService.canonicalWords("Hôtel du Lac Rose"), NameMatchService.canonicalWords("Hôtel du Lac Retba"));
+		assertEquals(NameMatchService.canonicalWords("Auberge Saint-Louis"), NameMatchService.canonicalWords("Auberge Ndar"));
+		assertEquals(NameMatchService.canonicalWords("Mbour"), NameMatchService.canonicalWords("M'Bour"));
+	}
+
+	@Test
+	void longestVariantWins() {
+		// « Lac Retba » est remplacé en entier, pas « Retba » seul qui donnerait « lac lac rose »
+		assertEquals(List.of("lac", "rose"), NameMatchService.canonicalWords("Lac Retba"));
+		assertEquals(List.of("lac", "rose"), NameMatchService.canonicalWords("Retba"));
+	}
+
+	@Test
+	void otherWordsAreKept() {
+		assertEquals(TextAnalyzer.terms("Hôtel de la Poste"), NameMatchService.canonicalWords("Hôtel de la Poste"));
+	}
+}
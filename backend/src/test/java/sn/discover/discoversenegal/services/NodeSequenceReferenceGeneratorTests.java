@@ -0,0 +1,133 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NodeSequenceReferenceGeneratorTests {
+
+	private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+	@Test
+	void referencesFollowTheDocumentedFormat() {
+		String reference = new NodeSequenceReferenceGenerator(7).nextReference();
+
+		assertTrue(reference.matches("BKG-\\d{4}-[0-9A-HJKMNP-TV-Z]{4}-[0-9A-HJKMNP-TV-Z]{4}-[0-9A-HJKMNP-TV-Z]{4}-[0-9A-HJKMNP-TV-Z]"),
+				reference);
+	}
+
+	@Test
+	void referencesAreStrictlyIncreasing() {
+		NodeSequenceReferenceGenerator generator = new NodeSequenceReferenceGenerator(0);
+
+		// Plus de 256 références par ms : la séquence déborde sur les millisecondes suivantes
+		String previous = generator.nextReference();
+		for (int i = 0; i < 50_000; i++) {
+			String next = generator.nextReference();
+			assertTrue(body(next).compareTo(body(previous)) > 0, previous + " >= " + next);
+			previous = next;
+		}
+	}
+
+	@Test
+	void checkCharacterValidatesTheBody() {
+		NodeSequenceReferenceGenerator generator = new NodeSequenceReferenceGenerator(513);
+
+		for (int i = 0; i < 1_000; i++) {
+			String reference = generator.nextReference();
+			assertTrue(isValid(reference), reference);
+		}
+	}
+
+	@Test
+	void checkCharacterDetectsSingleCharacterErrors() {
+		String reference = new NodeSequenceReferenceGenerator(3).nextReference();
+		char[] chars = reference.toCharArray();
+
+		for (int i = 9; i < chars.length; i++) {
+			if (chars[i] == '-') {
+				continue;
+			}
+			char original = chars[i];
+			for (char replacement : ALPHABET.toCharArray()) {
+				if (replacement != original) {
+					chars[i] = replacement;
+					assertFalse(isValid(new String(chars)), new String(chars));
+				}
+			}
+			chars[i] = original;
+		}
+	}
+
+	@Test
+	void differentNodesNeverCollide() {
+		NodeSequenceReferenceGenerator first = new NodeSequenceReferenceGenerator(1);
+		NodeSequenceReferenceGenerator second = new NodeSequenceReferenceGenerator(2);
+		Set<String> references = new HashSet<>();
+
+		for (int i = 0; i < 20_000; i++) {
+			assertTrue(references.add(first.nextReference()));
+			assertTrue(references.add(second.nextReference()));
+		}
+	}
+
+	@Test
+	void concurrentCallersGetUniqueReferences() throws Exception {
+		NodeSequenceReferenceGenerator generator = new NodeSequenceReferenceGenerator(0);
+		Set<String> references = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> tasks = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				tasks.add(executor.submit(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						references.add(generator.nextReference());
+					}
+				}));
+			}
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(80_000, references.size());
+	}
+
+	@Test
+	void nodeIdMustFitInTenBits() {
+		assertThrows(IllegalArgumentException.class, () -> new NodeSequenceReferenceGenerator(-1));
+		assertThrows(IllegalArgumentException.class, () -> new NodeSequenceReferenceGenerator(1024));
+	}
+
+	// Partie horodatage + séquence + nœud, hors préfixe, année et caractère de contrôle
+	private static String body(String reference) {
+		return reference.substring(9, reference.length() - 2);
+	}
+
+	// Luhn mod 32 : en doublant un chiffre sur deux depuis la droite, contrôle compris, la somme est multiple de 32
+	private static boolean isValid(String reference) {
+		String digits = (body(reference) + reference.charAt(reference.length() - 1)).replace("-", "");
+		int sum = 0;
+		boolean doubled = false;
+		for (int i = digits.length() - 1; i >= 0; i--) {
+			int addend = ALPHABET.indexOf(digits.charAt(i)) * (doubled ? 2 : 1);
+			sum += addend / 32 + addend % 32;
+			doubled = !doubled;
+		}
+		return sum % 32 == 0;
+	}
+}
@@ -0,0 +1,70 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import sn.discover.discoversenegal.entities.Booking;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticRetryExecutorTests {
+
+	private final OptimisticRetryExecutor executor = new OptimisticRetryExecutor();
+
+	@Test
+	void returnsWithoutRetryWhenThereIsNoConflict() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = executor.execute(() -> {
+			attempts.incrementAndGet();
+			return "ok";
+		});
+
+		assertEquals("ok", result);
+		assertEquals(1, attempts.get());
+	}
+
+	@Test
+	void retriesAfterAVersionConflict() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = executor.execute(() -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw new ObjectOptimisticLockingFailureException(Booking.class, 42L);
+			}
+			return "ok";
+		});
+
+		assertEquals("ok", result);
+		assertEquals(3, attempts.get());
+	}
+
+	@Test
+	void givesUpAfterFourAttempts() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		RuntimeException e = assertThrows(RuntimeException.class, () -> executor.execute(() -> {
+			attempts.incrementAndGet();
+			throw new ObjectOptimisticLockingFailureException(Booking.class, 42L);
+		}));
+
+		assertEquals(4, attempts.get());
+		assertEquals("La réservation a été modifiée simultanément, veuillez réessayer", e.getMessage());
+		assertInstanceOf(ObjectOptimisticLockingFailureException.class, e.getCause());
+	}
+
+	@Test
+	void otherFailuresAreNotRetried() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThrows(IllegalStateException.class, () -> executor.execute(() -> {
+			attempts.incrementAndGet();
+			throw new IllegalStateException("échec");
+		}));
+
+		assertEquals(1, attempts.get());
+	}
+}
@@ -0,0 +1,165 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixTrieTests {
+
+	private static final int CAPACITY = 10;
+
+	@Test
+	void completionRanksByWeightThenLabelLength() {
+		PrefixTrie<String> trie = new PrefixTrie<>(CAPACITY);
+		trie.put("saint-louis", "Saint-Louis", List.of("saint louis", "louis"), 50);
+		trie.put("saly", "Saly", List.of("saly"), 80);
+		trie.put("sali", "Sali", List.of("sali"), 50);
+		trie.put("sangomar", "Sangomar", List.of("sangomar"), 10);
+
+		assertEquals(List.of("saly", "sali", "saint-louis", "sangomar"), trie.complete("sa", 10));
+		assertEquals(List.of("saly", "sali"), trie.complete("sa", 2));
+		assertEquals(List.of("saint-louis"), trie.complete("lou", 10));
+		assertEquals(List.of("saint-louis"), trie.complete("saint l", 10));
+		assertTrue(trie.complete("sx", 10).isEmpty());
+	}
+
+	@Test
+	void prefixEndingInsideAnEdgeMatchesTheWholeSubtree() {
+		PrefixTrie<String> trie = new PrefixTrie<>(CAPACITY);
+		trie.put("a", "Ziguinchor", List.of("ziguinchor"), 1);
+
+		assertEquals(List.of("a"), trie.complete("zig", 10));
+		assertEquals(List.of("a"), trie.complete("ziguinchor", 10));
+		assertTrue(trie.complete("ziguinchore", 10).isEmpty());
+	}
+
+	@Test
+	void putReplacesAndRemoveForgets() {
+		PrefixTrie<String> trie = new PrefixTrie<>(CAPACITY);
+		trie.put("h1", "Hôtel Océan", List.of("hotel ocean", "ocean"), 5);
+		trie.put("h1", "Hôtel Savane", List.of("hotel savane", "savane"), 5);
+
+		assertTrue(trie.complete("ocean", 10).isEmpty());
+		assertEquals(List.of("h1"), trie.complete("sav", 10));
+		assertEquals(1, trie.stats().entries());
+		assertEquals(2, trie.stats().keys());
+
+		trie.remove("h1");
+		assertFalse(trie.contains("h1"));
+		assertTrue(trie.complete("h", 10).isEmpty());
+		assertEquals(1, trie.stats().nodes());
+	}
+
+	@Test
+	void reweightReordersCompletions() {
+		PrefixTrie<String> trie = new PrefixTrie<>(CAPACITY);
+		trie.put("a", "Dakar", List.of("dakar"), 1);
+		trie.put("b", "Dakar Plateau", List.of("dakar plateau"), 2);
+
+		trie.reweight(Map.of("a", 3.0, "inconnu", 9.0));
+
+		assertEquals(List.of("a", "b"), trie.complete("dak", 10));
+	}
+
+	@Test
+	void randomOperationsMatchBruteForce() {
+		Random random = new Random(2026);
+		PrefixTrie<Integer> trie = new PrefixTrie<>(CAPACITY);
+		Map<Integer, PrefixTrie.Input<Integer>> model = new HashMap<>();
+
+		for (int step = 0; step < 20_000; step++) {
+			int operation = random.nextInt(100);
+			if (operation < 55) {
+				PrefixTrie.Input<Integer> input = randomInput(random, random.nextInt(400));
+				trie.put(input.key(), input.label(), input.paths(), input.weight());
+				model.put(input.key(), input);
+			} else if (operation < 80) {
+				int key = random.nextInt(400);
+				trie.remove(key);
+				model.remove(key);
+			} else if (operation < 99) {
+				// Petits lots : chemin par chemin ; lots de plus de 256 : recalcul complet
+				int changes = random.nextInt(10) == 0 ? 300 : 1 + random.nextInt(5);
+				Map<Integer, Double> weights = new HashMap<>();
+				for (int i = 0; i < changes; i++) {
+					weights.put(random.nextInt(400), (double) random.nextInt(50));
+				}
+				trie.reweight(weights);
+				weights.forEach((key, weight) -> model.computeIfPresent(key, (k, input) ->
+						new PrefixTrie.Input<>(k, input.label(), input.paths(), weight)));
+			} else {
+				List<PrefixTrie.Input<Integer>> inputs = new ArrayList<>();
+				model.clear();
+				for (int i = 0; i < 200; i++) {
+					PrefixTrie.Input<Integer> input = randomInput(random, random.nextInt(400));
+					inputs.add(input);
+					model.put(input.key(), input);
+				}
+				trie.putAll(inputs);
+			}
+
+			if (step % 20 == 0) {
+				String prefix = randomWord(random, random.nextInt(4));
+				int limit = 1 + random.nextInt(CAPACITY + 5);
+				assertEquals(bruteForce(model, prefix, limit), trie.complete(prefix, limit), "prefix '" + prefix + "'");
+			}
+		}
+		assertEquals(model.size(), trie.stats().entries());
+	}
+
+	@Test
+	void statsGrowWithContent() {
+		PrefixTrie<Integer> trie = new PrefixTrie<>(CAPACITY);
+		long empty = trie.stats().estimatedBytes();
+		List<PrefixTrie.Input<Integer>> inputs = new ArrayList<>();
+		Random random = new Random(1);
+		for (int key = 0; key < 1_000; key++) {
+			inputs.add(randomInput(random, key));
+		}
+
+		trie.putAll(inputs);
+
+		PrefixTrie.Stats stats = trie.stats();
+		assertEquals(1_000, stats.entries());
+		assertTrue(stats.keys() >= 1_000);
+		assertTrue(stats.estimatedBytes() > empty);
+	}
+
+	private static List<Integer> bruteForce(Map<Integer, PrefixTrie.Input<Integer>> model, String prefix, int limit) {
+		return model.values().stream()
+				.filter(input -> input.paths().stream().anyMatch(path -> path.startsWith(prefix)))
+				.sorted(Comparator.<PrefixTrie.Input<Integer>>comparingDouble(input -> -input.weight())
+						.thenComparingInt(input -> input.label().length())
+						.thenComparing(PrefixTrie.Input::label))
+				.limit(Math.min(limit, CAPACITY))
+				.map(PrefixTrie.Input::key)
+				.toList();
+	}
+
+	// Petit alphabet : beaucoup de préfixes communs, donc de découpages et de fusions d'arêtes
+	private static PrefixTrie.Input<Integer> randomInput(Random random, int key) {
+		List<String> paths = new ArrayList<>();
+		for (int i = 1 + random.nextInt(3); i > 0; i--) {
+			paths.add(randomWord(random, 1 + random.nextInt(6)));
+		}
+		// Libellé unique par clé : l'ordre de la force brute est total
+		return new PrefixTrie.Input<>(key, paths.get(0) + "#" + key, paths, random.nextInt(50));
+	}
+
+	private static String randomWord(Random random, int length) {
+		StringBuilder word = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			word.append("abc ".charAt(random.nextInt(4)));
+		}
+		return word.toString();
+	}
+}
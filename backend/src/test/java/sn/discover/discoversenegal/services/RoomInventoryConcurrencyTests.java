@@ -0,0 +1,213 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import sn.discover.discoversenegal.dto.BookingCreateDTO;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelCategory;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.User;
+import sn.discover.discoversenegal.entities.UserRole;
+import sn.discover.discoversenegal.repositories.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Les réservations concurrentes des dernières chambres ne doivent jamais dépasser la capacité.
+ * Pas de @Transactional : chaque reserve() ou createBooking() s'exécute et valide dans sa propre transaction.
+ */
+@SpringBootTest
+class RoomInventoryConcurrencyTests {
+
+	private static final int THREADS = 16;
+	private static final int TOTAL_ROOMS = 5;
+	private static final int BOOKING_REQUESTS = 400;
+	private static final int BOOKING_THREADS = 64;
+	private static final int BOOKING_ROOMS = 20;
+	// Borne large : les requêtes attendent une connexion du pool et le verrou des mêmes nuits
+	private static final long P99_BOUND_MILLIS = 2000;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private RoomInventoryService roomInventoryService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Hotel hotel;
+	private User user;
+
+	@AfterEach
+	void cleanUp() {
+		if (hotel != null) {
+			jdbcTemplate.update("DELETE FROM bookings WHERE hotel_id = ?", hotel.getId());
+			jdbcTemplate.update("DELETE FROM hotel_daily_stats WHERE hotel_id = ?", hotel.getId());
+			jdbcTemplate.update("DELETE FROM room_inventory WHERE hotel_id = ?", hotel.getId());
+			hotelRepository.deleteById(hotel.getId());
+		}
+		if (user != null) {
+			userRepository.deleteById(user.getId());
+		}
+	}
+
+	@Test
+	void parallelReservationsNeverOverbookTheLastRooms() throws Exception {
+		hotel = hotelRepository.save(Hotel.builder()
+				.name("Hôtel concurrence")
+				.address("Place de l'Indépendance")
+				.city("Dakar")
+				.latitude(14.67)
+				.longitude(-17.43)
+				.category(HotelCategory.STANDARD)
+				.totalRooms(TOTAL_ROOMS)
+				.build());
+		LocalDate checkIn = LocalDate.now().plusDays(30);
+		LocalDate checkOut = checkIn.plusDays(3);
+
+		// Une première réservation ne laisse que les deux dernières chambres
+		roomInventoryService.reserve(hotel, checkIn, checkOut, TOTAL_ROOMS - 2);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> attempts = new ArrayList<>();
+		try {
+			for (int i = 0; i < THREADS; i++) {
+				// Séjours décalés d'une nuit : les verrous se chevauchent sans porter sur les mêmes nuits
+				LocalDate from = i % 2 == 0 ? checkIn : checkIn.plusDays(1);
+				attempts.add(executor.submit(() -> {
+					start.await();
+					try {
+						roomInventoryService.reserve(hotel, from, checkOut, 1);
+						return true;
+					} catch (RuntimeException e) {
+						return false;
+					}
+				}));
+			}
+			start.countDown();
+
+			int succeeded = 0;
+			for (Future<Boolean> attempt : attempts) {
+				if (attempt.get(30, TimeUnit.SECONDS)) {
+					succeeded++;
+				}
+			}
+			assertEquals(2, succeeded);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(0, roomInventoryService.getRemainingRooms(hotel, checkIn.plusDays(1), checkOut));
+		Integer maxBooked = jdbcTemplate.queryForObject(
+				"SELECT MAX(booked_rooms) FROM room_inventory WHERE hotel_id = ?", Integer.class, hotel.getId());
+		assertTrue(maxBooked <= TOTAL_ROOMS);
+	}
+
+	/**
+	 * Même chemin qu'une requête POST /api/bookings : des centaines de demandes pour les mêmes nuits,
+	 * exactement BOOKING_ROOMS acceptées, et une latence p99 bornée malgré la contention.
+	 */
+	@Test
+	void hundredsOfParallelBookingRequestsNeverOverbook() throws Exception {
+		hotel = hotelRepository.save(Hotel.builder()
+				.name("Hôtel affluence")
+				.address("Boulevard du Centenaire")
+				.city("Dakar")
+				.latitude(14.70)
+				.longitude(-17.44)
+				.category(HotelCategory.STANDARD)
+				.totalRooms(BOOKING_ROOMS)
+				.build());
+		user = userRepository.save(User.builder()
+				.email(UUID.randomUUID() + "@test.sn")
+				.passwordHash("x")
+				.role(UserRole.VISITOR)
+				.build());
+		LocalDate checkIn = LocalDate.now().plusDays(45);
+		LocalDate checkOut = checkIn.plusDays(2);
+
+		ExecutorService executor = Executors.newFixedThreadPool(BOOKING_THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Long>> requests = new ArrayList<>();
+		long[] latencies = new long[BOOKING_REQUESTS];
+		try {
+			for (int i = 0; i < BOOKING_REQUESTS; i++) {
+				int request = i;
+				requests.add(executor.submit(() -> {
+					start.await();
+					long startedAt = System.nanoTime();
+					try {
+						return bookingService.createBooking(bookingRequest(checkIn, checkOut)).getId();
+					} catch (RuntimeException e) {
+						return null;
+					} finally {
+						latencies[request] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+					}
+				}));
+			}
+			start.countDown();
+
+			int succeeded = 0;
+			for (Future<Long> booking : requests) {
+				if (booking.get(60, TimeUnit.SECONDS) != null) {
+					succeeded++;
+				}
+			}
+			assertEquals(BOOKING_ROOMS, succeeded);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Integer stored = jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM bookings WHERE hotel_id = ?", Integer.class, hotel.getId());
+		assertEquals(BOOKING_ROOMS, stored);
+		assertEquals(0, roomInventoryService.getRemainingRooms(hotel, checkIn, checkOut));
+		Integer maxBooked = jdbcTemplate.queryForObject(
+				"SELECT MAX(booked_rooms) FROM room_inventory WHERE hotel_id = ?", Integer.class, hotel.getId());
+		assertTrue(maxBooked <= BOOKING_ROOMS);
+
+		Arrays.sort(latencies);
+		long p99 = latencies[(int) Math.ceil(BOOKING_REQUESTS * 0.99) - 1];
+		assertTrue(p99 <= P99_BOUND_MILLIS, "p99 = " + p99 + " ms");
+	}
+
+	private BookingCreateDTO bookingRequest(LocalDate checkIn, LocalDate checkOut) {
+		return BookingCreateDTO.builder()
+				.hotelId(hotel.getId())
+				.userId(user.getId())
+				.guestFirstName("Ibrahima")
+				.guestLastName("Fall")
+				.guestEmail("ibrahima.fall@test.sn")
+				.guestPhone("+221770000002")
+				.checkInDate(checkIn)
+				.checkOutDate(checkOut)
+				.numberOfAdults(1)
+				.numberOfRooms(1)
+				.pricePerNight(new BigDecimal("35000"))
+				.build();
+	}
+}
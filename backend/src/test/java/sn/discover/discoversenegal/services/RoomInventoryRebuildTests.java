@@ -0,0 +1,81 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import sn.discover.discoversenegal.dto.RoomHoldCreateDTO;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelCategory;
+import sn.discover.discoversenegal.entities.HotelRepository;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class RoomInventoryRebuildTests {
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private RoomHoldService roomHoldService;
+
+	@Autowired
+	private RoomInventoryService roomInventoryService;
+
+	@Test
+	void rebuildKeepsRoomsOfLiveHolds() {
+		Hotel hotel = hotelRepository.save(Hotel.builder()
+				.name("Hôtel reconstruction")
+				.address("Route de la Corniche")
+				.city("Dakar")
+				.latitude(14.69)
+				.longitude(-17.45)
+				.category(HotelCategory.STANDARD)
+				.totalRooms(5)
+				.build());
+		LocalDate checkIn = LocalDate.now().plusDays(10);
+		LocalDate checkOut = checkIn.plusDays(3);
+
+		roomHoldService.createHold(RoomHoldCreateDTO.builder()
+				.hotelId(hotel.getId())
+				.checkInDate(checkIn)
+				.checkOutDate(checkOut)
+				.numberOfRooms(2)
+				.build());
+		assertEquals(3, roomInventoryService.getRemainingRooms(hotel, checkIn, checkOut));
+
+		roomInventoryService.rebuild(hotel);
+
+		assertEquals(3, roomInventoryService.getRemainingRooms(hotel, checkIn, checkOut));
+	}
+
+	@Test
+	void rebuildCreatesNightsCoveredOnlyByHolds() {
+		Hotel hotel = hotelRepository.save(Hotel.builder()
+				.name("Hôtel sans réservation")
+				.address("Avenue Lamine Guèye")
+				.city("Saint-Louis")
+				.latitude(16.02)
+				.longitude(-16.49)
+				.category(HotelCategory.COMFORT)
+				.totalRooms(4)
+				.build());
+		LocalDate checkIn = LocalDate.now().plusDays(20);
+		LocalDate checkOut = checkIn.plusDays(2);
+
+		roomHoldService.createHold(RoomHoldCreateDTO.builder()
+				.hotelId(hotel.getId())
+				.checkInDate(checkIn)
+				.checkOutDate(checkOut)
+				.numberOfRooms(4)
+				.build());
+		int nights = roomInventoryService.rebuild(hotel);
+
+		assertEquals(2, nights);
+		assertEquals(0, roomInventoryService.getRemainingRooms(hotel, checkIn, checkOut));
+	}
+}
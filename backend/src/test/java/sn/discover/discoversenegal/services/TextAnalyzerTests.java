@@ -0,0 +1,74 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextAnalyzerTests {
+
+	@Test
+	void foldRemovesAccentsAndLigatures() {
+		assertEquals("goree", TextAnalyzer.fold("Gorée"));
+		assertEquals("thies", TextAnalyzer.fold("THIÈS"));
+		assertEquals("francais", TextAnalyzer.fold("français"));
+		assertEquals("nino", TextAnalyzer.fold("Niño"));
+		assertEquals("oeuvre d'art", TextAnalyzer.fold("Œuvre d'art"));
+	}
+
+	@Test
+	void termsSplitOnApostrophesAndHyphensAndDropStopWords() {
+		assertEquals(List.of("ile", "goree"), TextAnalyzer.terms("L'île de Gorée"));
+		assertEquals(List.of("saint", "loui", "jazz", "festival"), TextAnalyzer.terms("Saint-Louis Jazz Festival"));
+		assertTrue(TextAnalyzer.terms("  ").isEmpty());
+		assertTrue(TextAnalyzer.terms(null).isEmpty());
+	}
+
+	@Test
+	void regularPluralsAreFoldedToTheSingular() {
+		assertEquals("baobab", TextAnalyzer.term("baobabs"));
+		assertEquals("chateau", TextAnalyzer.term("Châteaux"));
+		assertEquals(TextAnalyzer.term("îles"), TextAnalyzer.term("île"));
+		// Mots courts et doubles s conservés
+		assertEquals("bus", TextAnalyzer.term("bus"));
+		assertEquals("express", TextAnalyzer.term("express"));
+	}
+
+	@Test
+	void stopWordsHaveNoTerm() {
+		assertNull(TextAnalyzer.term("de"));
+		assertNull(TextAnalyzer.term("Les"));
+		assertNull(TextAnalyzer.term("the"));
+	}
+
+	@Test
+	void snippetHighlightsMatchesAndEscapesHtml() {
+		String snippet = TextAnalyzer.snippet("Visite <guidée> de l'île de Gorée & de sa Maison des Esclaves",
+				Set.of("goree"), "escl", 200);
+
+		assertEquals("Visite &lt;guidée&gt; de l'île de <mark>Gorée</mark> &amp; de sa Maison des <mark>Esclaves</mark>",
+				snippet);
+	}
+
+	@Test
+	void snippetIsCenteredOnTheFirstMatch() {
+		String text = "Début du texte. ".repeat(20) + "Le lac Rose est célèbre. " + "Fin du texte. ".repeat(20);
+
+		String snippet = TextAnalyzer.snippet(text, Set.of("rose"), null, 80);
+
+		assertTrue(snippet.startsWith("… "), snippet);
+		assertTrue(snippet.endsWith(" …"), snippet);
+		assertTrue(snippet.contains("<mark>Rose</mark>"), snippet);
+		assertTrue(snippet.length() <= 80 + "<mark></mark>".length() + 4, snippet);
+	}
+
+	@Test
+	void snippetWithoutMatchIsNull() {
+		assertNull(TextAnalyzer.snippet("Parc national du Niokolo-Koba", Set.of("plage"), null, 100));
+		assertNull(TextAnalyzer.snippet(null, Set.of("plage"), null, 100));
+	}
+}
@@ -0,0 +1,117 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextIndexTests {
+
+	@Test
+	void accentsAndPluralsMatch() {
+		TextIndex index = new TextIndex();
+		index.put(1, fields("Île de Gorée", "Maison des Esclaves"));
+
+		assertEquals(List.of(1L), ids(index.search(TextAnalyzer.terms("ile goree"), null, 0, 10)));
+		assertEquals(List.of(1L), ids(index.search(TextAnalyzer.terms("esclave"), null, 0, 10)));
+	}
+
+	@Test
+	void nameMatchesRankAboveDescriptionMatches() {
+		TextIndex index = new TextIndex();
+		index.put(1, fields("Musée Théodore Monod", "Arts africains, non loin du lac Rose"));
+		index.put(2, fields("Lac Rose", "Lac salé aux eaux roses"));
+
+		assertEquals(List.of(2L, 1L), ids(index.search(TextAnalyzer.terms("lac rose"), null, 0, 10)));
+	}
+
+	@Test
+	void documentsMatchingMoreTermsComeFirst() {
+		TextIndex index = new TextIndex();
+		index.put(1, fields("Plage de Saly", "Plage plage plage"));
+		index.put(2, fields("Saly Portudal", "Plage et golf"));
+
+		assertEquals(List.of(2L, 1L), ids(index.search(TextAnalyzer.terms("plage golf"), null, 0, 10)));
+	}
+
+	@Test
+	void lastWordCanBeAPrefix() {
+		TextIndex index = new TextIndex();
+		index.put(1, fields("Île de Gorée", ""));
+		index.put(2, fields("Parc de Hann", ""));
+
+		assertEquals(List.of(1L), ids(index.search(List.of(), "gor", 0, 10)));
+		assertTrue(index.search(List.of(), "xyz", 0, 10).hits().isEmpty());
+	}
+
+	@Test
+	void putReplacesAndRemoveForgets() {
+		TextIndex index = new TextIndex();
+		index.put(1, fields("Réserve de Bandia", ""));
+		index.put(1, fields("Réserve de Fathala", ""));
+
+		assertTrue(index.search(TextAnalyzer.terms("bandia"), null, 0, 10).hits().isEmpty());
+		assertEquals(List.of(1L), ids(index.search(TextAnalyzer.terms("fathala"), null, 0, 10)));
+		assertEquals(1, index.size());
+
+		index.remove(1);
+		assertEquals(0, index.size());
+		assertTrue(index.search(TextAnalyzer.terms("fathala"), null, 0, 10).hits().isEmpty());
+	}
+
+	@Test
+	void resultsArePaginatedWithTheTotal() {
+		TextIndex index = new TextIndex();
+		for (long id = 1; id <= 25; id++) {
+			// Noms de plus en plus longs : le premier est le mieux classé (BM25 pénalise la longueur)
+			index.put(id, fields("Marché " + "artisanal ".repeat((int) id), ""));
+		}
+
+		TextIndex.Result first = index.search(TextAnalyzer.terms("marche"), null, 0, 10);
+		TextIndex.Result third = index.search(TextAnalyzer.terms("marche"), null, 20, 10);
+
+		assertEquals(25, first.total());
+		assertEquals(10, first.hits().size());
+		assertEquals(1L, first.hits().get(0).id());
+		assertEquals(List.of(21L, 22L, 23L, 24L, 25L), ids(third));
+	}
+
+	@Test
+	void slotsAreReusedAfterRemoval() {
+		TextIndex index = new TextIndex();
+		for (long id = 0; id < 3_000; id++) {
+			index.put(id, fields("Site " + id, "Description du site"));
+		}
+		for (long id = 0; id < 3_000; id += 2) {
+			index.remove(id);
+		}
+		for (long id = 3_000; id < 4_500; id++) {
+			index.put(id, fields("Site " + id, "Description du site"));
+		}
+
+		assertEquals(3_000, index.size());
+		assertEquals(3_000, index.search(TextAnalyzer.terms("site"), null, 0, 10).total());
+		assertEquals(List.of(4_499L), ids(index.search(TextAnalyzer.terms("4499"), null, 0, 10)));
+	}
+
+	@Test
+	void clearEmptiesTheIndex() {
+		TextIndex index = new TextIndex();
+		index.put(1, fields("Lompoul", "Désert"));
+
+		index.clear();
+
+		assertEquals(0, index.size());
+		assertTrue(index.search(TextAnalyzer.terms("lompoul"), null, 0, 10).hits().isEmpty());
+	}
+
+	private static List<TextIndex.Field> fields(String name, String description) {
+		return List.of(new TextIndex.Field(name, 3f), new TextIndex.Field(description, 1f));
+	}
+
+	private static List<Long> ids(TextIndex.Result result) {
+		return result.hits().stream().map(TextIndex.Hit::id).toList();
+	}
+}
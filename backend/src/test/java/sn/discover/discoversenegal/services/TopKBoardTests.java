@@ -0,0 +1,121 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopKBoardTests {
+
+	@Test
+	void increasingScoresMatchBruteForce() {
+		TopKBoard board = new TopKBoard(20);
+		Map<Long, Double> scores = new HashMap<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 20_000; i++) {
+			long id = random.nextInt(500);
+			// Les scores de popularité ne font que croître entre deux rechargements
+			double score = scores.getOrDefault(id, 0.0) + random.nextDouble();
+			scores.put(id, score);
+			board.offer(id, score);
+
+			if (i % 500 == 0) {
+				assertEquals(bruteForceTop(scores, 20), board.top(20));
+			}
+		}
+		assertEquals(bruteForceTop(scores, 20), board.top(20));
+	}
+
+	@Test
+	void offerBelowTheLastEntryOfAFullBoardIsIgnored() {
+		TopKBoard board = new TopKBoard(2);
+		board.offer(1, 10);
+		board.offer(2, 5);
+
+		board.offer(3, 5);
+
+		assertTrue(board.isFull());
+		assertFalse(board.contains(3));
+		assertEquals(List.of(1L, 2L), board.top(10));
+	}
+
+	@Test
+	void offerRepositionsAnExistingEntry() {
+		TopKBoard board = new TopKBoard(3);
+		board.offer(1, 10);
+		board.offer(2, 8);
+		board.offer(3, 6);
+
+		board.offer(3, 12);
+		assertEquals(List.of(3L, 1L, 2L), board.top(3));
+
+		board.offer(3, 1);
+		assertEquals(List.of(1L, 2L, 3L), board.top(3));
+	}
+
+	@Test
+	void removeFreesAPlace() {
+		TopKBoard board = new TopKBoard(2);
+		board.offer(1, 10);
+		board.offer(2, 5);
+
+		assertTrue(board.remove(1));
+		assertFalse(board.remove(1));
+		board.offer(3, 1);
+
+		assertEquals(List.of(2L, 3L), board.top(2));
+	}
+
+	@Test
+	void resetKeepsAtMostCapacityEntries() {
+		TopKBoard board = new TopKBoard(2);
+		board.offer(9, 100);
+
+		board.reset(List.of(new TopKBoard.Entry(1, 3), new TopKBoard.Entry(2, 2), new TopKBoard.Entry(3, 1)));
+
+		assertEquals(List.of(1L, 2L), board.top(5));
+		assertFalse(board.contains(9));
+	}
+
+	@Test
+	void rescaleKeepsTheOrderAndScalesTheThreshold() {
+		TopKBoard board = new TopKBoard(2);
+		board.offer(1, 10);
+		board.offer(2, 8);
+
+		board.rescale(0.5);
+		board.offer(3, 4.5);
+
+		assertEquals(List.of(1L, 3L), board.top(2));
+	}
+
+	@Test
+	void topIsLimitedAndStableForReaders() {
+		TopKBoard board = new TopKBoard(5);
+		for (long id = 1; id <= 5; id++) {
+			board.offer(id, id);
+		}
+		List<Long> snapshot = board.top(3);
+
+		board.offer(6, 100);
+
+		assertEquals(List.of(5L, 4L, 3L), snapshot);
+		assertEquals(List.of(6L, 5L, 4L), board.top(3));
+	}
+
+	private static List<Long> bruteForceTop(Map<Long, Double> scores, int k) {
+		return scores.entrySet().stream()
+				.sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()))
+				.limit(k)
+				.map(Map.Entry::getKey)
+				.toList();
+	}
+}
@@ -0,0 +1,112 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTests {
+
+	private static final double MIN_COVERAGE = 0.6;
+
+	@Test
+	void trigramsArePaddedLikePgTrgm() {
+		assertEquals(Set.of("  z", " zi", "zig", "ig "), TrigramIndex.trigrams(List.of("zig")));
+		assertTrue(TrigramIndex.trigrams(List.of()).isEmpty());
+	}
+
+	@Test
+	void typosStillMatch() {
+		TrigramIndex index = catalog();
+
+		assertEquals(1L, first(index, "Ziguinchore"));
+		assertEquals(2L, first(index, "Teranga Hotell"));
+		assertEquals(3L, first(index, "Lamantin"));
+	}
+
+	@Test
+	void closestNameComesFirst() {
+		TrigramIndex index = catalog();
+
+		List<TrigramIndex.Hit> hits = index.search(TextAnalyzer.terms("Saly"), MIN_COVERAGE, 10);
+
+		// « Saly » seul est plus proche de « Résidence Saly » que de « Lamantin Beach Saly » (Jaccard)
+		assertEquals(List.of(4L, 3L), hits.stream().map(TrigramIndex.Hit::id).toList());
+		assertTrue(hits.get(0).score() > hits.get(1).score());
+	}
+
+	@Test
+	void unrelatedNamesAreFilteredByCoverage() {
+		TrigramIndex index = catalog();
+
+		assertTrue(index.search(TextAnalyzer.terms("Kédougou"), MIN_COVERAGE, 10).isEmpty());
+	}
+
+	@Test
+	void limitKeepsTheBestHits() {
+		TrigramIndex index = new TrigramIndex();
+		for (long id = 1; id <= 30; id++) {
+			index.put(id, TextAnalyzer.terms("Auberge " + "x".repeat((int) id)));
+		}
+
+		List<TrigramIndex.Hit> hits = index.search(TextAnalyzer.terms("Auberge"), MIN_COVERAGE, 5);
+
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L), hits.stream().map(TrigramIndex.Hit::id).toList());
+	}
+
+	@Test
+	void putReplacesAndRemoveForgets() {
+		TrigramIndex index = catalog();
+
+		index.put(1, TextAnalyzer.terms("Hôtel Kadiandoumagne"));
+		assertTrue(index.search(TextAnalyzer.terms("Ziguinchor"), MIN_COVERAGE, 10).isEmpty());
+		assertEquals(1L, first(index, "Kadiandoumagne"));
+
+		index.remove(1);
+		assertTrue(index.search(TextAnalyzer.terms("Kadiandoumagne"), MIN_COVERAGE, 10).isEmpty());
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	void slotsAreReusedAfterRemoval() {
+		TrigramIndex index = new TrigramIndex();
+		for (long id = 0; id < 1_000; id++) {
+			index.put(id, TextAnalyzer.terms("Campement " + id));
+		}
+		for (long id = 0; id < 1_000; id += 2) {
+			index.remove(id);
+		}
+		for (long id = 1_000; id < 1_500; id++) {
+			index.put(id, TextAnalyzer.terms("Campement " + id));
+		}
+
+		assertEquals(1_000, index.size());
+		assertEquals(1_499L, first(index, "Campement 1499"));
+	}
+
+	@Test
+	void clearEmptiesTheIndex() {
+		TrigramIndex index = catalog();
+
+		index.clear();
+
+		assertEquals(0, index.size());
+		assertTrue(index.search(TextAnalyzer.terms("Saly"), MIN_COVERAGE, 10).isEmpty());
+	}
+
+	private static TrigramIndex catalog() {
+		TrigramIndex index = new TrigramIndex();
+		index.put(1, TextAnalyzer.terms("Hôtel de Ziguinchor"));
+		index.put(2, TextAnalyzer.terms("Téranga Hôtel"));
+		index.put(3, TextAnalyzer.terms("Lamantin Beach Saly"));
+		index.put(4, TextAnalyzer.terms("Résidence Saly"));
+		return index;
+	}
+
+	private static long first(TrigramIndex index, String query) {
+		return index.search(TextAnalyzer.terms(query), MIN_COVERAGE, 10).get(0).id();
+	}
+}
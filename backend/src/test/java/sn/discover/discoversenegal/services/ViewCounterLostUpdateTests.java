@@ -0,0 +1,98 @@
+package sn.discover.discoversenegal.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelCategory;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.SiteCategory;
+import sn.discover.discoversenegal.entities.TouristSite;
+import sn.discover.discoversenegal.repositories.TouristSiteRepository;
+import sn.discover.discoversenegal.repositories.ViewCounterRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Une entité chargée avant un report de vues puis enregistrée en entier
+ * ne doit pas réécrire l'ancien compteur.
+ * Le report passe directement par ViewCounterRepository : le flush planifié de
+ * ViewCounterService tourne dans sa propre transaction, qui ne voit pas les lignes du test.
+ */
+@SpringBootTest
+@Transactional
+class ViewCounterLostUpdateTests {
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private TouristSiteRepository siteRepository;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private ViewCounterRepository viewCounterRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	void hotelSaveKeepsFlushedViews() {
+		Hotel hotel = hotelRepository.save(Hotel.builder()
+				.name("Hôtel compteur")
+				.address("Avenue Lamine Guèye")
+				.city("Dakar")
+				.latitude(14.67)
+				.longitude(-17.43)
+				.category(HotelCategory.STANDARD)
+				.totalRooms(5)
+				.build());
+		entityManager.flush();
+
+		// Le report arrive alors que l'entité gérée porte encore viewCount = 0
+		viewCounterRepository.addViews(ViewCounterRepository.Table.HOTEL, List.of(Map.entry(hotel.getId(), 7L)));
+		hotelService.incrementBookingCount(hotel.getId());
+		entityManager.flush();
+
+		assertEquals(7, count("SELECT view_count FROM hotels WHERE id = ?", hotel.getId()));
+		assertEquals(1, count("SELECT booking_count FROM hotels WHERE id = ?", hotel.getId()));
+	}
+
+	@Test
+	void siteSaveKeepsFlushedViews() {
+		TouristSite site = siteRepository.save(TouristSite.builder()
+				.name("Île de Gorée")
+				.description("Maison des Esclaves")
+				.category(SiteCategory.PATRIMOINE_UNESCO)
+				.address("Gorée")
+				.city("Dakar")
+				.region("Dakar")
+				.latitude(14.667)
+				.longitude(-17.398)
+				.build());
+		entityManager.flush();
+
+		viewCounterRepository.addViews(ViewCounterRepository.Table.SITE, List.of(Map.entry(site.getId(), 3L)));
+		site.setShortDescription("Mémorial de la traite");
+		siteRepository.save(site);
+		entityManager.flush();
+
+		assertEquals(3, count("SELECT total_views FROM tourist_sites WHERE id = ?", site.getId()));
+	}
+
+	private int count(String sql, Long id) {
+		return jdbcTemplate.queryForObject(sql, Integer.class, id);
+	}
+}
@@ -0,0 +1,100 @@
+package sn.discover.discoversenegal.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import sn.discover.discoversenegal.entities.Hotel;
+import sn.discover.discoversenegal.entities.HotelCategory;
+import sn.discover.discoversenegal.entities.HotelRepository;
+import sn.discover.discoversenegal.entities.WaitlistEntry;
+import sn.discover.discoversenegal.entities.WaitlistStatus;
+import sn.discover.discoversenegal.repositories.WaitlistEntryRepository;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Une libération d'inventaire propose les chambres à la demande en attente prioritaire.
+ * Pas de @Transactional : l'offre est faite après le commit de la libération.
+ */
+@SpringBootTest
+class WaitlistOfferTests {
+
+	private static final int TOTAL_ROOMS = 2;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private WaitlistEntryRepository waitlistRepository;
+
+	@Autowired
+	private RoomInventoryService roomInventoryService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Hotel hotel;
+
+	@AfterEach
+	void cleanUp() {
+		if (hotel != null) {
+			jdbcTemplate.update("DELETE FROM waitlist_entries WHERE hotel_id = ?", hotel.getId());
+			jdbcTemplate.update("DELETE FROM room_holds WHERE hotel_id = ?", hotel.getId());
+			jdbcTemplate.update("DELETE FROM room_inventory WHERE hotel_id = ?", hotel.getId());
+			hotelRepository.deleteById(hotel.getId());
+		}
+	}
+
+	@Test
+	void releasedRoomIsOfferedToThePriorityEntry() {
+		hotel = hotelRepository.save(Hotel.builder()
+				.name("Hôtel liste d'attente")
+				.address("Corniche Ouest")
+				.city("Dakar")
+				.latitude(14.69)
+				.longitude(-17.47)
+				.category(HotelCategory.STANDARD)
+				.totalRooms(TOTAL_ROOMS)
+				.build());
+		LocalDate checkIn = LocalDate.now().plusDays(40);
+		LocalDate checkOut = checkIn.plusDays(2);
+		roomInventoryService.reserve(hotel, checkIn, checkOut, TOTAL_ROOMS);
+
+		// Inscrite en premier, mais sans priorité JOJ
+		WaitlistEntry regular = waitlistRepository.save(entry("Awa Diop", checkIn, checkOut, false));
+		WaitlistEntry olympic = waitlistRepository.save(entry("Moussa Sarr", checkIn, checkOut, true));
+
+		roomInventoryService.release(hotel.getId(), checkIn, checkOut, 1);
+
+		WaitlistEntry offered = waitlistRepository.findById(olympic.getId()).orElseThrow();
+		assertEquals(WaitlistStatus.OFFERED, offered.getStatus());
+		assertNotNull(offered.getHoldToken());
+		assertNotNull(offered.getOfferExpiresAt());
+
+		WaitlistEntry waiting = waitlistRepository.findById(regular.getId()).orElseThrow();
+		assertEquals(WaitlistStatus.WAITING, waiting.getStatus());
+		assertNull(waiting.getHoldToken());
+
+		// La chambre libérée est bloquée pour l'offre : elle n'est plus disponible
+		assertEquals(0, roomInventoryService.getRemainingRooms(hotel, checkIn, checkOut));
+	}
+
+	private WaitlistEntry entry(String guestName, LocalDate checkIn, LocalDate checkOut, boolean olympic) {
+		return WaitlistEntry.builder()
+				.hotel(hotel)
+				.guestName(guestName)
+				.guestEmail(guestName.toLowerCase().replace(' ', '.') + "@example.sn")
+				.checkInDate(checkIn)
+				.checkOutDate(checkOut)
+				.numberOfRooms(1)
+				.isOlympicBooking(olympic)
+				.priority(olympic ? 1 : 0)
+				.build();
+	}
+}